@@ -40,8 +40,12 @@ import ml.karmaconfigs.api.common.placeholder.util.Placeholder;
 import ml.karmaconfigs.api.common.placeholder.util.PlaceholderEngine;
 import ml.karmaconfigs.api.common.security.token.TokenGenerator;
 import ml.karmaconfigs.api.common.string.StringUtils;
+import ml.karmaconfigs.api.common.timer.worker.SyncScheduler;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.server.PluginDisableEvent;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -109,8 +113,14 @@ public abstract class KarmaPlugin extends JavaPlugin implements KarmaSource, Ide
      */
     @Override
     public final void onEnable() {
-        /*async = new BukkitAsyncScheduler<>(this);
-        sync = new BukkitSyncScheduler<>(this);*/
+        SyncScheduler.attach(this, (tick) -> Bukkit.getScheduler().runTaskTimer(this, tick, 1, 1));
+        Bukkit.getPluginManager().registerEvents(new Listener() {
+            @EventHandler
+            public void onDisable(final PluginDisableEvent e) {
+                if (e.getPlugin().equals(KarmaPlugin.this))
+                    SyncScheduler.detach(KarmaPlugin.this);
+            }
+        }, this);
 
         enable();
     }
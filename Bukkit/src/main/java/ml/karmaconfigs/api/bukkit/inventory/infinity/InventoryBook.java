@@ -3,7 +3,6 @@ package ml.karmaconfigs.api.bukkit.inventory.infinity;
 import ml.karmaconfigs.api.bukkit.inventory.infinity.exceptions.EmptyBookException;
 import ml.karmaconfigs.api.bukkit.inventory.infinity.exceptions.NoIndexPageException;
 import org.bukkit.entity.Player;
-import org.bukkit.event.HandlerList;
 import org.bukkit.inventory.meta.SkullMeta;
 import org.jetbrains.annotations.Nullable;
 
@@ -194,7 +193,7 @@ public final class InventoryBook {
         Map<Integer, InventoryPage> map = pages.getOrDefault(this, new ConcurrentHashMap<>());
         if (map.containsKey(page)) {
             InventoryPage p = map.remove(page);
-            HandlerList.unregisterAll(p);
+            InventoryDispatcher.release(p);
             p.closeAll();
 
             return p;
@@ -0,0 +1,118 @@
+package ml.karmaconfigs.api.bukkit.inventory.infinity;
+
+import ml.karmaconfigs.api.bukkit.KarmaPlugin;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.inventory.*;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inventory events listener shared by all the inventory
+ * pages. The pages being viewed are stored by their holder,
+ * so each event is routed to its page with a single lookup
+ */
+final class InventoryDispatcher implements Listener {
+
+    private final static InventoryDispatcher dispatcher = new InventoryDispatcher();
+    private final static Map<InventoryHolder, InventoryPage> viewed = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private static KarmaPlugin owner = null;
+
+    /**
+     * Initialize the inventory dispatcher
+     */
+    private InventoryDispatcher() {}
+
+    /**
+     * Register the dispatcher once. It's registered for KarmaAPI
+     * when it's loaded as a plugin, and for the plugin otherwise.
+     * It's only registered again once the plugin it was registered
+     * for is disabled, which unregisters its listeners
+     *
+     * @param plugin the plugin to register the dispatcher for, used
+     *               if KarmaAPI is not loaded as a plugin
+     */
+    static synchronized void register(final KarmaPlugin plugin) {
+        if (owner != null && owner.isEnabled())
+            return;
+
+        KarmaPlugin abc = KarmaPlugin.getABC();
+        owner = (abc != null && abc.isEnabled() ? abc : plugin);
+        Bukkit.getPluginManager().registerEvents(dispatcher, owner);
+    }
+
+    /**
+     * Stop dispatching events to a page
+     *
+     * @param page the page
+     */
+    static void release(final InventoryPage page) {
+        viewed.remove(page);
+    }
+
+    /**
+     * Get the page being viewed in an inventory
+     *
+     * @param inventory the inventory
+     * @return the inventory page
+     */
+    private static InventoryPage page(final Inventory inventory) {
+        if (inventory == null || viewed.isEmpty())
+            return null;
+
+        return viewed.get(inventory.getHolder());
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onClick(final InventoryClickEvent e) {
+        InventoryPage page = page(e.getClickedInventory());
+        if (page != null)
+            page.click(e);
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
+    public void onMove(final InventoryMoveItemEvent e) {
+        if (page(e.getDestination()) != null || page(e.getInitiator()) != null)
+            e.setCancelled(true);
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
+    public void onDrag(final InventoryDragEvent e) {
+        if (page(e.getInventory()) != null)
+            e.setCancelled(true);
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onOpen(final InventoryOpenEvent e) {
+        InventoryHolder holder = e.getInventory().getHolder();
+        if (holder instanceof InventoryPage) {
+            InventoryPage page = (InventoryPage) holder;
+            if (!e.isCancelled())
+                viewed.put(page, page);
+
+            page.open(e);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onClose(final InventoryCloseEvent e) {
+        InventoryPage page = page(e.getInventory());
+        if (page != null) {
+            page.close(e);
+
+            //The closing player is still a viewer while the event runs
+            List<HumanEntity> viewers = e.getInventory().getViewers();
+            if (viewers.isEmpty() || (viewers.size() == 1 && viewers.contains(e.getPlayer())))
+                viewed.remove(page);
+        }
+    }
+}
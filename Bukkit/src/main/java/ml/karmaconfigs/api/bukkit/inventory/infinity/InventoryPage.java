@@ -10,8 +10,6 @@ import ml.karmaconfigs.api.common.string.StringUtils;
 import org.bukkit.Material;
 import org.bukkit.entity.HumanEntity;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventPriority;
-import org.bukkit.event.HandlerList;
 import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.*;
 import org.bukkit.inventory.*;
@@ -89,72 +87,63 @@ public final class InventoryPage implements FunctionalInventory, InventoryHolder
 
         setItem(45, PREV).onClick(Action.previousPage(0));
 
-        registrar.getServer().getPluginManager().registerEvent(InventoryClickEvent.class, this, EventPriority.HIGHEST, (listener, event) -> {
-            assert event instanceof InventoryClickEvent;
-            InventoryClickEvent click = (InventoryClickEvent) event;
+        InventoryDispatcher.register(registrar);
+    }
 
-            if (click.getClickedInventory() != null) {
-                if (click.getClickedInventory().getHolder() == this) {
-                    click.setCancelled(true);
+    /**
+     * Handle a click on this page
+     *
+     * @param click the click event
+     */
+    void click(final InventoryClickEvent click) {
+        click.setCancelled(true);
 
-                    ItemFunction function = functions.getOrDefault(click.getSlot(), null);
-                    if (function != null) {
-                        function.triggerClick(click);
-                    }
-                }
+        ItemFunction function = functions.getOrDefault(click.getSlot(), null);
+        if (function != null) {
+            function.triggerClick(click);
+        }
+    }
+
+    /**
+     * Handle this page being opened
+     *
+     * @param open the open event
+     */
+    void open(final InventoryOpenEvent open) {
+        HumanEntity human = open.getPlayer();
+
+        if (human instanceof Player) {
+            Player player = (Player) human;
+
+            for (Action action : open_actions) {
+                action.accept(book, open, player);
             }
-        }, registrar, false);
-        registrar.getServer().getPluginManager().registerEvent(InventoryMoveItemEvent.class, this, EventPriority.HIGHEST, (listener, event) -> {
-            assert event instanceof InventoryMoveItemEvent;
-            InventoryMoveItemEvent e = (InventoryMoveItemEvent) event;
-
-            e.setCancelled(e.getDestination().getHolder() == this || e.getInitiator().getHolder() == this);
-        }, registrar, true);
-        registrar.getServer().getPluginManager().registerEvent(InventoryDragEvent.class, this, EventPriority.HIGHEST, (listener, event) -> {
-            assert event instanceof InventoryDragEvent;
-            InventoryDragEvent e = (InventoryDragEvent) event;
-
-            e.setCancelled(e.getInventory().getHolder() == this);
-        }, registrar, true);
-        registrar.getServer().getPluginManager().registerEvent(InventoryOpenEvent.class, this, EventPriority.HIGHEST, (listener, event) -> {
-            assert event instanceof InventoryOpenEvent;
-            InventoryOpenEvent open = (InventoryOpenEvent) event;
-            if (open.getInventory().getHolder() == this) {
-                HumanEntity human = open.getPlayer();
-
-                if (human instanceof Player) {
-                    Player player = (Player) human;
-
-                    for (Action action : open_actions) {
-                        action.accept(book, open, player);
-                    }
+        }
+    }
+
+    /**
+     * Handle this page being closed
+     *
+     * @param close the close event
+     */
+    void close(final InventoryCloseEvent close) {
+        HumanEntity human = close.getPlayer();
+
+        if (human instanceof Player) {
+            Player player = (Player) human;
+            if (canClose || book.canClose(player)) {
+                for (Action action : close_actions) {
+                    action.accept(book, close, player);
                 }
-            }
-        }, registrar, false);
-        registrar.getServer().getPluginManager().registerEvent(InventoryCloseEvent.class, this, EventPriority.HIGHEST, (listener, event) -> {
-            assert event instanceof InventoryCloseEvent;
-            InventoryCloseEvent close = (InventoryCloseEvent) event;
-
-            if (close.getInventory().getHolder() == this) {
-                HumanEntity human = close.getPlayer();
-
-                if (human instanceof Player) {
-                    Player player = (Player) human;
-                    if (canClose || book.canClose(player)) {
-                        for (Action action : close_actions) {
-                            action.accept(book, close, player);
-                        }
-                    } else {
-                        KarmaPlugin.getABC().getServer().getScheduler().runTaskLater(KarmaPlugin.getABC(), () -> {
-                            try {
-                                book.open(player, page);
-                            } catch (Throwable ignored) {
-                            }
-                        }, 10);
+            } else {
+                KarmaPlugin.getABC().getServer().getScheduler().runTaskLater(KarmaPlugin.getABC(), () -> {
+                    try {
+                        book.open(player, page);
+                    } catch (Throwable ignored) {
                     }
-                }
+                }, 10);
             }
-        }, registrar, false);
+        }
     }
 
     /**
@@ -252,7 +241,7 @@ public final class InventoryPage implements FunctionalInventory, InventoryHolder
      * @throws ConcurrentModificationException if the book already removed this page
      */
     public void destroy() throws ConcurrentModificationException {
-        HandlerList.unregisterAll(this);
+        InventoryDispatcher.release(this);
         try {
             book.removePage(page);
             List<HumanEntity> viewers = new ArrayList<>(inventory.getViewers());
@@ -0,0 +1,276 @@
+package ml.karmaconfigs.api.bukkit.reflection;
+
+/*
+ * This file is part of KarmaAPI, licensed under the MIT License.
+ *
+ *  Copyright (c) karma (KarmaDev) <karmaconfigs@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+import ml.karmaconfigs.api.bukkit.KarmaPlugin;
+import ml.karmaconfigs.api.common.karma.source.KarmaSource;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.*;
+
+/**
+ * Owns every displayed boss message and advances all of
+ * them from a single main thread task. Scheduled messages
+ * wait in a queue until less than {@link #MAX_DISPLAYED}
+ * messages are being displayed. A message is queued and
+ * displayed once, scheduling it again only adds viewers
+ */
+final class BossBarManager implements Runnable {
+
+    /**
+     * Maximum amount of boss messages displayed at once
+     */
+    private final static int MAX_DISPLAYED = 4;
+
+    private final static BossBarManager manager = new BossBarManager();
+
+    private final Queue<Scheduled> queue = new ArrayDeque<>();
+    private final List<BossMessage> active = new ArrayList<>();
+
+    private volatile int displayed = 0;
+    private volatile long cost = 0;
+    private volatile long average = 0;
+
+    private BukkitTask task = null;
+    private long tick = 0;
+
+    /**
+     * Initialize the boss bar manager
+     */
+    private BossBarManager() {
+    }
+
+    /**
+     * Queue a boss message to be displayed
+     *
+     * @param bar     the boss message
+     * @param owner   the boss message source
+     * @param players the players to display to
+     */
+    static void schedule(final BossMessage bar, final KarmaSource owner, final Collection<Player> players) {
+        synchronized (manager.queue) {
+            Scheduled scheduled = null;
+            for (Scheduled queued : manager.queue) {
+                if (queued.bar == bar) {
+                    scheduled = queued;
+                    break;
+                }
+            }
+
+            if (scheduled == null) {
+                scheduled = new Scheduled(bar);
+                manager.queue.offer(scheduled);
+            }
+            scheduled.players.addAll(players);
+        }
+
+        manager.start(owner);
+    }
+
+    /**
+     * Get the amount of displayed boss messages
+     *
+     * @return the displayed boss messages
+     */
+    static int active() {
+        return manager.displayed;
+    }
+
+    /**
+     * Get the amount of boss messages waiting
+     * to be displayed
+     *
+     * @return the queued boss messages
+     */
+    static int queued() {
+        synchronized (manager.queue) {
+            return manager.queue.size();
+        }
+    }
+
+    /**
+     * Get the time the last tick took
+     *
+     * @return the last tick time in nanoseconds
+     */
+    static long cost() {
+        return manager.cost;
+    }
+
+    /**
+     * Get the average time a tick takes
+     *
+     * @return the average tick time in nanoseconds
+     */
+    static long average() {
+        return manager.average;
+    }
+
+    /**
+     * Start the manager task if it's not running
+     *
+     * @param owner the boss message source, used if
+     *              KarmaAPI is not loaded as a plugin
+     */
+    private synchronized void start(final KarmaSource owner) {
+        if (task != null && Bukkit.getScheduler().isQueued(task.getTaskId()))
+            return;
+
+        Plugin plugin = KarmaPlugin.getABC();
+        if (plugin == null || !plugin.isEnabled()) {
+            if (!(owner instanceof Plugin))
+                return;
+
+            plugin = (Plugin) owner;
+        }
+
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this, 0, 1);
+    }
+
+    /**
+     * Stop the manager task if there's nothing
+     * left to display
+     */
+    private synchronized void stop() {
+        synchronized (queue) {
+            if (task != null && queue.isEmpty()) {
+                task.cancel();
+                task = null;
+            }
+        }
+    }
+
+    /**
+     * Advance the boss messages
+     */
+    @Override
+    public void run() {
+        long start = System.nanoTime();
+        tick++;
+
+        Iterator<BossMessage> iterator = active.iterator();
+        while (iterator.hasNext()) {
+            BossMessage bar = iterator.next();
+            if (!bar.tick(tick)) {
+                bar.hide();
+                iterator.remove();
+            }
+        }
+
+        Scheduled next;
+        while ((next = poll()) != null) {
+            boolean shown = isActive(next.bar);
+            if (next.bar.isCancelled()) {
+                if (!shown)
+                    next.bar.hide();
+                continue;
+            }
+
+            try {
+                next.bar.displayBar(next.players);
+            } catch (Throwable ex) {
+                next.bar.fail(ex);
+                if (!shown)
+                    next.bar.hide();
+                continue;
+            }
+
+            if (shown)
+                continue;
+            if (next.bar.tick(tick)) {
+                active.add(next.bar);
+            } else {
+                next.bar.hide();
+            }
+        }
+
+        displayed = active.size();
+
+        long took = System.nanoTime() - start;
+        cost = took;
+        average += (took - average) / 16;
+
+        if (active.isEmpty())
+            stop();
+    }
+
+    /**
+     * Take the next boss message which can be displayed now. Messages
+     * already displayed only add viewers, so they don't need a free slot
+     *
+     * @return the next boss message, or null if there's none
+     */
+    private Scheduled poll() {
+        synchronized (queue) {
+            Iterator<Scheduled> iterator = queue.iterator();
+            while (iterator.hasNext()) {
+                Scheduled next = iterator.next();
+                if (active.size() < MAX_DISPLAYED || isActive(next.bar)) {
+                    iterator.remove();
+                    return next;
+                }
+            }
+
+            return null;
+        }
+    }
+
+    /**
+     * Get if a boss message is being displayed
+     *
+     * @param bar the boss message
+     * @return if the boss message is displayed
+     */
+    private boolean isActive(final BossMessage bar) {
+        for (BossMessage displayed : active) {
+            if (displayed == bar)
+                return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * A boss message waiting to be displayed
+     */
+    private static final class Scheduled {
+
+        private final BossMessage bar;
+        private final Set<Player> players = new LinkedHashSet<>();
+
+        /**
+         * Initialize the scheduled boss message
+         *
+         * @param message the boss message
+         */
+        private Scheduled(final BossMessage message) {
+            bar = message;
+        }
+    }
+}
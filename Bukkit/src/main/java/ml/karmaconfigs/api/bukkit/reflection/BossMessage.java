@@ -27,13 +27,11 @@ package ml.karmaconfigs.api.bukkit.reflection;
 
 import ml.karmaconfigs.api.bukkit.server.BukkitServer;
 import ml.karmaconfigs.api.bukkit.server.Version;
+import ml.karmaconfigs.api.common.karma.KarmaConfig;
 import ml.karmaconfigs.api.common.karma.source.KarmaSource;
 import ml.karmaconfigs.api.common.minecraft.boss.*;
-import ml.karmaconfigs.api.common.timer.SchedulerUnit;
-import ml.karmaconfigs.api.common.timer.SourceScheduler;
-import ml.karmaconfigs.api.common.timer.TimeCondition;
-import ml.karmaconfigs.api.common.timer.scheduler.SimpleScheduler;
 import ml.karmaconfigs.api.common.string.StringUtils;
+import ml.karmaconfigs.api.common.utils.enums.Level;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.boss.BarColor;
@@ -42,11 +40,11 @@ import org.bukkit.boss.BossBar;
 import org.bukkit.entity.Player;
 import org.bukkit.util.Vector;
 
-import java.lang.reflect.Constructor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Method;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Karma boss bar message
@@ -68,90 +66,15 @@ public final class BossMessage extends BossProvider<Player> {
      */
     private final double live_time;
 
-    /**
-     * Boss bars amount
-     */
-    private static int bars = 0;
-
     /**
      * If the boss bar needs reflection
      */
-    private static boolean isLegacy = BukkitServer.isUnder(Version.v1_13);
-
-    /**
-     * If the boss bar set health/progress method
-     * is float instead of double
-     */
-    private static boolean toFloat = false;
-
-    /**
-     * Craft world
-     */
-    private static Class<?> craft_world;
-    /**
-     * Craft player
-     */
-    private static Class<?> craft_player;
-    /**
-     * Packet
-     */
-    private static Class<?> packet_class;
-    /**
-     * Connection packet
-     */
-    private static Class<?> packet_connection;
-    /**
-     * Destroy packet
-     */
-    private static Class<?> packet_play_out_destroy;
-
-    /**
-     * Create wither
-     */
-    private static Constructor<?> wither_constructor;
-    /**
-     * Create living entity
-     */
-    private static Constructor<?> entity_living_constructor;
-    /**
-     * Teleport entity
-     */
-    private static Constructor<?> packet_play_teleport_constructor;
-
-    /**
-     * Craft world handler
-     */
-    private static Method craft_world_handle;
-    /**
-     * Craft player handler
-     */
-    private static Method craft_player_handle;
-    /**
-     * Send packet
-     */
-    private static Method packet_connect_send;
-    /**
-     * Set wither location
-     */
-    private static Method wither_set_location_method;
-    /**
-     * Set boss bar progress
-     */
-    private static Method wither_set_progress_method;
-
-    /**
-     * List of boss bars
-     */
-    private static final List<BossMessage> b_bars = new ArrayList<>();
+    private static final boolean isLegacy = BukkitServer.isUnder(Version.v1_13) && Legacy.handles != null;
 
     /**
      * A map containing id => boss bar
      */
-    private static final Map<Integer, BossMessage> boss_bars = new LinkedHashMap<>();
-    /**
-     * A map containing id => bar util
-     */
-    private static final Map<Integer, Object> wither_objects = new LinkedHashMap<>();
+    private static final Map<Integer, BossMessage> boss_bars = new ConcurrentHashMap<>();
 
     /**
      * Boss bar shown players
@@ -172,14 +95,19 @@ public final class BossMessage extends BossProvider<Player> {
     private ProgressiveBar progress = ProgressiveBar.NONE;
 
     /**
-     * The boss bar lived time
+     * If the boss bar is cancelled
      */
-    private double lived_time = 0.0;
+    private volatile boolean cancelled = false;
 
     /**
-     * If the boss bar is cancelled
+     * If the boss bar is being displayed
      */
-    private boolean cancelled = false;
+    private volatile boolean displayed = false;
+
+    /**
+     * If the boss bar progress must restart
+     */
+    private volatile boolean restart = false;
 
     /**
      * Last boss bar ID, used for new boss bar
@@ -193,35 +121,21 @@ public final class BossMessage extends BossProvider<Player> {
     private final int id;
 
     /**
-     * Boss bar timer
+     * Boss bar seconds the bar has been displayed,
+     * and the manager tick of the next second
      */
-    private SimpleScheduler bar_timer = null;
+    private int elapsed = 0;
+    private long next_second = 0;
 
     /**
-     * New boss bar location
+     * Boss bar, for non-legacy instances
      */
-    private Location newLoc;
+    private BossBar bar = null;
 
     /**
-     * Boss bar teleport packet
-     */
-    private Object teleport_packet;
-    /**
-     * Craft player
-     */
-    private Object new_c_player;
-    /**
-     * Entity player
-     */
-    private Object new_e_player;
-    /**
-     * Player connection
-     */
-    private Object new_p_connection;
-    /**
-     * Destroy wither and boss bar
+     * Boss bar withers, for legacy instances
      */
-    private Object remove_wither;
+    private final List<Wither> withers = new ArrayList<>();
 
     /**
      * Initialize the boss message
@@ -234,9 +148,6 @@ public final class BossMessage extends BossProvider<Player> {
         plugin = owner;
         message = _message;
         live_time = duration;
-        if (isLegacy) {
-            doReflectionStuff();
-        }
 
         id = ++total_ids;
     }
@@ -262,13 +173,6 @@ public final class BossMessage extends BossProvider<Player> {
     @Override
     public BossProvider<Player> style(final BossType newType) {
         type = newType;
-        try {
-            BossBar wither = (BossBar) wither_objects.get(id);
-            wither.setColor(BarColor.valueOf(color.name()));
-            wither.setVisible(false);
-            wither.setVisible(true);
-        } catch (Throwable ignored) {
-        }
         return this;
     }
 
@@ -281,13 +185,6 @@ public final class BossMessage extends BossProvider<Player> {
     @Override
     public BossProvider<Player> progress(final ProgressiveBar type) {
         progress = type;
-        try {
-            BossBar wither = (BossBar) wither_objects.get(id);
-            wither.setStyle(BarStyle.valueOf(type.name()));
-            wither.setVisible(false);
-            wither.setVisible(true);
-        } catch (Throwable ignored) {
-        }
         return this;
     }
 
@@ -300,226 +197,134 @@ public final class BossMessage extends BossProvider<Player> {
     }
 
     /**
-     * Display the boss bar to the specified players
+     * Display the boss bar to the specified players.
+     * The boss bar manager calls this from the main
+     * thread and advances the bar from then on. If the
+     * bar is already displayed, the players are added to it
      *
      * @param players the players to display to
      */
     @Override
     protected void displayBar(final Collection<Player> players) {
-        bars++;
-        if (cancelled) {
-            cancelled = false;
-        }
-
-        switch (progress) {
-            case DOWN: {
-                lived_time = live_time - 1.0;
-                break;
-            }
-            case UP: {
-                lived_time = 0.0;
-                break;
-            }
-        }
+        restart = false;
+        elapsed = 0;
+        next_second = 0;
 
         if (isLegacy) {
-            try {
-                for (final Player player : players) {
-                    AtomicBoolean showing = new AtomicBoolean(false);
-
-                    if (!shown.contains(player.getUniqueId())) {
-                        shown.add(player.getUniqueId());
-                        Location location = player.getLocation();
-
-                        Object c_world = craft_world.cast(player.getWorld());
-                        Object w_server = craft_world_handle.invoke(c_world);
-                        Object wither = wither_constructor.newInstance(w_server);
-
-                        wither.getClass().getMethod("setCustomName", String.class).invoke(wither, message);
-                        wither.getClass().getMethod("setInvisible", Boolean.TYPE).invoke(wither, true);
-                        wither.getClass().getMethod("setLocation", Double.TYPE, Double.TYPE, Double.TYPE, Float.TYPE, Float.TYPE).invoke(wither, location.getX(), location.getY(), location.getZ(), 0, 0);
-
-                        Object packet = entity_living_constructor.newInstance(wither);
-                        Object c_player = craft_player.cast(player);
-                        Object e_player = craft_player_handle.invoke(c_player);
-                        Object p_connection = e_player.getClass().getField("playerConnection").get(e_player);
-
-                        wither_objects.put(id, wither);
-                        bar_timer = new SourceScheduler(plugin, live_time, SchedulerUnit.SECOND, false).cancelUnloaded(false);
-
-                        bar_timer.condition(TimeCondition.OVER_OF, 2, second -> {
-                            if (showing.get()) {
-                                try {
-                                    newLoc = player.getEyeLocation().add(player.getEyeLocation().getDirection().normalize().multiply(20).add(new Vector(0, 5, 0)));
-                                    wither_set_location_method.invoke(player, newLoc.getX(), newLoc.getY(), newLoc.getZ(), newLoc.getYaw(), newLoc.getPitch());
-                                    teleport_packet = packet_play_teleport_constructor.newInstance(player);
-                                    new_c_player = craft_player.cast(player);
-                                    new_e_player = craft_player_handle.invoke(new_c_player);
-                                    new_p_connection = new_e_player.getClass().getField("playerConnection").get(new_e_player);
-                                    packet_connection = BukkitServer.getMinecraftClass("PlayerConnection");
-                                    packet_class = BukkitServer.getMinecraftClass("Packet");
-                                    packet_connect_send.invoke(packet_connection.cast(new_p_connection), teleport_packet);
-                                } catch (Throwable ex) {
-                                    ex.printStackTrace();
-                                    bar_timer.cancel();
-                                }
-                            }
-                        }).endAction(() -> {
-                            if (showing.get()) {
-                                try {
-                                    remove_wither = packet_play_out_destroy.getConstructor(BukkitServer.getMinecraftClass("EntityLiving"))
-                                            .newInstance(player.getUniqueId());
-                                    packet_connection = BukkitServer.getMinecraftClass("PlayerConnection");
-                                    packet_class = BukkitServer.getMinecraftClass("Packet");
-                                    craft_player = BukkitServer.getMinecraftClass("entity.CraftPlayer");
-                                    if (craft_player != null) {
-                                        new_c_player = craft_player.cast(player);
-                                        new_e_player = craft_player_handle.invoke(new_c_player);
-                                        new_p_connection = new_e_player.getClass().getField("playerConnection").get(new_e_player);
-                                        packet_connect_send.invoke(packet_connection.cast(new_p_connection), remove_wither);
-                                        boss_bars.remove(id);
-                                        wither_objects.remove(id);
-                                        shown.remove(player.getUniqueId());
-                                        --bars;
-                                    }
-                                } catch (Throwable ex2) {
-                                    ex2.printStackTrace();
-                                    bar_timer.cancel();
-                                }
-                            }
-                        }).cancelAction(time -> {
-                            if (showing.get()) {
-                                try {
-                                    remove_wither = packet_play_out_destroy.getConstructor(BukkitServer.getMinecraftClass("EntityLiving"))
-                                            .newInstance(player.getUniqueId());
-                                    packet_connection = BukkitServer.getMinecraftClass("PlayerConnection");
-                                    packet_class = BukkitServer.getMinecraftClass("Packet");
-                                    craft_player = BukkitServer.getMinecraftClass("entity.CraftPlayer");
-                                    if (craft_player != null) {
-                                        new_c_player = craft_player.cast(player);
-                                        new_e_player = craft_player_handle.invoke(new_c_player);
-                                        new_p_connection = new_e_player.getClass().getField("playerConnection").get(new_e_player);
-                                        packet_connect_send.invoke(packet_connection.cast(new_p_connection), remove_wither);
-                                        boss_bars.remove(id);
-                                        wither_objects.remove(id);
-                                        shown.remove(player.getUniqueId());
-                                        --bars;
-                                    }
-                                } catch (Throwable ex3) {
-                                    ex3.printStackTrace();
-                                    bar_timer.cancel();
-                                }
-                            }
-                        }).start();
-
-                        SimpleScheduler hp_timer = new SourceScheduler(plugin, live_time - 1.0, SchedulerUnit.SECOND, false).cancelUnloaded(false);
-                        hp_timer.changeAction(second -> {
-                            if (!cancelled) {
-                                try {
-                                    double percentage;
-
-                                    switch (progress) {
-                                        case UP: {
-                                            percentage = lived_time / live_time;
-                                            wither_set_progress_method.invoke(wither, (toFloat ? ((float) percentage) : percentage));
-
-                                            lived_time++;
-                                            break;
-                                        }
-                                        case DOWN: {
-                                            percentage = second / live_time;
-                                            wither_set_progress_method.invoke(wither, (toFloat ? ((float) percentage) : percentage));
-
-                                            lived_time--;
-                                            break;
-                                        }
-                                    }
-
-                                    if (!showing.get()) {
-                                        packet_connect_send.invoke(packet_connection.cast(p_connection), packet);
-                                        showing.set(true);
-                                    }
-                                } catch (Throwable ex5) {
-                                    cancel();
-                                }
-                            } else {
-                                bar_timer.cancel();
-                                hp_timer.cancel();
-                            }
-                        }).start();
+            for (Player player : players) {
+                if (shown.add(player.getUniqueId())) {
+                    try {
+                        withers.add(new Wither(player));
+                    } catch (Throwable ex) {
+                        shown.remove(player.getUniqueId());
+                        fail(ex);
                     }
                 }
-            } catch (Throwable ex4) {
-                ex4.printStackTrace();
             }
         } else {
-            BossBar wither = Bukkit.getServer()
-                    .createBossBar(StringUtils.toColor(message), BarColor.valueOf(color.name()), BarStyle.valueOf(type.name()));
-            for (final Player player2 : players) {
-                wither.addPlayer(player2);
+            if (bar == null)
+                bar = Bukkit.getServer().createBossBar(StringUtils.toColor(message), BarColor.valueOf(color.name()), BarStyle.valueOf(type.name()));
+
+            for (Player player : players) {
+                if (shown.add(player.getUniqueId()))
+                    bar.addPlayer(player);
             }
+        }
 
-            wither_objects.put(id, wither);
-            bar_timer = new SourceScheduler(plugin, live_time, SchedulerUnit.SECOND, false).cancelUnloaded(false);
+        displayed = true;
+    }
 
-            bar_timer.endAction(() -> {
-                wither.setVisible(false);
-                wither.removeAll();
-                boss_bars.remove(id);
-                wither_objects.remove(id);
-                for (Player player : players) {
-                    shown.remove(player.getUniqueId());
-                }
+    /**
+     * Advance the boss bar, once every second
+     *
+     * @param tick the current manager tick
+     * @return if the boss bar is still alive
+     */
+    boolean tick(final long tick) {
+        if (cancelled || !displayed)
+            return false;
 
-                bars--;
-            }).cancelAction(end -> {
-                wither.setVisible(false);
-                wither.removeAll();
-                boss_bars.remove(id);
-                wither_objects.remove(id);
-                for (Player player : players) {
-                    shown.remove(player.getUniqueId());
-                }
+        if (restart) {
+            restart = false;
+            elapsed = 0;
+        }
+        if (tick < next_second)
+            return true;
+        if (elapsed >= live_time)
+            return false;
 
-                bars--;
-            }).start();
+        next_second = tick + 20;
 
-            SimpleScheduler hp_timer = new SourceScheduler(plugin, live_time - 1.0, SchedulerUnit.SECOND, false).cancelUnloaded(false);
-            hp_timer.changeAction(second -> {
-                if (!cancelled) {
-                    double percentage;
+        double percentage = -1;
+        switch (progress) {
+            case UP:
+                percentage = elapsed / live_time;
+                break;
+            case DOWN:
+                percentage = (live_time - 1 - elapsed) / live_time;
+                break;
+        }
+        if (percentage != -1)
+            percentage = Math.max(0, Math.min(1, percentage));
 
-                    try {
-                        wither.setColor(BarColor.valueOf(color.name()));
-                        wither.setStyle(BarStyle.valueOf(type.name()));
-                        switch (progress) {
-                            case UP: {
-                                percentage = lived_time / live_time;
-                                wither.setProgress(percentage);
-
-                                lived_time++;
-                                break;
-                            }
-                            case DOWN: {
-                                percentage = second / live_time;
-                                wither.setProgress(percentage);
-
-                                lived_time--;
-                                break;
-                            }
-                        }
-
-                        if (!wither.isVisible()) {
-                            wither.setVisible(true);
-                        }
-                    } catch (Throwable ex6) {
-                        cancel();
-                    }
-                } else {
-                    bar_timer.cancel();
-                    hp_timer.cancel();
-                }
-            }).start();
+        try {
+            if (isLegacy) {
+                for (Wither wither : withers)
+                    wither.update(percentage);
+            } else {
+                bar.setColor(BarColor.valueOf(color.name()));
+                bar.setStyle(BarStyle.valueOf(type.name()));
+                if (percentage != -1)
+                    bar.setProgress(percentage);
+
+                if (!bar.isVisible())
+                    bar.setVisible(true);
+            }
+        } catch (Throwable ex) {
+            fail(ex);
+            return false;
+        }
+
+        elapsed++;
+        return true;
+    }
+
+    /**
+     * Hide the boss bar from every player
+     */
+    void hide() {
+        displayed = false;
+
+        if (bar != null) {
+            bar.setVisible(false);
+            bar.removeAll();
+            bar = null;
+        }
+        for (Wither wither : withers) {
+            try {
+                wither.destroy();
+            } catch (Throwable ex) {
+                fail(ex);
+            }
+        }
+
+        withers.clear();
+        shown.clear();
+        boss_bars.remove(id);
+    }
+
+    /**
+     * Log a boss bar error
+     *
+     * @param error the error
+     */
+    void fail(final Throwable error) {
+        KarmaConfig config = new KarmaConfig();
+        if (config.log(Level.GRAVE)) {
+            plugin.logger().scheduleLog(Level.GRAVE, error);
+        }
+        if (config.debug(Level.GRAVE)) {
+            plugin.console().send("Failed to display boss bar {0}", Level.GRAVE, id);
         }
     }
 
@@ -530,17 +335,9 @@ public final class BossMessage extends BossProvider<Player> {
      */
     @Override
     public void scheduleBar(final Collection<Player> players) {
-        b_bars.add(this);
+        cancelled = false;
         boss_bars.put(id, this);
-
-        SimpleScheduler timer = new SourceScheduler(plugin, 1, SchedulerUnit.SECOND, false).cancelUnloaded(false).multiThreading(true);
-        timer.changeAction(second -> {
-            if (!b_bars.isEmpty() && getBarsAmount() < 4) {
-                BossMessage boss = b_bars.get(0);
-                boss.displayBar(players);
-                b_bars.remove(boss);
-            }
-        }).start();
+        BossBarManager.schedule(this, plugin, players);
     }
 
     /**
@@ -550,17 +347,9 @@ public final class BossMessage extends BossProvider<Player> {
      */
     @Override
     public void scheduleBar(final Player player) {
-        b_bars.add(this);
+        cancelled = false;
         boss_bars.put(id, this);
-
-        SimpleScheduler timer = new SourceScheduler(plugin, 1, SchedulerUnit.SECOND, false).cancelUnloaded(false).multiThreading(true);
-        timer.changeAction(second -> {
-            if (!b_bars.isEmpty() && getBarsAmount() < 4) {
-                BossMessage boss = b_bars.get(0);
-                boss.displayBar(Collections.singleton(player));
-                b_bars.remove(boss);
-            }
-        }).start();
+        BossBarManager.schedule(this, plugin, Collections.singleton(player));
     }
 
     /**
@@ -570,7 +359,7 @@ public final class BossMessage extends BossProvider<Player> {
      */
     @Override
     public int getBarsAmount() {
-        return bars;
+        return BossBarManager.active();
     }
 
     /**
@@ -592,19 +381,19 @@ public final class BossMessage extends BossProvider<Player> {
      */
     @Override
     public boolean update(final String _message, final boolean restart) {
+        message = _message;
+        if (!displayed)
+            return false;
+
         try {
-            message = _message;
             if (isLegacy) {
-                final Object wither = wither_objects.get(id);
-                wither.getClass().getMethod("setCustomName", String.class).invoke(wither, StringUtils.toColor(message));
+                for (Wither wither : withers)
+                    wither.rename();
             } else {
-                BossBar bar = (BossBar) wither_objects.get(id);
                 bar.setTitle(StringUtils.toColor(message));
-                List<Player> players = bar.getPlayers();
-                players.forEach(bar::addPlayer);
             }
-            if (bar_timer != null && restart) {
-                bar_timer.restart();
+            if (restart) {
+                this.restart = true;
             }
             return true;
         } catch (Throwable ex) {
@@ -631,7 +420,7 @@ public final class BossMessage extends BossProvider<Player> {
      */
     @Override
     public boolean isValid() {
-        return wither_objects.containsKey(id);
+        return displayed;
     }
 
     /**
@@ -675,53 +464,201 @@ public final class BossMessage extends BossProvider<Player> {
     }
 
     /**
-     * Prepare the boss bar for legacy ( non-vanilla implemented boss bar API ) instances
+     * A legacy ( non-vanilla implemented boss bar API ) boss
+     * bar, which is an invisible wither only sent to a player
      */
-    private void doReflectionStuff() {
-        try {
-            craft_world = BukkitServer.getBukkitClass("CraftWorld");
-            Class<?> entity_wither = BukkitServer.getMinecraftClass("EntityWither");
-            if (entity_wither != null) {
-                Class<?> packet_entity_living_out = BukkitServer.getMinecraftClass("PacketPlayOutSpawnEntityLiving");
-                if (packet_entity_living_out != null) {
-                    craft_player = BukkitServer.getBukkitClass("entity.CraftPlayer");
-                    packet_class = BukkitServer.getMinecraftClass("Packet");
-                    packet_connection = BukkitServer.getMinecraftClass("PlayerConnection");
-                    packet_play_out_destroy = BukkitServer.getMinecraftClass("PacketPlayOutEntityDestroy");
-                    Class<?> packet_play_teleport = BukkitServer.getMinecraftClass("PacketPlayOutEntityTeleport");
-                    if (packet_play_teleport != null) {
-                        wither_constructor = entity_wither.getConstructor(BukkitServer.getMinecraftClass("World"));
-                        entity_living_constructor = packet_entity_living_out.getConstructor(BukkitServer.getMinecraftClass("EntityLiving"));
-                        packet_play_teleport_constructor = packet_play_teleport.getConstructor(BukkitServer.getMinecraftClass("Entity"));
-                        craft_world_handle = craft_world.getMethod("getHandle");
-                        craft_player_handle = craft_player.getMethod("getHandle");
-                        packet_connect_send = packet_connection.getMethod("sendPacket", packet_class);
-                        wither_set_location_method = entity_wither.getMethod("setLocation", Double.TYPE, Double.TYPE, Double.TYPE, Float.TYPE, Float.TYPE);
-                        wither_set_location_method = entity_wither.getMethod("setLocation", Double.TYPE, Double.TYPE, Double.TYPE, Float.TYPE, Float.TYPE);
-                        try {
-                            wither_set_progress_method = entity_wither.getMethod("setProgress", Double.TYPE);
-                        } catch (Throwable ex) {
-                            try {
-                                wither_set_progress_method = entity_wither.getMethod("setProgress", Float.TYPE);
-                                toFloat = true;
-                            } catch (Throwable exc) {
-                                try {
-                                    wither_set_progress_method = entity_wither.getMethod("setHealth", Double.TYPE);
-                                } catch (Throwable exce) {
-                                    try {
-                                        wither_set_progress_method = entity_wither.getMethod("setHealth", Float.TYPE);
-                                        toFloat = true;
-                                    } catch (Throwable excep) {
-                                        isLegacy = false;
-                                    }
-                                }
-                            }
-                        }
-                    }
+    private final class Wither {
+
+        private final Player player;
+        private final Object entity;
+        private final Object connection;
+
+        /**
+         * Spawn the wither for the player
+         *
+         * @param owner the player
+         * @throws Throwable if the wither could not be spawned
+         */
+        private Wither(final Player owner) throws Throwable {
+            Legacy legacy = Legacy.handles;
+            Location location = owner.getLocation();
+
+            player = owner;
+            entity = legacy.wither.invoke(legacy.world_handle.invoke(owner.getWorld()));
+            connection = legacy.connection.invoke(legacy.player_handle.invoke(owner));
+
+            legacy.name.invoke(entity, StringUtils.toColor(message));
+            legacy.invisible.invoke(entity, true);
+            legacy.location.invoke(entity, location.getX(), location.getY(), location.getZ(), 0f, 0f);
+            legacy.send.invoke(connection, legacy.spawn.invoke(entity));
+        }
+
+        /**
+         * Update the wither health and move it in
+         * front of the player
+         *
+         * @param percentage the boss bar progress, or
+         *                   -1 to keep it
+         * @throws Throwable if the wither could not be updated
+         */
+        private void update(final double percentage) throws Throwable {
+            Legacy legacy = Legacy.handles;
+            if (percentage != -1) {
+                if (legacy.toFloat) {
+                    legacy.progress.invoke(entity, (float) percentage);
+                } else {
+                    legacy.progress.invoke(entity, percentage);
                 }
             }
-        } catch (Throwable ex) {
-            ex.printStackTrace();
+
+            Location eye = player.getEyeLocation();
+            Location target = eye.clone().add(eye.getDirection().normalize().multiply(20).add(new Vector(0, 5, 0)));
+
+            legacy.location.invoke(entity, target.getX(), target.getY(), target.getZ(), target.getYaw(), target.getPitch());
+            legacy.send.invoke(connection, legacy.teleport.invoke(entity));
+        }
+
+        /**
+         * Update the wither name
+         *
+         * @throws Throwable if the wither could not be renamed
+         */
+        private void rename() throws Throwable {
+            Legacy.handles.name.invoke(entity, StringUtils.toColor(message));
+        }
+
+        /**
+         * Remove the wither from the player
+         *
+         * @throws Throwable if the wither could not be removed
+         */
+        private void destroy() throws Throwable {
+            Legacy legacy = Legacy.handles;
+            int entity_id = (int) legacy.entity_id.invoke(entity);
+
+            legacy.send.invoke(connection, legacy.destroy.invoke(new int[]{entity_id}));
+        }
+    }
+
+    /**
+     * Server internals needed by legacy boss bars, resolved
+     * once the first time a legacy boss bar is used
+     */
+    private static final class Legacy {
+
+        /**
+         * The resolved handles, or null if the server
+         * internals could not be resolved
+         */
+        private final static Legacy handles = resolve();
+
+        private final MethodHandle world_handle;
+        private final MethodHandle player_handle;
+        private final MethodHandle connection;
+        private final MethodHandle send;
+        private final MethodHandle wither;
+        private final MethodHandle name;
+        private final MethodHandle invisible;
+        private final MethodHandle location;
+        private final MethodHandle entity_id;
+        private final MethodHandle progress;
+        private final MethodHandle spawn;
+        private final MethodHandle teleport;
+        private final MethodHandle destroy;
+
+        /**
+         * If the wither set health/progress method
+         * is float instead of double
+         */
+        private final boolean toFloat;
+
+        /**
+         * Resolve the legacy handles
+         *
+         * @throws Throwable if a server internal is missing
+         */
+        private Legacy() throws Throwable {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+
+            Class<?> craft_world = required(BukkitServer.getBukkitClass("CraftWorld"));
+            Class<?> craft_player = required(BukkitServer.getBukkitClass("entity.CraftPlayer"));
+            Class<?> entity_player = required(BukkitServer.getMinecraftClass("EntityPlayer"));
+            Class<?> packet_connection = required(BukkitServer.getMinecraftClass("PlayerConnection"));
+            Class<?> entity_wither = required(BukkitServer.getMinecraftClass("EntityWither"));
+
+            world_handle = lookup.unreflect(craft_world.getMethod("getHandle"));
+            player_handle = lookup.unreflect(craft_player.getMethod("getHandle"));
+            connection = lookup.unreflectGetter(entity_player.getField("playerConnection"));
+            send = lookup.unreflect(packet_connection.getMethod("sendPacket", required(BukkitServer.getMinecraftClass("Packet"))));
+
+            wither = lookup.unreflectConstructor(entity_wither.getConstructor(required(BukkitServer.getMinecraftClass("World"))));
+            name = lookup.unreflect(entity_wither.getMethod("setCustomName", String.class));
+            invisible = lookup.unreflect(entity_wither.getMethod("setInvisible", Boolean.TYPE));
+            location = lookup.unreflect(entity_wither.getMethod("setLocation", Double.TYPE, Double.TYPE, Double.TYPE, Float.TYPE, Float.TYPE));
+            entity_id = lookup.unreflect(entity_wither.getMethod("getId"));
+
+            Method health = method(entity_wither, "setProgress", Double.TYPE);
+            if (health == null)
+                health = method(entity_wither, "setProgress", Float.TYPE);
+            if (health == null)
+                health = method(entity_wither, "setHealth", Double.TYPE);
+            if (health == null)
+                health = entity_wither.getMethod("setHealth", Float.TYPE);
+
+            progress = lookup.unreflect(health);
+            toFloat = health.getParameterTypes()[0] == Float.TYPE;
+
+            spawn = lookup.unreflectConstructor(required(BukkitServer.getMinecraftClass("PacketPlayOutSpawnEntityLiving"))
+                    .getConstructor(required(BukkitServer.getMinecraftClass("EntityLiving"))));
+            teleport = lookup.unreflectConstructor(required(BukkitServer.getMinecraftClass("PacketPlayOutEntityTeleport"))
+                    .getConstructor(required(BukkitServer.getMinecraftClass("Entity"))));
+            destroy = lookup.unreflectConstructor(required(BukkitServer.getMinecraftClass("PacketPlayOutEntityDestroy"))
+                    .getConstructor(int[].class));
+        }
+
+        /**
+         * Resolve the legacy handles
+         *
+         * @return the legacy handles, or null if
+         * the server internals could not be resolved
+         */
+        private static Legacy resolve() {
+            try {
+                return new Legacy();
+            } catch (Throwable ex) {
+                ex.printStackTrace();
+                return null;
+            }
+        }
+
+        /**
+         * Get a public method if it exists
+         *
+         * @param owner      the method owner
+         * @param name       the method name
+         * @param parameters the method parameters
+         * @return the method, or null if it does not exist
+         */
+        private static Method method(final Class<?> owner, final String name, final Class<?>... parameters) {
+            try {
+                return owner.getMethod(name, parameters);
+            } catch (NoSuchMethodException ex) {
+                return null;
+            }
+        }
+
+        /**
+         * Make sure a server class exists
+         *
+         * @param clazz the server class
+         * @return the server class
+         * @throws ClassNotFoundException if the class does not exist
+         */
+        private static Class<?> required(final Class<?> clazz) throws ClassNotFoundException {
+            if (clazz == null)
+                throw new ClassNotFoundException("Missing server class needed for legacy boss bars");
+
+            return clazz;
         }
     }
 
@@ -739,17 +676,49 @@ public final class BossMessage extends BossProvider<Player> {
          * @throws BossNotFoundException if the boss bar could not be found
          */
         static BossProvider<Player> getByID(final int id) throws BossNotFoundException {
-            try {
-                if (boss_bars.containsKey(id)) {
-                    final BossProvider<Player> boss = boss_bars.getOrDefault(id, null);
-                    if (boss != null) {
-                        return boss;
-                    }
-                }
-                throw new BossNotFoundException(id, boss_bars.keySet());
-            } catch (Throwable ex) {
-                throw new BossNotFoundException(id, boss_bars.keySet());
+            final BossProvider<Player> boss = boss_bars.get(id);
+            if (boss != null) {
+                return boss;
             }
+
+            throw new BossNotFoundException(id, boss_bars.keySet());
+        }
+
+        /**
+         * Get the amount of displayed boss bars
+         *
+         * @return the displayed boss bars
+         */
+        static int getActiveBars() {
+            return BossBarManager.active();
+        }
+
+        /**
+         * Get the amount of boss bars waiting to be
+         * displayed
+         *
+         * @return the queued boss bars
+         */
+        static int getQueuedBars() {
+            return BossBarManager.queued();
+        }
+
+        /**
+         * Get the time the last boss bar update tick took
+         *
+         * @return the last tick time in nanoseconds
+         */
+        static long getLastTickCost() {
+            return BossBarManager.cost();
+        }
+
+        /**
+         * Get the average time a boss bar update tick takes
+         *
+         * @return the average tick time in nanoseconds
+         */
+        static long getAverageTickCost() {
+            return BossBarManager.average();
         }
     }
 }
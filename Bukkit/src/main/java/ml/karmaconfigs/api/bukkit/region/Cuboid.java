@@ -51,8 +51,10 @@ import org.bukkit.plugin.RegisteredListener;
 import java.io.File;
 import java.io.Serializable;
 import java.net.URL;
+import java.util.AbstractSet;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.UUID;
 
@@ -65,10 +67,13 @@ import java.util.UUID;
 @SuppressWarnings("unused")
 public abstract class Cuboid implements Serializable {
 
+    private static final long serialVersionUID = -8138331521106352951L;
+
     private static Listener dummy = null;
     private static Listener blocks = null;
 
-    private final static Set<Cuboid> regions = new HashSet<>();
+    private final static RegionIndex index = new RegionIndex();
+    private final static Set<Cuboid> regions = new RegionSet();
 
     /**
      * Initialize the cuboid region
@@ -160,6 +165,7 @@ public abstract class Cuboid implements Serializable {
         }
 
         regions.add(this);
+        index.add(this);
     }
 
     /**
@@ -421,11 +427,179 @@ public abstract class Cuboid implements Serializable {
     public abstract void setPriority(final int priority);
 
     /**
-     * Get all the regions
+     * Get all the regions. Removing a region from
+     * the returned set unregisters it
      *
      * @return the regions
      */
     public static Set<Cuboid> getRegions() {
         return regions;
     }
+
+    /**
+     * Get the regions the location is inside of
+     *
+     * @param location the location
+     * @return the regions at the location
+     */
+    public static Set<Cuboid> getRegions(final Location location) {
+        Set<Cuboid> result = new LinkedHashSet<>();
+
+        World world = location.getWorld();
+        if (world != null) {
+            for (Cuboid region : index.candidates(world, location.getBlockX(), location.getBlockZ())) {
+                if (regions.contains(region) && region.isInside(location))
+                    result.add(region);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Get the regions the block is inside of
+     *
+     * @param block the block
+     * @return the regions at the block
+     */
+    public static Set<Cuboid> getRegions(final Block block) {
+        Set<Cuboid> result = new LinkedHashSet<>();
+
+        for (Cuboid region : index.candidates(block.getWorld(), block.getX(), block.getZ())) {
+            if (regions.contains(region) && region.isInside(block))
+                result.add(region);
+        }
+
+        return result;
+    }
+
+    /**
+     * Get the regions the entity is inside of
+     *
+     * @param entity the entity
+     * @return the regions at the entity location
+     */
+    public static Set<Cuboid> getRegions(final Entity entity) {
+        return getRegions(entity.getLocation());
+    }
+
+    /**
+     * Index the region again. This must be called by
+     * cuboid implementations whose bounds can change. The
+     * bounds of {@link Region} are final, so it never does
+     *
+     * @param region the region that changed
+     */
+    public static void update(final Cuboid region) {
+        if (regions.contains(region))
+            index.update(region);
+    }
+
+    /**
+     * Remove a region
+     *
+     * @param region the region to remove
+     */
+    public static void unregister(final Cuboid region) {
+        regions.remove(region);
+    }
+
+    /**
+     * Remove a region from the region index and
+     * the entity region caches
+     *
+     * @param region the removed region
+     */
+    private static void released(final Cuboid region) {
+        index.remove(region);
+        DummyListener.release(region);
+    }
+
+    /**
+     * Registered regions. Every removal, either directly
+     * or through the iterator, also releases the region
+     */
+    private final static class RegionSet extends AbstractSet<Cuboid> {
+
+        private final Set<Cuboid> backing = new HashSet<>();
+
+        /**
+         * Add a region
+         *
+         * @param region the region
+         * @return if the region was added
+         */
+        @Override
+        public boolean add(final Cuboid region) {
+            return backing.add(region);
+        }
+
+        /**
+         * Remove a region
+         *
+         * @param object the region
+         * @return if the region was removed
+         */
+        @Override
+        public boolean remove(final Object object) {
+            if (backing.remove(object)) {
+                released((Cuboid) object);
+                return true;
+            }
+
+            return false;
+        }
+
+        /**
+         * Get if the region is registered
+         *
+         * @param object the region
+         * @return if the region is registered
+         */
+        @Override
+        public boolean contains(final Object object) {
+            return backing.contains(object);
+        }
+
+        /**
+         * Get the amount of regions
+         *
+         * @return the amount of regions
+         */
+        @Override
+        public int size() {
+            return backing.size();
+        }
+
+        /**
+         * Get the regions iterator
+         *
+         * @return the regions iterator
+         */
+        @Override
+        public Iterator<Cuboid> iterator() {
+            Iterator<Cuboid> iterator = backing.iterator();
+
+            return new Iterator<Cuboid>() {
+                private Cuboid current = null;
+
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Cuboid next() {
+                    current = iterator.next();
+                    return current;
+                }
+
+                @Override
+                public void remove() {
+                    iterator.remove();
+                    released(current);
+                }
+            };
+        }
+    }
 }
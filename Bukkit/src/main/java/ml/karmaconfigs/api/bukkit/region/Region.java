@@ -34,18 +34,22 @@ import ml.karmaconfigs.api.bukkit.region.flag.RegionFlag;
 import ml.karmaconfigs.api.bukkit.region.wall.RegionWall;
 import ml.karmaconfigs.api.bukkit.region.wall.util.Wall;
 import ml.karmaconfigs.api.bukkit.region.wall.util.WallType;
+import ml.karmaconfigs.api.common.karma.KarmaConfig;
 import ml.karmaconfigs.api.common.karma.file.KarmaMain;
 import ml.karmaconfigs.api.common.karma.file.element.types.Element;
 import ml.karmaconfigs.api.common.karma.file.element.types.ElementPrimitive;
 import ml.karmaconfigs.api.common.security.token.TokenGenerator;
 import ml.karmaconfigs.api.common.string.StringUtils;
+import ml.karmaconfigs.api.common.utils.enums.Level;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Entity;
 
+import java.io.IOException;
 import java.io.Serializable;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
@@ -57,6 +61,8 @@ import java.util.concurrent.ConcurrentHashMap;
 @SuppressWarnings("unused")
 public class Region extends Cuboid implements Serializable {
 
+    private static final long serialVersionUID = 1810622001671791096L;
+
     /**
      * The region name
      */
@@ -69,18 +75,16 @@ public class Region extends Cuboid implements Serializable {
     /**
      * The region token
      */
-    private final String token = TokenGenerator.generateLiteral(16);
+    private final String token;
 
     /**
      * The region flags.
      * <p></p>
      * Why transient?
      * <p></p>
-     * As some flag values may not be serializable, and the region
-     * stores a serialized instances of itself. Serializing would
-     * be no more an option when storing the region, so, making this
-     * transient and storing separately the serializable flags in the
-     * region file is the best option.
+     * As some flag values may not be serializable, the flags are
+     * not part of the serialized region. The known flag types are
+     * stored in the region database by {@link RegionStore} instead.
      */
     private final transient Set<RegionFlag<?>> flags = Collections.newSetFromMap(new ConcurrentHashMap<>());
     private final transient Set<Cuboid> children = Collections.newSetFromMap(new ConcurrentHashMap<>());
@@ -158,6 +162,7 @@ public class Region extends Cuboid implements Serializable {
 
         name = source.name;
         internal = source.internal;
+        token = source.token;
 
         xMin = source.xMin;
         xMax = source.xMax;
@@ -177,15 +182,7 @@ public class Region extends Cuboid implements Serializable {
         worldId = source.worldId;
         priority = source.priority;
 
-        for (Cuboid exiting : Cuboid.getRegions()) {
-            if (isInside(exiting)) {
-                children.add(exiting);
-            } else {
-                if (exiting.isInside(this)) {
-                    parent = exiting;
-                }
-            }
-        }
+        locate();
     }
 
     /**
@@ -220,6 +217,7 @@ public class Region extends Cuboid implements Serializable {
             }
         }
         internal = internalNameBuilder.toString().toLowerCase();
+        token = TokenGenerator.generateLiteral(16);
         uniqueId = UUID.nameUUIDFromBytes(("Region:" + internal).getBytes());
 
         xMin = Math.min(point1.getBlockX(), point2.getBlockX());
@@ -242,7 +240,53 @@ public class Region extends Cuboid implements Serializable {
             throw new IllegalArgumentException("Cannot initialize because point1 or point2 location world's are null or not the same");
         }
 
+        locate();
+    }
+
+    /**
+     * Initialize the region
+     *
+     * @param record the stored region
+     */
+    Region(final RegionStore.Record record) {
+        super();
+
+        name = record.name;
+        internal = record.internal;
+        token = record.token;
+
+        xMin = record.xMin;
+        xMax = record.xMax;
+        yMin = record.yMin;
+        yMax = record.yMax;
+        zMin = record.zMin;
+        zMax = record.zMax;
+
+        xMinCentered = this.xMin + 0.5;
+        xMaxCentered = this.xMax + 0.5;
+        yMinCentered = this.yMin + 0.5;
+        yMaxCentered = this.yMax + 0.5;
+        zMinCentered = this.zMin + 0.5;
+        zMaxCentered = this.zMax + 0.5;
+
+        uniqueId = record.uniqueId;
+        worldId = record.worldId;
+        priority = record.priority;
+
+        flags.addAll(record.flags);
+
+        locate();
+    }
+
+    /**
+     * Find the regions inside this region, and the
+     * region this one is inside of
+     */
+    private void locate() {
         for (Cuboid exiting : Cuboid.getRegions()) {
+            if (exiting == this)
+                continue;
+
             if (isInside(exiting)) {
                 children.add(exiting);
             } else {
@@ -253,6 +297,37 @@ public class Region extends Cuboid implements Serializable {
         }
     }
 
+    /**
+     * Add a region inside this region
+     *
+     * @param child the region inside this one
+     */
+    void link(final Cuboid child) {
+        if (child == this)
+            return;
+
+        children.add(child);
+        if (child instanceof Region) {
+            Region region = (Region) child;
+            if (region.parent == null)
+                region.parent = this;
+        }
+    }
+
+    /**
+     * Get the region stored data
+     *
+     * @return the region record
+     */
+    RegionStore.Record record() {
+        List<UUID> inside = new ArrayList<>();
+        for (Cuboid child : children)
+            inside.add(child.getUniqueId());
+
+        return new RegionStore.Record(token, uniqueId, worldId, new int[]{xMin, yMin, zMin, xMax, yMax, zMax},
+                priority, name, internal, new ArrayList<>(flags), inside);
+    }
+
     /**
      * Get the region unique id
      *
@@ -375,7 +450,14 @@ public class Region extends Cuboid implements Serializable {
      */
     @Override
     public boolean exists(KarmaPlugin owner) {
-        Path regionFile = owner.getDataPath().resolve("cache").resolve("regions").resolve(token + ".region");
+        try {
+            if (RegionStore.of(owner, worldId).contains(token))
+                return true;
+        } catch (IOException ex) {
+            log(owner, ex, "Failed to read region database of world {0}", worldId);
+        }
+
+        Path regionFile = RegionStore.directory(owner).resolve(token + ".region");
         if (Files.exists(regionFile)) {
             KarmaMain file = new KarmaMain(regionFile);
             if (file.isSet("region")) {
@@ -534,6 +616,16 @@ public class Region extends Cuboid implements Serializable {
      */
     @Override
     public boolean isInside(final Cuboid region) {
+        if (region instanceof Region) {
+            //Same as checking every block, without creating them
+            Region other = (Region) region;
+
+            return other.worldId.equals(worldId) && Bukkit.getWorld(worldId) != null
+                    && other.xMin <= xMax && other.xMax >= xMin
+                    && other.yMin <= yMax && other.yMax >= yMin
+                    && other.zMin <= zMax && other.zMax >= zMin;
+        }
+
         Iterator<Block> blocks = region.getBlocks();
         while (blocks.hasNext()) {
             if (isInside(blocks.next())) {
@@ -686,11 +778,12 @@ public class Region extends Cuboid implements Serializable {
      */
     @Override
     public void saveToMemory(final KarmaPlugin owner) {
-        Path regionFile = owner.getDataPath().resolve("cache").resolve("regions").resolve(token + ".region");
-
-        KarmaMain file = new KarmaMain(regionFile);
-        file.setRaw("region", StringUtils.serialize(this));
-        file.save();
+        try {
+            RegionStore.of(owner, worldId).write(record());
+            Files.deleteIfExists(RegionStore.directory(owner).resolve(token + ".region"));
+        } catch (IOException ex) {
+            log(owner, ex, "Failed to save region {0}", name);
+        }
     }
 
     /**
@@ -712,7 +805,107 @@ public class Region extends Cuboid implements Serializable {
      * @throws RegionNotFound if the region couldn't be loaded
      */
     public static Region fromMemory(final KarmaPlugin owner, final String token) throws RegionNotFound {
-        Path regionFile = owner.getDataPath().resolve("cache").resolve("regions").resolve(token + ".region");
+        try {
+            for (RegionStore store : RegionStore.all(owner)) {
+                RegionStore.Record record = store.read(token);
+                if (record != null) {
+                    Region region = new Region(record);
+                    region.resolve(record, Collections.emptyMap());
+
+                    return region;
+                }
+            }
+        } catch (IOException ex) {
+            throw new RegionNotFound(owner, token, "Region database could not be read: " + ex.getMessage());
+        }
+
+        return legacy(owner, token);
+    }
+
+    /**
+     * Load all the regions of the owner. Each world region
+     * database is read at once and its regions are decoded in
+     * parallel. Regions stored in the old one file per region
+     * format are moved to the region database
+     *
+     * @param owner the regions owner
+     * @return the regions
+     */
+    public static Set<Region> loadAll(final KarmaPlugin owner) {
+        List<RegionStore.Record> records = new ArrayList<>();
+        try {
+            for (RegionStore store : RegionStore.all(owner))
+                records.addAll(store.readAll());
+        } catch (IOException ex) {
+            log(owner, ex, "Failed to read region databases of {0}", owner.name());
+        }
+
+        List<Region> regions = new ArrayList<>(records.size());
+        Map<UUID, Region> loaded = new HashMap<>();
+        for (RegionStore.Record record : records) {
+            Region region = new Region(record);
+
+            regions.add(region);
+            loaded.put(region.uniqueId, region);
+        }
+        for (int i = 0; i < regions.size(); i++)
+            regions.get(i).resolve(records.get(i), loaded);
+
+        Set<Region> result = new LinkedHashSet<>(regions);
+
+        Path directory = RegionStore.directory(owner);
+        if (Files.isDirectory(directory)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.region")) {
+                for (Path file : files) {
+                    String name = file.getFileName().toString();
+                    try {
+                        result.add(legacy(owner, name.substring(0, name.length() - ".region".length())));
+                    } catch (RegionNotFound ex) {
+                        log(owner, ex, "Failed to load region file {0}", name);
+                    }
+                }
+            } catch (IOException ex) {
+                log(owner, ex, "Failed to read regions directory of {0}", owner.name());
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Add the stored children of a region
+     *
+     * @param record the stored region
+     * @param loaded the regions loaded with this one
+     */
+    private void resolve(final RegionStore.Record record, final Map<UUID, Region> loaded) {
+        for (UUID id : record.children) {
+            Cuboid child = loaded.get(id);
+            if (child == null) {
+                for (Cuboid exiting : Cuboid.getRegions()) {
+                    if (exiting.getUniqueId().equals(id)) {
+                        child = exiting;
+                        break;
+                    }
+                }
+            }
+
+            if (child != null)
+                link(child);
+        }
+    }
+
+    /**
+     * Load a region stored in the old one file per region
+     * format, and move it to the region database
+     *
+     * @param owner the region owner
+     * @param token the region token
+     * @return the region
+     * @throws RegionNotFound if the region couldn't be loaded
+     */
+    private static Region legacy(final KarmaPlugin owner, final String token) throws RegionNotFound {
+        Path regionFile = RegionStore.directory(owner).resolve(token + ".region");
 
         Region region = null;
         String reason = "";
@@ -739,9 +932,30 @@ public class Region extends Cuboid implements Serializable {
         }
 
         if (region != null) {
-            return new Region(region);
+            Region loaded = new Region(region);
+            loaded.saveToMemory(owner);
+
+            return loaded;
         } else {
             throw new RegionNotFound(owner, token, reason);
         }
     }
+
+    /**
+     * Log a region storage error
+     *
+     * @param owner    the region owner
+     * @param error    the error
+     * @param message  the error message
+     * @param replaces the message replaces
+     */
+    private static void log(final KarmaPlugin owner, final Throwable error, final String message, final Object... replaces) {
+        KarmaConfig config = new KarmaConfig();
+        if (config.log(Level.GRAVE)) {
+            owner.logger().scheduleLog(Level.GRAVE, error);
+        }
+        if (config.debug(Level.GRAVE)) {
+            owner.console().send(message, Level.GRAVE, replaces);
+        }
+    }
 }
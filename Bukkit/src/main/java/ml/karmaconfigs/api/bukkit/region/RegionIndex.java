@@ -0,0 +1,237 @@
+package ml.karmaconfigs.api.bukkit.region;
+
+/*
+ * This file is part of KarmaAPI, licensed under the MIT License.
+ *
+ *  Copyright (c) karma (KarmaDev) <karmaconfigs@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Per world region index. Regions are stored in a grid
+ * of chunk sized cells, so looking for the regions at a
+ * position only needs to check the regions of its cell
+ */
+final class RegionIndex {
+
+    /**
+     * Regions covering more cells than this are not stored
+     * in the grid, but in a per world list that is always checked
+     */
+    private final static int MAX_CELLS = 4096;
+
+    private final Map<UUID, Map<Long, Set<Cuboid>>> grid = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<Cuboid>> large = new ConcurrentHashMap<>();
+    private final Map<Cuboid, Bounds> indexed = new ConcurrentHashMap<>();
+    private final Queue<Cuboid> pending = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Queue a region to be indexed. Regions are queued because
+     * their bounds are not yet known when the cuboid is created
+     *
+     * @param region the region
+     */
+    void add(final Cuboid region) {
+        pending.offer(region);
+    }
+
+    /**
+     * Remove a region from the index
+     *
+     * @param region the region
+     */
+    void remove(final Cuboid region) {
+        pending.remove(region);
+
+        Bounds bounds = indexed.remove(region);
+        if (bounds != null) {
+            if (bounds.cells() > MAX_CELLS) {
+                Set<Cuboid> regions = large.get(bounds.world);
+                if (regions != null)
+                    regions.remove(region);
+            } else {
+                Map<Long, Set<Cuboid>> cells = grid.get(bounds.world);
+                if (cells != null) {
+                    for (int x = bounds.minX >> 4; x <= bounds.maxX >> 4; x++) {
+                        for (int z = bounds.minZ >> 4; z <= bounds.maxZ >> 4; z++) {
+                            long key = key(x, z);
+
+                            Set<Cuboid> regions = cells.get(key);
+                            if (regions != null) {
+                                regions.remove(region);
+                                if (regions.isEmpty())
+                                    cells.remove(key);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Index a region again, after its bounds changed
+     *
+     * @param region the region
+     */
+    void update(final Cuboid region) {
+        remove(region);
+        add(region);
+    }
+
+    /**
+     * Get the regions that may contain the location. The
+     * regions should still be checked with {@link Cuboid#isInside(Location)}
+     *
+     * @param world the world
+     * @param x     the block x
+     * @param z     the block z
+     * @return the candidate regions
+     */
+    Collection<Cuboid> candidates(final World world, final int x, final int z) {
+        flush();
+
+        UUID id = world.getUID();
+        Set<Cuboid> extra = large.get(id);
+
+        Map<Long, Set<Cuboid>> cells = grid.get(id);
+        Set<Cuboid> regions = (cells != null ? cells.get(key(x >> 4, z >> 4)) : null);
+
+        if (regions == null)
+            return (extra != null ? extra : Collections.emptySet());
+        if (extra == null || extra.isEmpty())
+            return regions;
+
+        List<Cuboid> result = new ArrayList<>(regions.size() + extra.size());
+        result.addAll(regions);
+        result.addAll(extra);
+
+        return result;
+    }
+
+    /**
+     * Index the queued regions
+     */
+    private void flush() {
+        if (pending.isEmpty())
+            return;
+
+        List<Cuboid> retry = new ArrayList<>();
+
+        Cuboid region;
+        while ((region = pending.poll()) != null) {
+            Bounds bounds = Bounds.of(region);
+            if (bounds == null) {
+                //The region world is not loaded yet
+                retry.add(region);
+                continue;
+            }
+
+            indexed.put(region, bounds);
+            if (bounds.cells() > MAX_CELLS) {
+                large.computeIfAbsent(bounds.world, (key) -> Collections.newSetFromMap(new ConcurrentHashMap<>())).add(region);
+            } else {
+                Map<Long, Set<Cuboid>> cells = grid.computeIfAbsent(bounds.world, (key) -> new ConcurrentHashMap<>());
+                for (int x = bounds.minX >> 4; x <= bounds.maxX >> 4; x++) {
+                    for (int z = bounds.minZ >> 4; z <= bounds.maxZ >> 4; z++) {
+                        cells.computeIfAbsent(key(x, z), (key) -> Collections.newSetFromMap(new ConcurrentHashMap<>())).add(region);
+                    }
+                }
+            }
+        }
+
+        pending.addAll(retry);
+    }
+
+    /**
+     * Get the key of a cell
+     *
+     * @param x the cell x
+     * @param z the cell z
+     * @return the cell key
+     */
+    private static long key(final int x, final int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Indexed region bounds
+     */
+    private static final class Bounds {
+
+        private final UUID world;
+        private final int minX;
+        private final int maxX;
+        private final int minZ;
+        private final int maxZ;
+
+        /**
+         * Initialize the bounds
+         *
+         * @param w  the bounds world
+         * @param x1 the first x
+         * @param x2 the second x
+         * @param z1 the first z
+         * @param z2 the second z
+         */
+        private Bounds(final UUID w, final int x1, final int x2, final int z1, final int z2) {
+            world = w;
+            minX = Math.min(x1, x2);
+            maxX = Math.max(x1, x2);
+            minZ = Math.min(z1, z2);
+            maxZ = Math.max(z1, z2);
+        }
+
+        /**
+         * Get the amount of cells the bounds cover
+         *
+         * @return the bounds cells
+         */
+        private long cells() {
+            return (long) ((maxX >> 4) - (minX >> 4) + 1) * ((maxZ >> 4) - (minZ >> 4) + 1);
+        }
+
+        /**
+         * Get the bounds of a region
+         *
+         * @param region the region
+         * @return the region bounds or null if the region
+         * world is not available
+         */
+        private static Bounds of(final Cuboid region) {
+            World world = region.getWorld();
+            if (world == null)
+                return null;
+
+            Location top = region.getTop();
+            Location bottom = region.getBottom();
+
+            return new Bounds(world.getUID(), top.getBlockX(), bottom.getBlockX(), top.getBlockZ(), bottom.getBlockZ());
+        }
+    }
+}
@@ -0,0 +1,537 @@
+package ml.karmaconfigs.api.bukkit.region;
+
+/*
+ * This file is part of KarmaAPI, licensed under the MIT License.
+ *
+ *  Copyright (c) karma (KarmaDev) <karmaconfigs@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+import ml.karmaconfigs.api.bukkit.KarmaPlugin;
+import ml.karmaconfigs.api.bukkit.region.flag.FlagState;
+import ml.karmaconfigs.api.bukkit.region.flag.RegionFlag;
+import ml.karmaconfigs.api.bukkit.region.flag.types.*;
+import ml.karmaconfigs.api.common.data.store.SegmentStore;
+import org.bukkit.entity.EntityType;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Per world region database. Regions are kept in one
+ * {@link SegmentStore} per world, indexed by the region token,
+ * so a lookup reads only its own record. Saving a region again
+ * leaves its previous record dead, and dead records are dropped
+ * once they take more space than the live ones.
+ * <p>
+ * The file starts with a magic number and the format version,
+ * followed by the records. Each record is its length, the region
+ * token and the region fields: unique id, world id, bounds, priority,
+ * name, internal name, flags and the unique ids of its children
+ */
+final class RegionStore {
+
+    private final static int MAGIC = 0x4B524742;
+    private final static int VERSION = 1;
+
+    private final static String EXTENSION = ".rdb";
+
+    private final static byte FLAG_STATE = 0;
+    private final static byte FLAG_NUMBER = 1;
+    private final static byte FLAG_TEXT = 2;
+    private final static byte FLAG_STRINGS = 3;
+    private final static byte FLAG_ENTITIES = 4;
+
+    private final static Map<Path, RegionStore> stores = new ConcurrentHashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final SegmentStore<String> segments;
+
+    /**
+     * Initialize the region store
+     *
+     * @param path the store file
+     */
+    private RegionStore(final Path path) {
+        segments = new SegmentStore<>(path, ByteBuffer.allocate(4 + 4).putInt(MAGIC).putInt(VERSION).array());
+    }
+
+    /**
+     * Get the regions directory of a plugin
+     *
+     * @param owner the plugin
+     * @return the plugin regions directory
+     */
+    static Path directory(final KarmaPlugin owner) {
+        return owner.getDataPath().resolve("cache").resolve("regions");
+    }
+
+    /**
+     * Get the region store of a world
+     *
+     * @param owner the regions owner
+     * @param world the world unique id
+     * @return the world region store
+     * @throws IOException if the store can't be opened
+     */
+    static RegionStore of(final KarmaPlugin owner, final UUID world) throws IOException {
+        Path file = directory(owner).resolve(world + EXTENSION);
+        RegionStore store = stores.computeIfAbsent(file, RegionStore::new);
+        store.open();
+
+        return store;
+    }
+
+    /**
+     * Get all the region stores of a plugin
+     *
+     * @param owner the regions owner
+     * @return the plugin region stores
+     * @throws IOException if the regions directory or
+     * a store can't be read
+     */
+    static List<RegionStore> all(final KarmaPlugin owner) throws IOException {
+        List<RegionStore> result = new ArrayList<>();
+
+        Path directory = directory(owner);
+        if (Files.isDirectory(directory)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+                for (Path path : files) {
+                    RegionStore store = stores.computeIfAbsent(path, RegionStore::new);
+                    store.open();
+
+                    result.add(store);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Get if a region is stored
+     *
+     * @param token the region token
+     * @return if the region is stored
+     * @throws IOException if the store can't be read
+     */
+    boolean contains(final String token) throws IOException {
+        lock.readLock().lock();
+        try {
+            return segments.contains(token);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Read a region
+     *
+     * @param token the region token
+     * @return the region record, or null if it's not stored
+     * @throws IOException if the store can't be read
+     */
+    Record read(final String token) throws IOException {
+        byte[] record;
+        lock.readLock().lock();
+        try {
+            record = segments.read(token);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return (record != null ? Record.decode(record) : null);
+    }
+
+    /**
+     * Read all the regions. The file is read at once and
+     * the records are decoded in parallel. Records that can't
+     * be decoded are skipped
+     *
+     * @return the region records
+     * @throws IOException if the store can't be read
+     */
+    List<Record> readAll() throws IOException {
+        List<byte[]> raw;
+        lock.readLock().lock();
+        try {
+            raw = segments.readAll();
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return raw.parallelStream().map((bytes) -> {
+            try {
+                return Record.decode(bytes);
+            } catch (IOException | RuntimeException ex) {
+                return null;
+            }
+        }).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    /**
+     * Store a region, replacing the previous one with the same token
+     *
+     * @param record the region record
+     * @throws IOException if the region can't be written
+     */
+    void write(final Record record) throws IOException {
+        ByteBuffer encoded = ByteBuffer.wrap(record.encode());
+
+        lock.writeLock().lock();
+        try {
+            segments.write(record.token, encoded);
+            segments.compact();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Open the store file and build the index, if
+     * it's not open yet
+     *
+     * @throws IOException if the file can't be read
+     */
+    private void open() throws IOException {
+        if (segments.isOpen())
+            return;
+
+        lock.writeLock().lock();
+        try {
+            segments.open((record) -> {
+                if (record.capacity() < 8)
+                    return null;
+
+                int tokenLength = record.getInt(4);
+                if (tokenLength < 0 || tokenLength > record.capacity() - 8)
+                    return null;
+
+                return new String(record.array(), 8, tokenLength, StandardCharsets.UTF_8);
+            });
+            segments.compact();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * A stored region
+     */
+    static final class Record {
+
+        final String token;
+        final UUID uniqueId;
+        final UUID worldId;
+        final int xMin;
+        final int yMin;
+        final int zMin;
+        final int xMax;
+        final int yMax;
+        final int zMax;
+        final int priority;
+        final String name;
+        final String internal;
+        final List<RegionFlag<?>> flags;
+        final List<UUID> children;
+
+        /**
+         * Initialize the record
+         *
+         * @param token    the region token
+         * @param uniqueId the region unique id
+         * @param worldId  the region world id
+         * @param bounds   the region bounds: x, y and z min, then x, y and z max
+         * @param priority the region priority
+         * @param name     the region name
+         * @param internal the region internal name
+         * @param flags    the region flags
+         * @param children the unique ids of the regions inside the region
+         */
+        Record(final String token, final UUID uniqueId, final UUID worldId, final int[] bounds, final int priority,
+               final String name, final String internal, final List<RegionFlag<?>> flags, final List<UUID> children) {
+            this.token = token;
+            this.uniqueId = uniqueId;
+            this.worldId = worldId;
+            this.xMin = bounds[0];
+            this.yMin = bounds[1];
+            this.zMin = bounds[2];
+            this.xMax = bounds[3];
+            this.yMax = bounds[4];
+            this.zMax = bounds[5];
+            this.priority = priority;
+            this.name = name;
+            this.internal = internal;
+            this.flags = flags;
+            this.children = children;
+        }
+
+        /**
+         * Encode the record. Flags of unknown types are
+         * not stored
+         *
+         * @return the encoded record, including its length
+         * @throws IOException if the record can't be encoded
+         */
+        private byte[] encode() throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(bytes);
+
+            out.writeInt(0);
+            writeString(out, token);
+
+            out.writeLong(uniqueId.getMostSignificantBits());
+            out.writeLong(uniqueId.getLeastSignificantBits());
+            out.writeLong(worldId.getMostSignificantBits());
+            out.writeLong(worldId.getLeastSignificantBits());
+
+            out.writeInt(xMin);
+            out.writeInt(yMin);
+            out.writeInt(zMin);
+            out.writeInt(xMax);
+            out.writeInt(yMax);
+            out.writeInt(zMax);
+            out.writeInt(priority);
+
+            writeString(out, name);
+            writeString(out, internal);
+
+            ByteArrayOutputStream flagBytes = new ByteArrayOutputStream();
+            DataOutputStream flagOut = new DataOutputStream(flagBytes);
+            int flagCount = 0;
+            for (RegionFlag<?> flag : flags) {
+                if (writeFlag(flagOut, flag))
+                    flagCount++;
+            }
+            out.writeInt(flagCount);
+            flagBytes.writeTo(out);
+
+            out.writeInt(children.size());
+            for (UUID child : children) {
+                out.writeLong(child.getMostSignificantBits());
+                out.writeLong(child.getLeastSignificantBits());
+            }
+            out.flush();
+
+            byte[] result = bytes.toByteArray();
+            ByteBuffer.wrap(result).putInt(result.length - 4);
+
+            return result;
+        }
+
+        /**
+         * Decode a record
+         *
+         * @param data the encoded record, including its length
+         * @return the record
+         * @throws IOException if the record is not valid
+         */
+        private static Record decode(final byte[] data) throws IOException {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+
+            in.readInt();
+            String token = readString(in);
+
+            UUID uniqueId = new UUID(in.readLong(), in.readLong());
+            UUID worldId = new UUID(in.readLong(), in.readLong());
+
+            int[] bounds = new int[6];
+            for (int i = 0; i < bounds.length; i++)
+                bounds[i] = in.readInt();
+            int priority = in.readInt();
+
+            String name = readString(in);
+            String internal = readString(in);
+
+            int flagCount = in.readInt();
+            List<RegionFlag<?>> flags = new ArrayList<>(Math.min(flagCount, 64));
+            for (int i = 0; i < flagCount; i++) {
+                RegionFlag<?> flag = readFlag(in);
+                if (flag != null)
+                    flags.add(flag);
+            }
+
+            int childCount = in.readInt();
+            List<UUID> children = new ArrayList<>(Math.min(childCount, 64));
+            for (int i = 0; i < childCount; i++)
+                children.add(new UUID(in.readLong(), in.readLong()));
+
+            return new Record(token, uniqueId, worldId, bounds, priority, name, internal, flags, children);
+        }
+
+        /**
+         * Write a flag
+         *
+         * @param out  the output
+         * @param flag the flag
+         * @return if the flag type is known and could be written
+         * @throws IOException if the flag can't be written
+         */
+        private static boolean writeFlag(final DataOutputStream out, final RegionFlag<?> flag) throws IOException {
+            if (flag instanceof StateFlag) {
+                out.writeByte(FLAG_STATE);
+                writeString(out, flag.getKey());
+
+                FlagState state = ((StateFlag) flag).getValue();
+                out.writeByte((state != null ? state : FlagState.DEFAULT).ordinal());
+                return true;
+            }
+            if (flag instanceof NumFlag) {
+                out.writeByte(FLAG_NUMBER);
+                writeString(out, flag.getKey());
+
+                Number number = ((NumFlag) flag).getValue();
+                if (number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte) {
+                    out.writeBoolean(false);
+                    out.writeLong(number.longValue());
+                } else {
+                    out.writeBoolean(true);
+                    out.writeDouble(number.doubleValue());
+                }
+                return true;
+            }
+            if (flag instanceof TextFlag) {
+                out.writeByte(FLAG_TEXT);
+                writeString(out, flag.getKey());
+
+                writeString(out, ((TextFlag) flag).getValue());
+                return true;
+            }
+            if (flag instanceof StringFlag) {
+                out.writeByte(FLAG_STRINGS);
+                writeString(out, flag.getKey());
+
+                String[] texts = ((StringFlag) flag).getValue();
+                out.writeInt(texts.length);
+                for (String text : texts)
+                    writeString(out, text);
+                return true;
+            }
+            if (flag instanceof EntityFlag) {
+                out.writeByte(FLAG_ENTITIES);
+                writeString(out, flag.getKey());
+
+                EntityType[] types = ((EntityFlag) flag).getValue();
+                out.writeInt(types.length);
+                for (EntityType type : types)
+                    writeString(out, type.name());
+                return true;
+            }
+
+            return false;
+        }
+
+        /**
+         * Read a flag
+         *
+         * @param in the input
+         * @return the flag
+         * @throws IOException if the flag is not valid
+         */
+        private static RegionFlag<?> readFlag(final DataInputStream in) throws IOException {
+            byte type = in.readByte();
+            String key = readString(in);
+
+            switch (type) {
+                case FLAG_STATE:
+                    FlagState[] states = FlagState.values();
+                    int ordinal = in.readUnsignedByte();
+
+                    return new StateFlag(key, (ordinal < states.length ? states[ordinal] : FlagState.DEFAULT));
+                case FLAG_NUMBER:
+                    if (in.readBoolean())
+                        return new NumFlag(key, in.readDouble());
+
+                    return new NumFlag(key, in.readLong());
+                case FLAG_TEXT:
+                    return new TextFlag(key, readString(in));
+                case FLAG_STRINGS:
+                    String[] texts = new String[in.readInt()];
+                    for (int i = 0; i < texts.length; i++)
+                        texts[i] = readString(in);
+
+                    return new StringFlag(key, texts);
+                case FLAG_ENTITIES:
+                    int amount = in.readInt();
+                    List<EntityType> types = new ArrayList<>(Math.min(amount, 64));
+                    for (int i = 0; i < amount; i++) {
+                        String typeName = readString(in);
+                        try {
+                            types.add(EntityType.valueOf(typeName));
+                        } catch (IllegalArgumentException ignored) {
+                            //The entity type does not exist in this server version
+                        }
+                    }
+
+                    return new EntityFlag(key, types.toArray(new EntityType[0]));
+                default:
+                    throw new IOException("Unknown region flag type " + type);
+            }
+        }
+
+        /**
+         * Write a string
+         *
+         * @param out   the output
+         * @param value the string, which may be null
+         * @throws IOException if the string can't be written
+         */
+        private static void writeString(final DataOutputStream out, final String value) throws IOException {
+            if (value == null) {
+                out.writeInt(-1);
+                return;
+            }
+
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        /**
+         * Read a string
+         *
+         * @param in the input
+         * @return the string, which may be null
+         * @throws IOException if the string can't be read
+         */
+        private static String readString(final DataInputStream in) throws IOException {
+            int length = in.readInt();
+            if (length == -1)
+                return null;
+            if (length < 0 || length > in.available())
+                throw new IOException("Invalid string length " + length);
+
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -70,59 +70,57 @@ public class BlockListener implements Listener {
             Block block = e.getBlock();
             Player player = e.getPlayer();
 
-            Cuboid.getRegions().forEach((region) -> {
-                if (region.isInside(block)) {
-                    Cuboid event_region = region;
-
-                    Cuboid global = region.getGlobal();
-                    Cuboid high_child = region;
-                    Set<Cuboid> children = region.getInside();
-                    for (Cuboid inside : children) {
-                        if (inside.getPriority() > high_child.getPriority()) {
-                            high_child = inside;
-                        }
+            Cuboid.getRegions(block).forEach((region) -> {
+                Cuboid event_region = region;
+
+                Cuboid global = region.getGlobal();
+                Cuboid high_child = region;
+                Set<Cuboid> children = region.getInside();
+                for (Cuboid inside : children) {
+                    if (inside.getPriority() > high_child.getPriority()) {
+                        high_child = inside;
                     }
+                }
 
-                    if (global.getPriority() > high_child.getPriority()) {
-                        if (global.isInside(block)) {
-                            event_region = global;
-                        } else {
-                            if (high_child.isInside(block)) {
-                                event_region = high_child;
-                            }
-                        }
+                if (global.getPriority() > high_child.getPriority()) {
+                    if (global.isInside(block)) {
+                        event_region = global;
                     } else {
                         if (high_child.isInside(block)) {
                             event_region = high_child;
-                        } else {
-                            if (global.isInside(block)) {
-                                event_region = global;
-                            }
                         }
                     }
+                } else {
+                    if (high_child.isInside(block)) {
+                        event_region = high_child;
+                    } else {
+                        if (global.isInside(block)) {
+                            event_region = global;
+                        }
+                    }
+                }
 
-                    BlockModifiedAtRegionEvent event = new BlockModifiedAtRegionEvent(block, player, BlockAction.BUILD, event_region);
-                    Bukkit.getServer().getPluginManager().callEvent(event);
+                BlockModifiedAtRegionEvent event = new BlockModifiedAtRegionEvent(block, player, BlockAction.BUILD, event_region);
+                Bukkit.getServer().getPluginManager().callEvent(event);
 
-                    if (!event.isCancelled()) {
-                        e.setCancelled(false);
-
-                        RegionFlag<FlagState> state = event_region.getUnsafeFlag("build");
-                        switch (state.getValue()) {
-                            case ALLOW:
-                                e.setBuild(true);
-                                break;
-                            case DENY:
-                                e.setBuild(false);
-                                break;
-                            case DEFAULT:
-                            default:
-                                e.setBuild(e.canBuild());
-                                break;
-                        }
-                    } else {
-                        event.setCancelled(true);
+                if (!event.isCancelled()) {
+                    e.setCancelled(false);
+
+                    RegionFlag<FlagState> state = event_region.getUnsafeFlag("build");
+                    switch (state.getValue()) {
+                        case ALLOW:
+                            e.setBuild(true);
+                            break;
+                        case DENY:
+                            e.setBuild(false);
+                            break;
+                        case DEFAULT:
+                        default:
+                            e.setBuild(e.canBuild());
+                            break;
                     }
+                } else {
+                    event.setCancelled(true);
                 }
             });
 
@@ -141,56 +139,54 @@ public class BlockListener implements Listener {
             Block block = e.getBlock();
             Player player = e.getPlayer();
 
-            Cuboid.getRegions().forEach((region) -> {
-                if (region.isInside(block)) {
-                    Cuboid event_region = region;
+            Cuboid.getRegions(block).forEach((region) -> {
+                Cuboid event_region = region;
 
-                    Cuboid global = region.getGlobal();
-                    Cuboid high_child = region;
-                    Set<Cuboid> children = region.getInside();
-                    for (Cuboid inside : children) {
-                        if (inside.getPriority() > high_child.getPriority()) {
-                            high_child = inside;
-                        }
+                Cuboid global = region.getGlobal();
+                Cuboid high_child = region;
+                Set<Cuboid> children = region.getInside();
+                for (Cuboid inside : children) {
+                    if (inside.getPriority() > high_child.getPriority()) {
+                        high_child = inside;
                     }
+                }
 
-                    if (global.getPriority() > high_child.getPriority()) {
-                        if (global.isInside(block)) {
-                            event_region = global;
-                        } else {
-                            if (high_child.isInside(block)) {
-                                event_region = high_child;
-                            }
-                        }
+                if (global.getPriority() > high_child.getPriority()) {
+                    if (global.isInside(block)) {
+                        event_region = global;
                     } else {
                         if (high_child.isInside(block)) {
                             event_region = high_child;
-                        } else {
-                            if (global.isInside(block)) {
-                                event_region = global;
-                            }
                         }
                     }
+                } else {
+                    if (high_child.isInside(block)) {
+                        event_region = high_child;
+                    } else {
+                        if (global.isInside(block)) {
+                            event_region = global;
+                        }
+                    }
+                }
 
-                    BlockModifiedAtRegionEvent event = new BlockModifiedAtRegionEvent(block, player, BlockAction.DESTROY, event_region);
-                    Bukkit.getServer().getPluginManager().callEvent(event);
+                BlockModifiedAtRegionEvent event = new BlockModifiedAtRegionEvent(block, player, BlockAction.DESTROY, event_region);
+                Bukkit.getServer().getPluginManager().callEvent(event);
 
-                    if (!event.isCancelled()) {
-                        RegionFlag<FlagState> state = event_region.getUnsafeFlag("break");
-                        switch (state.getValue()) {
-                            case ALLOW:
-                                e.setCancelled(false);
-                                break;
-                            case DENY:
-                                e.setCancelled(true);
-                                break;
-                            case DEFAULT:
-                            default:
-                                break;
-                        }
-                    } else {
-                        event.setCancelled(true);
+                if (!event.isCancelled()) {
+                    RegionFlag<FlagState> state = event_region.getUnsafeFlag("break");
+                    switch (state.getValue()) {
+                        case ALLOW:
+                            e.setCancelled(false);
+                            break;
+                        case DENY:
+                            e.setCancelled(true);
+                            break;
+                        case DEFAULT:
+                        default:
+                            break;
                     }
+                } else {
+                    event.setCancelled(true);
                 }
             });
 
@@ -210,62 +206,60 @@ public class BlockListener implements Listener {
             String name = e.getTo().name();
             Entity entity = e.getEntity();
 
-            Cuboid.getRegions().forEach((region) -> {
-                if (region.isInside(block)) {
-                    Cuboid event_region = region;
+            Cuboid.getRegions(block).forEach((region) -> {
+                Cuboid event_region = region;
 
-                    Cuboid global = region.getGlobal();
-                    Cuboid high_child = region;
-                    Set<Cuboid> children = region.getInside();
-                    for (Cuboid inside : children) {
-                        if (inside.getPriority() > high_child.getPriority()) {
-                            high_child = inside;
-                        }
+                Cuboid global = region.getGlobal();
+                Cuboid high_child = region;
+                Set<Cuboid> children = region.getInside();
+                for (Cuboid inside : children) {
+                    if (inside.getPriority() > high_child.getPriority()) {
+                        high_child = inside;
                     }
+                }
 
-                    if (global.getPriority() > high_child.getPriority()) {
-                        if (global.isInside(block)) {
-                            event_region = global;
-                        } else {
-                            if (high_child.isInside(block)) {
-                                event_region = high_child;
-                            }
-                        }
+                if (global.getPriority() > high_child.getPriority()) {
+                    if (global.isInside(block)) {
+                        event_region = global;
                     } else {
                         if (high_child.isInside(block)) {
                             event_region = high_child;
-                        } else {
-                            if (global.isInside(block)) {
-                                event_region = global;
-                            }
                         }
                     }
+                } else {
+                    if (high_child.isInside(block)) {
+                        event_region = high_child;
+                    } else {
+                        if (global.isInside(block)) {
+                            event_region = global;
+                        }
+                    }
+                }
 
-                    BlockAction action = BlockAction.BUILD;
+                BlockAction action = BlockAction.BUILD;
 
-                    if (name.equalsIgnoreCase("air") || name.equalsIgnoreCase("cave_air")) {
-                        action = BlockAction.DESTROY;
-                    }
+                if (name.equalsIgnoreCase("air") || name.equalsIgnoreCase("cave_air")) {
+                    action = BlockAction.DESTROY;
+                }
 
-                    BlockModifiedAtRegionEvent event = new BlockModifiedAtRegionEvent(block, entity, action, region);
-                    Bukkit.getServer().getPluginManager().callEvent(event);
+                BlockModifiedAtRegionEvent event = new BlockModifiedAtRegionEvent(block, entity, action, region);
+                Bukkit.getServer().getPluginManager().callEvent(event);
 
-                    if (!event.isCancelled()) {
-                        RegionFlag<FlagState> state = event_region.getUnsafeFlag("entity-block-" + (action.equals(BlockAction.DESTROY) ? "break" : "build"));
-                        switch (state.getValue()) {
-                            case ALLOW:
-                                e.setCancelled(true);
-                                break;
-                            case DENY:
-                                e.setCancelled(false);
-                                break;
-                            case DEFAULT:
-                            default:
-                                break;
-                        }
-                    } else {
-                        event.setCancelled(true);
+                if (!event.isCancelled()) {
+                    RegionFlag<FlagState> state = event_region.getUnsafeFlag("entity-block-" + (action.equals(BlockAction.DESTROY) ? "break" : "build"));
+                    switch (state.getValue()) {
+                        case ALLOW:
+                            e.setCancelled(true);
+                            break;
+                        case DENY:
+                            e.setCancelled(false);
+                            break;
+                        case DEFAULT:
+                        default:
+                            break;
                     }
+                } else {
+                    event.setCancelled(true);
                 }
             });
 
@@ -284,27 +278,25 @@ public class BlockListener implements Listener {
         Entity entity = e.getIgnitingEntity();
         Block source = e.getIgnitingBlock();
 
-        Cuboid.getRegions().forEach((region) -> {
-            if (region.isInside(block)) {
-                BlockAction action = BlockAction.PROPAGATE;
-
-                BlockFireAtRegionEvent event = new BlockFireAtRegionEvent(block, action, region);
-                Bukkit.getServer().getPluginManager().callEvent(event);
+        Cuboid.getRegions(block).forEach((region) -> {
+            BlockAction action = BlockAction.PROPAGATE;
 
-                e.setCancelled(event.isCancelled());
+            BlockFireAtRegionEvent event = new BlockFireAtRegionEvent(block, action, region);
+            Bukkit.getServer().getPluginManager().callEvent(event);
 
-                if (!event.isCancelled()) {
-                    BlockModifiedAtRegionEvent modified;
+            e.setCancelled(event.isCancelled());
 
-                    if (entity instanceof LivingEntity) {
-                        modified = new BlockModifiedAtRegionEvent(block, entity, action, region);
-                    } else {
-                        modified = new BlockModifiedAtRegionEvent(block, source, action, region);
-                    }
-                    Bukkit.getServer().getPluginManager().callEvent(modified);
+            if (!event.isCancelled()) {
+                BlockModifiedAtRegionEvent modified;
 
-                    e.setCancelled(modified.isCancelled());
+                if (entity instanceof LivingEntity) {
+                    modified = new BlockModifiedAtRegionEvent(block, entity, action, region);
+                } else {
+                    modified = new BlockModifiedAtRegionEvent(block, source, action, region);
                 }
+                Bukkit.getServer().getPluginManager().callEvent(modified);
+
+                e.setCancelled(modified.isCancelled());
             }
         });
     }
@@ -318,21 +310,19 @@ public class BlockListener implements Listener {
     public void onBurn(BlockBurnEvent e) {
         Block block = e.getBlock();
 
-        Cuboid.getRegions().forEach((region) -> {
-            if (region.isInside(block)) {
-                BlockAction action = BlockAction.BURN;
+        Cuboid.getRegions(block).forEach((region) -> {
+            BlockAction action = BlockAction.BURN;
 
-                BlockFireAtRegionEvent event = new BlockFireAtRegionEvent(block, action, region);
-                Bukkit.getServer().getPluginManager().callEvent(event);
+            BlockFireAtRegionEvent event = new BlockFireAtRegionEvent(block, action, region);
+            Bukkit.getServer().getPluginManager().callEvent(event);
 
-                e.setCancelled(event.isCancelled());
+            e.setCancelled(event.isCancelled());
 
-                if (!event.isCancelled()) {
-                    BlockModifiedAtRegionEvent modified = new BlockModifiedAtRegionEvent(block, null, action, region);
-                    Bukkit.getServer().getPluginManager().callEvent(modified);
+            if (!event.isCancelled()) {
+                BlockModifiedAtRegionEvent modified = new BlockModifiedAtRegionEvent(block, null, action, region);
+                Bukkit.getServer().getPluginManager().callEvent(modified);
 
-                    e.setCancelled(modified.isCancelled());
-                }
+                e.setCancelled(modified.isCancelled());
             }
         });
     }
@@ -347,21 +337,19 @@ public class BlockListener implements Listener {
         Block block = e.getBlock();
         Block source = e.getSource();
 
-        Cuboid.getRegions().forEach((region) -> {
-            if (region.isInside(block)) {
-                BlockAction action = BlockAction.PROPAGATE;
+        Cuboid.getRegions(block).forEach((region) -> {
+            BlockAction action = BlockAction.PROPAGATE;
 
-                BlockPropagationAtRegionEvent event = new BlockPropagationAtRegionEvent(block, source, region);
-                Bukkit.getServer().getPluginManager().callEvent(event);
+            BlockPropagationAtRegionEvent event = new BlockPropagationAtRegionEvent(block, source, region);
+            Bukkit.getServer().getPluginManager().callEvent(event);
 
-                e.setCancelled(event.isCancelled());
+            e.setCancelled(event.isCancelled());
 
-                if (!event.isCancelled()) {
-                    BlockModifiedAtRegionEvent modified = new BlockModifiedAtRegionEvent(block, source, action, region);
-                    Bukkit.getServer().getPluginManager().callEvent(modified);
+            if (!event.isCancelled()) {
+                BlockModifiedAtRegionEvent modified = new BlockModifiedAtRegionEvent(block, source, action, region);
+                Bukkit.getServer().getPluginManager().callEvent(modified);
 
-                    e.setCancelled(modified.isCancelled());
-                }
+                e.setCancelled(modified.isCancelled());
             }
         });
     }
@@ -376,21 +364,19 @@ public class BlockListener implements Listener {
         Block source = e.getBlock();
         Block block = e.getNewState().getBlock();
 
-        Cuboid.getRegions().forEach((region) -> {
-            if (region.isInside(block)) {
-                BlockAction action = BlockAction.PROPAGATE;
+        Cuboid.getRegions(block).forEach((region) -> {
+            BlockAction action = BlockAction.PROPAGATE;
 
-                BlockPropagationAtRegionEvent event = new BlockPropagationAtRegionEvent(block, source, region);
-                Bukkit.getServer().getPluginManager().callEvent(event);
+            BlockPropagationAtRegionEvent event = new BlockPropagationAtRegionEvent(block, source, region);
+            Bukkit.getServer().getPluginManager().callEvent(event);
 
-                e.setCancelled(event.isCancelled());
+            e.setCancelled(event.isCancelled());
 
-                if (!event.isCancelled()) {
-                    BlockModifiedAtRegionEvent modified = new BlockModifiedAtRegionEvent(block, source, action, region);
-                    Bukkit.getServer().getPluginManager().callEvent(modified);
+            if (!event.isCancelled()) {
+                BlockModifiedAtRegionEvent modified = new BlockModifiedAtRegionEvent(block, source, action, region);
+                Bukkit.getServer().getPluginManager().callEvent(modified);
 
-                    e.setCancelled(modified.isCancelled());
-                }
+                e.setCancelled(modified.isCancelled());
             }
         });
     }
@@ -405,28 +391,26 @@ public class BlockListener implements Listener {
         Block source = e.getBlock();
         Block block = e.getToBlock();
 
-        Cuboid.getRegions().forEach((region) -> {
-            if (region.isInside(block)) {
-                BlockAction action = BlockAction.FLOW;
+        Cuboid.getRegions(block).forEach((region) -> {
+            BlockAction action = BlockAction.FLOW;
 
-                Cancellable event;
-                if (block.getType().equals(Material.DRAGON_EGG)) {
-                    event = new DragonEggAtRegionEvent(block, source, region);
-                    action = BlockAction.TELEPORT;
-                } else {
-                    event = new LiquidFlowAtRegionEvent(block, source, region);
-                }
+            Cancellable event;
+            if (block.getType().equals(Material.DRAGON_EGG)) {
+                event = new DragonEggAtRegionEvent(block, source, region);
+                action = BlockAction.TELEPORT;
+            } else {
+                event = new LiquidFlowAtRegionEvent(block, source, region);
+            }
 
-                Bukkit.getServer().getPluginManager().callEvent((Event) event);
+            Bukkit.getServer().getPluginManager().callEvent((Event) event);
 
-                e.setCancelled(event.isCancelled());
+            e.setCancelled(event.isCancelled());
 
-                if (!event.isCancelled()) {
-                    BlockModifiedAtRegionEvent modified = new BlockModifiedAtRegionEvent(block, source, action, region);
-                    Bukkit.getServer().getPluginManager().callEvent(modified);
+            if (!event.isCancelled()) {
+                BlockModifiedAtRegionEvent modified = new BlockModifiedAtRegionEvent(block, source, action, region);
+                Bukkit.getServer().getPluginManager().callEvent(modified);
 
-                    e.setCancelled(modified.isCancelled());
-                }
+                e.setCancelled(modified.isCancelled());
             }
         });
     }
@@ -441,7 +425,11 @@ public class BlockListener implements Listener {
         Block block = e.getBlock();
         float yield = e.getYield();
 
-        Cuboid.getRegions().forEach((region) -> {
+        Set<Cuboid> regions = Cuboid.getRegions(block);
+        for (Block affected : e.blockList())
+            regions.addAll(Cuboid.getRegions(affected));
+
+        regions.forEach((region) -> {
             boolean fired = false;
 
             if (region.isInside(block)) {
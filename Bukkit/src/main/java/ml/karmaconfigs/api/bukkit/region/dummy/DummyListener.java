@@ -42,6 +42,7 @@ import org.bukkit.entity.*;
 import org.bukkit.event.*;
 import org.bukkit.event.entity.*;
 import org.bukkit.event.player.*;
+import org.bukkit.event.world.ChunkUnloadEvent;
 import org.bukkit.inventory.EntityEquipment;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.material.Crops;
@@ -57,11 +58,11 @@ import java.util.concurrent.ConcurrentHashMap;
 @SuppressWarnings({"unused"})
 public class DummyListener implements Listener {
 
-    private final static Map<Cuboid, Set<Entity>> entity_cache = new ConcurrentHashMap<>();
+    private final static RegionMembership membership = new RegionMembership();
     private final static Map<UUID, Object> damage_data = new ConcurrentHashMap<>();
     private final static Map<ItemStack, UUID> drop_data = new ConcurrentHashMap<>();
 
-    private final static List<UUID> items_cache = new ConcurrentList<>();
+    private final static Set<UUID> items_cache = Collections.newSetFromMap(new ConcurrentHashMap<>());
     private final static List<UUID> drop_handled = new ConcurrentList<>();
 
     private final Plugin plugin;
@@ -73,163 +74,197 @@ public class DummyListener implements Listener {
      */
     public DummyListener(final Plugin channel) {
         plugin = channel;
+    }
 
-        //Remove invalid entities cache every 5 minutes
-        plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, () -> {
-            for (UUID id : items_cache) {
-                plugin.getServer().getScheduler().runTask(plugin, () -> {
-                    Entity entity = plugin.getServer().getEntity(id);
-                    if (entity == null || !entity.isValid() || entity.isDead()) {
-                        items_cache.remove(id);
-                    }
-                });
-            }
-        }, 0, 20 * 300);
+    /**
+     * Get if two locations point to the same block
+     *
+     * @param from the first location
+     * @param to   the second location
+     * @return if both locations are in the same block
+     */
+    private static boolean sameBlock(final Location from, final Location to) {
+        return from.getWorld() == to.getWorld()
+                && from.getBlockX() == to.getBlockX()
+                && from.getBlockY() == to.getBlockY()
+                && from.getBlockZ() == to.getBlockZ();
     }
 
     /**
-     * Event listener
+     * Fire the region events of a moving entity. The regions the
+     * entity was known to be inside of are compared against the regions
+     * it is inside of now, so join and leave events come from the
+     * difference of both
      *
-     * @param e the event
+     * @param entity the entity
+     * @param from   the location the entity comes from
+     * @param to     the location the entity goes to
+     * @param cancel the action to perform when the movement gets cancelled
      */
-    @EventHandler(priority = EventPriority.HIGHEST)
-    public void onMove(EntityMoveEvent e) {
-        Location from = new Location(e.getWorld(), e.getFromX(), e.getFromY(), e.getFromZ());
-        from.setYaw(e.getFromYaw());
-        from.setPitch(e.getFromPitch());
+    private static void move(final Entity entity, final Location from, final Location to, final Runnable cancel) {
+        UUID id = entity.getUniqueId();
 
-        Location to = new Location(e.getWorld(), e.getToX(), e.getToY(), e.getFromZ());
-        to.setYaw(e.getToYaw());
-        to.setPitch(e.getFromPitch());
+        int[] previous = membership.get(id);
+        int[] now = membership.ids(Cuboid.getRegions(entity));
+        Set<Cuboid> target = Cuboid.getRegions(to);
 
-        if (!from.equals(to)) {
-            Entity entity = e.getEntity();
+        int[] result = new int[now.length + previous.length];
+        int size = 0;
 
-            Cuboid.getRegions().forEach((region) -> {
-                Set<Entity> cached = entity_cache.getOrDefault(region, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-                Set<Entity> insert = new HashSet<>();
-                Set<Entity> remove = new HashSet<>();
+        int i = 0;
+        int j = 0;
+        while (i < now.length || j < previous.length) {
+            int current = (i < now.length ? now[i] : Integer.MAX_VALUE);
+            int known = (j < previous.length ? previous[j] : Integer.MAX_VALUE);
 
-                boolean changes = false;
-                if (region.isInside(entity)) {
-                    if (!cached.contains(entity)) {
-                        EntityJoinRegionEvent event = new EntityJoinRegionEvent(entity, region);
-                        Bukkit.getServer().getPluginManager().callEvent(event);
+            if (current < known) {
+                Cuboid region = membership.region(current);
 
-                        insert.add(entity);
+                EntityJoinRegionEvent event = new EntityJoinRegionEvent(entity, region);
+                Bukkit.getServer().getPluginManager().callEvent(event);
 
-                        changes = true;
-                    } else {
-                        if (region.isInside(to)) {
-                            EntityMoveAtRegionEvent event = new EntityMoveAtRegionEvent(entity, region, from, to);
-                            Bukkit.getServer().getPluginManager().callEvent(event);
+                result[size++] = current;
+                i++;
+            } else {
+                if (current == known) {
+                    Cuboid region = membership.region(current);
 
-                            if (event.isCancelled()) {
-                                entity.teleport(from);
-                            }
-                        } else {
-                            EntityPreLeaveRegionEvent event = new EntityPreLeaveRegionEvent(entity, region);
-                            if (event.isCancelled()) {
-                                entity.setVelocity(to.getDirection().multiply(-0.5));
-                            }
+                    if (target.contains(region)) {
+                        EntityMoveAtRegionEvent event = new EntityMoveAtRegionEvent(entity, region, from, to);
+                        Bukkit.getServer().getPluginManager().callEvent(event);
+
+                        if (event.isCancelled()) {
+                            cancel.run();
+                        }
+                    } else {
+                        EntityPreLeaveRegionEvent event = new EntityPreLeaveRegionEvent(entity, region);
+                        if (event.isCancelled()) {
+                            entity.setVelocity(to.getDirection().multiply(-0.5));
                         }
                     }
+
+                    result[size++] = current;
+                    i++;
                 } else {
-                    if (region.isInside(to)) {
-                        EntityPreJoinRegionEvent event = new EntityPreJoinRegionEvent(entity, region);
+                    Cuboid region = membership.region(known);
 
+                    if (target.contains(region)) {
+                        EntityPreJoinRegionEvent event = new EntityPreJoinRegionEvent(entity, region);
                         if (event.isCancelled()) {
                             entity.setVelocity(to.getDirection().multiply(-0.5));
                         }
-                    } else {
-                        if (cached.contains(entity)) {
-                            EntityLeaveRegionEvent event = new EntityLeaveRegionEvent(entity, region);
-                            Bukkit.getServer().getPluginManager().callEvent(event);
-
-                            remove.add(entity);
 
-                            changes = true;
-                        }
+                        result[size++] = known;
+                    } else {
+                        EntityLeaveRegionEvent event = new EntityLeaveRegionEvent(entity, region);
+                        Bukkit.getServer().getPluginManager().callEvent(event);
                     }
                 }
 
-                if (changes) {
-                    cached.removeAll(remove);
-                    cached.addAll(insert);
+                j++;
+            }
+        }
 
-                    entity_cache.put(region, cached);
+        for (Cuboid region : target) {
+            int region_id = membership.id(region);
+            if (!RegionMembership.contains(now, region_id) && !RegionMembership.contains(previous, region_id)) {
+                EntityPreJoinRegionEvent event = new EntityPreJoinRegionEvent(entity, region);
+                if (event.isCancelled()) {
+                    entity.setVelocity(to.getDirection().multiply(-0.5));
                 }
-            });
+            }
         }
+
+        membership.set(id, (size == result.length ? result : Arrays.copyOf(result, size)));
     }
 
     /**
-     * Event listener
+     * Remove an entity from the region caches
      *
-     * @param e the event
+     * @param entity the entity
      */
-    @EventHandler(priority = EventPriority.HIGHEST)
-    public void onMove(PlayerMoveEvent e) {
-        if (!e.isCancelled()) {
-            Player entity = e.getPlayer();
-            if (e.getTo() == null)
-                e.setTo(entity.getLocation());
+    private static void forget(final Entity entity) {
+        UUID id = entity.getUniqueId();
 
-            Cuboid.getRegions().forEach((region) -> {
-                Set<Entity> cached = entity_cache.getOrDefault(region, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-                Set<Entity> insert = new HashSet<>();
-                Set<Entity> remove = new HashSet<>();
+        membership.forget(id);
+        items_cache.remove(id);
+    }
 
-                boolean changes = false;
-                if (region.isInside(entity)) {
-                    if (!cached.contains(entity)) {
-                        EntityJoinRegionEvent event = new EntityJoinRegionEvent(entity, region);
-                        Bukkit.getServer().getPluginManager().callEvent(event);
+    /**
+     * Remove an unregistered region from the region caches
+     *
+     * @param region the region
+     */
+    public static void release(final Cuboid region) {
+        membership.release(region);
+    }
 
-                        insert.add(entity);
+    /**
+     * Get the regions any of the entities is inside of
+     *
+     * @param first  the first entity
+     * @param second the second entity
+     * @return the regions of both entities
+     */
+    private static Set<Cuboid> regions(final Entity first, final Entity second) {
+        Set<Cuboid> regions = Cuboid.getRegions(first);
+        regions.addAll(Cuboid.getRegions(second));
 
-                        changes = true;
-                    } else {
-                        if (region.isInside(e.getTo())) {
-                            EntityMoveAtRegionEvent event = new EntityMoveAtRegionEvent(entity, region, e.getFrom(), e.getTo());
-                            Bukkit.getServer().getPluginManager().callEvent(event);
+        return regions;
+    }
 
-                            if (event.isCancelled()) {
-                                e.setCancelled(true);
-                            }
-                        } else {
-                            EntityPreLeaveRegionEvent event = new EntityPreLeaveRegionEvent(entity, region);
-                            if (event.isCancelled()) {
-                                entity.setVelocity(e.getTo().getDirection().multiply(-0.5));
-                            }
-                        }
-                    }
-                } else {
-                    if (region.isInside(e.getTo())) {
-                        EntityPreJoinRegionEvent event = new EntityPreJoinRegionEvent(entity, region);
+    /**
+     * Get the regions the block or the entity are inside of
+     *
+     * @param block  the block
+     * @param entity the entity
+     * @return the regions of the block and the entity
+     */
+    private static Set<Cuboid> regions(final Block block, final Entity entity) {
+        Set<Cuboid> regions = Cuboid.getRegions(entity);
+        if (block != null)
+            regions.addAll(Cuboid.getRegions(block));
 
-                        if (event.isCancelled()) {
-                            entity.setVelocity(e.getTo().getDirection().multiply(-0.5));
-                        }
-                    } else {
-                        if (cached.contains(entity)) {
-                            EntityLeaveRegionEvent event = new EntityLeaveRegionEvent(entity, region);
-                            Bukkit.getServer().getPluginManager().callEvent(event);
+        return regions;
+    }
 
-                            remove.add(entity);
+    /**
+     * Event listener
+     *
+     * @param e the event
+     */
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onMove(EntityMoveEvent e) {
+        Location from = new Location(e.getWorld(), e.getFromX(), e.getFromY(), e.getFromZ());
+        from.setYaw(e.getFromYaw());
+        from.setPitch(e.getFromPitch());
 
-                            changes = true;
-                        }
-                    }
-                }
+        Location to = new Location(e.getWorld(), e.getToX(), e.getToY(), e.getToZ());
+        to.setYaw(e.getToYaw());
+        to.setPitch(e.getToPitch());
 
-                if (changes) {
-                    cached.removeAll(remove);
-                    cached.addAll(insert);
+        if (!sameBlock(from, to)) {
+            Entity entity = e.getEntity();
+            move(entity, from, to, () -> entity.teleport(from));
+        }
+    }
 
-                    entity_cache.put(region, cached);
-                }
-            });
+    /**
+     * Event listener
+     *
+     * @param e the event
+     */
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onMove(PlayerMoveEvent e) {
+        if (!e.isCancelled()) {
+            Player entity = e.getPlayer();
+            if (e.getTo() == null)
+                e.setTo(entity.getLocation());
+
+            if (sameBlock(e.getFrom(), e.getTo()))
+                return;
+
+            move(entity, e.getFrom(), e.getTo(), () -> e.setCancelled(true));
         }
     }
 
@@ -244,13 +279,11 @@ public class DummyListener implements Listener {
             Player player = e.getPlayer();
             Entity target = e.getRightClicked();
 
-            Cuboid.getRegions().forEach((region) -> {
-                if (region.isInside(target)) {
-                    PlayerInteractAtRegionEvent event = new PlayerInteractAtRegionEvent(target, player, region);
-                    Bukkit.getServer().getPluginManager().callEvent(event);
+            Cuboid.getRegions(target).forEach((region) -> {
+                PlayerInteractAtRegionEvent event = new PlayerInteractAtRegionEvent(target, player, region);
+                Bukkit.getServer().getPluginManager().callEvent(event);
 
-                    e.setCancelled(event.isCancelled());
-                }
+                e.setCancelled(event.isCancelled());
             });
         }
     }
@@ -267,72 +300,71 @@ public class DummyListener implements Listener {
         Block block = e.getClickedBlock();
 
         if (!drop_handled.contains(player.getUniqueId())) {
-            Cuboid.getRegions().forEach((region) -> {
-                if ((block != null ? region.isInside(block) : region.isInside(player))) {
-                    InteractAction action = InteractAction.UNKNOWN;
-
-                    switch (e.getAction()) {
-                        case RIGHT_CLICK_BLOCK:
-                            action = InteractAction.RIGHT_CLICK_BLOCK;
-                            if (block != null) {
-                                Material material = block.getType();
-                                if (material.name().endsWith("_BUTTON")) {
-                                    action = InteractAction.PRESS_BUTTON;
-                                } else {
-                                    if (material.equals(Material.LEVER)) {
-                                        action = InteractAction.PRESS_LEVER;
-                                    }
+            Set<Cuboid> regions = (block != null ? Cuboid.getRegions(block) : Cuboid.getRegions(player));
+            regions.forEach((region) -> {
+                InteractAction action = InteractAction.UNKNOWN;
+
+                switch (e.getAction()) {
+                    case RIGHT_CLICK_BLOCK:
+                        action = InteractAction.RIGHT_CLICK_BLOCK;
+                        if (block != null) {
+                            Material material = block.getType();
+                            if (material.name().endsWith("_BUTTON")) {
+                                action = InteractAction.PRESS_BUTTON;
+                            } else {
+                                if (material.equals(Material.LEVER)) {
+                                    action = InteractAction.PRESS_LEVER;
                                 }
                             }
+                        }
 
-                            break;
-                        case LEFT_CLICK_BLOCK:
-                            action = InteractAction.LEFT_CLICK_BLOCK;
-                            break;
-                        case LEFT_CLICK_AIR:
-                            action = InteractAction.LEFT_CLICK_AIR;
-                            break;
-                        case RIGHT_CLICK_AIR:
-                            action = InteractAction.RIGHT_CLICK_AIR;
-                            break;
-                        case PHYSICAL:
-                            if (block != null) {
-                                BlockState state = block.getState();
-
-                                //If we can get the crop states, then it's a soil item
-                                try {
-                                    Crops crop = (Crops) state.getData();
+                        break;
+                    case LEFT_CLICK_BLOCK:
+                        action = InteractAction.LEFT_CLICK_BLOCK;
+                        break;
+                    case LEFT_CLICK_AIR:
+                        action = InteractAction.LEFT_CLICK_AIR;
+                        break;
+                    case RIGHT_CLICK_AIR:
+                        action = InteractAction.RIGHT_CLICK_AIR;
+                        break;
+                    case PHYSICAL:
+                        if (block != null) {
+                            BlockState state = block.getState();
+
+                            //If we can get the crop states, then it's a soil item
+                            try {
+                                Crops crop = (Crops) state.getData();
+                                action = InteractAction.JUMP_SOIL;
+                            } catch (Throwable ex) {
+                                //Newer minecraft versions...
+                                if (state.getBlockData() instanceof Ageable) {
+                                    Ageable ageable = (Ageable) state.getBlockData();
                                     action = InteractAction.JUMP_SOIL;
-                                } catch (Throwable ex) {
-                                    //Newer minecraft versions...
-                                    if (state.getBlockData() instanceof Ageable) {
-                                        Ageable ageable = (Ageable) state.getBlockData();
-                                        action = InteractAction.JUMP_SOIL;
-                                    }
                                 }
+                            }
 
-                                if (action.equals(InteractAction.UNKNOWN)) {
-                                    if (block.getType().name().contains("PLATE")) {
-                                        action = InteractAction.PRESSURE_PLATE;
+                            if (action.equals(InteractAction.UNKNOWN)) {
+                                if (block.getType().name().contains("PLATE")) {
+                                    action = InteractAction.PRESSURE_PLATE;
+                                } else {
+                                    if (block.getType().name().contains("REDSTONE_ORE")) {
+                                        action = InteractAction.REDSTONE_ORE;
                                     } else {
-                                        if (block.getType().name().contains("REDSTONE_ORE")) {
-                                            action = InteractAction.REDSTONE_ORE;
-                                        } else {
-                                            action = InteractAction.TRIPWIRE;
-                                        }
+                                        action = InteractAction.TRIPWIRE;
                                     }
                                 }
                             }
-                            break;
-                    }
+                        }
+                        break;
+                }
 
-                    InteractAction finalAction = action;
+                InteractAction finalAction = action;
 
-                    PlayerActionWithRegionEvent event = new PlayerActionWithRegionEvent(player, block, finalAction, region);
-                    Bukkit.getServer().getPluginManager().callEvent(event);
+                PlayerActionWithRegionEvent event = new PlayerActionWithRegionEvent(player, block, finalAction, region);
+                Bukkit.getServer().getPluginManager().callEvent(event);
 
-                    e.setCancelled(event.isCancelled());
-                }
+                e.setCancelled(event.isCancelled());
             });
         } else {
             drop_handled.remove(player.getUniqueId());
@@ -350,13 +382,11 @@ public class DummyListener implements Listener {
             Entity entity = e.getEntity();
             Block block = e.getBlock();
 
-            Cuboid.getRegions().forEach((region) -> {
-                if (region.isInside(block)) {
-                    EntityInteractWithRegionEvent event = new EntityInteractWithRegionEvent(entity, block, region);
-                    Bukkit.getServer().getPluginManager().callEvent(event);
+            Cuboid.getRegions(block).forEach((region) -> {
+                EntityInteractWithRegionEvent event = new EntityInteractWithRegionEvent(entity, block, region);
+                Bukkit.getServer().getPluginManager().callEvent(event);
 
-                    e.setCancelled(event.isCancelled());
-                }
+                e.setCancelled(event.isCancelled());
             });
         }
     }
@@ -371,40 +401,32 @@ public class DummyListener implements Listener {
         if (!e.isCancelled()) {
             Entity entity = e.getEntity();
 
-            Cuboid.getRegions().forEach((region) -> {
-                if (region.isInside(entity)) {
-                    Event event = null;
-                    if (entity instanceof Item) {
-                        Item item = (Item) entity;
-                        if (!items_cache.contains(item.getUniqueId())) {
-                            items_cache.add(item.getUniqueId());
-
-                            ItemStack stack = item.getItemStack();
-                            UUID dropper = drop_data.getOrDefault(stack, null);
-                            LivingEntity source = null;
-                            if (dropper != null) {
-                                Entity tmp = Bukkit.getEntity(dropper);
-                                if (tmp instanceof LivingEntity)
-                                    source = (LivingEntity) tmp;
-                            }
-
-                            event = new ItemSpawnAtRegionEvent(item, source, region);
+            Cuboid.getRegions(entity).forEach((region) -> {
+                Event event = null;
+                if (entity instanceof Item) {
+                    Item item = (Item) entity;
+                    if (items_cache.add(item.getUniqueId())) {
+                        ItemStack stack = item.getItemStack();
+                        UUID dropper = drop_data.getOrDefault(stack, null);
+                        LivingEntity source = null;
+                        if (dropper != null) {
+                            Entity tmp = Bukkit.getEntity(dropper);
+                            if (tmp instanceof LivingEntity)
+                                source = (LivingEntity) tmp;
                         }
-                    } else {
-                        event = new EntitySpawnAtRegionEvent(entity, region);
-                    }
-                    if (event != null) {
-                        Cancellable cancellable = (Cancellable) event;
 
-                        Bukkit.getServer().getPluginManager().callEvent(event);
-
-                        e.setCancelled(cancellable.isCancelled());
+                        event = new ItemSpawnAtRegionEvent(item, source, region);
+                    }
+                } else {
+                    event = new EntitySpawnAtRegionEvent(entity, region);
+                }
+                if (event != null) {
+                    Cancellable cancellable = (Cancellable) event;
 
-                        Set<Entity> cached = entity_cache.getOrDefault(region, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-                        cached.add(entity);
+                    Bukkit.getServer().getPluginManager().callEvent(event);
 
-                        entity_cache.put(region, cached);
-                    }
+                    e.setCancelled(cancellable.isCancelled());
+                    membership.add(entity.getUniqueId(), region);
                 }
             });
         }
@@ -419,16 +441,11 @@ public class DummyListener implements Listener {
     public void playerJoin(PlayerJoinEvent e) {
         Player player = e.getPlayer();
 
-        Cuboid.getRegions().forEach((region) -> {
-            if (region.isInside(player)) {
-                EntitySpawnAtRegionEvent event = new EntitySpawnAtRegionEvent(player, region);
-                Bukkit.getServer().getPluginManager().callEvent(event);
-
-                Set<Entity> cached = entity_cache.getOrDefault(region, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-                cached.add(player);
+        Cuboid.getRegions(player).forEach((region) -> {
+            EntitySpawnAtRegionEvent event = new EntitySpawnAtRegionEvent(player, region);
+            Bukkit.getServer().getPluginManager().callEvent(event);
 
-                entity_cache.put(region, cached);
-            }
+            membership.add(player.getUniqueId(), region);
         });
     }
 
@@ -443,10 +460,8 @@ public class DummyListener implements Listener {
             Entity issuer = e.getDamager();
             Entity entity = e.getEntity();
 
-            Cuboid.getRegions().forEach((region) -> {
-                if (region.isInside(issuer) || region.isInside(entity)) {
-                    damage_data.put(entity.getUniqueId(), issuer);
-                }
+            regions(issuer, entity).forEach((region) -> {
+                damage_data.put(entity.getUniqueId(), issuer);
             });
         }
     }
@@ -462,10 +477,8 @@ public class DummyListener implements Listener {
             Block issuer = e.getDamager();
             Entity entity = e.getEntity();
 
-            Cuboid.getRegions().forEach((region) -> {
-                if ((issuer != null && region.isInside(issuer)) || region.isInside(entity)) {
-                    damage_data.put(entity.getUniqueId(), issuer);
-                }
+            regions(issuer, entity).forEach((region) -> {
+                damage_data.put(entity.getUniqueId(), issuer);
             });
         }
     }
@@ -490,50 +503,52 @@ public class DummyListener implements Listener {
 
         EntityDamageEvent.DamageCause cause = tmpCause;
         double damage = tmpDamage;
-        Cuboid.getRegions().forEach((region) -> {
-            if (region.isInside(entity)) {
-                Object killer = damage_data.getOrDefault(entity.getUniqueId(), null);
-
-                Forensics forensics = null;
-                if (killer instanceof Block) {
-                    Block block = (Block) killer;
-
-                    forensics = new Forensics(null, block, null, cause, damage);
-                } else {
-                    if (killer instanceof Entity) {
-                        Entity assassin = (Entity) killer;
-                        ItemStack weapon = null;
-                        if (assassin instanceof LivingEntity) {
-                            LivingEntity living = (LivingEntity) assassin;
-                            EntityEquipment equipment = living.getEquipment();
-
-                            if (equipment != null) {
-                                try {
-                                    weapon = equipment.getItemInMainHand();
-
-                                    if (weapon.getType().equals(Material.AIR))
-                                        weapon = equipment.getItemInOffHand();
-                                } catch (Throwable ex) {
-                                    weapon = equipment.getItemInHand();
-                                }
+        Cuboid.getRegions(entity).forEach((region) -> {
+            Object killer = damage_data.getOrDefault(entity.getUniqueId(), null);
+
+            Forensics forensics = null;
+            if (killer instanceof Block) {
+                Block block = (Block) killer;
+
+                forensics = new Forensics(null, block, null, cause, damage);
+            } else {
+                if (killer instanceof Entity) {
+                    Entity assassin = (Entity) killer;
+                    ItemStack weapon = null;
+                    if (assassin instanceof LivingEntity) {
+                        LivingEntity living = (LivingEntity) assassin;
+                        EntityEquipment equipment = living.getEquipment();
+
+                        if (equipment != null) {
+                            try {
+                                weapon = equipment.getItemInMainHand();
+
+                                if (weapon.getType().equals(Material.AIR))
+                                    weapon = equipment.getItemInOffHand();
+                            } catch (Throwable ex) {
+                                weapon = equipment.getItemInHand();
                             }
                         }
-
-                        forensics = new Forensics(assassin, null, weapon, cause, damage);
                     }
-                }
-
-                if (forensics == null)
-                    forensics = new Forensics(null, null, null, cause, damage);
 
-                for (ItemStack drop : e.getDrops()) {
-                    drop_data.put(drop, entity.getUniqueId());
+                    forensics = new Forensics(assassin, null, weapon, cause, damage);
                 }
+            }
 
-                EntityDieAtRegionEvent event = new EntityDieAtRegionEvent(entity, forensics, region);
-                Bukkit.getServer().getPluginManager().callEvent(event);
+            if (forensics == null)
+                forensics = new Forensics(null, null, null, cause, damage);
+
+            for (ItemStack drop : e.getDrops()) {
+                drop_data.put(drop, entity.getUniqueId());
             }
+
+            EntityDieAtRegionEvent event = new EntityDieAtRegionEvent(entity, forensics, region);
+            Bukkit.getServer().getPluginManager().callEvent(event);
         });
+
+        //Players keep existing after dying, they are removed when they quit
+        if (!(entity instanceof Player))
+            forget(entity);
     }
 
     /**
@@ -547,22 +562,17 @@ public class DummyListener implements Listener {
             Player player = e.getPlayer();
             Item drop = e.getItemDrop();
 
-            Cuboid.getRegions().forEach((region) -> {
-                if (region.isInside(player) || region.isInside(drop)) {
-                    drop_handled.add(player.getUniqueId());
-                    items_cache.add(drop.getUniqueId());
-
-                    ItemSpawnAtRegionEvent event = new ItemSpawnAtRegionEvent(drop, player, region);
-                    Bukkit.getServer().getPluginManager().callEvent(event);
+            regions(player, drop).forEach((region) -> {
+                drop_handled.add(player.getUniqueId());
+                items_cache.add(drop.getUniqueId());
 
-                    if (event.isCancelled()) {
-                        e.setCancelled(true);
-                    } else {
-                        Set<Entity> cached = entity_cache.getOrDefault(region, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-                        cached.add(drop);
+                ItemSpawnAtRegionEvent event = new ItemSpawnAtRegionEvent(drop, player, region);
+                Bukkit.getServer().getPluginManager().callEvent(event);
 
-                        entity_cache.put(region, cached);
-                    }
+                if (event.isCancelled()) {
+                    e.setCancelled(true);
+                } else {
+                    membership.add(drop.getUniqueId(), region);
                 }
             });
         }
@@ -579,21 +589,52 @@ public class DummyListener implements Listener {
             LivingEntity entity = e.getEntity();
             Item pickup = e.getItem();
 
-            Cuboid.getRegions().forEach((region) -> {
-                if (region.isInside(entity) || region.isInside(pickup)) {
-                    EntityPickupItemAtRegionEvent event = new EntityPickupItemAtRegionEvent(pickup, entity, region);
-                    Bukkit.getServer().getPluginManager().callEvent(event);
-
-                    if (event.isCancelled()) {
-                        e.setCancelled(true);
-                    } else {
-                        Set<Entity> cached = entity_cache.getOrDefault(region, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-                        cached.remove(pickup);
+            regions(entity, pickup).forEach((region) -> {
+                EntityPickupItemAtRegionEvent event = new EntityPickupItemAtRegionEvent(pickup, entity, region);
+                Bukkit.getServer().getPluginManager().callEvent(event);
 
-                        entity_cache.put(region, cached);
-                    }
+                if (event.isCancelled()) {
+                    e.setCancelled(true);
                 }
             });
+
+            if (!e.isCancelled())
+                forget(pickup);
+        }
+    }
+
+    /**
+     * Event listener
+     *
+     * @param e the event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void itemDespawn(ItemDespawnEvent e) {
+        if (!e.isCancelled()) {
+            forget(e.getEntity());
+        }
+    }
+
+    /**
+     * Event listener
+     *
+     * @param e the event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void playerQuit(PlayerQuitEvent e) {
+        forget(e.getPlayer());
+    }
+
+    /**
+     * Event listener
+     *
+     * @param e the event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void chunkUnload(ChunkUnloadEvent e) {
+        for (Entity entity : e.getChunk().getEntities()) {
+            if (!(entity instanceof Player))
+                forget(entity);
         }
     }
 }
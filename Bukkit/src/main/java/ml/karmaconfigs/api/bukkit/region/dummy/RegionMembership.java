@@ -0,0 +1,196 @@
+package ml.karmaconfigs.api.bukkit.region.dummy;
+
+/*
+ * This file is part of KarmaAPI, licensed under the MIT License.
+ *
+ *  Copyright (c) karma (KarmaDev) <karmaconfigs@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+import ml.karmaconfigs.api.bukkit.region.Cuboid;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Regions each entity is known to be inside of. Every
+ * entity keeps a sorted array of region ids, so membership
+ * checks are binary searches and join/leave detection is
+ * a difference between two sorted arrays
+ */
+final class RegionMembership {
+
+    private final static int[] EMPTY = new int[0];
+
+    private final Map<Cuboid, Integer> ids = new ConcurrentHashMap<>();
+    private final Map<Integer, Cuboid> regions = new ConcurrentHashMap<>();
+    private final Map<UUID, int[]> members = new ConcurrentHashMap<>();
+
+    private final AtomicInteger next = new AtomicInteger(0);
+
+    /**
+     * Get the id of a region
+     *
+     * @param region the region
+     * @return the region id
+     */
+    int id(final Cuboid region) {
+        return ids.computeIfAbsent(region, (key) -> {
+            int id = next.getAndIncrement();
+            regions.put(id, key);
+
+            return id;
+        });
+    }
+
+    /**
+     * Get the region of an id
+     *
+     * @param id the region id
+     * @return the region
+     */
+    Cuboid region(final int id) {
+        return regions.get(id);
+    }
+
+    /**
+     * Get the sorted ids of the regions
+     *
+     * @param regions the regions
+     * @return the sorted region ids
+     */
+    int[] ids(final Collection<Cuboid> regions) {
+        if (regions.isEmpty())
+            return EMPTY;
+
+        int[] result = new int[regions.size()];
+
+        int index = 0;
+        for (Cuboid region : regions)
+            result[index++] = id(region);
+        Arrays.sort(result);
+
+        return result;
+    }
+
+    /**
+     * Get the regions the entity is inside of
+     *
+     * @param entity the entity
+     * @return the sorted entity region ids
+     */
+    int[] get(final UUID entity) {
+        return members.getOrDefault(entity, EMPTY);
+    }
+
+    /**
+     * Set the regions the entity is inside of
+     *
+     * @param entity  the entity
+     * @param regions the sorted entity region ids
+     */
+    void set(final UUID entity, final int[] regions) {
+        if (regions.length == 0) {
+            members.remove(entity);
+        } else {
+            members.put(entity, regions);
+        }
+    }
+
+    /**
+     * Add a region to the entity regions
+     *
+     * @param entity the entity
+     * @param region the region
+     */
+    void add(final UUID entity, final Cuboid region) {
+        int id = id(region);
+        members.compute(entity, (key, current) -> {
+            if (current == null)
+                return new int[]{id};
+
+            int index = Arrays.binarySearch(current, id);
+            if (index >= 0)
+                return current;
+
+            index = -(index + 1);
+            int[] result = new int[current.length + 1];
+            System.arraycopy(current, 0, result, 0, index);
+            result[index] = id;
+            System.arraycopy(current, index, result, index + 1, current.length - index);
+
+            return result;
+        });
+    }
+
+    /**
+     * Release a region id, removing the region
+     * from every entity regions
+     *
+     * @param region the region
+     */
+    void release(final Cuboid region) {
+        Integer id = ids.remove(region);
+        if (id == null)
+            return;
+
+        regions.remove(id);
+        for (UUID entity : members.keySet()) {
+            members.computeIfPresent(entity, (key, current) -> {
+                int index = Arrays.binarySearch(current, id);
+                if (index < 0)
+                    return current;
+                if (current.length == 1)
+                    return null;
+
+                int[] result = new int[current.length - 1];
+                System.arraycopy(current, 0, result, 0, index);
+                System.arraycopy(current, index + 1, result, index, current.length - index - 1);
+
+                return result;
+            });
+        }
+    }
+
+    /**
+     * Remove all the entity regions
+     *
+     * @param entity the entity
+     */
+    void forget(final UUID entity) {
+        members.remove(entity);
+    }
+
+    /**
+     * Get if the sorted ids contain the id
+     *
+     * @param ids the sorted ids
+     * @param id  the id
+     * @return if the id is in the ids
+     */
+    static boolean contains(final int[] ids, final int id) {
+        return Arrays.binarySearch(ids, id) >= 0;
+    }
+}
@@ -2,11 +2,9 @@ package ml.karmaconfigs.api.bukkit.tracker;
 
 import ml.karmaconfigs.api.common.utils.Decliner;
 import org.bukkit.entity.ArmorStand;
-import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
 
 import javax.xml.ws.Provider;
-import java.util.Collection;
 
 /**
  * Auto tracker
@@ -23,14 +21,10 @@ public interface AutoTracker {
     default LivingEntity[] track(final Tracker tracker, final double max_radius) {
         LivingEntity entity = null;
 
-        Collection<Entity> entities = tracker.getWorld().getNearbyEntities(tracker.getLocation(), max_radius, max_radius, max_radius);
-        for (Entity ent : entities) {
-            if (ent instanceof LivingEntity) {
-                LivingEntity living = (LivingEntity) ent;
-                if (!(living instanceof ArmorStand)) {
-                    entity = living;
-                    break;
-                }
+        for (LivingEntity living : TrackerGrid.nearby(tracker.getLocation(), max_radius)) {
+            if (!(living instanceof ArmorStand)) {
+                entity = living;
+                break;
             }
         }
 
@@ -0,0 +1,133 @@
+package ml.karmaconfigs.api.bukkit.tracker;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.LivingEntity;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Living entities of a world grouped by chunk. The grid is
+ * built once per server tick and shared by all the trackers
+ * looking for a target, so each tracker only checks the entities
+ * of the chunks around it instead of scanning the whole world
+ */
+public final class TrackerGrid {
+
+    /**
+     * Maximum time a grid is used before being built again, in
+     * case no tracker ticker resets the grids
+     */
+    private final static long MAX_AGE = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final static Map<UUID, TrackerGrid> grids = new ConcurrentHashMap<>();
+
+    private final Map<Long, List<Point>> chunks = new HashMap<>();
+    private final long built = System.nanoTime();
+
+    /**
+     * Build the world grid
+     *
+     * @param world the world
+     */
+    private TrackerGrid(final World world) {
+        for (LivingEntity entity : world.getLivingEntities()) {
+            Location location = entity.getLocation();
+            Point point = new Point(entity, location.getX(), location.getY(), location.getZ());
+
+            chunks.computeIfAbsent(key(location.getBlockX() >> 4, location.getBlockZ() >> 4), (k) -> new ArrayList<>()).add(point);
+        }
+    }
+
+    /**
+     * Get the living entities near a location. The
+     * entities are ordered by chunk
+     *
+     * @param center the location
+     * @param radius the search radius
+     * @return the living entities inside the radius box
+     */
+    public static List<LivingEntity> nearby(final Location center, final double radius) {
+        World world = center.getWorld();
+        if (world == null)
+            return Collections.emptyList();
+
+        TrackerGrid grid = grids.get(world.getUID());
+        if (grid == null || System.nanoTime() - grid.built >= MAX_AGE) {
+            grid = new TrackerGrid(world);
+            grids.put(world.getUID(), grid);
+        }
+
+        double x = center.getX();
+        double y = center.getY();
+        double z = center.getZ();
+        double range = Math.abs(radius);
+
+        int minX = ((int) Math.floor(x - range)) >> 4;
+        int maxX = ((int) Math.floor(x + range)) >> 4;
+        int minZ = ((int) Math.floor(z - range)) >> 4;
+        int maxZ = ((int) Math.floor(z + range)) >> 4;
+
+        List<LivingEntity> result = new ArrayList<>();
+        for (int chunkX = minX; chunkX <= maxX; chunkX++) {
+            for (int chunkZ = minZ; chunkZ <= maxZ; chunkZ++) {
+                List<Point> points = grid.chunks.get(key(chunkX, chunkZ));
+                if (points != null) {
+                    for (Point point : points) {
+                        if (Math.abs(point.x - x) <= range && Math.abs(point.y - y) <= range && Math.abs(point.z - z) <= range)
+                            result.add(point.entity);
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Forget the built grids, so they get built
+     * again the next time they are used
+     */
+    public static void reset() {
+        grids.clear();
+    }
+
+    /**
+     * Get a chunk key
+     *
+     * @param chunkX the chunk x
+     * @param chunkZ the chunk z
+     * @return the chunk key
+     */
+    private static long key(final int chunkX, final int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * An entity and its position when the grid was built
+     */
+    private static final class Point {
+
+        private final LivingEntity entity;
+        private final double x;
+        private final double y;
+        private final double z;
+
+        /**
+         * Initialize the point
+         *
+         * @param e  the entity
+         * @param px the entity x
+         * @param py the entity y
+         * @param pz the entity z
+         */
+        private Point(final LivingEntity e, final double px, final double py, final double pz) {
+            entity = e;
+            x = px;
+            y = py;
+            z = pz;
+        }
+    }
+}
@@ -17,23 +17,18 @@ import org.bukkit.World;
 import org.bukkit.entity.ArmorStand;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
 import org.bukkit.inventory.EntityEquipment;
 import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.metadata.FixedMetadataValue;
-import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.util.EulerAngle;
 import org.bukkit.util.Vector;
 import org.jetbrains.annotations.ApiStatus;
 
 import java.lang.reflect.Method;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Set;
-import java.util.UUID;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Tracker implementation for Armor Stands
@@ -42,16 +37,29 @@ public class TrackerStand extends Tracker {
 
     private final static ArrayList<UUID> kill_queue = new ArrayList<>(25); //Should be enough
 
-    //private final Map<String, Object> properties = new HashMap<>();
-    private final Set<PropertyValue<?>> properties = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private final static int SETTING_SMALL = 0;
+    private final static int SETTING_ALWAYS = 1;
+    private final static int SETTING_OFFSET = 2;
+    private final static int SETTING_DISTANCE = 3;
+    private final static int SETTING_LOCK = 4;
+    private final static int SETTING_SCAN = 5;
+    private final static int SETTING_TRACK = 6;
+
+    private final Map<String, PropertyValue<?>> properties = new ConcurrentHashMap<>();
     private final Set<PropertyValue<?>> updated_properties = Collections.newSetFromMap(new ConcurrentHashMap<>());
     private final KarmaPlugin plugin;
     private final Location location;
     private final Location variable_location;
 
+    /**
+     * The properties read on each tick, and the last value
+     * copied from each of them to the tick settings
+     */
+    private final PropertyValue<?>[] settings = new PropertyValue<?>[7];
+    private final Object[] setting_values = new Object[7];
+
     private ArmorStand stand;
-    private BukkitTask task;
-    private BukkitTask track_task;
+    private boolean ticking = false;
     private LivingEntity tracking;
     private boolean reset_time = false;
     private boolean reset_task = false;
@@ -64,6 +72,19 @@ public class TrackerStand extends Tracker {
 
     private LivingEntity last_track = null;
 
+    private boolean small = false;
+    private boolean always_track = false;
+    private double angle_offset = 0;
+    private double scan_distance = 32;
+    private boolean track_lock = true;
+    private long scan_period = 20;
+    private long track_period = 5;
+
+    private long next_scan = 0;
+    private long next_track = 0;
+    private long start_time = 0;
+    private int last_second = 0;
+
     /**
      * Initialize the tracker stand
      *
@@ -118,16 +139,14 @@ public class TrackerStand extends Tracker {
         if (newProperty != null && newProperty.getValue() != null) {
             PropertyValue<T> prop = null;
 
-            for (PropertyValue<?> property : properties) {
-                if (property.getIdentifier().equals(newProperty.getIdentifier())) {
-                    if (property.matches(newProperty.getValue())) {
-                        PropertyValue<T> new_value = property.getFlag().makeProperty(newProperty.getName());
-                        new_value.update(newProperty.getValue());
-                        prop = new_value;
-                        break;
-                    } else {
-                        throw new IllegalStateException("Cannot modify tracker property because values type doesn't match");
-                    }
+            PropertyValue<?> property = properties.get(newProperty.getIdentifier());
+            if (property != null) {
+                if (property.matches(newProperty.getValue())) {
+                    PropertyValue<T> new_value = property.getFlag().makeProperty(newProperty.getName());
+                    new_value.update(newProperty.getValue());
+                    prop = new_value;
+                } else {
+                    throw new IllegalStateException("Cannot modify tracker property because values type doesn't match");
                 }
             }
 
@@ -151,20 +170,7 @@ public class TrackerStand extends Tracker {
      */
     @Override
     public @SuppressWarnings("unchecked") <T> PropertyValue<T> getProperty(final TrackerFlag flag, final String name) {
-        PropertyValue<T> prop = null;
-
-        for (PropertyValue<?> property : properties) {
-            if (property.getIdentifier().equals(flag.getPrefix() + "_" + name)) {
-                try {
-                    prop = (PropertyValue<T>) property;
-                } catch (ClassCastException ex) {
-                    return null;
-                }
-                break;
-            }
-        }
-
-        return prop;
+        return (PropertyValue<T>) properties.get(flag.getPrefix() + "_" + name);
     }
 
     /**
@@ -177,7 +183,7 @@ public class TrackerStand extends Tracker {
     public LineOfSight getLineOfSight(final SightPart part) {
         PointToEntity sight;
 
-        boolean small = getProperty(TrackerFlag.PROPERTY_BOOLEAN, "small").getUnsafe();
+        refresh();
         switch (part) {
             case HEAD:
                 sight = new PointToEntity(stand.getLocation(), (tracking != null ? tracking : stand))
@@ -211,7 +217,7 @@ public class TrackerStand extends Tracker {
     public LineOfSight getLineOfSight(final LivingEntity target, final SightPart part) {
         PointToEntity sight;
 
-        boolean small = getProperty(TrackerFlag.PROPERTY_BOOLEAN, "small").getUnsafe();
+        refresh();
         switch (part) {
             case HEAD:
                 sight = new PointToEntity(stand.getLocation(), target)
@@ -314,7 +320,7 @@ public class TrackerStand extends Tracker {
         if (stand != null && tracking != null) {
             Location standLocation = stand.getLocation().clone();
             if (trackEye) {
-                boolean small = getProperty(TrackerFlag.PROPERTY_BOOLEAN, "small").getUnsafe();
+                refresh();
                 standLocation.add(0, (small ? 0.5 : 1.5), 0);
             }
 
@@ -357,87 +363,8 @@ public class TrackerStand extends Tracker {
      */
     @Override
     public void start() {
-        if (task == null) {
-            long track_period = Math.max(1, ((Number) getProperty(TrackerFlag.TRACKER_NUMBER, "trackPeriod").getUnsafe()).longValue());
-
-            track_task = plugin.getServer().getScheduler().runTaskTimer(plugin, () -> {
-                boolean always_track = getProperty(TrackerFlag.TRACKER_BOOLEAN, "ignoreLineOfSight").getUnsafe();
-                double offset = ((Number) getProperty(TrackerFlag.TRACKER_NUMBER, "angleOffset").getUnsafe()).doubleValue();
-                double max_dist = Math.abs(((Number) getProperty(TrackerFlag.TRACKER_NUMBER, "scanDistance").getUnsafe()).doubleValue());
-                boolean track_lock = getProperty(TrackerFlag.TRACKER_BOOLEAN, "leapAtTarget").getUnsafe();
-
-                if (tracking != null) {
-                    if (track_lock && last_track != null && last_track.isValid() && !last_track.isDead()) {
-                        tracking = last_track;
-                    }
-
-                    last_track = tracking;
-
-                    if (tracking.isDead() || !tracking.isValid()) {
-                        tracking = null;
-                    }
-
-                    if (stand != null) {
-                        if (stand.isDead() || !stand.isValid()) {
-                            tracking = null;
-                        }
-                    }
-
-                    if (tracking != null && stand != null) {
-                        Location trackLocation = tracking.getEyeLocation().clone();
-                        Location standLocation = stand.getLocation().clone();
-                        standLocation.setY(standLocation.getY() + Math.max(1.5, tracking.getEyeHeight()));
-
-                        LineOfSight hSight = getLineOfSight(SightPart.HEAD);
-                        LineOfSight bSight = getLineOfSight(SightPart.BODY);
-                        LineOfSight fSight = getLineOfSight(SightPart.FEET);
-
-                        if (hSight.inLineOfSight(max_dist) || bSight.inLineOfSight(max_dist) || fSight.inLineOfSight(max_dist) || always_track) {
-                            if (!hSight.inLineOfSight(max_dist)) {
-                                if (bSight.inLineOfSight(max_dist)) {
-                                    trackLocation.subtract(0d, tracking.getEyeHeight() / 2, 0d);
-                                } else {
-                                    trackLocation.subtract(0d, tracking.getEyeHeight() / 4, 0d);
-                                }
-                            }
-
-                            Vector vector = trackLocation.toVector().subtract(standLocation.toVector()).normalize();
-
-                            if (offset != 0) {
-                                if (offset >= 0) {
-                                    vector = trackLocation.add(0, offset, 0).toVector().subtract(standLocation.toVector()).normalize();
-                                } else {
-                                    vector = trackLocation.subtract(0, Math.abs(offset), 0).toVector().subtract(standLocation.toVector()).normalize();
-                                }
-                            }
-
-                            double angle_x = vector.getY() * (-1);
-                            double x = vector.getX();
-                            double z = vector.getZ();
-                            double angle_y = 180F - Math.toDegrees(Math.atan2(x, z));
-
-                            yaw = (float) angle_y - 180F;
-                            pitch = (180.0F - (float) Math.toDegrees(Math.acos(vector.getY()))) * (-1);
-
-                            Location clone = stand.getLocation().clone();
-                            clone.setYaw(yaw);
-                            clone.setPitch(pitch);
-
-                            variable_location.setX(clone.getX());
-                            variable_location.setY(clone.getY());
-                            variable_location.setZ(clone.getZ());
-                            variable_location.setYaw(clone.getYaw());
-                            variable_location.setPitch(clone.getPitch());
-
-                            plugin.console().debug("Stand yaw: {0} (From: {1})", Level.INFO, yaw, (180 + yaw));
-                            plugin.console().debug("Stand pitch: {0} (From: {1})", Level.INFO, pitch, (180 + pitch));
-
-                            EulerAngle angle = new EulerAngle(angle_x, Math.toRadians(angle_y), 0);
-                            stand.setHeadPose(angle);
-                        }
-                    }
-                }
-            }, 0, track_period);
+        if (!ticking) {
+            ticking = true;
 
             if (stand == null || stand.isDead() || !stand.isValid()) {
                 if (stand != null) stand.remove();
@@ -455,121 +382,310 @@ public class TrackerStand extends Tracker {
                 }
             }
 
-            AtomicLong start = new AtomicLong(System.currentTimeMillis());
-            AtomicInteger last_second = new AtomicInteger(0);
-            long period = Math.max(1, ((Number) getProperty(TrackerFlag.TRACKER_NUMBER, "scanPeriod").getUnsafe()).longValue());
+            start_time = System.currentTimeMillis();
+            last_second = 0;
+            next_scan = 0;
+            next_track = 0;
 
-            task = plugin.getServer().getScheduler().runTaskTimer(plugin, () -> {
-                if (reset_task) {
-                    reset_task = false;
+            TrackerTicker.register(plugin, this);
+        }
+    }
 
-                    task.cancel();
-                    track_task.cancel();
-                    task = null;
-                    track_task = null;
-                    reset_time = true;
+    /**
+     * Tick the tracker. The tracker tracks its target every
+     * track period and scans for a new target every scan period
+     *
+     * @param tick the current ticker tick
+     */
+    void tick(final long tick) {
+        refresh();
 
-                    start();
-                } else {
-                    if (reset_time) {
-                        reset_time = false;
-                        start.set(System.currentTimeMillis());
-                    }
+        if (tick >= next_track) {
+            next_track = tick + track_period;
+            track();
+        }
+        if (tick >= next_scan) {
+            next_scan = tick + scan_period;
+            scan(tick);
+        }
+    }
 
-                    boolean always_track = getProperty(TrackerFlag.TRACKER_BOOLEAN, "ignoreLineOfSight").getUnsafe();
-                    double max_dist = Math.abs(((Number) getProperty(TrackerFlag.TRACKER_NUMBER, "scanDistance").getUnsafe()).doubleValue());
-                    boolean track_lock = getProperty(TrackerFlag.TRACKER_BOOLEAN, "leapAtTarget").getUnsafe();
+    /**
+     * Point the stand to the tracking entity
+     */
+    private void track() {
+        if (tracking != null) {
+            if (track_lock && last_track != null && last_track.isValid() && !last_track.isDead()) {
+                tracking = last_track;
+            }
 
-                    LivingEntity[] multi;
-                    if (tracker != null && (stand != null && !stand.isDead() && stand.isValid())) {
-                        multi = tracker.track(this, max_dist);
-                    } else {
-                        multi = new LivingEntity[]{tracking, last_track};
-                    }
+            last_track = tracking;
+
+            if (tracking.isDead() || !tracking.isValid()) {
+                tracking = null;
+            }
 
+            if (stand != null) {
+                if (stand.isDead() || !stand.isValid()) {
                     tracking = null;
-                    for (LivingEntity entity : multi) {
-                        if (entity != null) {
-                            LineOfSight hSight = getLineOfSight(entity, SightPart.HEAD);
-                            LineOfSight bSight = getLineOfSight(entity, SightPart.BODY);
-                            LineOfSight fSight = getLineOfSight(entity, SightPart.FEET);
-
-                            if (hSight.inLineOfSight(max_dist) || bSight.inLineOfSight(max_dist) || fSight.inLineOfSight(max_dist) || always_track) {
-                                tracking = entity;
-                                break;
-                            }
-                        }
-                    }
-                    if (track_lock && last_track != null && last_track.isValid() && !last_track.isDead()) {
-                        LineOfSight hSight = getLineOfSight(last_track, SightPart.HEAD);
-                        LineOfSight bSight = getLineOfSight(last_track, SightPart.BODY);
-                        LineOfSight fSight = getLineOfSight(last_track, SightPart.FEET);
+                }
+            }
+
+            if (tracking != null && stand != null) {
+                //Each line of sight is only traced if the previous one failed
+                boolean head = getLineOfSight(SightPart.HEAD).inLineOfSight(scan_distance);
+                boolean body = !head && getLineOfSight(SightPart.BODY).inLineOfSight(scan_distance);
+                boolean feet = !head && !body && !always_track && getLineOfSight(SightPart.FEET).inLineOfSight(scan_distance);
 
-                        if (hSight.inLineOfSight(max_dist) || bSight.inLineOfSight(max_dist) || fSight.inLineOfSight(max_dist) || always_track) {
-                            tracking = last_track;
+                if (head || body || feet || always_track) {
+                    Location trackLocation = tracking.getEyeLocation().clone();
+                    Location standLocation = stand.getLocation().clone();
+                    standLocation.setY(standLocation.getY() + Math.max(1.5, tracking.getEyeHeight()));
+
+                    if (!head) {
+                        if (body) {
+                            trackLocation.subtract(0d, tracking.getEyeHeight() / 2, 0d);
+                        } else {
+                            trackLocation.subtract(0d, tracking.getEyeHeight() / 4, 0d);
                         }
                     }
 
-                    if (tracking != null) {
-                        if (last_track != null) {
-                            if (!tracking.getUniqueId().equals(last_track.getUniqueId())) {
-                                Event event = new TrackerLostEvent(this, last_track);
-                                Bukkit.getServer().getPluginManager().callEvent(event);
+                    Vector vector = trackLocation.toVector().subtract(standLocation.toVector()).normalize();
 
-                                last_track = tracking;
-                            }
+                    if (angle_offset != 0) {
+                        if (angle_offset >= 0) {
+                            vector = trackLocation.add(0, angle_offset, 0).toVector().subtract(standLocation.toVector()).normalize();
                         } else {
-                            last_track = tracking;
+                            vector = trackLocation.subtract(0, Math.abs(angle_offset), 0).toVector().subtract(standLocation.toVector()).normalize();
                         }
+                    }
 
-                        if (tracking.isDead() || !tracking.isValid()) {
-                            if (!kill_queue.contains(tracking.getUniqueId())) {
-                                last_killed = tracking.getUniqueId();
-                                last_track = null;
-                                kill_queue.add(last_killed);
+                    double angle_x = vector.getY() * (-1);
+                    double x = vector.getX();
+                    double z = vector.getZ();
+                    double angle_y = 180F - Math.toDegrees(Math.atan2(x, z));
 
-                                Event event = new TrackerTargetDiedEvent(this, tracking);
-                                Bukkit.getServer().getPluginManager().callEvent(event);
-                            }
+                    yaw = (float) angle_y - 180F;
+                    pitch = (180.0F - (float) Math.toDegrees(Math.acos(vector.getY()))) * (-1);
 
-                            tracking = null;
-                        }
+                    Location clone = stand.getLocation().clone();
+                    clone.setYaw(yaw);
+                    clone.setPitch(pitch);
 
-                        if (stand != null) {
-                            if (stand.isDead() || !stand.isValid()) {
-                                Event event = new TrackerDiedEvent(this);
-                                Bukkit.getServer().getPluginManager().callEvent(event);
+                    variable_location.setX(clone.getX());
+                    variable_location.setY(clone.getY());
+                    variable_location.setZ(clone.getZ());
+                    variable_location.setYaw(clone.getYaw());
+                    variable_location.setPitch(clone.getPitch());
 
-                                tracking = null;
-                            }
-                        }
+                    plugin.console().debug("Stand yaw: {0} (From: {1})", Level.INFO, yaw, (180 + yaw));
+                    plugin.console().debug("Stand pitch: {0} (From: {1})", Level.INFO, pitch, (180 + pitch));
+
+                    EulerAngle angle = new EulerAngle(angle_x, Math.toRadians(angle_y), 0);
+                    stand.setHeadPose(angle);
+                }
+            }
+        }
+    }
 
-                        if (tracking != null && stand != null) {
-                            long end = System.currentTimeMillis();
-                            int seconds = (int) (end - start.get()) / 1000;
+    /**
+     * Scan for the entity to track
+     *
+     * @param tick the current ticker tick
+     */
+    private void scan(final long tick) {
+        if (reset_task) {
+            reset_task = false;
+            reset_time = true;
+            ticking = false;
+
+            start();
+
+            //Start over on the next tick with the new periods
+            next_scan = tick + 1;
+            next_track = tick + 1;
+        } else {
+            if (reset_time) {
+                reset_time = false;
+                start_time = System.currentTimeMillis();
+            }
 
-                            Event event = new TrackerTickEvent(this, tracking, 1);
-                            Bukkit.getServer().getPluginManager().callEvent(event);
-                            if (last_second.get() != seconds) {
-                                last_second.set(seconds);
+            LivingEntity[] multi;
+            if (tracker != null && (stand != null && !stand.isDead() && stand.isValid())) {
+                multi = tracker.track(this, scan_distance);
+            } else {
+                multi = new LivingEntity[]{tracking, last_track};
+            }
 
-                                Event second = new TrackerSecondEvent(this, tracking, seconds);
-                                Bukkit.getServer().getPluginManager().callEvent(second);
-                            }
-                        }
-                    } else {
-                        if (last_killed != null) {
-                            kill_queue.remove(last_killed);
-                            last_killed = null;
-                            kill_queue.trimToSize();
-                            last_track = null;
+            tracking = null;
+            for (LivingEntity entity : multi) {
+                if (entity != null && inSight(entity)) {
+                    tracking = entity;
+                    break;
+                }
+            }
+            if (track_lock && last_track != null && last_track != tracking && last_track.isValid() && !last_track.isDead()) {
+                if (inSight(last_track)) {
+                    tracking = last_track;
+                }
+            }
+
+            if (tracking != null) {
+                if (last_track != null) {
+                    if (!tracking.getUniqueId().equals(last_track.getUniqueId())) {
+                        Event event = new TrackerLostEvent(this, last_track);
+                        Bukkit.getServer().getPluginManager().callEvent(event);
+
+                        last_track = tracking;
+                    }
+                } else {
+                    last_track = tracking;
+                }
+
+                if (tracking.isDead() || !tracking.isValid()) {
+                    if (!kill_queue.contains(tracking.getUniqueId())) {
+                        last_killed = tracking.getUniqueId();
+                        last_track = null;
+                        kill_queue.add(last_killed);
+
+                        Event event = new TrackerTargetDiedEvent(this, tracking);
+                        Bukkit.getServer().getPluginManager().callEvent(event);
+                    }
+
+                    tracking = null;
+                }
+
+                if (stand != null) {
+                    if (stand.isDead() || !stand.isValid()) {
+                        Event event = new TrackerDiedEvent(this);
+                        Bukkit.getServer().getPluginManager().callEvent(event);
+
+                        tracking = null;
+                    }
+                }
+
+                if (tracking != null && stand != null) {
+                    long end = System.currentTimeMillis();
+                    int seconds = (int) (end - start_time) / 1000;
+
+                    if (listening(TrackerTickEvent.getHandlerList())) {
+                        Event event = new TrackerTickEvent(this, tracking, 1);
+                        Bukkit.getServer().getPluginManager().callEvent(event);
+                    }
+                    if (last_second != seconds) {
+                        last_second = seconds;
+
+                        if (listening(TrackerSecondEvent.getHandlerList())) {
+                            Event second = new TrackerSecondEvent(this, tracking, seconds);
+                            Bukkit.getServer().getPluginManager().callEvent(second);
                         }
                     }
                 }
-            }, 0, period);
+            } else {
+                if (last_killed != null) {
+                    kill_queue.remove(last_killed);
+                    last_killed = null;
+                    kill_queue.trimToSize();
+                    last_track = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Get if the tracker can see the entity. The
+     * cheapest checks are done first
+     *
+     * @param entity the entity
+     * @return if the tracker can see the entity
+     */
+    private boolean inSight(final LivingEntity entity) {
+        return always_track ||
+                getLineOfSight(entity, SightPart.HEAD).inLineOfSight(scan_distance) ||
+                getLineOfSight(entity, SightPart.BODY).inLineOfSight(scan_distance) ||
+                getLineOfSight(entity, SightPart.FEET).inLineOfSight(scan_distance);
+    }
+
+    /**
+     * Get if an event has listeners, so it's
+     * worth creating and calling it
+     *
+     * @param handlers the event handlers
+     * @return if the event has listeners
+     */
+    private static boolean listening(final HandlerList handlers) {
+        return handlers.getRegisteredListeners().length > 0;
+    }
+
+    /**
+     * Copy the tick settings from their properties if
+     * any of them changed since the last copy
+     */
+    private void refresh() {
+        boolean changed = false;
+        for (int i = 0; i < settings.length; i++) {
+            PropertyValue<?> setting = settings[i];
+            if (setting != null) {
+                Object value = setting.getValue();
+                if (value != null && value != setting_values[i]) {
+                    setting_values[i] = value;
+                    changed = true;
+                }
+            }
+        }
+
+        if (changed) {
+            small = setting(SETTING_SMALL, small);
+            always_track = setting(SETTING_ALWAYS, always_track);
+            angle_offset = setting(SETTING_OFFSET, angle_offset);
+            scan_distance = Math.abs(setting(SETTING_DISTANCE, scan_distance));
+            track_lock = setting(SETTING_LOCK, track_lock);
+            scan_period = Math.max(1, (long) setting(SETTING_SCAN, scan_period));
+            track_period = Math.max(1, (long) setting(SETTING_TRACK, track_period));
         }
     }
 
+    /**
+     * Get a boolean tick setting
+     *
+     * @param index the setting index
+     * @param def   the current value
+     * @return the setting value
+     */
+    private boolean setting(final int index, final boolean def) {
+        Object value = setting_values[index];
+        return (value instanceof Boolean ? (Boolean) value : def);
+    }
+
+    /**
+     * Get a number tick setting
+     *
+     * @param index the setting index
+     * @param def   the current value
+     * @return the setting value
+     */
+    private double setting(final int index, final double def) {
+        Object value = setting_values[index];
+        return (value instanceof Number ? ((Number) value).doubleValue() : def);
+    }
+
+    /**
+     * Store a property
+     *
+     * @param property the property
+     */
+    private void register(final PropertyValue<?> property) {
+        properties.put(property.getIdentifier(), property);
+
+        settings[SETTING_SMALL] = properties.get(TrackerFlag.PROPERTY_BOOLEAN.getPrefix() + "_small");
+        settings[SETTING_ALWAYS] = properties.get(TrackerFlag.TRACKER_BOOLEAN.getPrefix() + "_ignoreLineOfSight");
+        settings[SETTING_OFFSET] = properties.get(TrackerFlag.TRACKER_NUMBER.getPrefix() + "_angleOffset");
+        settings[SETTING_DISTANCE] = properties.get(TrackerFlag.TRACKER_NUMBER.getPrefix() + "_scanDistance");
+        settings[SETTING_LOCK] = properties.get(TrackerFlag.TRACKER_BOOLEAN.getPrefix() + "_leapAtTarget");
+        settings[SETTING_SCAN] = properties.get(TrackerFlag.TRACKER_NUMBER.getPrefix() + "_scanPeriod");
+        settings[SETTING_TRACK] = properties.get(TrackerFlag.TRACKER_NUMBER.getPrefix() + "_trackPeriod");
+    }
+
     /**
      * Update the tracker
      */
@@ -582,7 +698,8 @@ public class TrackerStand extends Tracker {
                 String keyName = property.getIdentifier();
 
                 switch (keyName) {
-                    case "tracker_boolean_scanPeriod":
+                    case "tracker_number_scanPeriod":
+                    case "tracker_number_trackPeriod":
                         reset_task = true;
                         break;
                     case "property_number_x":
@@ -869,7 +986,7 @@ public class TrackerStand extends Tracker {
                 if (stored_property != null) {
                     stored_property.update(property.getUnsafe());
                 } else {
-                    properties.add(property);
+                    register(property);
                 }
             }
 
@@ -1012,43 +1129,43 @@ public class TrackerStand extends Tracker {
         TRACKER_PERIOD.update(randomPeriod(20));
         TRACK_PERIOD.update(5);
 
-        properties.add(LOCATION_X);
-        properties.add(LOCATION_Y);
-        properties.add(LOCATION_Z);
-        properties.add(LOCATION_YAW);
-        properties.add(LOCATION_PITCH);
-        properties.add(LOCATION_WORLD);
-
-        properties.add(STAND_SMALL);
-        properties.add(STAND_BASE_PLATE);
-        properties.add(STAND_MARKER);
-        properties.add(STAND_INVINCIBLE);
-        properties.add(STAND_INVISIBLE);
-        properties.add(STAND_SHOW_NAME);
-        properties.add(STAND_ARMS);
-        properties.add(STAND_PICKUP_ITEMS);
-
-        properties.add(STAND_NAME);
-
-        properties.add(STAND_ANGLE_LA);
-        properties.add(STAND_ANGLE_RA);
-        properties.add(STAND_ANGLE_LL);
-        properties.add(STAND_ANGLE_RL);
-        properties.add(STAND_ANGLE_BO);
-
-        properties.add(STAND_EQUIP_LA);
-        properties.add(STAND_EQUIP_RA);
-        properties.add(STAND_EQUIP_HE);
-        properties.add(STAND_EQUIP_CH);
-        properties.add(STAND_EQUIP_LE);
-        properties.add(STAND_EQUIP_BO);
-
-        properties.add(TRACKER_ALWAYS);
-        properties.add(TRACKER_OFFSET);
-        properties.add(TRACKER_MAX_DISTANCE);
-        properties.add(TRACKER_LOCK);
-        properties.add(TRACKER_PERIOD);
-        properties.add(TRACK_PERIOD);
+        register(LOCATION_X);
+        register(LOCATION_Y);
+        register(LOCATION_Z);
+        register(LOCATION_YAW);
+        register(LOCATION_PITCH);
+        register(LOCATION_WORLD);
+
+        register(STAND_SMALL);
+        register(STAND_BASE_PLATE);
+        register(STAND_MARKER);
+        register(STAND_INVINCIBLE);
+        register(STAND_INVISIBLE);
+        register(STAND_SHOW_NAME);
+        register(STAND_ARMS);
+        register(STAND_PICKUP_ITEMS);
+
+        register(STAND_NAME);
+
+        register(STAND_ANGLE_LA);
+        register(STAND_ANGLE_RA);
+        register(STAND_ANGLE_LL);
+        register(STAND_ANGLE_RL);
+        register(STAND_ANGLE_BO);
+
+        register(STAND_EQUIP_LA);
+        register(STAND_EQUIP_RA);
+        register(STAND_EQUIP_HE);
+        register(STAND_EQUIP_CH);
+        register(STAND_EQUIP_LE);
+        register(STAND_EQUIP_BO);
+
+        register(TRACKER_ALWAYS);
+        register(TRACKER_OFFSET);
+        register(TRACKER_MAX_DISTANCE);
+        register(TRACKER_LOCK);
+        register(TRACKER_PERIOD);
+        register(TRACK_PERIOD);
     }
 
     /**
@@ -0,0 +1,125 @@
+package ml.karmaconfigs.api.bukkit.tracker.imp;
+
+import ml.karmaconfigs.api.bukkit.KarmaPlugin;
+import ml.karmaconfigs.api.bukkit.tracker.TrackerGrid;
+import ml.karmaconfigs.api.common.karma.KarmaConfig;
+import ml.karmaconfigs.api.common.utils.enums.Level;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Ticks every tracker stand of a plugin from a single
+ * task. Each server tick, the trackers of every plugin
+ * share the tick budget, and the trackers that did not
+ * fit run first on the next server tick
+ */
+final class TrackerTicker implements Runnable {
+
+    private final static Map<KarmaPlugin, TrackerTicker> tickers = new ConcurrentHashMap<>();
+    private final static long budget = new KarmaConfig().trackerTickBudget();
+
+    /*
+    Tickers run on the main thread once per server tick, so when
+    a ticker runs again in the same round, a new server tick started
+     */
+    private static long round = 0;
+    private static long remaining = budget;
+
+    private final KarmaPlugin plugin;
+    private final List<TrackerStand> stands = new CopyOnWriteArrayList<>();
+
+    private BukkitTask task = null;
+    private long tick = 0;
+    private long last = -1;
+    private int cursor = 0;
+
+    /**
+     * Initialize the tracker ticker
+     *
+     * @param owner the plugin owning the trackers
+     */
+    private TrackerTicker(final KarmaPlugin owner) {
+        plugin = owner;
+    }
+
+    /**
+     * Start ticking a tracker stand
+     *
+     * @param plugin the plugin owning the tracker
+     * @param stand  the tracker stand
+     */
+    static void register(final KarmaPlugin plugin, final TrackerStand stand) {
+        TrackerTicker ticker = tickers.computeIfAbsent(plugin, TrackerTicker::new);
+        ticker.add(stand);
+    }
+
+    /**
+     * Add a tracker stand
+     *
+     * @param stand the tracker stand
+     */
+    private synchronized void add(final TrackerStand stand) {
+        if (!stands.contains(stand))
+            stands.add(stand);
+
+        if (task == null)
+            task = plugin.getServer().getScheduler().runTaskTimer(plugin, this, 0, 1);
+    }
+
+    /**
+     * Tick the tracker stands
+     */
+    @Override
+    public void run() {
+        if (!plugin.isEnabled()) {
+            synchronized (this) {
+                task.cancel();
+                task = null;
+                stands.clear();
+            }
+            tickers.remove(plugin, this);
+            return;
+        }
+
+        if (last == round) {
+            round++;
+            remaining = budget;
+            TrackerGrid.reset();
+        }
+        last = round;
+
+        tick++;
+
+        int size = stands.size();
+        if (size == 0)
+            return;
+
+        long start = System.nanoTime();
+        int ran = 0;
+        while (ran < size) {
+            TrackerStand stand = stands.get((cursor + ran) % size);
+            ran++;
+
+            try {
+                stand.tick(tick);
+            } catch (Throwable ex) {
+                KarmaConfig config = new KarmaConfig();
+                if (config.log(Level.GRAVE)) {
+                    plugin.logger().scheduleLog(Level.GRAVE, ex);
+                }
+                if (config.debug(Level.GRAVE)) {
+                    plugin.console().send("Failed to tick tracker {0}", Level.GRAVE, stand.getID());
+                }
+            }
+            if (System.nanoTime() - start >= remaining)
+                break;
+        }
+
+        remaining -= System.nanoTime() - start;
+        cursor = (cursor + ran) % size;
+    }
+}
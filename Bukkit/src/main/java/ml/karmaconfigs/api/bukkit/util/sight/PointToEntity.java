@@ -2,8 +2,6 @@ package ml.karmaconfigs.api.bukkit.util.sight;
 
 import ml.karmaconfigs.api.bukkit.util.LineOfSight;
 import org.bukkit.Location;
-import org.bukkit.World;
-import org.bukkit.block.Block;
 import org.bukkit.entity.Entity;
 import org.bukkit.util.Vector;
 
@@ -101,51 +99,7 @@ public class PointToEntity extends LineOfSight {
      */
     @Override
     public boolean inLineOfSight() {
-        Location standLocation = pointA.clone().add(a_offset[0], a_offset[1], a_offset[2]);
-        Location trackLocation = pointB.getLocation().clone().add(b_offset[0], b_offset[1], b_offset[2]);
-
-        Vector direction = trackLocation.toVector().subtract(standLocation.toVector()).normalize();
-        World world = standLocation.getWorld();
-        assert world != null;
-
-        Entity ray_entity = null;
-
-        for (double i = precision; i < 64; i += precision) {
-            direction.multiply(i);
-            standLocation.add(direction);
-
-            Block block = standLocation.getBlock();
-            if (block.getType().isOccluding() && block.getType().isSolid()) {
-                break;
-            } else {
-                Collection<Entity> entities = world.getEntities();
-                for (Entity entity : entities) {
-                    if (!ignored.contains(entity.getUniqueId())) {
-                        Location ent_location = entity.getLocation().clone();
-                        ent_location.setY(standLocation.clone().getY());
-
-                        if (ent_location.distance(standLocation.clone()) <= Math.max(0.5, precision)) {
-                            ray_entity = entity;
-                        }
-                    }
-                }
-
-                standLocation.subtract(direction);
-                direction.normalize();
-
-                if (!ignoreMiddleEntities) {
-                    if (ray_entity != null) {
-                        break;
-                    }
-                } else {
-                    if (ray_entity != null && ray_entity.getUniqueId().equals(pointB.getUniqueId())) {
-                        break;
-                    }
-                }
-            }
-        }
-
-        return ray_entity != null && ray_entity.getUniqueId().equals(pointB.getUniqueId());
+        return inLineOfSight(64);
     }
 
     /**
@@ -156,51 +110,7 @@ public class PointToEntity extends LineOfSight {
      */
     @Override
     public boolean inLineOfSight(final double max_distance) {
-        Location standLocation = pointA.clone().add(a_offset[0], a_offset[1], a_offset[2]);
-        Location trackLocation = pointB.getLocation().clone().add(b_offset[0], b_offset[1], b_offset[2]);
-
-        Vector direction = trackLocation.toVector().subtract(standLocation.toVector()).normalize();
-        World world = standLocation.getWorld();
-        assert world != null;
-
-        Entity ray_entity = null;
-
-        for (double i = precision; i < max_distance; i += precision) {
-            direction.multiply(i);
-            standLocation.add(direction);
-
-            Block block = standLocation.getBlock();
-            if (block.getType().isOccluding() && block.getType().isSolid()) {
-                break;
-            } else {
-                Collection<Entity> entities = world.getEntities();
-                for (Entity entity : entities) {
-                    if (!ignored.contains(entity.getUniqueId())) {
-                        Location ent_location = entity.getLocation().clone();
-                        ent_location.setY(standLocation.clone().getY());
-
-                        if (ent_location.distance(standLocation.clone()) <= Math.max(0.5, precision)) {
-                            ray_entity = entity;
-                        }
-                    }
-                }
-
-                standLocation.subtract(direction);
-                direction.normalize();
-
-                if (!ignoreMiddleEntities) {
-                    if (ray_entity != null) {
-                        break;
-                    }
-                } else {
-                    if (ray_entity != null && ray_entity.getUniqueId().equals(pointB.getUniqueId())) {
-                        break;
-                    }
-                }
-            }
-        }
-
-        return ray_entity != null && ray_entity.getUniqueId().equals(pointB.getUniqueId());
+        return trace(max_distance).hit();
     }
 
     /**
@@ -210,56 +120,7 @@ public class PointToEntity extends LineOfSight {
      */
     @Override
     public Iterator<Location> getLineOfSight() {
-        List<Location> locations = new ArrayList<>();
-
-        Location standLocation = pointA.clone().add(a_offset[0], a_offset[1], a_offset[2]);
-        Location trackLocation = pointB.getLocation().clone().add(b_offset[0], b_offset[1], b_offset[2]);
-
-        Vector direction = trackLocation.toVector().subtract(standLocation.toVector()).normalize();
-        World world = standLocation.getWorld();
-        assert world != null;
-
-        for (double i = precision; i < 64; i += precision) {
-            direction.multiply(i);
-            standLocation.add(direction);
-
-            locations.add(standLocation.clone());
-            Block block = standLocation.getBlock();
-            if (block.getType().isOccluding() && block.getType().isSolid()) {
-                break;
-            } else {
-                Entity ray_entity = null;
-
-                Collection<Entity> entities = world.getEntities();
-                for (Entity entity : entities) {
-                    if (!ignored.contains(entity.getUniqueId())) {
-                        Location ent_location = entity.getLocation().clone();
-                        ent_location.setY(standLocation.clone().getY());
-
-                        if (ent_location.distance(standLocation.clone()) <= Math.max(0.5, precision)) {
-                            ray_entity = entity;
-                        }
-                    }
-                }
-
-                standLocation.subtract(direction);
-                direction.normalize();
-
-                if (!ignoreMiddleEntities) {
-                    if (ray_entity != null) {
-                        break;
-                    }
-                } else {
-                    if (ray_entity != null && ray_entity.getUniqueId().equals(pointB.getUniqueId())) {
-                        break;
-                    }
-                }
-
-                locations.add(standLocation.clone());
-            }
-        }
-
-        return locations.iterator();
+        return getLineOfSight(64);
     }
 
     /**
@@ -273,53 +134,30 @@ public class PointToEntity extends LineOfSight {
         List<Location> locations = new ArrayList<>();
 
         Location standLocation = pointA.clone().add(a_offset[0], a_offset[1], a_offset[2]);
-        Location trackLocation = pointB.getLocation().clone().add(b_offset[0], b_offset[1], b_offset[2]);
-
-        Vector direction = trackLocation.toVector().subtract(standLocation.toVector()).normalize();
-        World world = standLocation.getWorld();
-        assert world != null;
-
-        for (double i = precision; i < max_distance; i += precision) {
-            direction.multiply(i);
-            standLocation.add(direction);
-
-            locations.add(standLocation.clone());
-            Block block = standLocation.getBlock();
-            if (block.getType().isOccluding() && block.getType().isSolid()) {
-                break;
-            } else {
-                Entity ray_entity = null;
+        Location trackLocation = pointB.getLocation().add(b_offset[0], b_offset[1], b_offset[2]);
 
-                Collection<Entity> entities = world.getEntities();
-                for (Entity entity : entities) {
-                    if (!ignored.contains(entity.getUniqueId())) {
-                        Location ent_location = entity.getLocation().clone();
-                        ent_location.setY(standLocation.clone().getY());
+        Vector direction = trackLocation.toVector().subtract(standLocation.toVector());
+        if (direction.lengthSquared() != 0)
+            direction.normalize();
 
-                        if (ent_location.distance(standLocation.clone()) <= Math.max(0.5, precision)) {
-                            ray_entity = entity;
-                        }
-                    }
-                }
-
-                standLocation.subtract(direction);
-                direction.normalize();
-
-                if (!ignoreMiddleEntities) {
-                    if (ray_entity != null) {
-                        break;
-                    }
-                } else {
-                    if (ray_entity != null && ray_entity.getUniqueId().equals(pointB.getUniqueId())) {
-                        break;
-                    }
-                }
-
-                locations.add(standLocation.clone());
-            }
+        double distance = trace(max_distance).distance();
+        for (double i = precision; i <= distance; i += precision) {
+            locations.add(standLocation.clone().add(direction.getX() * i, direction.getY() * i, direction.getZ() * i));
         }
 
         return locations.iterator();
     }
-}
 
+    /**
+     * Trace the line of sight ray
+     *
+     * @param max_distance the maximum distance
+     * @return the ray trace
+     */
+    private RayTracer.Trace trace(final double max_distance) {
+        Location standLocation = pointA.clone().add(a_offset[0], a_offset[1], a_offset[2]);
+        Location trackLocation = pointB.getLocation().add(b_offset[0], b_offset[1], b_offset[2]);
+
+        return RayTracer.trace(standLocation, trackLocation, pointB, ignored, ignoreMiddleEntities, max_distance);
+    }
+}
@@ -2,8 +2,6 @@ package ml.karmaconfigs.api.bukkit.util.sight;
 
 import ml.karmaconfigs.api.bukkit.util.LineOfSight;
 import org.bukkit.Location;
-import org.bukkit.World;
-import org.bukkit.block.Block;
 import org.bukkit.entity.Entity;
 import org.bukkit.util.Vector;
 
@@ -78,55 +76,7 @@ public class PointToPoint extends LineOfSight {
      */
     @Override
     public boolean inLineOfSight() {
-        Location standLocation = pointA.clone().add(a_offset[0], a_offset[1], a_offset[2]);
-        Location trackLocation = pointB.clone().add(b_offset[0], b_offset[1], b_offset[2]);
-
-        Vector direction = trackLocation.toVector().subtract(standLocation.toVector()).normalize();
-        World world = standLocation.getWorld();
-        assert world != null;
-
-        boolean hit = false;
-        for (double i = 0.1; i < 64; i += 0.1) {
-            direction.multiply(i);
-            standLocation.add(direction);
-
-            Block block = standLocation.getBlock();
-            if (block.getType().isOccluding() && block.getType().isSolid()) {
-                break;
-            } else {
-                Entity ray_entity = null;
-
-                Collection<Entity> entities = world.getEntities();
-                for (Entity entity : entities) {
-                    if (!ignored.contains(entity.getUniqueId())) {
-                        Location ent_location = entity.getLocation().clone();
-                        ent_location.setY(standLocation.clone().getY());
-
-                        if (ent_location.distance(standLocation.clone()) <= 0.1) {
-                            ray_entity = entity;
-                            break;
-                        }
-                    }
-                }
-
-                standLocation.subtract(direction);
-                direction.normalize();
-
-                if (ray_entity != null) {
-                    break;
-                } else {
-                    Location b_chk = pointB.clone();
-                    b_chk.setY(standLocation.clone().getY());
-
-                    if (b_chk.distance(standLocation.clone()) <= 0.1) {
-                        hit = true;
-                        break;
-                    }
-                }
-            }
-        }
-
-        return hit;
+        return inLineOfSight(64);
     }
 
     /**
@@ -137,55 +87,7 @@ public class PointToPoint extends LineOfSight {
      */
     @Override
     public boolean inLineOfSight(final double max_distance) {
-        Location standLocation = pointA.clone().add(a_offset[0], a_offset[1], a_offset[2]);
-        Location trackLocation = pointB.clone().add(b_offset[0], b_offset[1], b_offset[2]);
-
-        Vector direction = trackLocation.toVector().subtract(standLocation.toVector()).normalize();
-        World world = standLocation.getWorld();
-        assert world != null;
-
-        boolean hit = false;
-        for (double i = 0.1; i < max_distance; i += 0.1) {
-            direction.multiply(i);
-            standLocation.add(direction);
-
-            Block block = standLocation.getBlock();
-            if (block.getType().isOccluding() && block.getType().isSolid()) {
-                break;
-            } else {
-                Entity ray_entity = null;
-
-                Collection<Entity> entities = world.getEntities();
-                for (Entity entity : entities) {
-                    if (!ignored.contains(entity.getUniqueId())) {
-                        Location ent_location = entity.getLocation().clone();
-                        ent_location.setY(standLocation.clone().getY());
-
-                        if (ent_location.distance(standLocation.clone()) <= 0.1) {
-                            ray_entity = entity;
-                            break;
-                        }
-                    }
-                }
-
-                standLocation.subtract(direction);
-                direction.normalize();
-
-                if (ray_entity != null) {
-                    break;
-                } else {
-                    Location b_chk = pointB.clone();
-                    b_chk.setY(standLocation.clone().getY());
-
-                    if (b_chk.distance(standLocation.clone()) <= 0.1) {
-                        hit = true;
-                        break;
-                    }
-                }
-            }
-        }
-
-        return hit;
+        return trace(max_distance).hit();
     }
 
     /**
@@ -195,50 +97,7 @@ public class PointToPoint extends LineOfSight {
      */
     @Override
     public Iterator<Location> getLineOfSight() {
-        List<Location> locations = new ArrayList<>();
-
-        Location standLocation = pointA.clone().add(a_offset[0], a_offset[1], a_offset[2]);
-        Location trackLocation = pointB.clone().add(b_offset[0], b_offset[1], b_offset[2]);
-
-        Vector direction = trackLocation.toVector().subtract(standLocation.toVector()).normalize();
-        World world = standLocation.getWorld();
-        assert world != null;
-
-        for (double i = 0.1; i < 64; i += 0.1) {
-            direction.multiply(i);
-            standLocation.add(direction);
-
-            locations.add(standLocation.clone());
-            Block block = standLocation.getBlock();
-            if (block.getType().isOccluding() && block.getType().isSolid()) {
-                break;
-            } else {
-                Entity ray_entity = null;
-
-                Collection<Entity> entities = world.getEntities();
-                for (Entity entity : entities) {
-                    if (!ignored.contains(entity.getUniqueId())) {
-                        Location ent_location = entity.getLocation().clone();
-                        ent_location.setY(standLocation.clone().getY());
-
-                        if (ent_location.distance(standLocation.clone()) <= 0.1) {
-                            ray_entity = entity;
-                        }
-                    }
-                }
-
-                standLocation.subtract(direction);
-                direction.normalize();
-
-                if (ray_entity != null) {
-                    break;
-                } else {
-                    locations.add(standLocation.clone());
-                }
-            }
-        }
-
-        return locations.iterator();
+        return getLineOfSight(64);
     }
 
     /**
@@ -254,44 +113,28 @@ public class PointToPoint extends LineOfSight {
         Location standLocation = pointA.clone().add(a_offset[0], a_offset[1], a_offset[2]);
         Location trackLocation = pointB.clone().add(b_offset[0], b_offset[1], b_offset[2]);
 
-        Vector direction = trackLocation.toVector().subtract(standLocation.toVector()).normalize();
-        World world = standLocation.getWorld();
-        assert world != null;
-
-        for (double i = 0.1; i < max_distance; i += 0.1) {
-            direction.multiply(i);
-            standLocation.add(direction);
+        Vector direction = trackLocation.toVector().subtract(standLocation.toVector());
+        if (direction.lengthSquared() != 0)
+            direction.normalize();
 
-            locations.add(standLocation.clone());
-            Block block = standLocation.getBlock();
-            if (block.getType().isOccluding() && block.getType().isSolid()) {
-                break;
-            } else {
-                Entity ray_entity = null;
-
-                Collection<Entity> entities = world.getEntities();
-                for (Entity entity : entities) {
-                    if (!ignored.contains(entity.getUniqueId())) {
-                        Location ent_location = entity.getLocation().clone();
-                        ent_location.setY(standLocation.clone().getY());
-
-                        if (ent_location.distance(standLocation.clone()) <= 0.1) {
-                            ray_entity = entity;
-                        }
-                    }
-                }
-
-                standLocation.subtract(direction);
-                direction.normalize();
-
-                if (ray_entity != null) {
-                    break;
-                } else {
-                    locations.add(standLocation.clone());
-                }
-            }
+        double distance = trace(max_distance).distance();
+        for (double i = 0.1; i <= distance; i += 0.1) {
+            locations.add(standLocation.clone().add(direction.getX() * i, direction.getY() * i, direction.getZ() * i));
         }
 
         return locations.iterator();
     }
+
+    /**
+     * Trace the line of sight ray
+     *
+     * @param max_distance the maximum distance
+     * @return the ray trace
+     */
+    private RayTracer.Trace trace(final double max_distance) {
+        Location standLocation = pointA.clone().add(a_offset[0], a_offset[1], a_offset[2]);
+        Location trackLocation = pointB.clone().add(b_offset[0], b_offset[1], b_offset[2]);
+
+        return RayTracer.trace(standLocation, trackLocation, ignored, max_distance);
+    }
 }
@@ -0,0 +1,449 @@
+package ml.karmaconfigs.api.bukkit.util.sight;
+
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.util.BoundingBox;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Line of sight ray tracer. Blocks are walked voxel by voxel
+ * (Amanatides-Woo traversal) and entities are tested against the
+ * ray using their bounding boxes, so a ray costs one step per crossed
+ * block plus one box test per entity near the ray. Traces are cached
+ * for the current tick, so the same ray checked more than once in a
+ * tick is only traced once. Each thread reuses its own cache lookup
+ * key, entity box and search location, so a cached ray allocates
+ * nothing
+ */
+final class RayTracer {
+
+    private final static Map<Key, Trace> cache = new ConcurrentHashMap<>();
+    private static volatile long cache_tick = 0;
+
+    private final static ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    /**
+     * Trace a ray from a location to an entity
+     *
+     * @param from         the ray origin
+     * @param aim          the point of the entity the ray aims at
+     * @param target       the target entity
+     * @param ignored      the entities that never block the ray
+     * @param ignoreMiddle if entities between the origin and the target don't block the ray
+     * @param max          the maximum ray distance
+     * @return the ray trace
+     */
+    static Trace trace(final Location from, final Location aim, final Entity target, final Set<UUID> ignored, final boolean ignoreMiddle, final double max) {
+        Scratch state = scratch.get();
+        state.key.set(from, aim, target.getUniqueId(), ignored, ignoreMiddle, max);
+
+        Trace trace = cached(state.key);
+        if (trace == null) {
+            trace = trace(state, from.getWorld(), from, aim, target, ignored, ignoreMiddle, max);
+            cache.put(state.key.copy(), trace);
+        }
+
+        return trace;
+    }
+
+    /**
+     * Trace a ray from a location to another
+     *
+     * @param from    the ray origin
+     * @param aim     the ray target
+     * @param ignored the entities that never block the ray
+     * @param max     the maximum ray distance
+     * @return the ray trace
+     */
+    static Trace trace(final Location from, final Location aim, final Set<UUID> ignored, final double max) {
+        Scratch state = scratch.get();
+        state.key.set(from, aim, null, ignored, false, max);
+
+        Trace trace = cached(state.key);
+        if (trace == null) {
+            trace = trace(state, from.getWorld(), from, aim, null, ignored, false, max);
+            cache.put(state.key.copy(), trace);
+        }
+
+        return trace;
+    }
+
+    /**
+     * Get a trace from the tick cache
+     *
+     * @param key the trace key
+     * @return the trace, or null if it's not cached
+     */
+    private static Trace cached(final Key key) {
+        long tick = System.currentTimeMillis() / 50;
+        if (tick != cache_tick) {
+            cache_tick = tick;
+            cache.clear();
+        }
+
+        return cache.get(key);
+    }
+
+    /**
+     * Trace a ray
+     *
+     * @param state        the thread scratch state
+     * @param world        the ray world
+     * @param from         the ray origin
+     * @param aim          the ray target point
+     * @param target       the ray target entity, or null if the target is the point
+     * @param ignored      the entities that never block the ray
+     * @param ignoreMiddle if entities between the origin and the target don't block the ray
+     * @param max          the maximum ray distance
+     * @return the ray trace
+     */
+    private static Trace trace(final Scratch state, final World world, final Location from, final Location aim, final Entity target, final Set<UUID> ignored, final boolean ignoreMiddle, final double max) {
+        double ox = from.getX();
+        double oy = from.getY();
+        double oz = from.getZ();
+
+        double dx = aim.getX() - ox;
+        double dy = aim.getY() - oy;
+        double dz = aim.getZ() - oz;
+        double length = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        if (world == null || !world.equals(aim.getWorld()))
+            return new Trace(0, false);
+        if (length == 0)
+            return new Trace(0, true);
+
+        dx /= length;
+        dy /= length;
+        dz /= length;
+
+        double[] box = state.box;
+
+        double reach = length;
+        if (target != null) {
+            box(target, box);
+            double enter = intersect(ox, oy, oz, dx, dy, dz, box);
+            if (enter >= 0 && enter < reach)
+                reach = enter;
+        }
+        if (reach > max)
+            return new Trace(blocks(world, ox, oy, oz, dx, dy, dz, max), false);
+
+        double blocked = blocks(world, ox, oy, oz, dx, dy, dz, reach);
+        if (blocked < reach)
+            return new Trace(blocked, false);
+
+        if (!ignoreMiddle) {
+            Location center = state.center;
+            center.setWorld(world);
+            center.setX(ox + dx * reach / 2);
+            center.setY(oy + dy * reach / 2);
+            center.setZ(oz + dz * reach / 2);
+            double half = reach / 2 + 1;
+
+            for (Entity entity : world.getNearbyEntities(center, half, half, half)) {
+                if (ignored.contains(entity.getUniqueId()) || (target != null && entity.getUniqueId().equals(target.getUniqueId())))
+                    continue;
+
+                box(entity, box);
+                double enter = intersect(ox, oy, oz, dx, dy, dz, box);
+                if (enter >= 0 && enter < reach)
+                    return new Trace(enter, false);
+            }
+        }
+
+        return new Trace(reach, true);
+    }
+
+    /**
+     * Walk the blocks crossed by a ray
+     *
+     * @param world the ray world
+     * @param ox    the ray origin x
+     * @param oy    the ray origin y
+     * @param oz    the ray origin z
+     * @param dx    the ray direction x
+     * @param dy    the ray direction y
+     * @param dz    the ray direction z
+     * @param limit the distance to walk
+     * @return the distance at which the ray enters an occluding
+     * block, or the limit if no block occludes the ray
+     */
+    private static double blocks(final World world, final double ox, final double oy, final double oz, final double dx, final double dy, final double dz, final double limit) {
+        int x = (int) Math.floor(ox);
+        int y = (int) Math.floor(oy);
+        int z = (int) Math.floor(oz);
+
+        int stepX = (int) Math.signum(dx);
+        int stepY = (int) Math.signum(dy);
+        int stepZ = (int) Math.signum(dz);
+
+        double deltaX = (stepX != 0 ? Math.abs(1 / dx) : Double.POSITIVE_INFINITY);
+        double deltaY = (stepY != 0 ? Math.abs(1 / dy) : Double.POSITIVE_INFINITY);
+        double deltaZ = (stepZ != 0 ? Math.abs(1 / dz) : Double.POSITIVE_INFINITY);
+
+        double maxX = (stepX > 0 ? (x + 1 - ox) * deltaX : (stepX < 0 ? (ox - x) * deltaX : Double.POSITIVE_INFINITY));
+        double maxY = (stepY > 0 ? (y + 1 - oy) * deltaY : (stepY < 0 ? (oy - y) * deltaY : Double.POSITIVE_INFINITY));
+        double maxZ = (stepZ > 0 ? (z + 1 - oz) * deltaZ : (stepZ < 0 ? (oz - z) * deltaZ : Double.POSITIVE_INFINITY));
+
+        double distance = 0;
+        while (distance <= limit) {
+            //Never load chunks to trace a ray, an unloaded chunk blocks the sight
+            if (!world.isChunkLoaded(x >> 4, z >> 4))
+                return distance;
+
+            Material type = world.getBlockAt(x, y, z).getType();
+            if (type.isOccluding() && type.isSolid())
+                return distance;
+
+            if (maxX < maxY && maxX < maxZ) {
+                x += stepX;
+                distance = maxX;
+                maxX += deltaX;
+            } else {
+                if (maxY < maxZ) {
+                    y += stepY;
+                    distance = maxY;
+                    maxY += deltaY;
+                } else {
+                    z += stepZ;
+                    distance = maxZ;
+                    maxZ += deltaZ;
+                }
+            }
+        }
+
+        return limit;
+    }
+
+    /**
+     * Get the distance at which a ray enters a box
+     *
+     * @param ox  the ray origin x
+     * @param oy  the ray origin y
+     * @param oz  the ray origin z
+     * @param dx  the ray direction x
+     * @param dy  the ray direction y
+     * @param dz  the ray direction z
+     * @param box the box min x, min y, min z, max x, max y and max z
+     * @return the distance at which the ray enters the box, 0 if the
+     * ray starts inside the box or -1 if the ray never crosses the box
+     */
+    private static double intersect(final double ox, final double oy, final double oz, final double dx, final double dy, final double dz, final double[] box) {
+        double near = 0;
+        double far = Double.POSITIVE_INFINITY;
+
+        if (dx == 0) {
+            if (ox < box[0] || ox > box[3])
+                return -1;
+        } else {
+            double t1 = (box[0] - ox) / dx;
+            double t2 = (box[3] - ox) / dx;
+
+            near = Math.max(near, Math.min(t1, t2));
+            far = Math.min(far, Math.max(t1, t2));
+        }
+        if (dy == 0) {
+            if (oy < box[1] || oy > box[4])
+                return -1;
+        } else {
+            double t1 = (box[1] - oy) / dy;
+            double t2 = (box[4] - oy) / dy;
+
+            near = Math.max(near, Math.min(t1, t2));
+            far = Math.min(far, Math.max(t1, t2));
+        }
+        if (dz == 0) {
+            if (oz < box[2] || oz > box[5])
+                return -1;
+        } else {
+            double t1 = (box[2] - oz) / dz;
+            double t2 = (box[5] - oz) / dz;
+
+            near = Math.max(near, Math.min(t1, t2));
+            far = Math.min(far, Math.max(t1, t2));
+        }
+
+        if (near > far)
+            return -1;
+
+        return near;
+    }
+
+    /**
+     * Get the bounding box of an entity
+     *
+     * @param entity the entity
+     * @param box    the array to store the box in
+     */
+    private static void box(final Entity entity, final double[] box) {
+        try {
+            BoundingBox bounds = entity.getBoundingBox();
+
+            box[0] = bounds.getMinX();
+            box[1] = bounds.getMinY();
+            box[2] = bounds.getMinZ();
+            box[3] = bounds.getMaxX();
+            box[4] = bounds.getMaxY();
+            box[5] = bounds.getMaxZ();
+        } catch (Throwable ex) {
+            //Legacy minecraft versions don't have bounding boxes, use the player size
+            Location location = entity.getLocation();
+
+            box[0] = location.getX() - 0.3;
+            box[1] = location.getY();
+            box[2] = location.getZ() - 0.3;
+            box[3] = location.getX() + 0.3;
+            box[4] = location.getY() + 1.8;
+            box[5] = location.getZ() + 0.3;
+        }
+    }
+
+    /**
+     * The result of a ray trace
+     */
+    static final class Trace {
+
+        private final double distance;
+        private final boolean hit;
+
+        /**
+         * Initialize the trace
+         *
+         * @param dst the distance the ray reached
+         * @param status if the ray reached its target
+         */
+        Trace(final double dst, final boolean status) {
+            distance = dst;
+            hit = status;
+        }
+
+        /**
+         * Get the distance the ray reached before
+         * hitting its target or being blocked
+         *
+         * @return the ray distance
+         */
+        double distance() {
+            return distance;
+        }
+
+        /**
+         * Get if the ray reached its target
+         *
+         * @return if the target is in line of sight
+         */
+        boolean hit() {
+            return hit;
+        }
+    }
+
+    /**
+     * Per thread state reused by every ray
+     */
+    private static final class Scratch {
+
+        private final Key key = new Key();
+        private final double[] box = new double[6];
+        private final Location center = new Location(null, 0, 0, 0);
+    }
+
+    /**
+     * Ray trace cache key. The key of each thread is
+     * reused to look traces up, and copied to store them
+     */
+    private static final class Key {
+
+        private UUID world;
+        private double ox, oy, oz;
+        private double ax, ay, az;
+        private UUID target;
+        private Set<UUID> ignored;
+        private boolean ignoreMiddle;
+        private double max;
+        private int hash;
+
+        /**
+         * Set the key ray
+         *
+         * @param from   the ray origin
+         * @param aim    the ray target point
+         * @param tar    the ray target entity
+         * @param ign    the ignored entities
+         * @param middle if middle entities are ignored
+         * @param dst    the maximum ray distance
+         */
+        void set(final Location from, final Location aim, final UUID tar, final Set<UUID> ign, final boolean middle, final double dst) {
+            world = (from.getWorld() != null ? from.getWorld().getUID() : null);
+            ox = from.getX();
+            oy = from.getY();
+            oz = from.getZ();
+            ax = aim.getX();
+            ay = aim.getY();
+            az = aim.getZ();
+            target = tar;
+            ignored = ign;
+            ignoreMiddle = middle;
+            max = dst;
+
+            int result = Objects.hashCode(world);
+            result = 31 * result + Double.hashCode(ox);
+            result = 31 * result + Double.hashCode(oy);
+            result = 31 * result + Double.hashCode(oz);
+            result = 31 * result + Double.hashCode(ax);
+            result = 31 * result + Double.hashCode(ay);
+            result = 31 * result + Double.hashCode(az);
+            result = 31 * result + Objects.hashCode(target);
+            result = 31 * result + Boolean.hashCode(ignoreMiddle);
+            hash = 31 * result + Double.hashCode(max);
+        }
+
+        /**
+         * Copy the key, so it can be stored
+         *
+         * @return the key copy
+         */
+        Key copy() {
+            Key key = new Key();
+            key.world = world;
+            key.ox = ox;
+            key.oy = oy;
+            key.oz = oz;
+            key.ax = ax;
+            key.ay = ay;
+            key.az = az;
+            key.target = target;
+            key.ignored = ignored;
+            key.ignoreMiddle = ignoreMiddle;
+            key.max = max;
+            key.hash = hash;
+
+            return key;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Key))
+                return false;
+
+            Key other = (Key) obj;
+            return hash == other.hash
+                    && ox == other.ox && oy == other.oy && oz == other.oz
+                    && ax == other.ax && ay == other.ay && az == other.az
+                    && max == other.max && ignoreMiddle == other.ignoreMiddle
+                    && Objects.equals(world, other.world)
+                    && Objects.equals(target, other.target)
+                    && ignored.equals(other.ignored);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
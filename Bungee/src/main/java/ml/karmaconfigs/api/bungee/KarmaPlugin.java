@@ -40,12 +40,14 @@ import ml.karmaconfigs.api.common.placeholder.util.Placeholder;
 import ml.karmaconfigs.api.common.placeholder.util.PlaceholderEngine;
 import ml.karmaconfigs.api.common.security.token.TokenGenerator;
 import ml.karmaconfigs.api.common.string.StringUtils;
+import ml.karmaconfigs.api.common.timer.worker.SyncScheduler;
 import net.md_5.bungee.api.ProxyServer;
 import net.md_5.bungee.api.chat.TextComponent;
 import net.md_5.bungee.api.connection.ProxiedPlayer;
 import net.md_5.bungee.api.plugin.Plugin;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 
 /**
@@ -110,8 +112,7 @@ public abstract class KarmaPlugin extends Plugin implements KarmaSource, Identif
      */
     @Override
     public final void onEnable() {
-        /*async = new BungeeAsyncScheduler<>(this);
-        sync = new BungeeSyncScheduler<>(this);*/
+        SyncScheduler.attach(this, (tick) -> ProxyServer.getInstance().getScheduler().schedule(this, tick, 50, 50, TimeUnit.MILLISECONDS));
 
         enable();
     }
@@ -0,0 +1,372 @@
+package ml.karmaconfigs.api.common.collection.list;
+
+/*
+ * This file is part of KarmaAPI, licensed under the MIT License.
+ *
+ *  Copyright (c) karma (KarmaDev) <karmaconfigs@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Append optimized list. Elements are stored in fixed size
+ * chunks, so appending never copies the already stored elements.
+ * Inserting or removing in the middle of the list shifts the
+ * following elements. Iterators and sub lists work over a read
+ * only snapshot of the list, so their modification methods throw
+ * {@link UnsupportedOperationException}. Every other method follows
+ * the {@link List} contract
+ *
+ * @param <T> the list type
+ */
+final class ChunkedList<T> extends AbstractList<T> {
+
+    private final static int CHUNK_SHIFT = 8;
+    private final static int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private final static int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final Object lock = new Object();
+
+    private Object[][] chunks = new Object[4][];
+    private int size = 0;
+
+    /**
+     * Get an element
+     *
+     * @param index the element index
+     * @return the element
+     */
+    @SuppressWarnings("unchecked")
+    private T element(final int index) {
+        return (T) chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    /**
+     * Store an element
+     *
+     * @param index   the element index
+     * @param element the element
+     */
+    private void store(final int index, final Object element) {
+        chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK] = element;
+    }
+
+    /**
+     * Make room for one more element at the end of the list
+     */
+    private void grow() {
+        int chunk = size >>> CHUNK_SHIFT;
+        if (chunk == chunks.length)
+            chunks = Arrays.copyOf(chunks, chunks.length << 1);
+        if (chunks[chunk] == null)
+            chunks[chunk] = new Object[CHUNK_SIZE];
+    }
+
+    /**
+     * Check an element index
+     *
+     * @param index the index
+     * @param limit the maximum index
+     */
+    private void check(final int index, final int limit) {
+        if (index < 0 || index > limit)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+
+    /**
+     * Get a read only copy of the list
+     *
+     * @return the list snapshot
+     */
+    @SuppressWarnings("unchecked")
+    private List<T> snapshot() {
+        return Collections.unmodifiableList((List<T>) Arrays.asList(toArray()));
+    }
+
+    @Override
+    public int size() {
+        synchronized (lock) {
+            return size;
+        }
+    }
+
+    @Override
+    public T get(final int index) {
+        synchronized (lock) {
+            check(index, size - 1);
+            return element(index);
+        }
+    }
+
+    @Override
+    public T set(final int index, final T element) {
+        synchronized (lock) {
+            check(index, size - 1);
+
+            T previous = element(index);
+            store(index, element);
+
+            return previous;
+        }
+    }
+
+    @Override
+    public boolean add(final T element) {
+        synchronized (lock) {
+            grow();
+            store(size++, element);
+
+            return true;
+        }
+    }
+
+    @Override
+    public void add(final int index, final T element) {
+        synchronized (lock) {
+            check(index, size);
+            grow();
+
+            for (int i = size; i > index; i--)
+                store(i, element(i - 1));
+            store(index, element);
+            size++;
+        }
+    }
+
+    @Override
+    public T remove(final int index) {
+        synchronized (lock) {
+            check(index, size - 1);
+
+            T previous = element(index);
+            for (int i = index; i < size - 1; i++)
+                store(i, element(i + 1));
+            store(--size, null);
+
+            return previous;
+        }
+    }
+
+    @Override
+    public boolean addAll(@NotNull final Collection<? extends T> c) {
+        Object[] elements = c.toArray();
+        synchronized (lock) {
+            for (Object element : elements) {
+                grow();
+                store(size++, element);
+            }
+
+            return elements.length > 0;
+        }
+    }
+
+    @Override
+    public boolean addAll(final int index, @NotNull final Collection<? extends T> c) {
+        synchronized (lock) {
+            return super.addAll(index, c);
+        }
+    }
+
+    @Override
+    public boolean remove(final Object o) {
+        synchronized (lock) {
+            int index = indexOf(o);
+            if (index < 0)
+                return false;
+
+            remove(index);
+            return true;
+        }
+    }
+
+    @Override
+    public boolean removeAll(@NotNull final Collection<?> c) {
+        Objects.requireNonNull(c);
+        return removeIf(c::contains);
+    }
+
+    @Override
+    public boolean retainAll(@NotNull final Collection<?> c) {
+        Objects.requireNonNull(c);
+        return removeIf((element) -> !c.contains(element));
+    }
+
+    @Override
+    public boolean removeIf(final Predicate<? super T> filter) {
+        Objects.requireNonNull(filter);
+        synchronized (lock) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                T element = element(i);
+                if (!filter.test(element))
+                    store(kept++, element);
+            }
+
+            boolean removed = kept != size;
+            for (int i = kept; i < size; i++)
+                store(i, null);
+            size = kept;
+
+            return removed;
+        }
+    }
+
+    @Override
+    public void replaceAll(final UnaryOperator<T> operator) {
+        Objects.requireNonNull(operator);
+        synchronized (lock) {
+            for (int i = 0; i < size; i++)
+                store(i, operator.apply(element(i)));
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void sort(final Comparator<? super T> c) {
+        synchronized (lock) {
+            Object[] elements = toArray();
+            Arrays.sort(elements, (Comparator<Object>) c);
+
+            for (int i = 0; i < elements.length; i++)
+                store(i, elements[i]);
+        }
+    }
+
+    @Override
+    public void clear() {
+        synchronized (lock) {
+            chunks = new Object[4][];
+            size = 0;
+        }
+    }
+
+    @Override
+    public boolean contains(final Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    @Override
+    public boolean containsAll(@NotNull final Collection<?> c) {
+        synchronized (lock) {
+            return super.containsAll(c);
+        }
+    }
+
+    @Override
+    public int indexOf(final Object o) {
+        synchronized (lock) {
+            for (int base = 0; base < size; base += CHUNK_SIZE) {
+                Object[] chunk = chunks[base >>> CHUNK_SHIFT];
+                int limit = Math.min(CHUNK_SIZE, size - base);
+
+                for (int i = 0; i < limit; i++) {
+                    if (Objects.equals(o, chunk[i]))
+                        return base + i;
+                }
+            }
+
+            return -1;
+        }
+    }
+
+    @Override
+    public int lastIndexOf(final Object o) {
+        synchronized (lock) {
+            for (int i = size - 1; i >= 0; i--) {
+                if (Objects.equals(o, element(i)))
+                    return i;
+            }
+
+            return -1;
+        }
+    }
+
+    @Override
+    public Object @NotNull [] toArray() {
+        synchronized (lock) {
+            Object[] result = new Object[size];
+            for (int i = 0; i < size; i += CHUNK_SIZE)
+                System.arraycopy(chunks[i >>> CHUNK_SHIFT], 0, result, i, Math.min(CHUNK_SIZE, size - i));
+
+            return result;
+        }
+    }
+
+    @Override
+    public <T1> T1 @NotNull [] toArray(@NotNull final T1[] a) {
+        return snapshot().toArray(a);
+    }
+
+    @NotNull
+    @Override
+    public Iterator<T> iterator() {
+        return snapshot().iterator();
+    }
+
+    @NotNull
+    @Override
+    public ListIterator<T> listIterator() {
+        return snapshot().listIterator();
+    }
+
+    @NotNull
+    @Override
+    public ListIterator<T> listIterator(final int index) {
+        return snapshot().listIterator(index);
+    }
+
+    @NotNull
+    @Override
+    public List<T> subList(final int fromIndex, final int toIndex) {
+        return snapshot().subList(fromIndex, toIndex);
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return snapshot().spliterator();
+    }
+
+    @Override
+    public void forEach(final Consumer<? super T> action) {
+        snapshot().forEach(action);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return o == this || snapshot().equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return snapshot().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return snapshot().toString();
+    }
+}
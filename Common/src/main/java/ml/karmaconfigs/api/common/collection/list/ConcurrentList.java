@@ -28,41 +28,57 @@ package ml.karmaconfigs.api.common.collection.list;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
 import java.util.stream.Stream;
 
 /**
- * Karma concurrent list based on
- * https://stackoverflow.com/a/26444094
+ * Karma concurrent list. The way the list handles concurrent
+ * access is chosen by its {@link Strategy}. Iterators, list iterators
+ * and streams always work over a snapshot of the list, so they never
+ * fail if the list is modified while iterating. The snapshots are read
+ * only, so iterator modification methods throw
+ * {@link UnsupportedOperationException} on every strategy
  *
  * @param <T> the list type
  */
 public final class ConcurrentList<T> implements List<T> {
 
     /**
-     * Use this to lock for write operations like add/remove
+     * The underlying list
      */
-    private final Lock readLock;
+    private final List<T> list;
+
     /**
-     * Use this to lock for read operations like get/iterator/contains
+     * Initialize the concurrent list using the
+     * {@link Strategy#OPTIMISTIC} strategy
      */
-    private final Lock writeLock;
+    public ConcurrentList() {
+        this(Strategy.OPTIMISTIC);
+    }
+
     /**
-     * The underlying list
+     * Initialize the concurrent list
+     *
+     * @param strategy the list concurrency strategy
      */
-    private final List<T> list = new ArrayList<>();
-
-    {
-        ReentrantReadWriteLock rwLock = new ReentrantReadWriteLock();
-        readLock = rwLock.readLock();
-        writeLock = rwLock.writeLock();
+    public ConcurrentList(final Strategy strategy) {
+        switch (strategy) {
+            case COPY_ON_WRITE:
+                list = new CopyOnWriteArrayList<>();
+                break;
+            case APPEND:
+                list = new ChunkedList<>();
+                break;
+            case OPTIMISTIC:
+            default:
+                list = new StampedList<>();
+                break;
+        }
     }
 
-
     /**
      * Removes the first occurrence of the specified element from this list,
      * if it is present (optional operation).  If this list does not contain
@@ -86,12 +102,7 @@ public final class ConcurrentList<T> implements List<T> {
      */
     @Override
     public boolean remove(final Object o) {
-        writeLock.lock();
-        try {
-            return list.remove(o);
-        } finally {
-            writeLock.unlock();
-        }
+        return list.remove(o);
     }
 
     /**
@@ -114,12 +125,7 @@ public final class ConcurrentList<T> implements List<T> {
      */
     @Override
     public boolean containsAll(@NotNull Collection<?> c) {
-        readLock.lock();
-        try {
-            return list.containsAll(c);
-        } finally {
-            readLock.unlock();
-        }
+        return list.containsAll(c);
     }
 
     /**
@@ -145,12 +151,7 @@ public final class ConcurrentList<T> implements List<T> {
      */
     @Override
     public boolean addAll(@NotNull Collection<? extends T> c) {
-        writeLock.lock();
-        try {
-            return list.addAll(c);
-        } finally {
-            writeLock.unlock();
-        }
+        return list.addAll(c);
     }
 
     /**
@@ -182,12 +183,7 @@ public final class ConcurrentList<T> implements List<T> {
      */
     @Override
     public boolean addAll(int index, @NotNull Collection<? extends T> c) {
-        writeLock.lock();
-        try {
-            return list.addAll(index, c);
-        } finally {
-            writeLock.unlock();
-        }
+        return list.addAll(index, c);
     }
 
     /**
@@ -210,12 +206,7 @@ public final class ConcurrentList<T> implements List<T> {
      */
     @Override
     public boolean removeAll(@NotNull Collection<?> c) {
-        writeLock.lock();
-        try {
-            return list.removeAll(c);
-        } finally {
-            writeLock.unlock();
-        }
+        return list.removeAll(c);
     }
 
     /**
@@ -238,12 +229,7 @@ public final class ConcurrentList<T> implements List<T> {
      */
     @Override
     public boolean removeIf(Predicate<? super T> filter) {
-        writeLock.lock();
-        try {
-            return list.removeIf(filter);
-        } finally {
-            writeLock.unlock();
-        }
+        return list.removeIf(filter);
     }
 
     /**
@@ -268,12 +254,7 @@ public final class ConcurrentList<T> implements List<T> {
      */
     @Override
     public boolean retainAll(@NotNull Collection<?> c) {
-        writeLock.lock();
-        try {
-            return list.retainAll(c);
-        } finally {
-            writeLock.unlock();
-        }
+        return list.retainAll(c);
     }
 
     /**
@@ -297,12 +278,7 @@ public final class ConcurrentList<T> implements List<T> {
      */
     @Override
     public void replaceAll(UnaryOperator<T> operator) {
-        writeLock.lock();
-        try {
-            list.replaceAll(operator);
-        } finally {
-            writeLock.unlock();
-        }
+        list.replaceAll(operator);
     }
 
     /**
@@ -348,12 +324,7 @@ public final class ConcurrentList<T> implements List<T> {
      */
     @Override
     public void sort(Comparator<? super T> c) {
-        writeLock.lock();
-        try {
-            list.sort(c);
-        } finally {
-            writeLock.unlock();
-        }
+        list.sort(c);
     }
 
     /**
@@ -365,12 +336,7 @@ public final class ConcurrentList<T> implements List<T> {
      */
     @Override
     public void clear() {
-        readLock.lock();
-        try {
-            list.clear();
-        } finally {
-            readLock.unlock();
-        }
+        list.clear();
     }
 
     /**
@@ -383,12 +349,7 @@ public final class ConcurrentList<T> implements List<T> {
      */
     @Override
     public T get(final int index) {
-        readLock.lock();
-        try {
-            return list.get(index);
-        } finally {
-            readLock.unlock();
-        }
+        return list.get(index);
     }
 
     /**
@@ -411,12 +372,7 @@ public final class ConcurrentList<T> implements List<T> {
      */
     @Override
     public T set(int index, T element) {
-        writeLock.lock();
-        try {
-            return list.set(index, element);
-        } finally {
-            writeLock.unlock();
-        }
+        return list.set(index, element);
     }
 
     /**
@@ -440,12 +396,7 @@ public final class ConcurrentList<T> implements List<T> {
      */
     @Override
     public void add(int index, T element) {
-        writeLock.lock();
-        try {
-            list.add(index, element);
-        } finally {
-            writeLock.unlock();
-        }
+        list.add(index, element);
     }
 
     /**
@@ -463,12 +414,7 @@ public final class ConcurrentList<T> implements List<T> {
      */
     @Override
     public T remove(int index) {
-        writeLock.lock();
-        try {
-            return list.remove(index);
-        } finally {
-            writeLock.unlock();
-        }
+        return list.remove(index);
     }
 
     /**
@@ -490,12 +436,7 @@ public final class ConcurrentList<T> implements List<T> {
      */
     @Override
     public int indexOf(Object o) {
-        readLock.lock();
-        try {
-            return list.indexOf(o);
-        } finally {
-            readLock.unlock();
-        }
+        return list.indexOf(o);
     }
 
     /**
@@ -517,12 +458,7 @@ public final class ConcurrentList<T> implements List<T> {
      */
     @Override
     public int lastIndexOf(Object o) {
-        readLock.lock();
-        try {
-            return list.lastIndexOf(o);
-        } finally {
-            readLock.unlock();
-        }
+        return list.lastIndexOf(o);
     }
 
     /**
@@ -535,12 +471,7 @@ public final class ConcurrentList<T> implements List<T> {
     @NotNull
     @Override
     public ListIterator<T> listIterator() {
-        readLock.lock();
-        try {
-            return list.listIterator();
-        } finally {
-            readLock.unlock();
-        }
+        return list.listIterator();
     }
 
     /**
@@ -561,12 +492,7 @@ public final class ConcurrentList<T> implements List<T> {
     @NotNull
     @Override
     public ListIterator<T> listIterator(int index) {
-        readLock.lock();
-        try {
-            return list.listIterator(index);
-        } finally {
-            readLock.unlock();
-        }
+        return list.listIterator(index);
     }
 
     /**
@@ -595,6 +521,10 @@ public final class ConcurrentList<T> implements List<T> {
      * any way other than via the returned list.  (Structural modifications are
      * those that change the size of this list, or otherwise perturb it in such
      * a fashion that iterations in progress may yield incorrect results.)
+     * <p>
+     * Only the {@link Strategy#COPY_ON_WRITE} strategy returns a view, the
+     * other strategies return a read only copy of the range, as a view could
+     * not be safely shared between threads
      *
      * @param fromIndex low endpoint (inclusive) of the subList
      * @param toIndex   high endpoint (exclusive) of the subList
@@ -606,12 +536,7 @@ public final class ConcurrentList<T> implements List<T> {
     @NotNull
     @Override
     public List<T> subList(int fromIndex, int toIndex) {
-        readLock.lock();
-        try {
-            return list.subList(fromIndex, toIndex);
-        } finally {
-            readLock.unlock();
-        }
+        return list.subList(fromIndex, toIndex);
     }
 
     /**
@@ -627,12 +552,7 @@ public final class ConcurrentList<T> implements List<T> {
      */
     @Override
     public Spliterator<T> spliterator() {
-        readLock.lock();
-        try {
-            return list.spliterator();
-        } finally {
-            readLock.unlock();
-        }
+        return list.spliterator();
     }
 
     /**
@@ -648,12 +568,7 @@ public final class ConcurrentList<T> implements List<T> {
      */
     @Override
     public Stream<T> stream() {
-        readLock.lock();
-        try {
-            return list.stream();
-        } finally {
-            readLock.unlock();
-        }
+        return list.stream();
     }
 
     /**
@@ -671,12 +586,7 @@ public final class ConcurrentList<T> implements List<T> {
      */
     @Override
     public Stream<T> parallelStream() {
-        readLock.lock();
-        try {
-            return list.parallelStream();
-        } finally {
-            readLock.unlock();
-        }
+        return list.parallelStream();
     }
 
     /**
@@ -688,12 +598,7 @@ public final class ConcurrentList<T> implements List<T> {
      */
     @Override
     public int size() {
-        readLock.lock();
-        try {
-            return list.size();
-        } finally {
-            readLock.unlock();
-        }
+        return list.size();
     }
 
     /**
@@ -703,12 +608,7 @@ public final class ConcurrentList<T> implements List<T> {
      */
     @Override
     public boolean isEmpty() {
-        readLock.lock();
-        try {
-            return list.isEmpty();
-        } finally {
-            readLock.unlock();
-        }
+        return list.isEmpty();
     }
 
     /**
@@ -728,12 +628,7 @@ public final class ConcurrentList<T> implements List<T> {
      */
     @Override
     public boolean contains(Object o) {
-        readLock.lock();
-        try {
-            return list.contains(o);
-        } finally {
-            readLock.unlock();
-        }
+        return list.contains(o);
     }
 
     /**
@@ -744,12 +639,7 @@ public final class ConcurrentList<T> implements List<T> {
     @NotNull
     @Override
     public Iterator<T> iterator() {
-        readLock.lock();
-        try {
-            return new ArrayList<>(list).iterator();
-        } finally {
-            readLock.unlock();
-        }
+        return list.iterator();
     }
 
     /**
@@ -773,12 +663,7 @@ public final class ConcurrentList<T> implements List<T> {
      */
     @Override
     public void forEach(Consumer<? super T> action) {
-        readLock.lock();
-        try {
-            list.forEach(action);
-        } finally {
-            readLock.unlock();
-        }
+        list.forEach(action);
     }
 
     /**
@@ -800,12 +685,7 @@ public final class ConcurrentList<T> implements List<T> {
     @NotNull
     @Override
     public Object @NotNull [] toArray() {
-        readLock.lock();
-        try {
-            return list.toArray();
-        } finally {
-            readLock.unlock();
-        }
+        return list.toArray();
     }
 
     /**
@@ -851,12 +731,7 @@ public final class ConcurrentList<T> implements List<T> {
     @Override
     @SuppressWarnings("all")
     public <T1> T1[] toArray(@NotNull T1[] a) {
-        readLock.lock();
-        try {
-            return list.toArray(a);
-        } finally {
-            readLock.unlock();
-        }
+        return list.toArray(a);
     }
 
     /**
@@ -883,11 +758,63 @@ public final class ConcurrentList<T> implements List<T> {
      */
     @Override
     public boolean add(final T e) {
-        writeLock.lock();
-        try {
-            return list.add(e);
-        } finally {
-            writeLock.unlock();
-        }
+        return list.add(e);
+    }
+
+    /**
+     * Indicates whether some other object is "equal to" this one.
+     *
+     * @param obj the reference object with which to compare.
+     * @return {@code true} if this object is the same as the obj
+     * argument; {@code false} otherwise.
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        return obj == this || list.equals(obj);
+    }
+
+    /**
+     * Returns a hash code value for the object.
+     *
+     * @return a hash code value for this object.
+     */
+    @Override
+    public int hashCode() {
+        return list.hashCode();
+    }
+
+    /**
+     * Returns a string representation of the object.
+     *
+     * @return a string representation of the object.
+     */
+    @Override
+    public String toString() {
+        return list.toString();
+    }
+
+    /**
+     * Concurrent list strategies
+     */
+    public enum Strategy {
+        /**
+         * Every modification copies the list, reads and
+         * iterations never lock. Best for lists that are
+         * read much more often than they are modified
+         */
+        COPY_ON_WRITE,
+        /**
+         * Modifications lock the list, simple reads are done
+         * without locking and retried under a read lock only
+         * if the list was modified meanwhile. Best for lists
+         * with mixed reads and modifications
+         */
+        OPTIMISTIC,
+        /**
+         * The list is stored in fixed size chunks, so appending
+         * never copies the list. Best for buffers that are mostly
+         * appended to and read as a whole
+         */
+        APPEND
     }
 }
@@ -0,0 +1,305 @@
+package ml.karmaconfigs.api.common.collection.list;
+
+/*
+ * This file is part of KarmaAPI, licensed under the MIT License.
+ *
+ *  Copyright (c) karma (KarmaDev) <karmaconfigs@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * List guarded by a {@link StampedLock}. Simple reads like get,
+ * size or contains are first tried without locking and only take
+ * the read lock if a write happened meanwhile. Iterators and sub
+ * lists work over a read only snapshot of the list, so their
+ * modification methods throw {@link UnsupportedOperationException}.
+ * Every other method follows the {@link List} contract
+ *
+ * @param <T> the list type
+ */
+final class StampedList<T> implements List<T> {
+
+    private final StampedLock lock = new StampedLock();
+    private final List<T> list = new ArrayList<>();
+
+    /**
+     * The thread holding the write lock. The stamped lock is
+     * not reentrant, so the writer thread (for example from a
+     * removeIf predicate) accesses the list directly
+     */
+    private volatile Thread writer = null;
+
+    /**
+     * Read the list without locking, falling back to
+     * the read lock if the list changed while reading
+     *
+     * @param reader the read operation
+     * @param <R>    the read result
+     * @return the read result
+     */
+    private <R> R optimistic(final Supplier<R> reader) {
+        if (writer == Thread.currentThread())
+            return reader.get();
+
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            try {
+                R result = reader.get();
+                if (lock.validate(stamp))
+                    return result;
+            } catch (RuntimeException ignored) {
+                //A write left the list inconsistent while reading, read it again locked
+            }
+        }
+
+        return read(reader);
+    }
+
+    /**
+     * Read the list under the read lock
+     *
+     * @param reader the read operation
+     * @param <R>    the read result
+     * @return the read result
+     */
+    private <R> R read(final Supplier<R> reader) {
+        if (writer == Thread.currentThread())
+            return reader.get();
+
+        long stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Modify the list under the write lock
+     *
+     * @param operation the write operation
+     * @param <R>       the write result
+     * @return the write result
+     */
+    private <R> R write(final Supplier<R> operation) {
+        Thread current = Thread.currentThread();
+        if (writer == current)
+            return operation.get();
+
+        long stamp = lock.writeLock();
+        writer = current;
+        try {
+            return operation.get();
+        } finally {
+            writer = null;
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Get a read only copy of the list
+     *
+     * @return the list snapshot
+     */
+    private List<T> snapshot() {
+        return Collections.unmodifiableList(read(() -> new ArrayList<>(list)));
+    }
+
+    @Override
+    public int size() {
+        return optimistic(list::size);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return optimistic(list::isEmpty);
+    }
+
+    @Override
+    public boolean contains(final Object o) {
+        return optimistic(() -> list.contains(o));
+    }
+
+    @Override
+    public boolean containsAll(@NotNull final Collection<?> c) {
+        return optimistic(() -> list.containsAll(c));
+    }
+
+    @Override
+    public T get(final int index) {
+        return optimistic(() -> list.get(index));
+    }
+
+    @Override
+    public int indexOf(final Object o) {
+        return optimistic(() -> list.indexOf(o));
+    }
+
+    @Override
+    public int lastIndexOf(final Object o) {
+        return optimistic(() -> list.lastIndexOf(o));
+    }
+
+    @Override
+    public Object @NotNull [] toArray() {
+        return read(list::toArray);
+    }
+
+    @Override
+    public <T1> T1 @NotNull [] toArray(@NotNull final T1[] a) {
+        return read(() -> list.toArray(a));
+    }
+
+    @NotNull
+    @Override
+    public Iterator<T> iterator() {
+        return snapshot().iterator();
+    }
+
+    @NotNull
+    @Override
+    public ListIterator<T> listIterator() {
+        return snapshot().listIterator();
+    }
+
+    @NotNull
+    @Override
+    public ListIterator<T> listIterator(final int index) {
+        return snapshot().listIterator(index);
+    }
+
+    @NotNull
+    @Override
+    public List<T> subList(final int fromIndex, final int toIndex) {
+        return Collections.unmodifiableList(read(() -> new ArrayList<>(list.subList(fromIndex, toIndex))));
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return snapshot().spliterator();
+    }
+
+    @Override
+    public void forEach(final Consumer<? super T> action) {
+        snapshot().forEach(action);
+    }
+
+    @Override
+    public boolean add(final T e) {
+        return write(() -> list.add(e));
+    }
+
+    @Override
+    public void add(final int index, final T element) {
+        write(() -> {
+            list.add(index, element);
+            return null;
+        });
+    }
+
+    @Override
+    public boolean addAll(@NotNull final Collection<? extends T> c) {
+        return write(() -> list.addAll(c));
+    }
+
+    @Override
+    public boolean addAll(final int index, @NotNull final Collection<? extends T> c) {
+        return write(() -> list.addAll(index, c));
+    }
+
+    @Override
+    public T set(final int index, final T element) {
+        return write(() -> list.set(index, element));
+    }
+
+    @Override
+    public boolean remove(final Object o) {
+        return write(() -> list.remove(o));
+    }
+
+    @Override
+    public T remove(final int index) {
+        return write(() -> list.remove(index));
+    }
+
+    @Override
+    public boolean removeAll(@NotNull final Collection<?> c) {
+        return write(() -> list.removeAll(c));
+    }
+
+    @Override
+    public boolean removeIf(final Predicate<? super T> filter) {
+        return write(() -> list.removeIf(filter));
+    }
+
+    @Override
+    public boolean retainAll(@NotNull final Collection<?> c) {
+        return write(() -> list.retainAll(c));
+    }
+
+    @Override
+    public void replaceAll(final UnaryOperator<T> operator) {
+        write(() -> {
+            list.replaceAll(operator);
+            return null;
+        });
+    }
+
+    @Override
+    public void sort(final Comparator<? super T> c) {
+        write(() -> {
+            list.sort(c);
+            return null;
+        });
+    }
+
+    @Override
+    public void clear() {
+        write(() -> {
+            list.clear();
+            return null;
+        });
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return o == this || snapshot().equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return snapshot().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return snapshot().toString();
+    }
+}
@@ -27,9 +27,6 @@ package ml.karmaconfigs.api.common.console;
 
 import ml.karmaconfigs.api.common.karma.KarmaConfig;
 import ml.karmaconfigs.api.common.karma.source.KarmaSource;
-import ml.karmaconfigs.api.common.timer.SchedulerUnit;
-import ml.karmaconfigs.api.common.timer.SourceScheduler;
-import ml.karmaconfigs.api.common.timer.scheduler.SimpleScheduler;
 import ml.karmaconfigs.api.common.console.prefix.PrefixConsoleData;
 import ml.karmaconfigs.api.common.console.packet.ConsolePacket;
 import ml.karmaconfigs.api.common.utils.enums.Level;
@@ -40,7 +37,9 @@ import ml.karmaconfigs.api.common.string.StringUtils;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.function.Consumer;
 
 /**
@@ -54,9 +53,20 @@ public final class Console {
     private final static Map<KarmaSource, Consumer<String>> messageActions = new ConcurrentHashMap<>();
     private final static Map<KarmaSource, Set<PlaceholderEngine>> engines = new ConcurrentHashMap<>();
 
-    private final static Map<KarmaSource, Map<Integer, String>> sequence = new ConcurrentHashMap<>();
 
-    private final static Map<KarmaSource, SimpleScheduler> sequential_consoles = new ConcurrentHashMap<>();
+    /**
+     * The maximum amount of packets written at once
+     * by the sequential console
+     */
+    private final static int SEQUENCE_BATCH = 256;
+
+    /**
+     * The sequential console packets, in the order they were sent
+     */
+    private final static BlockingQueue<QueuedPacket> sequence = new LinkedBlockingQueue<>();
+    private final static Set<KarmaSource> sequential_consoles = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    private static Thread sequence_writer;
 
     /**
      * The console source
@@ -71,11 +81,7 @@ public final class Console {
     public Console(final KarmaSource src) {
         source = src;
 
-        PlaceholderEngine global = new GlobalPlaceholderEngine(src);
-        Set<PlaceholderEngine> stored = engines.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-        stored.add(global);
-
-        engines.put(source, stored);
+        engines();
     }
 
     /**
@@ -102,11 +108,23 @@ public final class Console {
             messageActions.remove(src);
         }
 
-        PlaceholderEngine global = new GlobalPlaceholderEngine(src);
-        Set<PlaceholderEngine> stored = engines.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-        stored.add(global);
+        engines();
+    }
 
-        engines.put(source, stored);
+    /**
+     * Get the placeholder engines of the source. The
+     * global engine is added when the source engines are
+     * created, so every console of the source shares it
+     *
+     * @return the source placeholder engines
+     */
+    private Set<PlaceholderEngine> engines() {
+        return engines.computeIfAbsent(source, (key) -> {
+            Set<PlaceholderEngine> stored = Collections.newSetFromMap(new ConcurrentHashMap<>());
+            stored.add(new GlobalPlaceholderEngine(key));
+
+            return stored;
+        });
     }
 
     /**
@@ -121,34 +139,12 @@ public final class Console {
      * @return this instance
      */
     public Console sequential(final boolean seq_status) {
-        SimpleScheduler scheduler = sequential_consoles.getOrDefault(source, null);
-        if (scheduler == null) {
-            scheduler = new SourceScheduler(source, 1, SchedulerUnit.SECOND, true).multiThreading(false).restartAction(() -> {
-                Map<Integer, String> execution_queue = sequence.getOrDefault(source, new ConcurrentHashMap<>());
-                List<Integer> order = new ArrayList<>(execution_queue.keySet());
-                if (!order.isEmpty()) {
-                    Collections.sort(order);
-                    int next_message = order.get(0);
-
-                    String next = execution_queue.remove(next_message);
-                    ConsolePacket packet = new ConsolePacket(Base64.getDecoder().decode(next));
-                    readPacket(packet);
-
-                    sequence.put(source, execution_queue);
-                }
-            });
-
-            sequential_consoles.put(source, scheduler);
-        }
-
         if (seq_status) {
-            if (!scheduler.isRunning()) {
-                scheduler.start();
-            }
+            startWriter();
+            sequential_consoles.add(source);
         } else {
-            if (scheduler.isRunning()) {
-                scheduler.pause();
-            }
+            //Already queued packets are still written
+            sequential_consoles.remove(source);
         }
 
         return this;
@@ -170,10 +166,7 @@ public final class Console {
      * @param engine the engine to add
      */
     public void addEngine(final PlaceholderEngine engine) {
-        Set<PlaceholderEngine> stored = engines.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-        stored.add(engine);
-
-        engines.put(source, stored);
+        engines().add(engine);
     }
 
     /**
@@ -182,10 +175,7 @@ public final class Console {
      * @param engine the placeholder engine to remove
      */
     public void removeEngine(final PlaceholderEngine engine) {
-        Set<PlaceholderEngine> added = engines.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-        added.remove(engine);
-
-        engines.put(source, added);
+        engines().remove(engine);
     }
 
     /**
@@ -194,7 +184,7 @@ public final class Console {
      * @return the placeholder engines of the console
      */
     public Set<PlaceholderEngine> getEngines() {
-        return engines.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
+        return engines();
     }
 
     /**
@@ -203,18 +193,13 @@ public final class Console {
      * @param message the message to send
      */
     public void send(final CharSequence message) {
-        SimpleScheduler scheduler = sequential_consoles.getOrDefault(source, null);
-
-        if (scheduler != null && scheduler.isRunning()) {
-            ConsolePacket packet = new ConsolePacket(message);
-            Map<Integer, String> sequences = sequence.get(source);
-            sequences.put(sequences.size() + 1, packet.serialize());
-            sequence.put(source, sequences);
+        if (sequential_consoles.contains(source)) {
+            sequence.offer(new QueuedPacket(this, new ConsolePacket(message)));
         } else {
             Consumer<String> messageAction = messageActions.getOrDefault(source, null);
 
             String msg = String.valueOf(message);
-            Set<PlaceholderEngine> added = engines.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
+            Set<PlaceholderEngine> added = engines();
             for (PlaceholderEngine engine : added)
                 msg = engine.parse(msg);
 
@@ -233,13 +218,8 @@ public final class Console {
      * @param replaces the message replaces
      */
     public void send(final CharSequence message, final Object... replaces) {
-        SimpleScheduler scheduler = sequential_consoles.getOrDefault(source, null);
-
-        if (scheduler != null && scheduler.isRunning()) {
-            ConsolePacket packet = new ConsolePacket(message, replaces);
-            Map<Integer, String> sequences = sequence.get(source);
-            sequences.put(sequences.size() + 1, packet.serialize());
-            sequence.put(source, sequences);
+        if (sequential_consoles.contains(source)) {
+            sequence.offer(new QueuedPacket(this, new ConsolePacket(message, replaces)));
         } else {
             Consumer<String> messageAction = messageActions.getOrDefault(source, null);
 
@@ -250,7 +230,7 @@ public final class Console {
                 tmpMessage = tmpMessage.replace(placeholder, value);
             }
 
-            Set<PlaceholderEngine> added = engines.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
+            Set<PlaceholderEngine> added = engines();
             for (PlaceholderEngine engine : added)
                 tmpMessage = engine.parse(tmpMessage);
 
@@ -269,13 +249,8 @@ public final class Console {
      * @param level   the message level
      */
     public void send(final @NotNull CharSequence message, final @NotNull Level level) {
-        SimpleScheduler scheduler = sequential_consoles.getOrDefault(source, null);
-
-        if (scheduler != null && scheduler.isRunning()) {
-            ConsolePacket packet = new ConsolePacket(message, level, new Object[]{});
-            Map<Integer, String> sequences = sequence.get(source);
-            sequences.put(sequences.size() + 1, packet.serialize());
-            sequence.put(source, sequences);
+        if (sequential_consoles.contains(source)) {
+            sequence.offer(new QueuedPacket(this, new ConsolePacket(message, level, new Object[]{})));
         } else {
             Consumer<String> messageAction = messageActions.getOrDefault(source, null);
 
@@ -285,7 +260,7 @@ public final class Console {
             String prefix = data.getPrefix(level);
 
             tmpMessage = StringUtils.stripColor(tmpMessage);
-            Set<PlaceholderEngine> added = engines.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
+            Set<PlaceholderEngine> added = engines();
             for (PlaceholderEngine engine : added)
                 tmpMessage = engine.parse(tmpMessage);
 
@@ -313,13 +288,8 @@ public final class Console {
      * @param replaces the message replaces
      */
     public void send(final @NotNull CharSequence message, final @NotNull Level level, final @NotNull Object... replaces) {
-        SimpleScheduler scheduler = sequential_consoles.getOrDefault(source, null);
-
-        if (scheduler != null && scheduler.isRunning()) {
-            ConsolePacket packet = new ConsolePacket(message, level, replaces);
-            Map<Integer, String> sequences = sequence.get(source);
-            sequences.put(sequences.size() + 1, packet.serialize());
-            sequence.put(source, sequences);
+        if (sequential_consoles.contains(source)) {
+            sequence.offer(new QueuedPacket(this, new ConsolePacket(message, level, replaces)));
         } else {
             Consumer<String> messageAction = messageActions.getOrDefault(source, null);
 
@@ -334,7 +304,7 @@ public final class Console {
                 tmpMessage = tmpMessage.replace(placeholder, value);
             }
             tmpMessage = StringUtils.stripColor(tmpMessage);
-            Set<PlaceholderEngine> added = engines.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
+            Set<PlaceholderEngine> added = engines();
             for (PlaceholderEngine engine : added)
                 tmpMessage = engine.parse(tmpMessage);
 
@@ -377,7 +347,7 @@ public final class Console {
             String prefix = data.getPrefix(level);
 
             tmpMessage = StringUtils.stripColor(tmpMessage);
-            Set<PlaceholderEngine> added = engines.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
+            Set<PlaceholderEngine> added = engines();
             for (PlaceholderEngine engine : added)
                 tmpMessage = engine.parse(tmpMessage);
 
@@ -415,7 +385,7 @@ public final class Console {
             String prefix = data.getPrefix(level);
 
             tmpMessage = StringUtils.stripColor(tmpMessage);
-            Set<PlaceholderEngine> added = engines.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
+            Set<PlaceholderEngine> added = engines();
             for (PlaceholderEngine engine : added)
                 tmpMessage = engine.parse(tmpMessage);
 
@@ -453,7 +423,7 @@ public final class Console {
             String prefix = data.getPrefix(level);
 
             tmpMessage = StringUtils.stripColor(tmpMessage);
-            Set<PlaceholderEngine> added = engines.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
+            Set<PlaceholderEngine> added = engines();
             for (PlaceholderEngine engine : added)
                 tmpMessage = engine.parse(tmpMessage);
 
@@ -497,7 +467,7 @@ public final class Console {
                 tmpMessage = tmpMessage.replace(placeholder, value);
             }
             tmpMessage = StringUtils.stripColor(tmpMessage);
-            Set<PlaceholderEngine> added = engines.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
+            Set<PlaceholderEngine> added = engines();
             for (PlaceholderEngine engine : added)
                 tmpMessage = engine.parse(tmpMessage);
 
@@ -541,7 +511,7 @@ public final class Console {
                 tmpMessage = tmpMessage.replace(placeholder, value);
             }
             tmpMessage = StringUtils.stripColor(tmpMessage);
-            Set<PlaceholderEngine> added = engines.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
+            Set<PlaceholderEngine> added = engines();
             for (PlaceholderEngine engine : added)
                 tmpMessage = engine.parse(tmpMessage);
 
@@ -585,7 +555,7 @@ public final class Console {
                 tmpMessage = tmpMessage.replace(placeholder, value);
             }
             tmpMessage = StringUtils.stripColor(tmpMessage);
-            Set<PlaceholderEngine> added = engines.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
+            Set<PlaceholderEngine> added = engines();
             for (PlaceholderEngine engine : added)
                 tmpMessage = engine.parse(tmpMessage);
 
@@ -605,66 +575,142 @@ public final class Console {
         }
     }
 
+    /**
+     * Start the sequential console writer if
+     * it's not running yet
+     */
+    private static synchronized void startWriter() {
+        if (sequence_writer == null) {
+            sequence_writer = new Thread(Console::writeSequence, "KarmaAPI-console");
+            sequence_writer.setDaemon(true);
+            sequence_writer.start();
+        }
+    }
+
+    /**
+     * Sequential console writer loop. Takes every queued packet
+     * in order and writes them in batches, so a burst of messages
+     * is printed as fast as the output accepts it
+     */
+    private static void writeSequence() {
+        List<QueuedPacket> batch = new ArrayList<>(SEQUENCE_BATCH);
+        StringBuilder output = new StringBuilder();
+
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(sequence.take());
+            } catch (InterruptedException ex) {
+                break;
+            }
+            sequence.drainTo(batch, SEQUENCE_BATCH - 1);
+
+            for (QueuedPacket queued : batch) {
+                try {
+                    queued.console.readPacket(queued.packet, output);
+                } catch (Throwable ignored) {
+                    //A failing message action must not stop the writer
+                }
+            }
+            flush(output);
+
+            batch.clear();
+        }
+    }
+
+    /**
+     * Write the pending console output
+     *
+     * @param output the pending output
+     */
+    private static void flush(final StringBuilder output) {
+        if (output.length() > 0) {
+            System.out.print(output);
+            System.out.flush();
+
+            output.setLength(0);
+        }
+    }
+
+    /**
+     * Append a line to the console output
+     *
+     * @param output the console output
+     * @param line   the line
+     */
+    private static void appendLine(final StringBuilder output, final String line) {
+        output.append("\033[0m").append(StringUtils.toAnyOsColor(Colors.RESET.getCode() + line + Colors.RESET.getCode())).append(System.lineSeparator());
+    }
+
     /**
      * Read the console packet
      *
      * @param packet the packet to read
+     * @param output the console output to write to
      */
-    private void readPacket(final ConsolePacket packet) {
+    private void readPacket(final ConsolePacket packet, final StringBuilder output) {
         String message = packet.getMessage();
         Object[] replaces = packet.getReplaces();
         Level level = packet.getLevel();
 
         Consumer<String> messageAction = messageActions.getOrDefault(source, null);
 
-        if (level == null) {
-            for (int i = 0; i < replaces.length; i++) {
-                String placeholder = "{" + i + "}";
-                String value = String.valueOf(replaces[i]);
-                message = message.replace(placeholder, value);
-            }
-
-            Set<PlaceholderEngine> added = engines.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-            for (PlaceholderEngine engine : added)
-                message = engine.parse(message);
+        for (int i = 0; i < replaces.length; i++) {
+            String placeholder = "{" + i + "}";
+            String value = String.valueOf(replaces[i]);
+            message = message.replace(placeholder, value);
+        }
 
-            if (messageAction == null) {
-                System.out.println("\033[0m" + StringUtils.toAnyOsColor(Colors.RESET.getCode() + message + Colors.RESET.getCode()));
-            } else {
-                messageAction.accept(message);
-            }
-        } else {
+        String prefix = "";
+        if (level != null) {
             PrefixConsoleData data = getData();
-            String prefix = data.getPrefix(level);
+            prefix = data.getPrefix(level);
 
-            for (int i = 0; i < replaces.length; i++) {
-                String placeholder = "{" + i + "}";
-                String value = String.valueOf(replaces[i]);
-                message = message.replace(placeholder, value);
-            }
             message = StringUtils.stripColor(message);
-            Set<PlaceholderEngine> added = engines.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-            for (PlaceholderEngine engine : added)
-                message = engine.parse(message);
+        }
 
-            if (messageAction == null) {
-                if (message.contains("\n")) {
-                    boolean first_message = true;
+        Set<PlaceholderEngine> added = engines();
+        for (PlaceholderEngine engine : added)
+            message = engine.parse(message);
 
-                    for (String msg : message.split("\n")) {
-                        System.out.println("\033[0m" + StringUtils.toAnyOsColor(Colors.RESET.getCode() + (first_message ? prefix : "") + msg + Colors.RESET.getCode()));
+        if (messageAction == null) {
+            if (level != null && message.contains("\n")) {
+                boolean first_message = true;
 
-                        first_message = false;
-                    }
-                } else {
-                    System.out.println("\033[0m" + StringUtils.toAnyOsColor(Colors.RESET.getCode() + prefix + message + Colors.RESET.getCode()));
+                for (String msg : message.split("\n")) {
+                    appendLine(output, (first_message ? prefix : "") + msg);
+
+                    first_message = false;
                 }
             } else {
-                if (message.contains("\n"))
-                    message = StringUtils.listToString(Arrays.asList(message.split("\n")), ListTransformation.NEW_LINES);
-
-                messageAction.accept(prefix + message);
+                appendLine(output, prefix + message);
             }
+        } else {
+            if (level != null && message.contains("\n"))
+                message = StringUtils.listToString(Arrays.asList(message.split("\n")), ListTransformation.NEW_LINES);
+
+            //Keep the order with the messages printed before this one
+            flush(output);
+            messageAction.accept(prefix + message);
+        }
+    }
+
+    /**
+     * A packet waiting in the sequential console
+     */
+    private static final class QueuedPacket {
+
+        private final Console console;
+        private final ConsolePacket packet;
+
+        /**
+         * Initialize the queued packet
+         *
+         * @param owner the console that sent the packet
+         * @param data  the packet
+         */
+        QueuedPacket(final Console owner, final ConsolePacket data) {
+            console = owner;
+            packet = data;
         }
     }
 }
@@ -1,10 +1,9 @@
 package ml.karmaconfigs.api.common.console.packet;
 
 import ml.karmaconfigs.api.common.utils.enums.Level;
-import ml.karmaconfigs.api.common.string.StringUtils;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
 import java.util.Base64;
 
 /**
@@ -13,15 +12,31 @@ import java.util.Base64;
 public final class ConsolePacket {
 
     /**
-     * The packet data
+     * The packet level, null if the packet has no level
      */
-    private final byte[] message;
+    private final Level level;
+
+    /**
+     * The packet message
+     */
+    private final String message;
+
+    /**
+     * The packet replaces
+     */
+    private final String[] replaces;
 
     /**
      * Only for deserializing utilities
      */
     public ConsolePacket(final byte[] raw) {
-        message = raw;
+        ByteBuffer buffer = ByteBuffer.wrap(raw);
+
+        level = fromByte(buffer.get());
+        replaces = new String[buffer.getInt()];
+        for (int i = 0; i < replaces.length; i++)
+            replaces[i] = read(buffer);
+        message = read(buffer);
     }
 
     /**
@@ -31,21 +46,7 @@ public final class ConsolePacket {
      * @param replaces the packet text replaces
      */
     public ConsolePacket(final CharSequence string, final Object... replaces) {
-        StringBuilder replaceDataBuilder = new StringBuilder();
-        for (Object replace : replaces)
-            replaceDataBuilder.append(String.valueOf(replace).replace(",", "{coma}")).append(",");
-
-        byte[] msgData = String.valueOf(string).getBytes(StandardCharsets.UTF_8);
-        byte[] replaceData = StringUtils.replaceLast(",", "", replaceDataBuilder.toString()).getBytes(StandardCharsets.UTF_8);
-
-
-        message = new byte[msgData.length + replaceData.length + 1];
-        message[0] = 0; //First byte always indicates the message level, being 0 no message level
-        message[1] = (byte) replaceData.length; //Second byte always indicates the amount of message replaces that are
-
-        if (replaceData.length - 2 >= 0) System.arraycopy(replaceData, 2, message, 2, replaceData.length - 2);
-        if (message.length - (replaceData.length + 2) >= 0)
-            System.arraycopy(msgData, replaceData.length + 2, message, replaceData.length + 2, message.length - (replaceData.length + 2));
+        this(string, null, replaces);
     }
 
     /**
@@ -56,20 +57,13 @@ public final class ConsolePacket {
      * @param replaces the packet text replaces
      */
     public ConsolePacket(final CharSequence string, final Level level, final Object[] replaces) {
-        StringBuilder replaceDataBuilder = new StringBuilder();
-        for (Object replace : replaces)
-            replaceDataBuilder.append(String.valueOf(replace).replace(",", "{coma}")).append(",");
-
-        byte[] msgData = String.valueOf(string).getBytes(StandardCharsets.UTF_8);
-        byte[] replaceData = StringUtils.replaceLast(",", "", replaceDataBuilder.toString()).getBytes(StandardCharsets.UTF_8);
-
-        message = new byte[msgData.length + replaceData.length + 1];
-        message[0] = level.getByte(); //First byte always indicates the message level, being 0 no message level
-        message[1] = (byte) replaceData.length; //Second byte always indicates the amount of message replaces that are
+        this.level = level;
+        this.message = String.valueOf(string);
 
-        if (replaceData.length - 2 >= 0) System.arraycopy(replaceData, 2, message, 2, replaceData.length - 2);
-        if (message.length - (replaceData.length + 2) >= 0)
-            System.arraycopy(msgData, replaceData.length + 2, message, replaceData.length + 2, message.length - (replaceData.length + 2));
+        //Replaces are resolved now, so the packet shows the values they had when it was sent
+        this.replaces = new String[replaces.length];
+        for (int i = 0; i < replaces.length; i++)
+            this.replaces[i] = String.valueOf(replaces[i]);
     }
 
     /**
@@ -78,19 +72,7 @@ public final class ConsolePacket {
      * @return the packet message level
      */
     public Level getLevel() {
-        switch (message[0]) {
-            case 1:
-                return Level.OK;
-            case 2:
-                return Level.INFO;
-            case 3:
-                return Level.WARNING;
-            case 4:
-                return Level.GRAVE;
-            case 0:
-            default:
-                return null;
-        }
+        return level;
     }
 
     /**
@@ -99,7 +81,7 @@ public final class ConsolePacket {
      * @return the packet message
      */
     public String getMessage() {
-        return new String(Arrays.copyOfRange(message, (int) message[2] + 2, message.length), StandardCharsets.UTF_8);
+        return message;
     }
 
     /**
@@ -108,20 +90,7 @@ public final class ConsolePacket {
      * @return the packet replaces
      */
     public Object[] getReplaces() {
-        StringBuilder packer = new StringBuilder();
-        int length = message[2];
-
-        for (int i = 1; i < length; i++) {
-            byte value = message[i];
-            packer.append((char) value);
-        }
-
-        String unpacked = packer.toString();
-        if (unpacked.contains(",")) {
-            return packer.toString().split(",");
-        } else {
-            return new String[]{packer.toString()};
-        }
+        return replaces.clone();
     }
 
     /**
@@ -130,6 +99,49 @@ public final class ConsolePacket {
      * @return the packet data
      */
     public String serialize() {
-        return Base64.getEncoder().encodeToString(message);
+        byte[][] data = new byte[replaces.length + 1][];
+        int length = 1 + 4 + 4 * data.length;
+        for (int i = 0; i < replaces.length; i++) {
+            data[i] = replaces[i].getBytes(StandardCharsets.UTF_8);
+            length += data[i].length;
+        }
+        data[replaces.length] = message.getBytes(StandardCharsets.UTF_8);
+        length += data[replaces.length].length;
+
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        buffer.put(level != null ? level.getByte() : 0); //First byte always indicates the message level, being 0 no message level
+        buffer.putInt(replaces.length);
+        for (byte[] value : data)
+            buffer.putInt(value.length).put(value);
+
+        return Base64.getEncoder().encodeToString(buffer.array());
+    }
+
+    /**
+     * Read a length prefixed string
+     *
+     * @param buffer the buffer to read from
+     * @return the string
+     */
+    private static String read(final ByteBuffer buffer) {
+        byte[] value = new byte[buffer.getInt()];
+        buffer.get(value);
+
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Get a level from its byte
+     *
+     * @param value the level byte
+     * @return the level, or null if no level
+     */
+    private static Level fromByte(final byte value) {
+        for (Level level : Level.values()) {
+            if (level.getByte() == value)
+                return level;
+        }
+
+        return null;
     }
 }
@@ -0,0 +1,222 @@
+package ml.karmaconfigs.api.common.data.cache;
+
+/*
+ * This file is part of KarmaAPI, licensed under the MIT License.
+ *
+ *  Copyright (c) karma (KarmaDev) <karmaconfigs@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+import java.io.BufferedReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Memory cache backed by an append only text file, one line
+ * per entry. Updating an entry appends its new line, so the
+ * file is rewritten on load when it has many more lines than
+ * cached entries. The least recently used entries are dropped
+ * once the cache is full
+ *
+ * @param <K> the cache key type
+ * @param <V> the cache entry type
+ */
+public abstract class LineCache<K, V> {
+
+    private final Supplier<Path> file;
+    private final Map<K, V> entries;
+
+    private volatile boolean loaded = false;
+
+    /**
+     * Initialize the line cache
+     *
+     * @param cacheFile the cache file provider, called
+     *                  when the cache is first used
+     * @param limit     the maximum amount of cached entries
+     */
+    protected LineCache(final Supplier<Path> cacheFile, final int limit) {
+        file = cacheFile;
+        entries = Collections.synchronizedMap(new LruMap<>(limit));
+    }
+
+    /**
+     * Parse a cache file line
+     *
+     * @param line the line
+     * @return the entry, or null if the line is not valid
+     */
+    protected abstract V parse(final String line);
+
+    /**
+     * Get the cache file line of an entry
+     *
+     * @param entry the entry
+     * @return the entry line
+     */
+    protected abstract String format(final V entry);
+
+    /**
+     * Get the key of an entry
+     *
+     * @param entry the entry
+     * @return the entry key
+     */
+    protected abstract K key(final V entry);
+
+    /**
+     * Get if an entry is written to the cache file. Other
+     * entries are only kept in memory
+     *
+     * @param entry the entry
+     * @return if the entry is written
+     */
+    protected boolean persistent(final V entry) {
+        return true;
+    }
+
+    /**
+     * Get if a new entry must be appended to the cache
+     * file, replacing the previous entry of its key
+     *
+     * @param previous the previous entry, or null
+     * @param entry    the new entry
+     * @return if the new entry must be appended
+     */
+    protected boolean changed(final V previous, final V entry) {
+        return true;
+    }
+
+    /**
+     * Called for every entry read from the cache file
+     *
+     * @param entry the entry
+     */
+    protected void loaded(final V entry) {
+    }
+
+    /**
+     * Get a cached entry
+     *
+     * @param key the entry key
+     * @return the cached entry, or null if not cached
+     */
+    public final V get(final K key) {
+        load();
+        return entries.get(key);
+    }
+
+    /**
+     * Cache an entry, appending it to the cache file
+     * if it's persistent and changed
+     *
+     * @param entry the entry
+     * @return the previous entry of the key, or null
+     */
+    public final V put(final V entry) {
+        load();
+
+        V previous = entries.put(key(entry), entry);
+        if (persistent(entry) && changed(previous, entry))
+            store(entry);
+
+        return previous;
+    }
+
+    /**
+     * Load the cache file if it's not loaded yet
+     */
+    public final void load() {
+        if (loaded)
+            return;
+
+        synchronized (this) {
+            if (!loaded) {
+                read();
+                loaded = true;
+            }
+        }
+    }
+
+    /**
+     * Read the cache file
+     */
+    private void read() {
+        Path path;
+        int lines = 0;
+        try {
+            path = file.get();
+            if (!Files.exists(path))
+                return;
+
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lines++;
+
+                    V entry = parse(line);
+                    if (entry != null) {
+                        entries.put(key(entry), entry);
+                        loaded(entry);
+                    }
+                }
+            }
+        } catch (Throwable ex) {
+            return;
+        }
+
+        if (lines > entries.size() * 2 + 64) {
+            List<String> compact = new ArrayList<>();
+            synchronized (entries) {
+                entries.values().forEach((entry) -> {
+                    if (persistent(entry))
+                        compact.add(format(entry));
+                });
+            }
+
+            try {
+                Files.write(path, compact, StandardCharsets.UTF_8);
+            } catch (Throwable ignored) {
+            }
+        }
+    }
+
+    /**
+     * Append an entry to the cache file
+     *
+     * @param entry the entry
+     */
+    private synchronized void store(final V entry) {
+        try {
+            Path path = file.get();
+            Files.createDirectories(path.getParent());
+            Files.write(path, Collections.singletonList(format(entry)), StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (Throwable ignored) {
+        }
+    }
+}
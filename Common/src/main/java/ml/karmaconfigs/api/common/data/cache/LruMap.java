@@ -0,0 +1,69 @@
+package ml.karmaconfigs.api.common.data.cache;
+
+/*
+ * This file is part of KarmaAPI, licensed under the MIT License.
+ *
+ *  Copyright (c) karma (KarmaDev) <karmaconfigs@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Map in access order which drops its least recently
+ * used entry once it holds more entries than its limit.
+ * The map is not synchronized
+ *
+ * @param <K> the map key type
+ * @param <V> the map value type
+ */
+public final class LruMap<K, V> extends LinkedHashMap<K, V> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The maximum amount of entries
+     */
+    private final int limit;
+
+    /**
+     * Initialize the map
+     *
+     * @param max the maximum amount of entries
+     */
+    public LruMap(final int max) {
+        super(16, 0.75f, true);
+        limit = max;
+    }
+
+    /**
+     * Get if the least recently used entry
+     * must be dropped
+     *
+     * @param eldest the least recently used entry
+     * @return if the map is full
+     */
+    @Override
+    protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+        return size() > limit;
+    }
+}
@@ -49,7 +49,7 @@ public abstract class Checker {
      * a md5 hash or even a UUID generated using the file
      * bytes. By default, KarmaAPI generates a md5 hash
      *
-     * @param algorithm the algorithm to use. Nonsense while using {@link FileChecker}
+     * @param algorithm the algorithm to use
      * @return the file hash
      */
     public abstract String generateHash(final String algorithm);
@@ -59,7 +59,7 @@ public abstract class Checker {
      * a md5 hash or even a UUID generated using the file
      * bytes. By default, KarmaAPI generates a md5 hash
      *
-     * @param algorithm the algorithm to use. Nonsense while using {@link FileChecker}
+     * @param algorithm the algorithm to use
      * @return the file hash
      */
     public abstract String generateHashCheck(final String algorithm);
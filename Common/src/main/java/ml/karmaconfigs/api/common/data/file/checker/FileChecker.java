@@ -1,6 +1,7 @@
 package ml.karmaconfigs.api.common.data.file.checker;
 
 import ml.karmaconfigs.api.common.data.path.PathUtilities;
+import ml.karmaconfigs.api.common.string.StringUtils;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.DataInputStream;
@@ -102,7 +103,8 @@ public class FileChecker extends Checker {
      * a md5 hash or even a UUID generated using the file
      * bytes. By default, KarmaAPI generates a md5 hash
      *
-     * @param algorithm the algorithm to use. Nonsense while using {@link FileChecker}
+     * @param algorithm the algorithm to use, any {@link MessageDigest}
+     *                  algorithm. If null or empty, MD5 is used
      * @return the file hash
      */
     @Override
@@ -110,13 +112,7 @@ public class FileChecker extends Checker {
         String result = null;
         if (file != null) {
             try {
-                MessageDigest digest = MessageDigest.getInstance("MD5");
-                byte[] hash = digest.digest(Files.readAllBytes(file));
-                StringBuilder builder = new StringBuilder();
-                for (byte aByte : hash) {
-                    builder.append(String.format("%02x", aByte));
-                }
-                result = builder.toString();
+                result = FileHasher.hash(file, algorithm(algorithm));
             } catch (Throwable ex) {
                 ex.printStackTrace();
             }
@@ -130,7 +126,8 @@ public class FileChecker extends Checker {
      * a md5 hash or even a UUID generated using the file
      * bytes. By default, KarmaAPI generates a md5 hash
      *
-     * @param algorithm the algorithm to use. Nonsense while using {@link FileChecker}
+     * @param algorithm the algorithm to use, any {@link MessageDigest}
+     *                  algorithm. If null or empty, MD5 is used
      * @return the file hash
      */
     @Override
@@ -138,18 +135,7 @@ public class FileChecker extends Checker {
         String result = null;
         if (check != null) {
             try {
-                byte[] host = new byte[(int) check.available()];
-
-                DataInputStream dataInputStream = new DataInputStream(check);
-                dataInputStream.readFully(host);
-
-                MessageDigest digest = MessageDigest.getInstance("MD5");
-                byte[] hash = digest.digest(host);
-                StringBuilder builder = new StringBuilder();
-                for (byte aByte : hash) {
-                    builder.append(String.format("%02x", aByte));
-                }
-                result = builder.toString();
+                result = FileHasher.hash(check, algorithm(algorithm));
             } catch (Throwable ex) {
                 ex.printStackTrace();
             }
@@ -157,4 +143,14 @@ public class FileChecker extends Checker {
 
         return result;
     }
+
+    /**
+     * Get the hash algorithm to use
+     *
+     * @param algorithm the requested algorithm
+     * @return the hash algorithm
+     */
+    private static String algorithm(final String algorithm) {
+        return (StringUtils.isNullOrEmpty(algorithm) ? "MD5" : algorithm);
+    }
 }
@@ -0,0 +1,263 @@
+package ml.karmaconfigs.api.common.data.file.checker;
+
+import ml.karmaconfigs.api.common.data.cache.LineCache;
+import ml.karmaconfigs.api.common.karma.KarmaAPI;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Streaming file hasher. Files are hashed through their channel
+ * without loading them in memory, and the hashes are remembered
+ * by path, size and modification time in a cache file, so files
+ * which did not change are not hashed again
+ */
+final class FileHasher {
+
+    /**
+     * Files bigger than this are hashed through memory
+     * mapped segments instead of a read buffer
+     */
+    private final static long MAP_THRESHOLD = 1024 * 1024;
+    private final static long MAP_SEGMENT = 64 * 1024 * 1024;
+    private final static int BUFFER_SIZE = 65536;
+
+    /**
+     * Amount of hashes kept in memory and in the cache file
+     */
+    private final static int CACHE_LIMIT = 4096;
+
+    private final static char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final static ThreadLocal<ByteBuffer> buffers = new ThreadLocal<>();
+    private final static HashCache hashes = new HashCache();
+
+    /**
+     * Initialize the file hasher
+     */
+    private FileHasher() {
+    }
+
+    /**
+     * Hash a file
+     *
+     * @param file      the file
+     * @param algorithm the hash algorithm
+     * @return the file hash
+     * @throws IOException              if the file can't be read
+     * @throws NoSuchAlgorithmException if the algorithm is not available
+     */
+    static String hash(final Path file, final String algorithm) throws IOException, NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance(algorithm);
+
+        Path path = file.toAbsolutePath().normalize();
+        String key = digest.getAlgorithm() + "\t" + path;
+
+        BasicFileAttributes before = Files.readAttributes(path, BasicFileAttributes.class);
+        long size = before.size();
+        long modified = before.lastModifiedTime().toMillis();
+
+        Entry cached = hashes.get(key);
+        if (cached != null && cached.size == size && cached.modified == modified)
+            return cached.hash;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (size > MAP_THRESHOLD) {
+                for (long position = 0; position < size; position += MAP_SEGMENT) {
+                    MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAP_SEGMENT, size - position));
+                    digest.update(segment);
+                }
+            } else {
+                ByteBuffer buffer = buffer();
+                while (channel.read(buffer) != -1) {
+                    buffer.flip();
+                    digest.update(buffer);
+                    buffer.clear();
+                }
+            }
+        }
+
+        String hash = hex(digest.digest());
+
+        //Only remember the hash if the file did not change while it was read
+        BasicFileAttributes after = Files.readAttributes(path, BasicFileAttributes.class);
+        if (after.size() == size && after.lastModifiedTime().toMillis() == modified) {
+            hashes.put(new Entry(digest.getAlgorithm(), path.toString(), size, modified, hash));
+        }
+
+        return hash;
+    }
+
+    /**
+     * Hash a stream, until its end
+     *
+     * @param stream    the stream
+     * @param algorithm the hash algorithm
+     * @return the stream hash
+     * @throws IOException              if the stream can't be read
+     * @throws NoSuchAlgorithmException if the algorithm is not available
+     */
+    static String hash(final InputStream stream, final String algorithm) throws IOException, NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance(algorithm);
+
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = stream.read(buffer)) != -1)
+            digest.update(buffer, 0, read);
+
+        return hex(digest.digest());
+    }
+
+    /**
+     * Encode bytes as lower case hex
+     *
+     * @param bytes the bytes
+     * @return the hex string
+     */
+    static String hex(final byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+
+        return new String(chars);
+    }
+
+    /**
+     * Get the read buffer of the current thread
+     *
+     * @return the thread read buffer
+     */
+    private static ByteBuffer buffer() {
+        ByteBuffer buffer = buffers.get();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            buffers.set(buffer);
+        }
+
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Get the cache file
+     *
+     * @return the cache file
+     */
+    private static Path file() {
+        return KarmaAPI.source(false).getDataPath().resolve("cache").resolve("hashes.dat");
+    }
+
+    /**
+     * File hashes, kept in the cache file
+     */
+    private static final class HashCache extends LineCache<String, Entry> {
+
+        /**
+         * Initialize the hash cache
+         */
+        private HashCache() {
+            super(FileHasher::file, CACHE_LIMIT);
+        }
+
+        /**
+         * Parse a cache file line
+         *
+         * @param line the line
+         * @return the entry, or null if the line is not valid
+         */
+        @Override
+        protected Entry parse(final String line) {
+            return Entry.parse(line);
+        }
+
+        /**
+         * Get the cache file line of an entry
+         *
+         * @param entry the entry
+         * @return the entry line
+         */
+        @Override
+        protected String format(final Entry entry) {
+            return entry.toString();
+        }
+
+        /**
+         * Get the key of an entry
+         *
+         * @param entry the entry
+         * @return the hash algorithm and file path
+         */
+        @Override
+        protected String key(final Entry entry) {
+            return entry.algorithm + "\t" + entry.path;
+        }
+    }
+
+    /**
+     * A file hash
+     */
+    private static final class Entry {
+
+        private final String algorithm;
+        private final String path;
+        private final long size;
+        private final long modified;
+        private final String hash;
+
+        /**
+         * Initialize the entry
+         *
+         * @param digest   the hash algorithm
+         * @param file     the file path
+         * @param length   the file size when it was hashed
+         * @param time     the file modification time when it was hashed
+         * @param result   the file hash
+         */
+        Entry(final String digest, final String file, final long length, final long time, final String result) {
+            algorithm = digest;
+            path = file;
+            size = length;
+            modified = time;
+            hash = result;
+        }
+
+        /**
+         * Parse a cache file line
+         *
+         * @param line the line
+         * @return the entry, or null if the line is not valid
+         */
+        static Entry parse(final String line) {
+            String[] data = line.split("\t", 5);
+            if (data.length != 5)
+                return null;
+
+            try {
+                return new Entry(data[0], data[4], Long.parseLong(data[1]), Long.parseLong(data[2]), data[3]);
+            } catch (NumberFormatException ex) {
+                return null;
+            }
+        }
+
+        /**
+         * Get the cache file line of the entry
+         *
+         * @return the entry line
+         */
+        @Override
+        public String toString() {
+            return algorithm + "\t" + size + "\t" + modified + "\t" + hash + "\t" + path;
+        }
+    }
+}
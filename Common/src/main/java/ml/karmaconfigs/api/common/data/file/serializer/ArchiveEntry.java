@@ -0,0 +1,308 @@
+package ml.karmaconfigs.api.common.data.file.serializer;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * A file stored in a serialized archive. The entry
+ * data is not read until the entry is opened
+ */
+public final class ArchiveEntry {
+
+    /**
+     * Archive header, "KSF" followed by the format version
+     */
+    final static int MAGIC = 0x4B534601;
+
+    final static byte DIRECTORY = 1;
+    final static byte DEFLATED = 2;
+
+    /**
+     * The entry data is split in frames, each one preceded
+     * by its length and the last one empty, so it can be
+     * written before its stored size is known
+     */
+    final static byte FRAMED = 4;
+    final static byte END = -1;
+
+    private final DataInputStream archive;
+    private final byte flags;
+    private final String name;
+    private final long size;
+    private final long stored;
+
+    private long remaining;
+    private boolean last_frame = false;
+    private int checksum = 0;
+    private boolean finished = false;
+    private EntryStream stream = null;
+
+    /**
+     * Initialize the archive entry
+     *
+     * @param in          the archive stream
+     * @param entryFlags  the entry flags
+     * @param entryName   the entry name
+     * @param rawSize     the entry size
+     * @param storedSize  the entry size in the archive, or
+     *                    -1 if the entry is framed
+     */
+    ArchiveEntry(final DataInputStream in, final byte entryFlags, final String entryName, final long rawSize, final long storedSize) {
+        archive = in;
+        flags = entryFlags;
+        name = entryName;
+        size = rawSize;
+        stored = storedSize;
+        remaining = (isFramed() ? 0 : storedSize);
+    }
+
+    /**
+     * Get if the entry is a directory
+     *
+     * @return if the entry is a directory
+     */
+    public boolean isDirectory() {
+        return (flags & DIRECTORY) != 0;
+    }
+
+    /**
+     * Get if the entry is compressed
+     *
+     * @return if the entry is compressed
+     */
+    public boolean isCompressed() {
+        return (flags & DEFLATED) != 0;
+    }
+
+    /**
+     * Get if the entry data is split in frames
+     *
+     * @return if the entry is framed
+     */
+    private boolean isFramed() {
+        return (flags & FRAMED) != 0;
+    }
+
+    /**
+     * Get the entry name, relative to the archive
+     * root and separated with "/"
+     *
+     * @return the entry name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the entry size
+     *
+     * @return the entry size
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Get the entry size in the archive. Large compressed
+     * entries are written before their compressed size is
+     * known, so their size in the archive is unknown
+     *
+     * @return the entry stored size, or -1 if it's unknown
+     */
+    public long getStoredSize() {
+        return stored;
+    }
+
+    /**
+     * Open the entry data. The data can be read only once,
+     * and only until the next entry is requested. Once the
+     * end of the data is reached, its checksum is verified
+     *
+     * @return the entry data
+     * @throws IOException if the entry has already been read
+     */
+    public InputStream open() throws IOException {
+        if (stream != null || finished)
+            throw new IOException("Entry " + name + " has already been read");
+
+        stream = new EntryStream();
+        return stream;
+    }
+
+    /**
+     * Read the whole entry into memory
+     *
+     * @return the serialized file
+     * @throws IOException if the entry can't be read
+     */
+    public SerializedFile toFile() throws IOException {
+        byte[] data = new byte[(int) size];
+        if (!isDirectory()) {
+            try (DataInputStream in = new DataInputStream(open())) {
+                in.readFully(data);
+                if (in.read() != -1)
+                    throw new IOException("Entry " + name + " is longer than its declared size");
+            }
+        }
+
+        return new SerializedFile(isDirectory(), name, data);
+    }
+
+    /**
+     * Skip the unread entry data and its checksum,
+     * so the next entry can be read
+     *
+     * @throws IOException if the archive can't be read
+     */
+    void finish() throws IOException {
+        if (finished)
+            return;
+
+        if (stream != null)
+            stream.release();
+
+        while (hasData()) {
+            long skipped = archive.skip(remaining);
+            if (skipped <= 0) {
+                if (archive.read() == -1)
+                    throw new IOException("Unexpected end of archive while skipping " + name);
+                skipped = 1;
+            }
+            remaining -= skipped;
+        }
+
+        checksum = archive.readInt();
+        finished = true;
+    }
+
+    /**
+     * Get if there's entry data left to read, reading
+     * the next frame length if the current frame is over
+     *
+     * @return if there's data left
+     * @throws IOException if the archive can't be read
+     */
+    private boolean hasData() throws IOException {
+        if (remaining > 0)
+            return true;
+        if (!isFramed() || last_frame)
+            return false;
+
+        int frame = archive.readInt();
+        if (frame < 0)
+            throw new IOException("Entry " + name + " is corrupted, it has a frame of " + frame + " bytes");
+        if (frame == 0)
+            last_frame = true;
+
+        remaining = frame;
+        return frame > 0;
+    }
+
+    /**
+     * Entry data stream
+     */
+    private final class EntryStream extends InputStream {
+
+        private final CRC32 crc = new CRC32();
+        private final Inflater inflater;
+        private final InputStream data;
+
+        private long read = 0;
+        private boolean done = false;
+
+        /**
+         * Initialize the entry stream
+         */
+        private EntryStream() {
+            InputStream bounded = new InputStream() {
+                @Override
+                public int read() throws IOException {
+                    if (!hasData())
+                        return -1;
+
+                    int value = archive.read();
+                    if (value == -1)
+                        throw new IOException("Unexpected end of archive while reading " + name);
+
+                    remaining--;
+                    return value;
+                }
+
+                @Override
+                public int read(final byte @NotNull [] b, final int off, final int len) throws IOException {
+                    if (!hasData())
+                        return -1;
+
+                    int amount = archive.read(b, off, (int) Math.min(len, remaining));
+                    if (amount == -1)
+                        throw new IOException("Unexpected end of archive while reading " + name);
+
+                    remaining -= amount;
+                    return amount;
+                }
+            };
+
+            if (isCompressed()) {
+                inflater = new Inflater();
+                data = new InflaterInputStream(bounded, inflater, 8192);
+            } else {
+                inflater = null;
+                data = bounded;
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return (read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF);
+        }
+
+        @Override
+        public int read(final byte @NotNull [] b, final int off, final int len) throws IOException {
+            if (done)
+                return -1;
+
+            int amount = data.read(b, off, len);
+            if (amount == -1) {
+                verify();
+                return -1;
+            }
+
+            crc.update(b, off, amount);
+            read += amount;
+            return amount;
+        }
+
+        @Override
+        public void close() {
+            release();
+        }
+
+        /**
+         * Check the entry checksum once all the data has been read
+         *
+         * @throws IOException if the data does not match the checksum
+         */
+        private void verify() throws IOException {
+            finish();
+
+            if (read != size || checksum != (int) crc.getValue())
+                throw new IOException("Entry " + name + " is corrupted, its checksum does not match");
+        }
+
+        /**
+         * Stop reading the entry and release its inflater
+         */
+        private void release() {
+            done = true;
+            if (inflater != null)
+                inflater.end();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package ml.karmaconfigs.api.common.data.file.serializer;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Serialized archive reader. Entries are read one by
+ * one from the stream, so the archive is never fully
+ * loaded in memory
+ */
+public final class ArchiveReader implements Closeable {
+
+    private final DataInputStream archive;
+
+    private ArchiveEntry current = null;
+    private boolean ended = false;
+
+    /**
+     * Initialize the archive reader
+     *
+     * @param stream the archive stream
+     * @throws IOException if the stream is not a serialized archive
+     */
+    public ArchiveReader(final InputStream stream) throws IOException {
+        archive = new DataInputStream(new BufferedInputStream(stream, 65536));
+        if (archive.readInt() != ArchiveEntry.MAGIC)
+            throw new IOException("The provided stream is not a serialized archive");
+    }
+
+    /**
+     * Initialize the archive reader
+     *
+     * @param channel the archive channel
+     * @throws IOException if the channel is not a serialized archive
+     */
+    public ArchiveReader(final ReadableByteChannel channel) throws IOException {
+        this(Channels.newInputStream(channel));
+    }
+
+    /**
+     * Get the next archive entry. The previous entry
+     * can't be read anymore after calling this
+     *
+     * @return the next entry, or null if there are no more
+     * @throws IOException if the archive can't be read
+     */
+    @Nullable
+    public ArchiveEntry next() throws IOException {
+        if (ended)
+            return null;
+
+        if (current != null)
+            current.finish();
+
+        byte flags = archive.readByte();
+        if (flags == ArchiveEntry.END) {
+            ended = true;
+            current = null;
+            return null;
+        }
+
+        String name = archive.readUTF();
+        long size = archive.readLong();
+        long stored = archive.readLong();
+
+        current = new ArchiveEntry(archive, flags, name, size, stored);
+        return current;
+    }
+
+    /**
+     * Write the remaining archive entries into a folder.
+     * Existing files are replaced
+     *
+     * @param destination the destination folder
+     * @throws IOException if the archive can't be read or
+     *                     an entry can't be written
+     */
+    public void restore(final Path destination) throws IOException {
+        Path root = destination.toAbsolutePath().normalize();
+
+        ArchiveEntry entry;
+        while ((entry = next()) != null) {
+            Path target = root.resolve(entry.getName()).normalize();
+            if (!target.startsWith(root))
+                throw new IOException("Archive entry " + entry.getName() + " points outside of the destination folder");
+
+            if (entry.isDirectory()) {
+                Files.createDirectories(target);
+            } else {
+                Path parent = target.getParent();
+                if (parent != null)
+                    Files.createDirectories(parent);
+
+                try (InputStream data = entry.open()) {
+                    Files.copy(data, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+    }
+
+    /**
+     * Close the archive stream
+     *
+     * @throws IOException if the stream can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        archive.close();
+    }
+}
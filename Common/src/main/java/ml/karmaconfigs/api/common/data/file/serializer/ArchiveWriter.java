@@ -0,0 +1,322 @@
+package ml.karmaconfigs.api.common.data.file.serializer;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Serialized archive writer. Each entry is written as its
+ * flags, name, size and stored size, followed by its data and
+ * the CRC32 of the uncompressed data. Entries are compressed in
+ * parallel, but only a few at a time, and entries which don't
+ * get smaller are streamed from their file as they are. Files
+ * larger than {@link #PACK_LIMIT} are compressed while they are
+ * written instead, in frames, so they never need to fit in memory
+ */
+final class ArchiveWriter {
+
+    private final static int BUFFER_SIZE = 65536;
+
+    /**
+     * Maximum size of a file compressed in parallel, as
+     * its compressed data is kept in memory until written
+     */
+    private final static long PACK_LIMIT = 1024 * 1024;
+
+    /**
+     * Initialize the archive writer
+     */
+    private ArchiveWriter() {
+    }
+
+    /**
+     * Write the files into an archive
+     *
+     * @param files    the files to write
+     * @param stream   the archive stream
+     * @param compress if the files should be compressed
+     * @throws IOException if a file can't be read or the
+     *                     archive can't be written
+     */
+    static void write(final Collection<FileSerializer> files, final OutputStream stream, final boolean compress) throws IOException {
+        DataOutputStream archive = new DataOutputStream(new BufferedOutputStream(stream, BUFFER_SIZE));
+        archive.writeInt(ArchiveEntry.MAGIC);
+
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int window = Math.max(2, pool.getParallelism() * 2);
+
+        Deque<ForkJoinTask<Packed>> pending = new ArrayDeque<>();
+        try {
+            for (FileSerializer file : files) {
+                pending.add(pool.submit(() -> pack(file, compress)));
+                if (pending.size() >= window)
+                    write(archive, pending.poll());
+            }
+            while (!pending.isEmpty())
+                write(archive, pending.poll());
+        } finally {
+            pending.forEach((task) -> task.cancel(false));
+        }
+
+        archive.writeByte(ArchiveEntry.END);
+        archive.flush();
+    }
+
+    /**
+     * Write a packed entry
+     *
+     * @param archive the archive stream
+     * @param task    the entry packing task
+     * @throws IOException if the entry can't be written
+     */
+    private static void write(final DataOutputStream archive, final ForkJoinTask<Packed> task) throws IOException {
+        Packed packed;
+        try {
+            packed = task.join();
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+
+        FileSerializer file = packed.file;
+        archive.writeByte(packed.flags);
+        archive.writeUTF(file.entryName());
+        archive.writeLong(packed.size);
+
+        if (packed.data != null) {
+            archive.writeLong(packed.data.length);
+            archive.write(packed.data);
+            archive.writeInt(packed.checksum);
+            return;
+        }
+        if ((packed.flags & ArchiveEntry.FRAMED) != 0) {
+            archive.writeLong(-1);
+            deflate(archive, file, packed.size);
+            return;
+        }
+
+        archive.writeLong(packed.size);
+        if (packed.size == 0) {
+            archive.writeInt((int) new CRC32().getValue());
+            return;
+        }
+
+        //Stream the file as it is, computing its checksum meanwhile
+        CRC32 crc = new CRC32();
+        long written = 0;
+        try (InputStream in = new CheckedInputStream(open(file), crc)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+
+            int read;
+            while (written < packed.size && (read = in.read(buffer, 0, (int) Math.min(buffer.length, packed.size - written))) != -1) {
+                archive.write(buffer, 0, read);
+                written += read;
+            }
+        }
+
+        if (written != packed.size)
+            throw new IOException("File " + file.entryName() + " changed while it was being serialized");
+
+        archive.writeInt((int) crc.getValue());
+    }
+
+    /**
+     * Compress a file directly into the archive, in frames
+     *
+     * @param archive the archive stream
+     * @param file    the file
+     * @param size    the file size
+     * @throws IOException if the file can't be read or the
+     *                     entry can't be written
+     */
+    private static void deflate(final DataOutputStream archive, final FileSerializer file, final long size) throws IOException {
+        CRC32 crc = new CRC32();
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        long read = 0;
+        try (InputStream in = new CheckedInputStream(open(file), crc);
+             DeflaterOutputStream out = new DeflaterOutputStream(new FrameOutputStream(archive), deflater, 8192)) {
+            byte[] buffer = new byte[8192];
+
+            int amount;
+            while (read < size && (amount = in.read(buffer, 0, (int) Math.min(buffer.length, size - read))) != -1) {
+                out.write(buffer, 0, amount);
+                read += amount;
+            }
+        } finally {
+            deflater.end();
+        }
+
+        if (read != size)
+            throw new IOException("File " + file.entryName() + " changed while it was being serialized");
+
+        archive.writeInt((int) crc.getValue());
+    }
+
+    /**
+     * Prepare an entry. If compression is enabled and the
+     * compressed data is smaller, the entry is kept compressed
+     * in memory until it's written. Larger files are compressed
+     * once they are written
+     *
+     * @param file     the file
+     * @param compress if the file should be compressed
+     * @return the packed entry
+     */
+    private static Packed pack(final FileSerializer file, final boolean compress) {
+        if (file.isDirectory())
+            return new Packed(file, ArchiveEntry.DIRECTORY, 0, null, 0);
+
+        try {
+            long size = file.size();
+            if (!compress || size == 0)
+                return new Packed(file, (byte) 0, size, null, 0);
+            if (size > PACK_LIMIT)
+                return new Packed(file, (byte) (ArchiveEntry.DEFLATED | ArchiveEntry.FRAMED), size, null, 0);
+
+            CRC32 crc = new CRC32();
+            Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream((int) Math.min(size, BUFFER_SIZE));
+            long read = 0;
+            try (InputStream in = new CheckedInputStream(open(file), crc); DeflaterOutputStream out = new DeflaterOutputStream(compressed, deflater, 8192)) {
+                byte[] buffer = new byte[8192];
+
+                int amount;
+                while (read < size && (amount = in.read(buffer, 0, (int) Math.min(buffer.length, size - read))) != -1) {
+                    out.write(buffer, 0, amount);
+                    read += amount;
+
+                    //Compression is not worth it, the file will be streamed instead
+                    if (compressed.size() >= size)
+                        return new Packed(file, (byte) 0, size, null, 0);
+                }
+            } finally {
+                deflater.end();
+            }
+
+            if (read != size)
+                throw new IOException("File " + file.entryName() + " changed while it was being serialized");
+            if (compressed.size() >= size)
+                return new Packed(file, (byte) 0, size, null, 0);
+
+            return new Packed(file, ArchiveEntry.DEFLATED, size, compressed.toByteArray(), (int) crc.getValue());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Open the file data
+     *
+     * @param file the file
+     * @return the file data
+     * @throws IOException if the file can't be read
+     */
+    private static InputStream open(final FileSerializer file) throws IOException {
+        byte[] data = file.loaded();
+        if (data != null)
+            return new ByteArrayInputStream(data);
+
+        return Files.newInputStream(file.path());
+    }
+
+    /**
+     * Writes the data into the archive in frames, each one
+     * preceded by its length. Closing it writes the empty frame
+     * which ends the entry data, but leaves the archive open
+     */
+    private static final class FrameOutputStream extends OutputStream {
+
+        private final DataOutputStream archive;
+        private final byte[] frame = new byte[BUFFER_SIZE];
+
+        private int length = 0;
+
+        /**
+         * Initialize the frame output stream
+         *
+         * @param out the archive stream
+         */
+        private FrameOutputStream(final DataOutputStream out) {
+            archive = out;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            if (length == frame.length)
+                flushFrame();
+
+            frame[length++] = (byte) b;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            int written = 0;
+            while (written < len) {
+                if (length == frame.length)
+                    flushFrame();
+
+                int amount = Math.min(len - written, frame.length - length);
+                System.arraycopy(b, off + written, frame, length, amount);
+                length += amount;
+                written += amount;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            flushFrame();
+            archive.writeInt(0);
+        }
+
+        /**
+         * Write the current frame, if it has any data
+         *
+         * @throws IOException if the frame can't be written
+         */
+        private void flushFrame() throws IOException {
+            if (length == 0)
+                return;
+
+            archive.writeInt(length);
+            archive.write(frame, 0, length);
+            length = 0;
+        }
+    }
+
+    /**
+     * An entry ready to be written
+     */
+    private static final class Packed {
+
+        private final FileSerializer file;
+        private final byte flags;
+        private final long size;
+        private final byte[] data;
+        private final int checksum;
+
+        /**
+         * Initialize the packed entry
+         *
+         * @param source     the entry file
+         * @param entryFlags the entry flags
+         * @param rawSize    the entry size
+         * @param packed     the compressed data, or null if the
+         *                   file must be streamed
+         * @param crc        the compressed data checksum
+         */
+        private Packed(final FileSerializer source, final byte entryFlags, final long rawSize, final byte[] packed, final int crc) {
+            file = source;
+            flags = entryFlags;
+            size = rawSize;
+            data = packed;
+            checksum = crc;
+        }
+    }
+}
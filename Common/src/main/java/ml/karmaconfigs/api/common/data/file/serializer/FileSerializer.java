@@ -10,15 +10,13 @@ import ml.karmaconfigs.api.common.data.path.PathUtilities;
 import ml.karmaconfigs.api.common.string.StringUtils;
 import org.jetbrains.annotations.Nullable;
 
-import java.io.File;
-import java.io.Serializable;
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Base64;
-import java.util.HashSet;
-import java.util.LinkedHashSet;
-import java.util.Set;
+import java.util.*;
 
 /**
  * A tool to store a complete file in
@@ -26,6 +24,8 @@ import java.util.Set;
  */
 public final class FileSerializer implements Serializable {
 
+    private static final long serialVersionUID = 7199004318585908906L;
+
     /**
      * If the file is a directory, this will contain all the
      * directory files recursively
@@ -37,9 +37,10 @@ public final class FileSerializer implements Serializable {
      */
     private final boolean directory;
     /**
-     * This contains the file data
+     * This contains the file data, read from
+     * the file the first time it's needed
      */
-    private final byte[] data;
+    private byte[] data;
 
     /**
      * The file
@@ -101,11 +102,7 @@ public final class FileSerializer implements Serializable {
                 file = target.toPath();
                 directory = target.isDirectory();
                 name = FileUtilities.getName(target, true);
-                if (!directory) {
-                    data = FileUtilities.readFile(target);
-                } else {
-                    data = new byte[0];
-                }
+                data = (directory ? new byte[0] : null);
             } else {
                 throw new IllegalStateException("Invalid or non existent file given. Cannot continue");
             }
@@ -127,11 +124,7 @@ public final class FileSerializer implements Serializable {
                 file = target;
                 directory = Files.isDirectory(target);
                 name = PathUtilities.getName(file, true);
-                if (!directory) {
-                    data = PathUtilities.readPath(file);
-                } else {
-                    data = new byte[0];
-                }
+                data = (directory ? new byte[0] : null);
             } else {
                 throw new IllegalStateException("Invalid or non existent file given. Cannot continue");
             }
@@ -181,7 +174,48 @@ public final class FileSerializer implements Serializable {
     }
 
     /**
-     * Serialize the file
+     * Write the file and sub files as a serialized archive.
+     * Files are read while they are written, so they don't
+     * need to fit in memory. The stream is not closed
+     *
+     * @param stream   the archive stream
+     * @param compress if the files should be compressed
+     * @throws IOException if a file can't be read or the
+     *                     archive can't be written
+     */
+    public void write(final OutputStream stream, final boolean compress) throws IOException {
+        ArchiveWriter.write(entries(), stream, compress);
+    }
+
+    /**
+     * Write the file and sub files as a compressed
+     * serialized archive. The stream is not closed
+     *
+     * @param stream the archive stream
+     * @throws IOException if a file can't be read or the
+     *                     archive can't be written
+     */
+    public void write(final OutputStream stream) throws IOException {
+        write(stream, true);
+    }
+
+    /**
+     * Write the file and sub files as a serialized
+     * archive. The channel is not closed
+     *
+     * @param channel  the archive channel
+     * @param compress if the files should be compressed
+     * @throws IOException if a file can't be read or the
+     *                     archive can't be written
+     */
+    public void write(final WritableByteChannel channel, final boolean compress) throws IOException {
+        write(Channels.newOutputStream(channel), compress);
+    }
+
+    /**
+     * Serialize the file. The whole file and sub files are
+     * kept in memory, use {@link #write(OutputStream)} for
+     * big folders
      *
      * @return the serialized file
      */
@@ -209,7 +243,7 @@ public final class FileSerializer implements Serializable {
      * @return the serialized file
      */
     public SerializedFile getFile() {
-        return new SerializedFile(directory, name, data);
+        return new SerializedFile(directory, name, data());
     }
 
     /**
@@ -222,7 +256,7 @@ public final class FileSerializer implements Serializable {
         Set<SerializedFile> files = new HashSet<>();
 
         if (!directory) {
-            SerializedFile local = new SerializedFile(false, name, data);
+            SerializedFile local = new SerializedFile(false, name, data());
             files.add(local);
         }
 
@@ -231,6 +265,91 @@ public final class FileSerializer implements Serializable {
         return files;
     }
 
+    /**
+     * Get the files to serialize
+     *
+     * @return the files to serialize
+     */
+    private Collection<FileSerializer> entries() {
+        return (subFiles.isEmpty() ? Collections.singletonList(this) : new ArrayList<>(subFiles));
+    }
+
+    /**
+     * Get the file data, reading it if
+     * it has not been read yet
+     *
+     * @return the file data
+     */
+    private synchronized byte[] data() {
+        if (data == null)
+            data = PathUtilities.readPath(file);
+
+        return data;
+    }
+
+    /**
+     * Get the file data if it has been read already
+     *
+     * @return the file data or null
+     */
+    synchronized byte[] loaded() {
+        return data;
+    }
+
+    /**
+     * Get the file
+     *
+     * @return the file
+     */
+    Path path() {
+        return file;
+    }
+
+    /**
+     * Get if the file is a directory
+     *
+     * @return if the file is a directory
+     */
+    boolean isDirectory() {
+        return directory;
+    }
+
+    /**
+     * Get the file size
+     *
+     * @return the file size
+     * @throws IOException if the file can't be read
+     */
+    long size() throws IOException {
+        byte[] loaded = loaded();
+        return (loaded != null ? loaded.length : Files.size(file));
+    }
+
+    /**
+     * Get the file archive entry name
+     *
+     * @return the file name, separated with "/"
+     */
+    String entryName() {
+        String entry = name.replace(File.separatorChar, '/');
+        while (entry.startsWith("/"))
+            entry = entry.substring(1);
+
+        return entry;
+    }
+
+    /**
+     * Read the file data before the file
+     * gets serialized
+     *
+     * @param out the serialization stream
+     * @throws IOException if the object can't be written
+     */
+    private void writeObject(final ObjectOutputStream out) throws IOException {
+        data();
+        out.defaultWriteObject();
+    }
+
     /**
      * Process all the files and sub files
      *
@@ -300,7 +419,14 @@ public final class FileSerializer implements Serializable {
      */
     @Override
     public String toString() {
-        return getClass().getName() + "@" + Integer.toHexString(hashCode()) + "[isDirectory:" + directory + ";relativePath:" + name + ";content:" + Integer.toHexString(data.length) + "]";
+        String content;
+        try {
+            content = (directory ? "0" : Long.toHexString(size()));
+        } catch (IOException ex) {
+            content = "?";
+        }
+
+        return getClass().getName() + "@" + Integer.toHexString(hashCode()) + "[isDirectory:" + directory + ";relativePath:" + name + ";content:" + content + "]";
     }
 
     /**
@@ -381,4 +507,19 @@ public final class FileSerializer implements Serializable {
 
         return serializer;
     }
+
+    /**
+     * Restore a serialized archive into a folder.
+     * Existing files are replaced
+     *
+     * @param startSource the target folder where
+     *                    to store the archive files
+     * @param stream      the archive stream
+     * @throws IOException if the archive can't be read or
+     *                     a file can't be written
+     */
+    public static void restore(final Path startSource, final InputStream stream) throws IOException {
+        PathUtilities.createDirectory(startSource);
+        new ArchiveReader(stream).restore(startSource);
+    }
 }
@@ -0,0 +1,402 @@
+package ml.karmaconfigs.api.common.data.store;
+
+/*
+ * This file is part of KarmaAPI, licensed under the MIT License.
+ *
+ *  Copyright (c) karma (KarmaDev) <karmaconfigs@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Append only record file with an in-memory index. Every
+ * record starts with its length, and writing a key again
+ * appends its new record and leaves the previous one dead.
+ * A lookup reads only the record of its key, and dead records
+ * are dropped once they take more space than the live ones.
+ * <p>
+ * The store is not thread safe, its owner must lock it
+ *
+ * @param <K> the record key type
+ */
+public final class SegmentStore<K> {
+
+    /**
+     * Minimum amount of dead bytes before compacting the file
+     */
+    private final static long COMPACT_THRESHOLD = 64 * 1024;
+
+    private final Map<K, Slot> index = new HashMap<>();
+
+    private final Path file;
+    private final byte[] header;
+
+    private volatile FileChannel channel;
+    private long end = 0;
+    private long dead = 0;
+
+    /**
+     * Initialize the segment store
+     *
+     * @param path       the store file
+     * @param fileHeader the bytes the store file starts with
+     */
+    public SegmentStore(final Path path, final byte[] fileHeader) {
+        file = path;
+        header = fileHeader.clone();
+    }
+
+    /**
+     * Get the store file
+     *
+     * @return the store file
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Get if the store has been opened
+     *
+     * @return if the store is open
+     */
+    public boolean isOpen() {
+        return channel != null;
+    }
+
+    /**
+     * Open the store file and build the index. A record
+     * cut by a crash while it was written is discarded, as
+     * is everything after a record the scanner rejects
+     *
+     * @param scanner the records scanner
+     * @throws IOException if the file can't be read or
+     * doesn't start with the store header
+     */
+    public void open(final Scanner<K> scanner) throws IOException {
+        if (channel != null)
+            return;
+
+        Files.createDirectories(file.getParent());
+        FileChannel opened = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long size = opened.size();
+            if (size < header.length) {
+                ByteBuffer start = ByteBuffer.wrap(header);
+                while (start.hasRemaining())
+                    opened.write(start, start.position());
+
+                opened.truncate(header.length);
+                end = header.length;
+                channel = opened;
+                return;
+            }
+
+            ByteBuffer start = ByteBuffer.allocate(header.length);
+            read(opened, start, 0);
+            if (!Arrays.equals(start.array(), header))
+                throw new IOException("Unsupported store file " + file);
+
+            long position = header.length;
+            ByteBuffer length = ByteBuffer.allocate(4);
+            while (position + 4 <= size) {
+                length.clear();
+                read(opened, length, position);
+                length.flip();
+
+                int recordLength = length.getInt();
+                if (recordLength < 0 || position + 4 + recordLength > size)
+                    break;
+
+                ByteBuffer record = ByteBuffer.allocate(4 + recordLength);
+                read(opened, record, position);
+                record.flip();
+
+                K key = scanner.key(record);
+                if (key == null)
+                    break;
+
+                record.rewind();
+                Slot slot = new Slot(position, record.capacity());
+                Slot previous = (scanner.live(key, record) ? index.put(key, slot) : index.remove(key));
+                if (previous != null)
+                    dead += previous.length;
+                if (index.get(key) != slot)
+                    dead += slot.length;
+
+                position += slot.length;
+            }
+
+            if (position < size)
+                opened.truncate(position);
+            end = position;
+            channel = opened;
+        } catch (IOException | RuntimeException ex) {
+            opened.close();
+            index.clear();
+            end = 0;
+            dead = 0;
+
+            throw ex;
+        }
+    }
+
+    /**
+     * Get if a key has a live record
+     *
+     * @param key the record key
+     * @return if the key is stored
+     */
+    public boolean contains(final K key) {
+        return index.containsKey(key);
+    }
+
+    /**
+     * Get if the store has no live records
+     *
+     * @return if the store is empty
+     */
+    public boolean isEmpty() {
+        return index.isEmpty();
+    }
+
+    /**
+     * Read the record of a key
+     *
+     * @param key the record key
+     * @return the record, including its length, or null
+     * if the key is not stored
+     * @throws IOException if the record can't be read
+     */
+    public byte[] read(final K key) throws IOException {
+        Slot slot = index.get(key);
+        if (slot == null)
+            return null;
+
+        ByteBuffer buffer = ByteBuffer.allocate(slot.length);
+        read(channel, buffer, slot.offset);
+
+        return buffer.array();
+    }
+
+    /**
+     * Read all the live records. The file is read at once
+     *
+     * @return the records, including their length
+     * @throws IOException if the file can't be read
+     */
+    public List<byte[]> readAll() throws IOException {
+        List<byte[]> records = new ArrayList<>(index.size());
+        if (index.isEmpty())
+            return records;
+
+        ByteBuffer data = ByteBuffer.allocate((int) end);
+        read(channel, data, 0);
+
+        for (Slot slot : index.values())
+            records.add(Arrays.copyOfRange(data.array(), (int) slot.offset, (int) slot.offset + slot.length));
+
+        return records;
+    }
+
+    /**
+     * Store the record of a key, replacing its previous record
+     *
+     * @param key    the record key
+     * @param record the record, including its length
+     * @throws IOException if the record can't be written
+     */
+    public void write(final K key, final ByteBuffer record) throws IOException {
+        Slot slot = new Slot(append(record), record.capacity());
+        Slot previous = index.put(key, slot);
+        if (previous != null)
+            dead += previous.length;
+    }
+
+    /**
+     * Drop the record of a key from the index
+     *
+     * @param key the record key
+     * @return if the key was stored
+     */
+    public boolean remove(final K key) {
+        Slot slot = index.remove(key);
+        if (slot != null)
+            dead += slot.length;
+
+        return slot != null;
+    }
+
+    /**
+     * Drop the record of a key, appending a record
+     * which marks it as removed
+     *
+     * @param key    the record key
+     * @param marker the removal record, including its length
+     * @return if the key was stored
+     * @throws IOException if the marker can't be written
+     */
+    public boolean remove(final K key, final ByteBuffer marker) throws IOException {
+        if (!remove(key))
+            return false;
+
+        append(marker);
+        dead += marker.capacity();
+        return true;
+    }
+
+    /**
+     * Rewrite the store file with only the live records if
+     * the dead records take more space than the live ones
+     *
+     * @return if the file has been rewritten
+     * @throws IOException if the file can't be rewritten
+     */
+    public boolean compact() throws IOException {
+        if (channel == null || dead < COMPACT_THRESHOLD || dead < end - header.length - dead)
+            return false;
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Map<Slot, Long> moved = new HashMap<>();
+        long written;
+
+        try (FileChannel target = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer start = ByteBuffer.wrap(header);
+            while (start.hasRemaining())
+                target.write(start);
+
+            long position = header.length;
+            for (Slot slot : index.values()) {
+                long copied = 0;
+                while (copied < slot.length)
+                    copied += channel.transferTo(slot.offset + copied, slot.length - copied, target);
+
+                moved.put(slot, position);
+                position += slot.length;
+            }
+
+            target.force(false);
+            written = position;
+        }
+
+        channel.close();
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            moved.forEach((slot, position) -> slot.offset = position);
+            end = written;
+            dead = 0;
+        } finally {
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        return true;
+    }
+
+    /**
+     * Append a record to the store file
+     *
+     * @param record the record
+     * @return the record position
+     * @throws IOException if the record can't be written
+     */
+    private long append(final ByteBuffer record) throws IOException {
+        long position = end;
+        while (record.hasRemaining())
+            channel.write(record, position + record.position());
+
+        end += record.capacity();
+        return position;
+    }
+
+    /**
+     * Fill a buffer from a file
+     *
+     * @param source   the file
+     * @param buffer   the buffer
+     * @param position the file position
+     * @throws IOException if the file ends before the buffer is full
+     */
+    private void read(final FileChannel source, final ByteBuffer buffer, final long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (source.read(buffer, position + buffer.position()) < 0)
+                throw new IOException("Unexpected end of store file " + file);
+        }
+    }
+
+    /**
+     * Reads the records of a store file while it's opened
+     *
+     * @param <K> the record key type
+     */
+    public interface Scanner<K> {
+
+        /**
+         * Get the key of a record
+         *
+         * @param record the record, including its length
+         * @return the record key, or null if the record is not
+         * valid and the file must be cut before it
+         */
+        K key(final ByteBuffer record);
+
+        /**
+         * Get if a record is live. A record which is not live
+         * is dead, and also removes the previous record of its key
+         *
+         * @param key    the record key
+         * @param record the record, including its length
+         * @return if the record is live
+         */
+        default boolean live(final K key, final ByteBuffer record) {
+            return true;
+        }
+    }
+
+    /**
+     * Position of a record in the store file
+     */
+    private static final class Slot {
+
+        private final int length;
+
+        private long offset;
+
+        /**
+         * Initialize the slot
+         *
+         * @param position the record position
+         * @param size     the record size
+         */
+        private Slot(final long position, final int size) {
+            this.offset = position;
+            this.length = size;
+        }
+    }
+}
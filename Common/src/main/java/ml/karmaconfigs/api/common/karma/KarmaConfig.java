@@ -115,6 +115,241 @@ public final class KarmaConfig {
         return false;
     }
 
+    /**
+     * Get the maximum time, in milliseconds, the
+     * API will wait to open a HTTP connection
+     *
+     * @return the connect timeout
+     */
+    public int requestConnectTimeout() {
+        if (mn != null) {
+            Element<?> element = mn.get("url.connect_timeout", new KarmaPrimitive(5000));
+
+            if (element.isPrimitive()) {
+                ElementPrimitive primitive = element.getAsPrimitive();
+                if (primitive.isNumber()) {
+                    int value = primitive.asInteger();
+                    if (value > 0)
+                        return value;
+                }
+            }
+        }
+
+        return 5000;
+    }
+
+    /**
+     * Get the maximum time, in milliseconds, the
+     * API will wait for HTTP response data
+     *
+     * @return the read timeout
+     */
+    public int requestReadTimeout() {
+        if (mn != null) {
+            Element<?> element = mn.get("url.read_timeout", new KarmaPrimitive(10000));
+
+            if (element.isPrimitive()) {
+                ElementPrimitive primitive = element.getAsPrimitive();
+                if (primitive.isNumber()) {
+                    int value = primitive.asInteger();
+                    if (value > 0)
+                        return value;
+                }
+            }
+        }
+
+        return 10000;
+    }
+
+    /**
+     * Get the maximum amount of HTTP connections
+     * the API keeps open
+     *
+     * @return the maximum amount of connections
+     */
+    public int requestMaxConnections() {
+        if (mn != null) {
+            Element<?> element = mn.get("url.max_connections", new KarmaPrimitive(20));
+
+            if (element.isPrimitive()) {
+                ElementPrimitive primitive = element.getAsPrimitive();
+                if (primitive.isNumber()) {
+                    int value = primitive.asInteger();
+                    if (value > 0)
+                        return value;
+                }
+            }
+        }
+
+        return 20;
+    }
+
+    /**
+     * Get the maximum amount of HTTP connections
+     * the API keeps open to the same host
+     *
+     * @return the maximum amount of connections per host
+     */
+    public int requestMaxPerHost() {
+        if (mn != null) {
+            Element<?> element = mn.get("url.max_per_host", new KarmaPrimitive(5));
+
+            if (element.isPrimitive()) {
+                ElementPrimitive primitive = element.getAsPrimitive();
+                if (primitive.isNumber()) {
+                    int value = primitive.asInteger();
+                    if (value > 0)
+                        return value;
+                }
+            }
+        }
+
+        return 5;
+    }
+
+    /**
+     * Get the amount of workers the asynchronous
+     * scheduler will use. A value of zero or less
+     * means the half of available processors
+     *
+     * @return the asynchronous scheduler parallelism
+     */
+    public int asyncParallelism() {
+        int processors = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        if (mn != null) {
+            Element<?> element = mn.get("scheduler.async_parallelism", new KarmaPrimitive(0));
+
+            if (element.isPrimitive()) {
+                ElementPrimitive primitive = element.getAsPrimitive();
+                if (primitive.isNumber()) {
+                    int value = primitive.asInteger();
+                    if (value > 0)
+                        return value;
+                }
+            }
+        }
+
+        return processors;
+    }
+
+    /**
+     * Get the maximum amount of tasks the asynchronous
+     * scheduler will hold before running new tasks on
+     * the thread that queues them
+     *
+     * @return the asynchronous scheduler queue limit
+     */
+    public int asyncQueueLimit() {
+        if (mn != null) {
+            Element<?> element = mn.get("scheduler.async_queue_limit", new KarmaPrimitive(10000));
+
+            if (element.isPrimitive()) {
+                ElementPrimitive primitive = element.getAsPrimitive();
+                if (primitive.isNumber()) {
+                    int value = primitive.asInteger();
+                    if (value > 0)
+                        return value;
+                }
+            }
+        }
+
+        return 10000;
+    }
+
+    /**
+     * Get the maximum time, in nanoseconds, the synchronous
+     * scheduler will spend running tasks on each tick
+     *
+     * @return the synchronous scheduler tick budget
+     */
+    public long syncTickBudget() {
+        if (mn != null) {
+            Element<?> element = mn.get("scheduler.sync_tick_budget", new KarmaPrimitive(10000000));
+
+            if (element.isPrimitive()) {
+                ElementPrimitive primitive = element.getAsPrimitive();
+                if (primitive.isNumber()) {
+                    long value = primitive.asLong();
+                    if (value > 0)
+                        return value;
+                }
+            }
+        }
+
+        return 10000000L;
+    }
+
+    /**
+     * Get the maximum time, in nanoseconds, trackers
+     * will spend ticking on each server tick
+     *
+     * @return the trackers tick budget
+     */
+    public long trackerTickBudget() {
+        if (mn != null) {
+            Element<?> element = mn.get("scheduler.tracker_tick_budget", new KarmaPrimitive(5000000));
+
+            if (element.isPrimitive()) {
+                ElementPrimitive primitive = element.getAsPrimitive();
+                if (primitive.isNumber()) {
+                    long value = primitive.asLong();
+                    if (value > 0)
+                        return value;
+                }
+            }
+        }
+
+        return 5000000L;
+    }
+
+    /**
+     * Get the maximum amount of tasks the synchronous
+     * scheduler will run on each tick
+     *
+     * @return the synchronous scheduler batch size
+     */
+    public int syncBatchSize() {
+        if (mn != null) {
+            Element<?> element = mn.get("scheduler.sync_batch_size", new KarmaPrimitive(1000));
+
+            if (element.isPrimitive()) {
+                ElementPrimitive primitive = element.getAsPrimitive();
+                if (primitive.isNumber()) {
+                    int value = primitive.asInteger();
+                    if (value > 0)
+                        return value;
+                }
+            }
+        }
+
+        return 1000;
+    }
+
+    /**
+     * Get the amount of workers the source schedulers
+     * use to run their timers. A value of zero or less
+     * means the amount of available processors
+     *
+     * @return the source scheduler workers
+     */
+    public int timerWorkers() {
+        int processors = Math.max(2, Runtime.getRuntime().availableProcessors());
+        if (mn != null) {
+            Element<?> element = mn.get("scheduler.timer_workers", new KarmaPrimitive(0));
+
+            if (element.isPrimitive()) {
+                ElementPrimitive primitive = element.getAsPrimitive();
+                if (primitive.isNumber()) {
+                    int value = primitive.asInteger();
+                    if (value > 0)
+                        return value;
+                }
+            }
+        }
+
+        return processors;
+    }
+
     /**
      * Get the console default prefix
      *
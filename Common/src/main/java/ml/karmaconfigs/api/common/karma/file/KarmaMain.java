@@ -19,13 +19,18 @@ import ml.karmaconfigs.api.common.string.text.TextContent;
 import ml.karmaconfigs.api.common.string.text.TextType;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -42,11 +47,16 @@ public class KarmaMain {
 
     private final Map<String, Element<?>> content = new LinkedHashMap<>();
     private final Map<Element<?>, String> reverse = new LinkedHashMap<>();
-    private final Map<String, Integer> indexes = new HashMap<>();
+    private final Map<String, KarmaParser.Span> spans = new HashMap<>();
+    private final Set<String> dirty = new LinkedHashSet<>();
 
     private String raw = "";
     private InputStream internal = null;
 
+    private boolean structural = false;
+    private long stamp_size = -1;
+    private long stamp_modified = -1;
+
     /**
      * Initialize the file
      *
@@ -169,715 +179,65 @@ public class KarmaMain {
      */
     public void preCache() throws KarmaFormatException {
         if (StringUtils.isNullOrEmpty(raw)) {
-            List<String> lines = PathUtilities.readAllLines(document);
-            if (lines.isEmpty() && internal != null) {
-                try {
-                    Files.copy(internal, document, StandardCopyOption.REPLACE_EXISTING);
-                    lines = PathUtilities.readAllLines(document);
-                } catch (Throwable ignored) {
-                }
+            Path file = PathUtilities.getFixedPath(document);
+            try {
+                if (internal != null && (!Files.exists(file) || Files.size(file) == 0))
+                    Files.copy(internal, file, StandardCopyOption.REPLACE_EXISTING);
+            } catch (Throwable ignored) {
             }
 
-            if (!lines.isEmpty()) {
-                String fileLines = StringUtils.listToString(lines, ListTransformation.NEW_LINES);
-                Pattern blockComment = Pattern.compile("\\*\\((?:.|[\\n\\r])*?\\)\\*|\\*/.*");
-                Set<String> comments = new LinkedHashSet<>();
-                Matcher commentMatcher = blockComment.matcher(fileLines);
-                String remove_string = new RandomString(RandomString.createBuilder().withSize(32)).create();
-                while (commentMatcher.find()) {
-                    int start = commentMatcher.start();
-                    int end = commentMatcher.end();
-
-                    comments.add(fileLines.substring(start, end));
-                }
-
-                for (String comment : comments) {
-                    fileLines = fileLines.replace(comment, remove_string);
-                }
-
-                String[] data = fileLines.split("\n");
-                StringBuilder builder = new StringBuilder();
-                for (String fl : data) {
-                    if (!fl.replaceAll("\\s", "").equals(remove_string)) {
-                        builder.append(fl).append("\n");
-                    }
-                }
-                String result = builder.toString();
-                lines = new ArrayList<>(Arrays.asList(StringUtils.replaceLast(result, "\n", "").split("\n")));
-
-                StringBuilder rawBuilder = new StringBuilder();
-
-                boolean underComment = false;
-                boolean jump = true;
-                boolean parsedFirst = false;
-
-                String breaking = null;
-                int index = 0;
-
-                Set<String> added = new HashSet<>();
-                for (String line : lines) {
-                    if (!line.replaceAll("\\s", "").startsWith("*/")) {
-                        int size = line.length();
-                        indexes.put(line, ++index);
-
-                        if (breaking != null) {
-                            throw new KarmaFormatException(document, breaking, index);
-                        }
-
-                        boolean string = false;
-                        for (int i = 0; i < size; i++) {
-                            char current = line.charAt(i);
-                            int nextIndex = (i + 1 != size ? i + 1 : i);
-                            char next = line.charAt(nextIndex);
-
-                            if (!underComment) {
-                                jump = true;
-
-                                if (current == '*') {
-                                    if (next == '(') {
-                                        underComment = true;
-                                        jump = false;
-                                    } else {
-                                        i = size;
-                                        continue;
-                                    }
-                                }
-
-                                if (!underComment) {
-                                    if (current == '(') {
-                                        if (next != '"') {
-                                            if (!parsedFirst) {
-                                                parsedFirst = true;
-                                                added.add("main");
-                                                indexes.put("main", index);
-                                            } else {
-                                                breaking = "Error, found invalid section definition at " + line + ", it must be (\"x\" where 'x' is any value!";
-                                            }
-                                        } else {
-                                            StringBuilder secName = new StringBuilder();
-                                            boolean broke = false;
-                                            for (int x = (nextIndex + 1); x < size; x++) {
-                                                char tmp = line.charAt(x);
-                                                if (tmp == '"') {
-                                                    broke = true;
-                                                    break;
-                                                }
-
-                                                secName.append(tmp);
-                                            }
-
-                                            if (broke) {
-                                                String section = secName.toString();
-                                                if (!added.contains(section)) {
-                                                    added.add(section);
-                                                    indexes.put(section, index);
-                                                } else {
-                                                    breaking = "Error, found repeated section definition " + section;
-                                                }
-                                            } else {
-                                                breaking = "Error, found invalid section definition at " + line + ", it must be (\"x\" where 'x' is any value!";
-                                            }
-                                        }
-                                    }
-
-                                    if (current == '"')
-                                        string = !string;
-
-                                    if (!string) {
-                                        char prev = line.charAt((i != 0 ? (i - 1) : 0));
-                                        char prev1 = line.charAt((i > 2 ? i - 2 : 0));
-                                        if (current == '-' && next == '>') {
-                                            char cont = line.charAt((nextIndex + 1 != (size - 1) ? (nextIndex + 1) : nextIndex));
-                                            char cont1 = line.charAt((nextIndex + 2 != (size - 1) ? (nextIndex + 2) : nextIndex));
-
-                                            boolean error = false;
-                                            if (Character.isSpaceChar(prev)) {
-                                                if (!Character.isSpaceChar(prev1)) {
-                                                    if (Character.isSpaceChar(cont)) {
-                                                        if (!Character.isSpaceChar(cont1)) {
-                                                            rawBuilder.append(current);
-                                                        } else {
-                                                            error = true;
-                                                        }
-                                                    } else {
-                                                        error = true;
-                                                    }
-                                                } else {
-                                                    error = true;
-                                                }
-                                            } else {
-                                                if (prev == '<') {
-                                                    error = !Character.isSpaceChar(prev1);
-                                                } else {
-                                                    error = true;
-                                                }
-                                            }
-
-                                            if (error) {
-                                                breaking = "Error, found invalid key -> value definition at " + line + ". It must be 'Key' -> \"Value\"";
-                                            }
-                                        } else {
-                                            if (prev == '-' && prev1 == '<')
-                                                rawBuilder.append(prev);
-
-                                            rawBuilder.append(current);
-                                        }
-                                    } else {
-                                        rawBuilder.append(current);
-                                    }
-                                }
-                            } else {
-                                underComment = current != ')' && next != '*';
-                                if (!underComment) {
-                                    i++;
-                                    jump = true;
-                                }
-                            }
-                        }
-
-                        if (jump) {
-                            rawBuilder.append("\n");
-                        }
-                    }
-                }
-
-                //We need raw text to parse easily the data...
-                raw = rawBuilder.toString();
-                String[] tmp = raw.split("\n");
-                for (int i = 0; i < tmp.length; i++) {
-                    if (!StringUtils.isNullOrEmpty(tmp[i])) {
-                        raw = rawBuilder.substring(i);
-                        break;
-                    }
+            if (Files.exists(file)) {
+                try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    raw = new KarmaParser(document, content, reverse, spans).parse(reader);
+                    stamp();
+                } catch (IOException ignored) {
                 }
+            }
+        }
+    }
 
-                data = raw.split("\n");
-                String main = data[0];
-                if (main.equals("(") || main.equals("(\"main\"")) {
-                    String parent = "main";
-                    for (int i = 1; i < data.length; i++) {
-                        String line = data[i];
-                        if (line.replaceAll("\\s", "").startsWith("(")) {
-                            String name = line.replaceAll("\\s", "");
-                            name = name.replaceFirst("\\(", "");
-                            name = name.replaceFirst("\"", "");
-                            name = name.substring(0, name.length() - 1);
-
-                            parent = parent + "." + name;
-                        } else {
-                            if (line.contains("->")) {
-                                boolean rec = false;
-                                Pattern pattern = Pattern.compile("' .?-> ");
-                                Pattern badPattern = Pattern.compile("\" .?-> ");
-
-                                Matcher matcher = pattern.matcher(line);
-                                Matcher badMatcher = badPattern.matcher(line);
-
-                                if (!matcher.find() && !badMatcher.find()) {
-                                    throw new KarmaFormatException(document, "Error, couldn't find valid key format -> or <-> at ( " + line + " )", indexes.getOrDefault(line, -1));
-                                }
-
-                                int start;
-                                int end;
-                                boolean bad = false;
-                                try {
-                                    start = matcher.start();
-                                    end = matcher.end();
-                                } catch (Throwable ex) {
-                                    start = badMatcher.start();
-                                    end = badMatcher.end();
-                                    bad = true;
-                                }
-
-                                String target = String.valueOf((bad ? '"' : '\''));
-
-                                String match = line.substring(start + 2, end - 2).replaceAll("\\s", "");
-                                if (match.equalsIgnoreCase("<-")) {
-                                    rec = true;
-                                }
-
-                                String[] dt = line.split((rec ? "<->" : "->"));
-
-                                String tmpName = dt[0].replaceAll("\\s", "");
-                                if (!tmpName.startsWith(target) && !tmpName.endsWith(target))
-                                    throw new KarmaFormatException(document, "Error, invalid key format, it must be 'x' where x is any value", indexes.getOrDefault(line, -1));
-
-                                String name = StringUtils.replaceLast(dt[0].replaceFirst(target, ""), target, "");
-                                String key = parent + "." + name.replaceAll("\\s", "");
-                                StringBuilder value = new StringBuilder();
-                                for (int x = 1; x < dt.length; x++) {
-                                    value.append(dt[x]).append((x != dt.length - 1 ? (rec ? "<->" : "->") : ""));
-                                }
-
-                                if (!StringUtils.isNullOrEmpty(value)) {
-                                    if (value.toString().replaceAll("\\s", "").startsWith("{")) {
-                                        boolean keyed = false;
-                                        boolean simple = false;
-                                        Element<?> array = new KarmaArray();
-                                        int subIndex = 0;
-
-                                        String parentKey = key;
-                                        for (int x = (i + 1); x < data.length; x++, subIndex++) {
-                                            line = data[x];
-
-                                            if (!line.replaceAll("\\s", "").endsWith("}")) {
-                                                if (!line.replaceAll("\\s", "").isEmpty()) {
-                                                    if (line.contains("<->")) {
-                                                        if (!(array instanceof ElementMap))
-                                                            array = new KarmaMap();
-
-                                                        if (!simple) {
-                                                            keyed = true;
-                                                            dt = line.split("->");
-
-                                                            tmpName = dt[0].replaceAll("\\s", "");
-                                                            if (!tmpName.startsWith("'") && !tmpName.endsWith("'"))
-                                                                throw new KarmaFormatException(document, "Error, invalid key format, it must be 'x' where x is any value", indexes.getOrDefault(line, -1));
-
-                                                            int i1 = dt[0].indexOf("'");
-                                                            int i2 = dt[0].lastIndexOf("'");
-
-                                                            name = StringUtils.replaceLast(dt[0], "<", "");
-                                                            key = name.substring(i1 + 1, i2);
-                                                            value = new StringBuilder();
-                                                            for (int y = 1; y < dt.length; y++) {
-                                                                value.append(dt[y]).append((y != dt.length - 1 ? "->" : ""));
-                                                            }
-
-                                                            ElementMap<ElementPrimitive> ka = (KarmaMap) array;
-
-                                                            String v = value.toString().replaceFirst("\t", "").replaceFirst(" ", "");
-                                                            if (!StringUtils.isNullOrEmpty(v)) {
-                                                                if (v.startsWith("\"") || v.startsWith("'")) {
-                                                                    if (!v.endsWith((v.startsWith("\"") ? "\"" : "'"))) {
-                                                                        throw new KarmaFormatException(document, "Error, invalid text format. It seems that you mixed quotes or forgot to close string", indexes.getOrDefault(line, -1));
-                                                                    } else {
-                                                                        v = v.substring(1, v.length() - 1);
-                                                                        ElementPrimitive obj;
-                                                                        if (v.length() == 1) {
-                                                                            obj = new KarmaPrimitive(v.charAt(0));
-                                                                        } else {
-                                                                            obj = new KarmaPrimitive(v);
-                                                                        }
-
-                                                                        ka.putRecursive(key, obj);
-                                                                    }
-                                                                } else {
-                                                                    if (v.replaceAll("\\s", "").equalsIgnoreCase("true") || v.replaceAll("\\s", "").equalsIgnoreCase("false")) {
-                                                                        boolean bool = Boolean.parseBoolean(v.replaceAll("\\s", ""));
-                                                                        ElementPrimitive obj = new KarmaPrimitive(bool);
-
-                                                                        ka.putRecursive(key, obj);
-                                                                    } else {
-                                                                        if (v.contains(",")) {
-                                                                            Number number = Double.parseDouble(v.replaceAll("\\s", "").replace(",", "."));
-                                                                            ElementPrimitive obj = new KarmaPrimitive(number);
-
-                                                                            ka.putRecursive(key, obj);
-                                                                        } else {
-                                                                            if (v.contains(".")) {
-                                                                                Number number = Float.parseFloat(v.replaceAll("\\s", ""));
-                                                                                ElementPrimitive obj = new KarmaPrimitive(number);
-
-                                                                                ka.putRecursive(key, obj);
-                                                                            } else {
-                                                                                try {
-                                                                                    Number number = Integer.parseInt(v.replaceAll("\\s", ""));
-                                                                                    ElementPrimitive obj = new KarmaPrimitive(number);
-
-                                                                                    ka.putRecursive(key, obj);
-                                                                                } catch (NumberFormatException e) {
-                                                                                    if (v.startsWith("0x")) {
-                                                                                        String bData = v.replace("0x", "");
-                                                                                        ka.putRecursive(key, new KarmaPrimitive((byte) Integer.parseInt(bData, 16)));
-                                                                                    } else {
-                                                                                        if (v.equals("null")) {
-                                                                                            ka.putRecursive(key, KarmaPrimitive.forNull());
-                                                                                        }
-                                                                                    }
-                                                                                }
-                                                                            }
-                                                                        }
-                                                                    }
-                                                                }
-                                                            }
-                                                        } else {
-                                                            throw new KarmaFormatException(document, "Error, invalid list format. It seems that you mixed a simple list and a keyed list", indexes.getOrDefault(line, -1));
-                                                        }
-                                                    } else {
-                                                        if (line.contains("->")) {
-                                                            if (!(array instanceof ElementMap))
-                                                                array = new KarmaMap();
-
-                                                            if (!simple) {
-                                                                keyed = true;
-                                                                dt = line.split("->");
-
-                                                                tmpName = dt[0].replaceAll("\t", "").replaceAll("\\s", "");
-                                                                if (!tmpName.startsWith("'") && !tmpName.endsWith("'"))
-                                                                    throw new KarmaFormatException(document, "Error, invalid key format, it must be 'x' where x is any value", indexes.getOrDefault(line, -1));
-
-                                                                int i1 = dt[0].indexOf("'");
-                                                                int i2 = dt[0].lastIndexOf("'");
-
-                                                                name = StringUtils.replaceLast(dt[0], "<", "");
-                                                                key = name.substring(i1 + 1, i2);
-                                                                value = new StringBuilder();
-                                                                for (int y = 1; y < dt.length; y++) {
-                                                                    value.append(dt[y]).append((y != dt.length - 1 ? "->" : ""));
-                                                                }
-
-                                                                ElementMap<ElementPrimitive> ka = (KarmaMap) array;
-
-                                                                String v = value.toString().replaceFirst("\t", "").replaceFirst(" ", "");
-                                                                if (!StringUtils.isNullOrEmpty(v)) {
-                                                                    if (v.startsWith("\"") || v.startsWith("'")) {
-                                                                        if (!v.endsWith((v.startsWith("\"") ? "\"" : "'"))) {
-                                                                            throw new KarmaFormatException(document, "Error, invalid text format. It seems that you mixed quotes or forgot to close string", indexes.getOrDefault(line, -1));
-                                                                        } else {
-                                                                            v = v.substring(1, v.length() - 1);
-                                                                            ElementPrimitive obj;
-                                                                            if (v.length() == 1) {
-                                                                                obj = new KarmaPrimitive(v.charAt(0));
-                                                                            } else {
-                                                                                obj = new KarmaPrimitive(v);
-                                                                            }
-                                                                            ;
-
-                                                                            ka.put(key, obj);
-                                                                        }
-                                                                    } else {
-                                                                        if (v.replaceAll("\\s", "").equalsIgnoreCase("true") || v.replaceAll("\\s", "").equalsIgnoreCase("false")) {
-                                                                            boolean bool = Boolean.parseBoolean(v.replaceAll("\\s", ""));
-                                                                            ElementPrimitive obj = new KarmaPrimitive(bool);
-
-                                                                            ka.put(key, obj);
-                                                                        } else {
-                                                                            if (v.contains(",")) {
-                                                                                Number number = Double.parseDouble(v.replaceAll("\\s", "").replace(",", "."));
-                                                                                ElementPrimitive obj = new KarmaPrimitive(number);
-
-                                                                                ka.put(key, obj);
-                                                                            } else {
-                                                                                if (v.contains(".")) {
-                                                                                    Number number = Float.parseFloat(v.replaceAll("\\s", ""));
-                                                                                    ElementPrimitive obj = new KarmaPrimitive(number);
-
-                                                                                    ka.put(key, obj);
-                                                                                } else {
-                                                                                    try {
-                                                                                        Number number = Integer.parseInt(v.replaceAll("\\s", ""));
-                                                                                        ElementPrimitive obj = new KarmaPrimitive(number);
-
-                                                                                        ka.put(key, obj);
-                                                                                    } catch (NumberFormatException e) {
-                                                                                        if (v.startsWith("0x")) {
-                                                                                            String bData = v.replace("0x", "");
-                                                                                            ka.put(key, new KarmaPrimitive((byte) Integer.parseInt(bData, 16)));
-                                                                                        } else {
-                                                                                            if (v.equals("null")) {
-                                                                                                ka.put(key, KarmaPrimitive.forNull());
-                                                                                            }
-                                                                                        }
-                                                                                    }
-                                                                                }
-                                                                            }
-                                                                        }
-                                                                    }
-                                                                }
-                                                            } else {
-                                                                throw new KarmaFormatException(document, "Error, invalid list format. It seems that you mixed a simple list and a keyed list", indexes.getOrDefault(line, -1));
-                                                            }
-                                                        } else {
-                                                            if (!keyed) {
-                                                                if (!(array instanceof ElementArray))
-                                                                    array = new KarmaArray();
-
-                                                                simple = true;
-
-                                                                value = new StringBuilder();
-                                                                boolean parsing = false;
-                                                                for (int y = 1; y < line.length(); y++) {
-                                                                    char character = line.charAt(y);
-                                                                    if (!parsing) {
-                                                                        if (!Character.isSpaceChar(character)) {
-                                                                            parsing = true;
-                                                                        }
-                                                                    }
-
-                                                                    if (parsing) {
-                                                                        value.append(character);
-                                                                    }
-                                                                }
-
-                                                                ElementArray<ElementPrimitive> ka = (KarmaArray) array;
-
-                                                                String v = value.toString().replaceFirst("\t", "");
-                                                                if (!StringUtils.isNullOrEmpty(v)) {
-                                                                    if (!v.equals("{")) {
-                                                                        if (v.startsWith("\"") || v.startsWith("'")) {
-                                                                            if (!v.endsWith((v.startsWith("\"") ? "\"" : "'"))) {
-                                                                                throw new KarmaFormatException(document, "Error, invalid text format. It seems that you mixed quotes or forgot to close string", indexes.getOrDefault(line, -1));
-                                                                            } else {
-                                                                                v = v.substring(1, v.length() - 1);
-                                                                                ElementPrimitive obj;
-                                                                                if (v.length() == 1) {
-                                                                                    obj = new KarmaPrimitive(v.charAt(0));
-                                                                                } else {
-                                                                                    obj = new KarmaPrimitive(v);
-                                                                                }
-
-                                                                                ka.add(obj);
-                                                                            }
-                                                                        } else {
-                                                                            if (v.replaceAll("\\s", "").equalsIgnoreCase("true") || v.replaceAll("\\s", "").equalsIgnoreCase("false")) {
-                                                                                boolean bool = Boolean.parseBoolean(v.replaceAll("\\s", ""));
-                                                                                ElementPrimitive obj = new KarmaPrimitive(bool);
-
-                                                                                ka.add(obj);
-                                                                            } else {
-                                                                                if (v.contains(",")) {
-                                                                                    Number number = Double.parseDouble(v.replaceAll("\\s", "").replace(",", "."));
-                                                                                    ElementPrimitive obj = new KarmaPrimitive(number);
-
-                                                                                    ka.add(obj);
-                                                                                } else {
-                                                                                    if (v.contains(".")) {
-                                                                                        Number number = Float.parseFloat(v.replaceAll("\\s", ""));
-                                                                                        ElementPrimitive obj = new KarmaPrimitive(number);
-
-                                                                                        ka.add(obj);
-                                                                                    } else {
-                                                                                        try {
-                                                                                            Number number = Integer.parseInt(v.replaceAll("\\s", ""));
-                                                                                            ElementPrimitive obj = new KarmaPrimitive(number);
-
-                                                                                            ka.add(obj);
-                                                                                        } catch (
-                                                                                                NumberFormatException e) {
-                                                                                            if (v.startsWith("0x")) {
-                                                                                                String bData = v.replace("0x", "");
-                                                                                                ka.add(new KarmaPrimitive((byte) Integer.parseInt(bData, 16)));
-                                                                                            } else {
-                                                                                                if (v.equals("null")) {
-                                                                                                    ka.add(KarmaPrimitive.forNull());
-                                                                                                }
-                                                                                            }
-                                                                                        }
-                                                                                    }
-                                                                                }
-                                                                            }
-                                                                        }
-                                                                    }
-                                                                }
-                                                            } else {
-                                                                throw new KarmaFormatException(document, "Error, invalid list format. It seems that you mixed a simple list and a keyed list", indexes.getOrDefault(line, -1));
-                                                            }
-                                                        }
-                                                    }
-                                                }
-                                            } else {
-                                                i = x;
-                                                break;
-                                            }
-                                        }
-
-                                        content.put(parentKey, array);
-                                        if (rec)
-                                            reverse.put(array, parentKey);
-                                    } else {
-                                        if (value.toString().replaceAll("\\s", "").startsWith("[")) {
-                                            KarmaMap map = new KarmaMap();
-                                            int subIndex = 0;
-
-                                            String parentKey = key;
-                                            for (int x = (i + 1); x < data.length; x++, subIndex++) {
-                                                line = data[x];
-
-                                                if (!line.replaceAll("\\s", "").endsWith("]")) {
-                                                    if (!line.replaceAll("\\s", "").isEmpty()) {
-                                                        if (line.contains("->")) {
-                                                            dt = line.split("->");
-
-                                                            tmpName = dt[0].replaceAll("\\s", "");
-                                                            if (!tmpName.startsWith("'") && !tmpName.endsWith("'")) {
-                                                                if (!tmpName.startsWith("\"") && !tmpName.startsWith("\"")) {
-                                                                    throw new KarmaFormatException(document, "Error, invalid key format, it must be 'x' or \"x\" where x is any value", indexes.getOrDefault(line, -1));
-                                                                }
-                                                            }
-
-                                                            int i1 = tmpName.startsWith("\"") ? dt[0].indexOf("\"") : dt[0].indexOf("'");
-                                                            int i2 = tmpName.endsWith("\"") ? dt[0].lastIndexOf("\"") : dt[0].lastIndexOf("'");
-
-                                                            name = StringUtils.replaceLast(dt[0], "<", "");
-                                                            key = name.substring(i1 + 1, i2);
-                                                            value = new StringBuilder();
-                                                            for (int y = 1; y < dt.length; y++) {
-                                                                value.append(dt[y]).append((y != dt.length - 1 ? "->" : ""));
-                                                            }
-
-                                                            String v = value.toString().replaceFirst("\t", "").replaceFirst(" ", "");
-                                                            if (!StringUtils.isNullOrEmpty(v)) {
-                                                                if (v.startsWith("\"") || v.startsWith("'")) {
-                                                                    if (!v.endsWith((v.startsWith("\"") ? "\"" : "'"))) {
-                                                                        throw new KarmaFormatException(document, "Error, invalid text format. It seems that you mixed quotes or forgot to close string", indexes.getOrDefault(line, -1));
-                                                                    } else {
-                                                                        v = v.substring(1, v.length() - 1);
-                                                                        ElementPrimitive obj;
-                                                                        if (v.length() == 1) {
-                                                                            obj = new KarmaPrimitive(v.charAt(0));
-                                                                        } else {
-                                                                            obj = new KarmaPrimitive(v);
-                                                                        }
-
-                                                                        map.putRecursive(key, obj);
-                                                                    }
-                                                                } else {
-                                                                    if (v.replaceAll("\\s", "").equalsIgnoreCase("true") || v.replaceAll("\\s", "").equalsIgnoreCase("false")) {
-                                                                        boolean bool = Boolean.parseBoolean(v.replaceAll("\\s", ""));
-                                                                        ElementPrimitive obj = new KarmaPrimitive(bool);
-
-                                                                        map.putRecursive(key, obj);
-                                                                    } else {
-                                                                        if (v.contains(",")) {
-                                                                            Number number = Double.parseDouble(v.replaceAll("\\s", "").replace(",", "."));
-                                                                            ElementPrimitive obj = new KarmaPrimitive(number);
-
-                                                                            map.putRecursive(key, obj);
-                                                                        } else {
-                                                                            if (v.contains(".")) {
-                                                                                Number number = Float.parseFloat(v.replaceAll("\\s", ""));
-                                                                                ElementPrimitive obj = new KarmaPrimitive(number);
-
-                                                                                map.putRecursive(key, obj);
-                                                                            } else {
-                                                                                try {
-                                                                                    Number number = Integer.parseInt(v.replaceAll("\\s", ""));
-                                                                                    ElementPrimitive obj = new KarmaPrimitive(number);
-
-                                                                                    map.putRecursive(key, obj);
-                                                                                } catch (NumberFormatException e) {
-                                                                                    if (v.startsWith("0x")) {
-                                                                                        String bData = v.replace("0x", "");
-                                                                                        map.putRecursive(key, new KarmaPrimitive((byte) Integer.parseInt(bData, 16)));
-                                                                                    } else {
-                                                                                        if (v.equals("null")) {
-                                                                                            map.putRecursive(key, KarmaPrimitive.forNull());
-                                                                                        }
-                                                                                    }
-                                                                                }
-                                                                            }
-                                                                        }
-                                                                    }
-                                                                }
-                                                            }
-                                                        } else {
-                                                            throw new KarmaFormatException(document, "Error, invalid map format. Missing key and value syntax 'key' -> value", indexes.getOrDefault(line, -1));
-                                                        }
-                                                    }
-                                                } else {
-                                                    i = x;
-                                                    break;
-                                                }
-                                            }
-
-                                            content.put(parentKey, map);
-                                            if (rec)
-                                                reverse.put(map, parentKey);
-                                        } else {
-                                            String v = value.toString().replaceFirst("\t", "").replaceFirst(" ", "");
-                                            if (v.startsWith("\"") || v.startsWith("'")) {
-                                                if (!v.endsWith((v.startsWith("\"") ? "\"" : "'"))) {
-                                                    throw new KarmaFormatException(document, "Error, invalid text format. It seems that you mixed quotes or forgot to close string", indexes.getOrDefault(line, -1));
-                                                } else {
-                                                    v = v.substring(1, v.length() - 1);
-                                                    ElementPrimitive obj;
-                                                    if (v.length() == 1) {
-                                                        obj = new KarmaPrimitive(v.charAt(0));
-                                                    } else {
-                                                        obj = new KarmaPrimitive(v);
-                                                    }
-
-                                                    content.put(key, obj);
-                                                    if (rec)
-                                                        reverse.put(obj, key);
-                                                }
-                                            } else {
-                                                if (v.replaceAll("\\s", "").equalsIgnoreCase("true") || v.replaceAll("\\s", "").equalsIgnoreCase("false")) {
-                                                    boolean bool = Boolean.parseBoolean(v.replaceAll("\\s", ""));
-                                                    ElementPrimitive obj = new KarmaPrimitive(bool);
-
-                                                    content.put(key, obj);
-                                                    if (rec)
-                                                        reverse.put(obj, key);
-                                                } else {
-                                                    if (v.contains(",")) {
-                                                        Number number = Double.parseDouble(v.replaceAll("\\s", "").replace(",", "."));
-                                                        ElementPrimitive obj = new KarmaPrimitive(number);
-
-                                                        content.put(key, obj);
-                                                        if (rec)
-                                                            reverse.put(obj, key);
-                                                    } else {
-                                                        if (v.contains(".")) {
-                                                            Number number = Float.parseFloat(v.replaceAll("\\s", ""));
-                                                            ElementPrimitive obj = new KarmaPrimitive(number);
+    /**
+     * Read the document value positions again, after
+     * the document has been fully written
+     */
+    private void index() {
+        spans.clear();
+        dirty.clear();
+        structural = false;
+        stamp_size = -1;
+
+        try (BufferedReader reader = Files.newBufferedReader(PathUtilities.getFixedPath(document), StandardCharsets.UTF_8)) {
+            new KarmaParser(document, new HashMap<>(), new HashMap<>(), spans).parse(reader);
+            stamp();
+        } catch (Throwable ex) {
+            spans.clear();
+        }
+    }
 
-                                                            content.put(key, obj);
-                                                            if (rec)
-                                                                reverse.put(obj, key);
-                                                        } else {
-                                                            try {
-                                                                Number number = Integer.parseInt(v.replaceAll("\\s", ""));
-                                                                ElementPrimitive obj = new KarmaPrimitive(number);
-
-                                                                content.put(key, obj);
-                                                                if (rec)
-                                                                    reverse.put(obj, key);
-                                                            } catch (NumberFormatException e) {
-                                                                if (v.startsWith("0x")) {
-                                                                    String bData = v.replace("0x", "");
-                                                                    content.put(key, new KarmaPrimitive((byte) Integer.parseInt(bData, 16)));
-                                                                } else {
-                                                                    if (v.equals("null")) {
-                                                                        content.put(key, KarmaPrimitive.forNull());
-                                                                    }
-                                                                }
-                                                            }
-                                                        }
-                                                    }
-                                                }
-                                            }
-                                        }
-                                    }
-                                } else {
-                                    ElementPrimitive obj = new KarmaPrimitive("");
+    /**
+     * Store the document size and modification
+     * time, so external modifications can be detected
+     *
+     * @throws IOException if the document attributes could not be read
+     */
+    private void stamp() throws IOException {
+        Path file = PathUtilities.getFixedPath(document);
 
-                                    content.put(key, obj);
-                                    if (rec)
-                                        reverse.put(obj, key);
-                                }
-                            } else {
-                                if (line.replaceAll("\\s", "").endsWith(")")) {
-                                    if (parent.contains(".")) {
-                                        String[] pData = parent.split("\\.");
-                                        parent = StringUtils.replaceLast(parent, "." + pData[pData.length - 1], "");
-                                        if (pData.length == 1)
-                                            parent = pData[0];
-                                    }
-                                }
-                            }
-                        }
-                    }
+        stamp_size = Files.size(file);
+        stamp_modified = Files.getLastModifiedTime(file).toMillis();
+    }
 
-                    if (!parent.equals("main")) {
-                        String[] pData = parent.split("\\.");
-                        throw new KarmaFormatException(document, "Error, non closed section path ( " + parent + " )", indexes.getOrDefault(pData[pData.length - 1], -1));
-                    }
-                } else {
-                    throw new KarmaFormatException(document, "Error, found invalid main section name at " + main + "; it must be \"main\" or empty!", indexes.getOrDefault(main, -1));
-                }
-            }
+    /**
+     * Mark a key as modified
+     *
+     * @param key      the key
+     * @param previous the previous key value
+     */
+    private void changed(final String key, final Element<?> previous) {
+        if (previous == null) {
+            structural = true;
+        } else {
+            dirty.add(key);
         }
     }
 
@@ -1077,7 +437,7 @@ public class KarmaMain {
             tmpKey = "main." + tmpKey;
 
         if (element != null) {
-            content.put(tmpKey, element);
+            changed(tmpKey, content.put(tmpKey, element));
         }
     }
 
@@ -1093,7 +453,7 @@ public class KarmaMain {
             tmpKey = "main." + tmpKey;
 
         if (element != null) {
-            content.put(tmpKey, new KarmaPrimitive(element));
+            changed(tmpKey, content.put(tmpKey, new KarmaPrimitive(element)));
         }
     }
 
@@ -1108,7 +468,7 @@ public class KarmaMain {
         if (!tmpKey.startsWith("main."))
             tmpKey = "main." + tmpKey;
 
-        content.put(tmpKey, new KarmaPrimitive(element));
+        changed(tmpKey, content.put(tmpKey, new KarmaPrimitive(element)));
     }
 
     /**
@@ -1123,7 +483,7 @@ public class KarmaMain {
             tmpKey = "main." + tmpKey;
 
         if (element != null) {
-            content.put(tmpKey, new KarmaPrimitive(element));
+            changed(tmpKey, content.put(tmpKey, new KarmaPrimitive(element)));
         }
     }
 
@@ -1138,7 +498,7 @@ public class KarmaMain {
         if (!tmpKey.startsWith("main."))
             tmpKey = "main." + tmpKey;
 
-        content.put(tmpKey, new KarmaPrimitive(element));
+        changed(tmpKey, content.put(tmpKey, new KarmaPrimitive(element)));
     }
 
     /**
@@ -1152,7 +512,7 @@ public class KarmaMain {
         if (!tmpKey.startsWith("main."))
             tmpKey = "main." + tmpKey;
 
-        content.put(tmpKey, new KarmaPrimitive(element));
+        changed(tmpKey, content.put(tmpKey, new KarmaPrimitive(element)));
     }
 
     /**
@@ -1168,9 +528,9 @@ public class KarmaMain {
 
         if (element != null) {
             try {
-                content.put(tmpKey, new KarmaPrimitive(element.toString()));
+                changed(tmpKey, content.put(tmpKey, new KarmaPrimitive(element.toString())));
             } catch (Throwable ex) {
-                content.put(tmpKey, new KarmaPrimitive(String.valueOf(element)));
+                changed(tmpKey, content.put(tmpKey, new KarmaPrimitive(String.valueOf(element))));
             }
         }
     }
@@ -1187,7 +547,7 @@ public class KarmaMain {
             tmpKey = "main." + tmpKey;
 
         if (element != null) {
-            content.put(tmpKey, element);
+            changed(tmpKey, content.put(tmpKey, element));
             reverse.put(element, key);
         }
     }
@@ -1206,7 +566,7 @@ public class KarmaMain {
         if (element != null) {
             ElementPrimitive primitive = new KarmaPrimitive(element);
 
-            content.put(tmpKey, primitive);
+            changed(tmpKey, content.put(tmpKey, primitive));
             reverse.put(primitive, tmpKey);
         }
     }
@@ -1224,7 +584,7 @@ public class KarmaMain {
 
         ElementPrimitive primitive = new KarmaPrimitive(element);
 
-        content.put(tmpKey, primitive);
+        changed(tmpKey, content.put(tmpKey, primitive));
         reverse.put(primitive, tmpKey);
     }
 
@@ -1242,7 +602,7 @@ public class KarmaMain {
         if (element != null) {
             ElementPrimitive primitive = new KarmaPrimitive(element);
 
-            content.put(tmpKey, primitive);
+            changed(tmpKey, content.put(tmpKey, primitive));
             reverse.put(primitive, tmpKey);
         }
     }
@@ -1260,7 +620,7 @@ public class KarmaMain {
 
         ElementPrimitive primitive = new KarmaPrimitive(element);
 
-        content.put(tmpKey, primitive);
+        changed(tmpKey, content.put(tmpKey, primitive));
         reverse.put(primitive, tmpKey);
     }
 
@@ -1277,7 +637,7 @@ public class KarmaMain {
 
         ElementPrimitive primitive = new KarmaPrimitive(element);
 
-        content.put(tmpKey, primitive);
+        changed(tmpKey, content.put(tmpKey, primitive));
         reverse.put(primitive, tmpKey);
     }
 
@@ -1300,7 +660,7 @@ public class KarmaMain {
                 primitive = new KarmaPrimitive(String.valueOf(element));
             }
 
-            content.put(tmpKey, primitive);
+            changed(tmpKey, content.put(tmpKey, primitive));
             reverse.put(primitive, tmpKey);
         }
     }
@@ -1318,6 +678,7 @@ public class KarmaMain {
         Element<?> e = content.remove(tmpKey);
         if (e != null) {
             reverse.remove(e); //Just in case
+            structural = true;
         }
     }
 
@@ -1361,6 +722,11 @@ public class KarmaMain {
 
         KarmaSource source = APISource.getOriginal(false);
         try {
+            if (target.equals(document) && patch()) {
+                dirty.clear();
+                return true;
+            }
+
             source.console().debug("Saving file {0}", Level.INFO, PathUtilities.getPrettyPath(target));
 
             List<String> write = new ArrayList<>();
@@ -2054,7 +1420,20 @@ public class KarmaMain {
             }
 
             PathUtilities.create(target);
-            Files.write(target, StringUtils.listToString(write, ListTransformation.NEW_LINES).getBytes(StandardCharsets.UTF_8));
+            Path temp = Files.createTempFile(target.toAbsolutePath().getParent(), target.getFileName().toString(), ".tmp");
+            try {
+                Files.write(temp, StringUtils.listToString(write, ListTransformation.NEW_LINES).getBytes(StandardCharsets.UTF_8));
+                try {
+                    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException ex) {
+                    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+
+            if (target.equals(document))
+                index();
             return true;
         } catch (Throwable ex) {
             ex.printStackTrace();
@@ -2062,6 +1441,63 @@ public class KarmaMain {
         }
     }
 
+    /**
+     * Write the modified values directly in their document
+     * positions. This is only possible when the document has not
+     * been modified externally and only existing primitive values
+     * have changed, keeping their length
+     *
+     * @return if the document could be patched
+     * @throws IOException if the document could not be written
+     */
+    private boolean patch() throws IOException {
+        if (structural || stamp_size == -1)
+            return false;
+
+        Path file = PathUtilities.getFixedPath(document);
+        if (Files.size(file) != stamp_size || Files.getLastModifiedTime(file).toMillis() != stamp_modified)
+            return false;
+
+        List<KarmaParser.Span> targets = new ArrayList<>();
+        Map<KarmaParser.Span, byte[]> values = new HashMap<>();
+        for (String key : dirty) {
+            KarmaParser.Span span = spans.get(key);
+            Element<?> element = content.get(key);
+            if (span == null || element == null || !element.isPrimitive() || span.recursive != isRecursive(key))
+                return false;
+
+            ElementPrimitive primitive = element.getAsPrimitive();
+            String value = (primitive.isString() || primitive.isCharacter() ? "'" + primitive + "'" : String.valueOf(primitive));
+            if (value.indexOf('\n') != -1 || value.indexOf('\r') != -1)
+                return false;
+
+            targets.add(span);
+            values.put(span, value.getBytes(StandardCharsets.UTF_8));
+        }
+        if (targets.isEmpty())
+            return true;
+
+        //Values with a different length would move the rest of the document, which is only safe through a full rewrite
+        for (KarmaParser.Span span : targets) {
+            if (values.get(span).length != span.end - span.start)
+                return false;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            for (KarmaParser.Span span : targets) {
+                ByteBuffer buffer = ByteBuffer.wrap(values.get(span));
+                long position = span.start;
+                while (buffer.hasRemaining())
+                    position += channel.write(buffer, position);
+            }
+
+            channel.force(false);
+        }
+
+        stamp();
+        return true;
+    }
+
     /**
      * Get the document
      *
@@ -2343,7 +1779,10 @@ public class KarmaMain {
 
         content.clear();
         reverse.clear();
-        indexes.clear();
+        spans.clear();
+        dirty.clear();
+        structural = false;
+        stamp_size = -1;
     }
 
     /**
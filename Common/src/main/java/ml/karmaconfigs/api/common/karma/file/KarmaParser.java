@@ -0,0 +1,593 @@
+package ml.karmaconfigs.api.common.karma.file;
+
+import ml.karmaconfigs.api.common.karma.file.element.KarmaPrimitive;
+import ml.karmaconfigs.api.common.karma.file.element.multi.KarmaArray;
+import ml.karmaconfigs.api.common.karma.file.element.multi.KarmaMap;
+import ml.karmaconfigs.api.common.karma.file.element.types.Element;
+import ml.karmaconfigs.api.common.karma.file.element.types.ElementPrimitive;
+import ml.karmaconfigs.api.common.karma.file.error.KarmaFormatException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Karma file parser. Reads the document once, removing
+ * comments while reading, and feeds the parsed elements
+ * directly into the file content
+ *
+ * @author KarmaDev
+ * @since 1.3.2-SNAPSHOT
+ */
+final class KarmaParser {
+
+    private final static int BUFFER_SIZE = 8192;
+
+    private final Path document;
+    private final Map<String, Element<?>> content;
+    private final Map<Element<?>, String> reverse;
+    private final Map<String, Span> spans;
+
+    private final StringBuilder raw = new StringBuilder();
+    private final StringBuilder line = new StringBuilder();
+    private long[] offsets = new long[128];
+
+    private final Deque<String> sections = new ArrayDeque<>();
+    private final Deque<Integer> section_lines = new ArrayDeque<>();
+    private final Set<String> defined = new HashSet<>();
+
+    private boolean opened = false;
+
+    private String multi_key = null;
+    private boolean multi_recursive = false;
+    private KarmaArray array = null;
+    private KarmaMap map = null;
+    private boolean keyed = false;
+    private boolean simple = false;
+
+    /**
+     * Initialize the parser
+     *
+     * @param doc the document being parsed
+     * @param cnt the content to fill
+     * @param rev the recursive elements to fill
+     * @param spn the primitive value spans to fill
+     */
+    KarmaParser(final Path doc, final Map<String, Element<?>> cnt, final Map<Element<?>, String> rev, final Map<String, Span> spn) {
+        document = doc;
+        content = cnt;
+        reverse = rev;
+        spans = spn;
+    }
+
+    /**
+     * Parse the document
+     *
+     * @param reader the document reader
+     * @return the document contents without comments
+     * @throws IOException          if the document could not be read
+     * @throws KarmaFormatException if the document has an invalid format
+     */
+    String parse(final Reader reader) throws IOException, KarmaFormatException {
+        char[] buffer = new char[BUFFER_SIZE];
+
+        int line_number = 1;
+        int line_start = 1;
+
+        long position = 0;
+        long star_position = 0;
+
+        char quote = 0;
+        boolean star = false;
+        boolean block = false;
+        boolean block_end = false;
+        boolean line_comment = false;
+        boolean commented = false;
+
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                char current = buffer[i];
+                long at = position;
+                position += length(current);
+
+                if (current == '\r')
+                    continue;
+
+                if (current == '\n') {
+                    if (star) {
+                        append('*', star_position);
+                        star = false;
+                    }
+
+                    line_number++;
+                    if (block)
+                        continue;
+
+                    line(commented, line_start);
+
+                    line_start = line_number;
+                    quote = 0;
+                    line_comment = false;
+                    commented = false;
+                    continue;
+                }
+
+                if (block) {
+                    if (block_end && current == '*') {
+                        block = false;
+                        block_end = false;
+                    } else {
+                        block_end = current == ')';
+                    }
+                    continue;
+                }
+                if (line_comment)
+                    continue;
+
+                if (star) {
+                    star = false;
+
+                    if (current == '/') {
+                        line_comment = true;
+                        commented = true;
+                        continue;
+                    }
+                    if (current == '(') {
+                        block = true;
+                        commented = true;
+                        continue;
+                    }
+
+                    append('*', star_position);
+                }
+
+                if (quote == 0) {
+                    if (current == '*') {
+                        star = true;
+                        star_position = at;
+                        continue;
+                    }
+
+                    if (current == '\'' || current == '"')
+                        quote = current;
+                } else {
+                    if (current == quote)
+                        quote = 0;
+                }
+
+                append(current, at);
+            }
+        }
+
+        if (star)
+            append('*', star_position);
+        if (line.length() > 0 || commented)
+            line(commented, line_start);
+
+        finish();
+        return raw.toString();
+    }
+
+    /**
+     * Append a character to the current line
+     *
+     * @param character the character
+     * @param position  the character position in the document
+     */
+    private void append(final char character, final long position) {
+        int index = line.length();
+        if (index == offsets.length)
+            offsets = Arrays.copyOf(offsets, index * 2);
+
+        offsets[index] = position;
+        line.append(character);
+    }
+
+    /**
+     * Process a line without comments
+     *
+     * @param commented if the line had a comment
+     * @param number    the line number
+     * @throws KarmaFormatException if the line has an invalid format
+     */
+    private void line(final boolean commented, final int number) throws KarmaFormatException {
+        String text = line.toString();
+        line.setLength(0);
+
+        String stripped = strip(text);
+        if (commented) {
+            if (stripped.isEmpty())
+                return;
+
+            int end = text.length();
+            while (end > 0 && Character.isWhitespace(text.charAt(end - 1)))
+                end--;
+            text = text.substring(0, end);
+        }
+
+        if (raw.length() == 0 && stripped.isEmpty())
+            return;
+        raw.append(text).append('\n');
+
+        if (stripped.isEmpty())
+            return;
+
+        if (!opened) {
+            if (!stripped.equals("(") && !stripped.equals("(\"main\""))
+                throw new KarmaFormatException(document, "Error, found invalid main section name at " + text + "; it must be \"main\" or empty!", number);
+
+            opened = true;
+            sections.push("main");
+            section_lines.push(number);
+            return;
+        }
+
+        if (array != null) {
+            listLine(text, stripped, number);
+            return;
+        }
+        if (map != null) {
+            mapLine(text, stripped, number);
+            return;
+        }
+
+        if (stripped.startsWith("(")) {
+            if (!stripped.startsWith("(\"") || !stripped.endsWith("\"") || stripped.length() < 4)
+                throw new KarmaFormatException(document, "Error, found invalid section definition at " + text + ", it must be (\"x\" where 'x' is any value!", number);
+
+            String path = sections.peek() + "." + stripped.substring(2, stripped.length() - 1);
+            if (!defined.add(path))
+                throw new KarmaFormatException(document, "Error, found repeated section definition " + path, number);
+
+            sections.push(path);
+            section_lines.push(number);
+            return;
+        }
+
+        int arrow = arrow(text);
+        if (arrow == -1) {
+            if (stripped.endsWith(")") && sections.size() > 1) {
+                sections.pop();
+                section_lines.pop();
+            }
+            return;
+        }
+
+        boolean recursive = arrow > 0 && text.charAt(arrow - 1) == '<';
+        String name = unquote(strip(text.substring(0, recursive ? arrow - 1 : arrow)), number);
+        String key = sections.peek() + "." + name;
+        String value = text.substring(arrow + 2).trim();
+
+        spans.remove(key);
+
+        switch (value) {
+            case "{":
+                multi_key = key;
+                multi_recursive = recursive;
+                array = new KarmaArray();
+                keyed = false;
+                simple = false;
+                return;
+            case "[":
+                multi_key = key;
+                multi_recursive = recursive;
+                map = new KarmaMap();
+                return;
+            case "{}":
+                put(key, new KarmaArray(), recursive);
+                return;
+            case "[]":
+                put(key, new KarmaMap(), recursive);
+                return;
+            case "":
+                put(key, new KarmaPrimitive(""), recursive);
+                return;
+            default:
+                ElementPrimitive primitive = primitive(value, number);
+                if (primitive != null) {
+                    put(key, primitive, recursive);
+                    span(key, text, arrow + 2, recursive);
+                }
+        }
+    }
+
+    /**
+     * Process a list line
+     *
+     * @param text     the line
+     * @param stripped the line without whitespaces
+     * @param number   the line number
+     * @throws KarmaFormatException if the line has an invalid format
+     */
+    private void listLine(final String text, final String stripped, final int number) throws KarmaFormatException {
+        if (stripped.endsWith("}")) {
+            if (keyed) {
+                put(multi_key, map, multi_recursive);
+                map = null;
+            } else {
+                put(multi_key, array, multi_recursive);
+            }
+            array = null;
+            return;
+        }
+
+        int arrow = arrow(text);
+        if (arrow != -1) {
+            if (simple)
+                throw new KarmaFormatException(document, "Error, invalid list format. It seems that you mixed a simple list and a keyed list", number);
+
+            if (!keyed) {
+                keyed = true;
+                map = new KarmaMap();
+            }
+
+            boolean recursive = arrow > 0 && text.charAt(arrow - 1) == '<';
+            String name = unquote(text.substring(0, recursive ? arrow - 1 : arrow).trim(), number);
+            ElementPrimitive primitive = primitive(text.substring(arrow + 2).trim(), number);
+            if (primitive != null) {
+                if (recursive) {
+                    map.putRecursive(name, primitive);
+                } else {
+                    map.put(name, primitive);
+                }
+            }
+        } else {
+            if (keyed)
+                throw new KarmaFormatException(document, "Error, invalid list format. It seems that you mixed a simple list and a keyed list", number);
+
+            if (stripped.equals("{"))
+                return;
+
+            simple = true;
+            ElementPrimitive primitive = primitive(text.trim(), number);
+            if (primitive != null)
+                array.add(primitive);
+        }
+    }
+
+    /**
+     * Process a map line
+     *
+     * @param text     the line
+     * @param stripped the line without whitespaces
+     * @param number   the line number
+     * @throws KarmaFormatException if the line has an invalid format
+     */
+    private void mapLine(final String text, final String stripped, final int number) throws KarmaFormatException {
+        if (stripped.endsWith("]")) {
+            put(multi_key, map, multi_recursive);
+            map = null;
+            return;
+        }
+
+        int arrow = arrow(text);
+        if (arrow == -1)
+            throw new KarmaFormatException(document, "Error, invalid map format. Missing key and value syntax 'key' -> value", number);
+
+        boolean recursive = arrow > 0 && text.charAt(arrow - 1) == '<';
+        String name = unquote(text.substring(0, recursive ? arrow - 1 : arrow).trim(), number);
+        ElementPrimitive primitive = primitive(text.substring(arrow + 2).trim(), number);
+        if (primitive != null)
+            map.putRecursive(name, primitive);
+    }
+
+    /**
+     * Finish the document parsing
+     *
+     * @throws KarmaFormatException if a section has not been closed
+     */
+    private void finish() throws KarmaFormatException {
+        if (array != null) {
+            listLine("}", "}", -1);
+        } else {
+            if (map != null)
+                mapLine("]", "]", -1);
+        }
+
+        if (sections.size() > 1)
+            throw new KarmaFormatException(document, "Error, non closed section path ( " + sections.peek() + " )", section_lines.peek());
+    }
+
+    /**
+     * Store the position of a primitive value in the
+     * document, as long as the value is not split by a
+     * comment
+     *
+     * @param key       the value key
+     * @param text      the line
+     * @param from      the index where the value search starts
+     * @param recursive if the value is recursive
+     */
+    private void span(final String key, final String text, final int from, final boolean recursive) {
+        int start = from;
+        while (start < text.length() && Character.isWhitespace(text.charAt(start)))
+            start++;
+        int end = text.length();
+        while (end > start && Character.isWhitespace(text.charAt(end - 1)))
+            end--;
+
+        long size = 0;
+        for (int i = start; i < end; i++)
+            size += length(text.charAt(i));
+
+        long begin = offsets[start];
+        long finish = offsets[end - 1] + length(text.charAt(end - 1));
+        if (finish - begin == size)
+            spans.put(key, new Span(begin, finish, recursive));
+    }
+
+    /**
+     * Store an element
+     *
+     * @param key       the element key
+     * @param element   the element
+     * @param recursive if the element is recursive
+     */
+    private void put(final String key, final Element<?> element, final boolean recursive) {
+        content.put(key, element);
+        if (recursive)
+            reverse.put(element, key);
+    }
+
+    /**
+     * Parse a primitive value
+     *
+     * @param value  the value
+     * @param number the line number
+     * @return the primitive or null if the value is not
+     * a valid primitive
+     * @throws KarmaFormatException if the value has an invalid format
+     */
+    private ElementPrimitive primitive(final String value, final int number) throws KarmaFormatException {
+        if (value.isEmpty())
+            return null;
+
+        char first = value.charAt(0);
+        if (first == '"' || first == '\'') {
+            if (value.length() < 2 || value.charAt(value.length() - 1) != first)
+                throw new KarmaFormatException(document, "Error, invalid text format. It seems that you mixed quotes or forgot to close string", number);
+
+            String text = value.substring(1, value.length() - 1);
+            if (text.length() == 1)
+                return new KarmaPrimitive(text.charAt(0));
+
+            return new KarmaPrimitive(text);
+        }
+
+        String stripped = strip(value);
+        if (stripped.equalsIgnoreCase("true") || stripped.equalsIgnoreCase("false"))
+            return new KarmaPrimitive(Boolean.parseBoolean(stripped));
+
+        try {
+            if (stripped.indexOf(',') != -1)
+                return new KarmaPrimitive(Double.parseDouble(stripped.replace(',', '.')));
+            if (stripped.indexOf('.') != -1)
+                return new KarmaPrimitive(Float.parseFloat(stripped));
+
+            try {
+                return new KarmaPrimitive(Integer.parseInt(stripped));
+            } catch (NumberFormatException ex) {
+                if (stripped.startsWith("0x"))
+                    return new KarmaPrimitive((byte) Integer.parseInt(stripped.substring(2), 16));
+            }
+        } catch (NumberFormatException ex) {
+            throw new KarmaFormatException(document, "Error, invalid number format at ( " + value + " )", number);
+        }
+
+        if (stripped.equals("null"))
+            return KarmaPrimitive.forNull();
+
+        return null;
+    }
+
+    /**
+     * Remove the quotes of a key
+     *
+     * @param key    the key
+     * @param number the line number
+     * @return the key without quotes
+     * @throws KarmaFormatException if the key is not quoted
+     */
+    private String unquote(final String key, final int number) throws KarmaFormatException {
+        if (key.length() < 2 || (key.charAt(0) != '\'' && key.charAt(0) != '"') || key.charAt(key.length() - 1) != key.charAt(0))
+            throw new KarmaFormatException(document, "Error, invalid key format, it must be 'x' or \"x\" where x is any value", number);
+
+        return key.substring(1, key.length() - 1);
+    }
+
+    /**
+     * Find the first key-value arrow that is not
+     * inside a quoted text
+     *
+     * @param text the line
+     * @return the arrow index or -1 if there's no arrow
+     */
+    private static int arrow(final String text) {
+        char quote = 0;
+        for (int i = 0; i < text.length() - 1; i++) {
+            char current = text.charAt(i);
+
+            if (quote == 0) {
+                if (current == '\'' || current == '"') {
+                    quote = current;
+                } else {
+                    if (current == '-' && text.charAt(i + 1) == '>')
+                        return i;
+                }
+            } else {
+                if (current == quote)
+                    quote = 0;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Get the UTF-8 encoded length of a character. Each
+     * half of a surrogate pair counts as two bytes
+     *
+     * @param character the character
+     * @return the character length
+     */
+    static int length(final char character) {
+        if (character < 0x80)
+            return 1;
+        if (character < 0x800 || Character.isSurrogate(character))
+            return 2;
+
+        return 3;
+    }
+
+    /**
+     * Remove all the whitespaces of a text
+     *
+     * @param text the text
+     * @return the text without whitespaces
+     */
+    private static String strip(final String text) {
+        int length = text.length();
+
+        int i = 0;
+        while (i < length && !Character.isWhitespace(text.charAt(i)))
+            i++;
+        if (i == length)
+            return text;
+
+        StringBuilder builder = new StringBuilder(length);
+        builder.append(text, 0, i);
+        for (; i < length; i++) {
+            char current = text.charAt(i);
+            if (!Character.isWhitespace(current))
+                builder.append(current);
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * The position of a primitive value in the
+     * document
+     */
+    static final class Span {
+
+        long start;
+        long end;
+        final boolean recursive;
+
+        /**
+         * Initialize the span
+         *
+         * @param from the value start position
+         * @param to   the value end position
+         * @param rec  if the value is recursive
+         */
+        Span(final long from, final long to, final boolean rec) {
+            start = from;
+            end = to;
+            recursive = rec;
+        }
+    }
+}
@@ -39,6 +39,7 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Karma yaml manager
@@ -46,20 +47,31 @@ import java.util.*;
 public final class KarmaYamlManager {
 
     /**
-     * Defaults
+     * Amount of split paths kept for each spacer
      */
-    @Nullable
-    private final KarmaYamlManager def;
+    private final static int PATH_CACHE_LIMIT = 8192;
 
     /**
-     * Yaml keys and values
+     * Split paths by spacer, so each path is split only once
      */
-    private final Map<String, Object> map = new LinkedHashMap<>();
+    private final static Map<Character, Map<String, String[]>> compiled = new ConcurrentHashMap<>();
 
     /**
-     * Yaml children ( sections )
+     * Value returned by a lookup when the path is not set
      */
-    private final Set<KarmaYamlManager> children = new HashSet<>();
+    private final static Object MISSING = new Object();
+
+    /**
+     * Defaults
+     */
+    @Nullable
+    private final KarmaYamlManager def;
+
+    /**
+     * Yaml keys and values. Sections share the
+     * map of their key in the parent map
+     */
+    private Map<String, Object> map = new LinkedHashMap<>();
 
     /**
      * The yaml source
@@ -81,6 +93,12 @@ public final class KarmaYamlManager {
      */
     private String root = "";
 
+    /**
+     * If the section is not in its parent map yet. It
+     * is added the first time a value is set on it
+     */
+    private boolean detached = false;
+
     /**
      * Initialize the karma yaml manager
      *
@@ -398,6 +416,24 @@ public final class KarmaYamlManager {
         this.def = defaults;
     }
 
+    /**
+     * Initialize a section of a karma yaml manager
+     *
+     * @param owner    the section parent
+     * @param path     the section path
+     * @param values   the section key/value
+     * @param attached if the values are stored in the parent map
+     */
+    private KarmaYamlManager(final KarmaYamlManager owner, final String path, final Map<String, Object> values, final boolean attached) {
+        this.map = values;
+        this.sourceRoot = new KYMSource(values);
+        this.def = null;
+        this.parent = owner;
+        this.root = path;
+        this.spacer = owner.spacer;
+        this.detached = !attached;
+    }
+
     /**
      * Set the manager spacer
      *
@@ -440,17 +476,14 @@ public final class KarmaYamlManager {
      */
     @NotNull
     public KarmaYamlManager set(final String path, final Object value) {
-        if (path.contains(String.valueOf(this.spacer))) {
-            String[] data = path.split(StringUtils.escapeString(String.valueOf(this.spacer)));
-            String realPath = data[data.length - 1];
-            data = Arrays.<String>copyOf(data, data.length - 1);
-            KarmaYamlManager last = this;
-            for (String section : data)
-                last = last.getSection(section);
-            last.set(realPath, value);
-            return last;
-        }
-        this.map.put(path, value);
+        attach();
+
+        String[] data = compile(path);
+        Map<String, Object> current = this.map;
+        for (int i = 0; i < data.length - 1; i++)
+            current = writable(current, data[i], true);
+
+        current.put(data[data.length - 1], value);
         return this;
     }
 
@@ -540,9 +573,12 @@ public final class KarmaYamlManager {
     @NotNull
     public KarmaYamlManager[] getChildren() {
         List<KarmaYamlManager> childtree = new ArrayList<>();
-        for (KarmaYamlManager child : this.children) {
-            childtree.add(child);
-            childtree.addAll(Arrays.asList(child.getChildren()));
+        for (String key : new ArrayList<>(this.map.keySet())) {
+            if (this.map.get(key) instanceof Map) {
+                KarmaYamlManager child = getSection(key);
+                childtree.add(child);
+                childtree.addAll(Arrays.asList(child.getChildren()));
+            }
         }
         return childtree.<KarmaYamlManager>toArray(new KarmaYamlManager[0]);
     }
@@ -574,11 +610,6 @@ public final class KarmaYamlManager {
     public KarmaYamlManager save(final File target) {
         if (this.parent != null)
             return getTreeMaster().save(target);
-        for (KarmaYamlManager yaml : getChildren()) {
-            KarmaYamlManager parentYaml = yaml.getParent();
-            if (parentYaml != null)
-                parentYaml.set(yaml.getRoot(), yaml.map);
-        }
         DumperOptions options = new DumperOptions();
         options.setIndent(2);
         options.setPrettyFlow(true);
@@ -632,16 +663,8 @@ public final class KarmaYamlManager {
      * @return the yaml value
      */
     public Object get(final String path, final Object def) {
-        if (path.contains(String.valueOf(this.spacer))) {
-            String[] data = path.split(StringUtils.escapeString(String.valueOf(this.spacer)));
-            String realPath = data[data.length - 1];
-            data = Arrays.<String>copyOf(data, data.length - 1);
-            KarmaYamlManager last = this;
-            for (String section : data)
-                last = last.getSection(section);
-            return last.map.getOrDefault(realPath, def);
-        }
-        return this.map.getOrDefault(path, def);
+        Object value = lookup(path);
+        return (value != MISSING ? value : def);
     }
 
     /**
@@ -652,20 +675,12 @@ public final class KarmaYamlManager {
      */
     @Nullable
     public Object get(final String path) {
-        if (path.contains(String.valueOf(this.spacer))) {
-            String[] data = path.split(StringUtils.escapeString(String.valueOf(this.spacer)));
-            String realPath = data[data.length - 1];
-            data = Arrays.<String>copyOf(data, data.length - 1);
-            KarmaYamlManager last = this;
-            for (String section : data)
-                last = last.getSection(section);
-            if (this.def != null)
-                return last.map.getOrDefault(realPath, this.def.get(path));
-            return last.map.getOrDefault(realPath, null);
-        }
+        Object value = lookup(path);
+        if (value != MISSING)
+            return value;
         if (this.def != null)
-            return this.map.getOrDefault(path, this.def.get(path));
-        return this.map.getOrDefault(path, null);
+            return this.def.get(path);
+        return null;
     }
 
     /**
@@ -886,34 +901,26 @@ public final class KarmaYamlManager {
     }
 
     /**
-     * Get a section of the yaml
+     * Get a section of the yaml. The section shares its
+     * values with this yaml, so the values set in the section
+     * are set in this yaml too
      *
      * @param path the section path
      * @return the section
      */
     @NotNull
     public KarmaYamlManager getSection(final String path) {
-        Object value = get(path);
-        if (value instanceof Map) {
-            Map<?, ?> map = (Map<?, ?>) value;
-            Map<String, Object> parsed = new LinkedHashMap<>();
-            for (Object key : map.keySet())
-                parsed.put(key.toString(), map.get(key));
-            KarmaYamlManager sub = new KarmaYamlManager(parsed);
-            sub.parent = this;
-            sub.root = path;
-            this.children.add(sub);
-            return sub;
-        }
-        KarmaYamlManager configuration = new KarmaYamlManager(Collections.emptyMap());
-        configuration.parent = this;
-        configuration.root = path;
-        this.children.add(configuration);
-        return configuration;
+        Map<String, Object> values = section(path);
+        if (values != null)
+            return new KarmaYamlManager(this, path, values, true);
+
+        return new KarmaYamlManager(this, path, new LinkedHashMap<>(), false);
     }
 
     /**
-     * Get a section of the yaml
+     * Get a section of the yaml. The section shares its
+     * values with this yaml, so the values set in the section
+     * are set in this yaml too
      *
      * @param path     the section path
      * @param defaults the section defaults
@@ -921,23 +928,11 @@ public final class KarmaYamlManager {
      */
     @NotNull
     public KarmaYamlManager getSection(final String path, final KarmaYamlManager defaults) {
-        Object value = get(path);
-        if (value instanceof Map) {
-            Map<?, ?> map = (Map<?, ?>) value;
-            Map<String, Object> parsed = new LinkedHashMap<>();
-            for (Object key : map.keySet())
-                parsed.put(key.toString(), map.get(key));
-            KarmaYamlManager sub = new KarmaYamlManager(parsed);
-            sub.parent = this;
-            sub.root = path;
-            this.children.add(sub);
-            return sub;
-        }
-        KarmaYamlManager configuration = new KarmaYamlManager(defaults.map);
-        configuration.parent = this;
-        configuration.root = path;
-        this.children.add(configuration);
-        return configuration;
+        Map<String, Object> values = section(path);
+        if (values != null)
+            return new KarmaYamlManager(this, path, values, true);
+
+        return new KarmaYamlManager(this, path, new LinkedHashMap<>(defaults.map), false);
     }
 
     /**
@@ -993,6 +988,180 @@ public final class KarmaYamlManager {
         return yaml.dump(this.map);
     }
 
+    /**
+     * Find a value without copying any section
+     *
+     * @param path the key path
+     * @return the value, or {@link #MISSING} if the path is not set
+     */
+    private Object lookup(final String path) {
+        String[] data = compile(path);
+
+        Object current = this.map;
+        for (String key : data) {
+            if (!(current instanceof Map))
+                return MISSING;
+
+            current = child((Map<?, ?>) current, key);
+            if (current == MISSING)
+                return MISSING;
+        }
+
+        return current;
+    }
+
+    /**
+     * Get the map of a section, making sure it can be
+     * shared with a section view
+     *
+     * @param path the section path
+     * @return the section map, or null if the path is not a section
+     */
+    @Nullable
+    private Map<String, Object> section(final String path) {
+        String[] data = compile(path);
+
+        Map<String, Object> current = this.map;
+        for (String key : data) {
+            current = writable(current, key, false);
+            if (current == null)
+                return null;
+        }
+
+        return current;
+    }
+
+    /**
+     * Get a sub map which can be modified, replacing it with
+     * a copy if it's not a string keyed linked map
+     *
+     * @param current the map
+     * @param key     the sub map key
+     * @param create  if the sub map should be created if it's
+     *                not set or it's not a map
+     * @return the sub map, or null if it's not a map and it
+     * should not be created
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> writable(final Map<String, Object> current, final String key, final boolean create) {
+        Object value = child(current, key);
+        if (value instanceof LinkedHashMap && stringKeys((Map<?, ?>) value))
+            return (Map<String, Object>) value;
+
+        Map<String, Object> copy = new LinkedHashMap<>();
+        if (value instanceof Map) {
+            Map<?, ?> values = (Map<?, ?>) value;
+            for (Object sub : values.keySet())
+                copy.put(sub.toString(), values.get(sub));
+        } else if (!create) {
+            return null;
+        }
+
+        //Replace the non string key the value was found with
+        if (value != MISSING && !current.containsKey(key))
+            current.keySet().removeIf((sub) -> !(sub instanceof String) && String.valueOf(sub).equals(key));
+        current.put(key, copy);
+        return copy;
+    }
+
+    /**
+     * Get a map value by its key name
+     *
+     * @param values the map
+     * @param key    the key name
+     * @return the value, or {@link #MISSING} if the key is not set
+     */
+    private static Object child(final Map<?, ?> values, final String key) {
+        Object value = values.get(key);
+        if (value != null || values.containsKey(key))
+            return value;
+
+        //Yaml keys are not always strings, 1: is read as an integer
+        for (Map.Entry<?, ?> entry : values.entrySet()) {
+            if (!(entry.getKey() instanceof String) && String.valueOf(entry.getKey()).equals(key))
+                return entry.getValue();
+        }
+
+        return MISSING;
+    }
+
+    /**
+     * Get if all the map keys are strings
+     *
+     * @param values the map
+     * @return if the map keys are strings
+     */
+    private static boolean stringKeys(final Map<?, ?> values) {
+        for (Object key : values.keySet()) {
+            if (!(key instanceof String))
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Add the section to its parent map if it's not there yet
+     */
+    private void attach() {
+        if (this.parent == null)
+            return;
+
+        this.parent.attach();
+        if (this.detached) {
+            this.parent.set(this.root, this.map);
+            this.detached = false;
+        }
+    }
+
+    /**
+     * Split a path by the spacer
+     *
+     * @param path the path
+     * @return the path keys
+     */
+    private String[] compile(final String path) {
+        Map<String, String[]> paths = compiled.get(this.spacer);
+        if (paths == null)
+            paths = compiled.computeIfAbsent(this.spacer, (key) -> new ConcurrentHashMap<>());
+
+        String[] data = paths.get(path);
+        if (data == null) {
+            data = split(path, this.spacer);
+            if (paths.size() >= PATH_CACHE_LIMIT)
+                paths.clear();
+            paths.put(path, data);
+        }
+
+        return data;
+    }
+
+    /**
+     * Split a path by the spacer. As {@link String#split(String)},
+     * trailing empty keys are removed
+     *
+     * @param path      the path
+     * @param separator the spacer
+     * @return the path keys
+     */
+    private static String[] split(final String path, final char separator) {
+        List<String> keys = new ArrayList<>();
+
+        int start = 0;
+        int index;
+        while ((index = path.indexOf(separator, start)) != -1) {
+            keys.add(path.substring(start, index));
+            start = index + 1;
+        }
+        keys.add(path.substring(start));
+
+        int size = keys.size();
+        while (size > 1 && keys.get(size - 1).isEmpty())
+            size--;
+
+        return keys.subList(0, size).toArray(new String[0]);
+    }
+
     /**
      * Get the yaml map of key/values
      *
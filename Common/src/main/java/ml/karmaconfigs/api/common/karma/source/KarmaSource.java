@@ -26,12 +26,9 @@ package ml.karmaconfigs.api.common.karma.source;
  */
 
 import ml.karmaconfigs.api.common.console.Console;
-import ml.karmaconfigs.api.common.logger.Logger;
 import ml.karmaconfigs.api.common.karma.file.KarmaMain;
 import ml.karmaconfigs.api.common.timer.scheduler.Scheduler;
 import ml.karmaconfigs.api.common.timer.scheduler.SimpleScheduler;
-import ml.karmaconfigs.api.common.timer.worker.AsyncScheduler;
-import ml.karmaconfigs.api.common.timer.worker.SyncScheduler;
 import ml.karmaconfigs.api.common.logger.KarmaLogger;
 import ml.karmaconfigs.api.common.data.file.FileUtilities;
 import ml.karmaconfigs.api.common.data.path.PathUtilities;
@@ -41,7 +38,6 @@ import org.jetbrains.annotations.Nullable;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.*;
-import java.lang.reflect.Method;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
@@ -87,10 +83,12 @@ public interface KarmaSource extends Serializable {
     String updateURL();
 
     /**
-     * Stop all the source tasks
+     * Stop all the source tasks and release
+     * its console, logger and schedulers
      */
     default void stopTasks() {
         SimpleScheduler.cancelFor(this);
+        SourceServices.release(this);
     }
 
     /**
@@ -249,33 +247,7 @@ public interface KarmaSource extends Serializable {
      * @return the source out
      */
     default Console console() {
-        Console simple = new Console(this);
-
-        try {
-            //Fixes a problem related with papermc and 'nag authors'
-            Class<?> bukkit = Class.forName("org.bukkit.Bukkit");
-            Method getServer = bukkit.getMethod("getServer");
-
-            Object server = getServer.invoke(bukkit);
-
-            Class<?> svClass = server.getClass();
-            Method consoleSender = svClass.getMethod("getConsoleSender");
-
-            Object commandSender = consoleSender.invoke(server);
-
-            Class<?> consoleCommandSender = commandSender.getClass();
-            Method sendMessage = consoleCommandSender.getMethod("sendMessage", String.class);
-
-            return new Console(this, (msg) -> {
-                try {
-                    sendMessage.invoke(commandSender, StringUtils.toColor(msg));
-                } catch (Throwable ex) {
-                    simple.send(msg);
-                }
-            });
-        } catch (Throwable ex) {
-            return simple;
-        }
+        return SourceServices.of(this).console(this);
     }
 
     /**
@@ -284,7 +256,7 @@ public interface KarmaSource extends Serializable {
      * @return the source async scheduler
      */
     default Scheduler async() {
-        return new AsyncScheduler<>(this);
+        return SourceServices.of(this).async(this);
     }
 
     /**
@@ -293,7 +265,7 @@ public interface KarmaSource extends Serializable {
      * @return the source sync scheduler
      */
     default Scheduler sync() {
-        return new SyncScheduler<>(this);
+        return SourceServices.of(this).sync(this);
     }
 
     /**
@@ -302,7 +274,7 @@ public interface KarmaSource extends Serializable {
      * @return the source logger
      */
     default KarmaLogger logger() {
-        return new Logger(this);
+        return SourceServices.of(this).logger(this);
     }
 
     /**
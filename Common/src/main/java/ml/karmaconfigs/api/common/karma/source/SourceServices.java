@@ -0,0 +1,275 @@
+package ml.karmaconfigs.api.common.karma.source;
+
+/*
+ * This file is part of KarmaAPI, licensed under the MIT License.
+ *
+ *  Copyright (c) karma (KarmaDev) <karmaconfigs@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+
+import ml.karmaconfigs.api.common.console.Console;
+import ml.karmaconfigs.api.common.logger.KarmaLogger;
+import ml.karmaconfigs.api.common.logger.Logger;
+import ml.karmaconfigs.api.common.string.StringUtils;
+import ml.karmaconfigs.api.common.timer.scheduler.Scheduler;
+import ml.karmaconfigs.api.common.timer.worker.AsyncScheduler;
+import ml.karmaconfigs.api.common.timer.worker.SyncScheduler;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Default source services. Each source keeps the same console,
+ * logger and schedulers until its tasks are stopped, and the
+ * platform console sender is resolved only once
+ */
+public final class SourceServices {
+
+    private final static Map<KarmaSource, SourceServices> services = new ConcurrentHashMap<>();
+    private final static AtomicLong[] allocations = new AtomicLong[Service.values().length];
+
+    static {
+        for (int i = 0; i < allocations.length; i++)
+            allocations[i] = new AtomicLong(0);
+    }
+
+    /**
+     * The platform console sender, bound to the sendMessage method
+     */
+    private static MethodHandle sender = null;
+
+    /**
+     * If the platform has been checked, and there is
+     * no need to look for a console sender again
+     */
+    private static boolean resolved = false;
+
+    private final AtomicReference<Console> console = new AtomicReference<>();
+    private final AtomicReference<KarmaLogger> logger = new AtomicReference<>();
+    private final AtomicReference<Scheduler> async = new AtomicReference<>();
+    private final AtomicReference<Scheduler> sync = new AtomicReference<>();
+
+    /**
+     * Initialize the source services
+     */
+    private SourceServices() {
+    }
+
+    /**
+     * Get the amount of service instances created
+     * since the API was loaded
+     *
+     * @param service the service
+     * @return the amount of created instances
+     */
+    public static long allocated(final Service service) {
+        return allocations[service.ordinal()].get();
+    }
+
+    /**
+     * Get the services of a source
+     *
+     * @param source the source
+     * @return the source services
+     */
+    static SourceServices of(final KarmaSource source) {
+        SourceServices stored = services.get(source);
+        if (stored != null)
+            return stored;
+
+        return services.computeIfAbsent(source, (key) -> new SourceServices());
+    }
+
+    /**
+     * Forget the services of a source, the next request
+     * will create them again
+     *
+     * @param source the source
+     */
+    static void release(final KarmaSource source) {
+        services.remove(source);
+    }
+
+    /**
+     * Get the service instance, creating it if
+     * it does not exist yet
+     *
+     * @param reference the service instance
+     * @param service   the service
+     * @param factory   the service factory
+     * @param <T>       the service type
+     * @return the service instance
+     */
+    private static <T> T lazy(final AtomicReference<T> reference, final Service service, final Supplier<T> factory) {
+        T current = reference.get();
+        if (current == null) {
+            T created = factory.get();
+            allocations[service.ordinal()].incrementAndGet();
+
+            //Another thread may have been faster, keep its instance
+            current = (reference.compareAndSet(null, created) ? created : reference.get());
+        }
+
+        return current;
+    }
+
+    /**
+     * Get the source console
+     *
+     * @param source the source
+     * @return the source console
+     */
+    Console console(final KarmaSource source) {
+        Console current = console.get();
+        if (current != null)
+            return current;
+
+        MethodHandle handle = sender();
+        if (handle == null && !isResolved()) {
+            //The platform is not ready yet, try again on the next call
+            allocations[Service.CONSOLE.ordinal()].incrementAndGet();
+            return new Console(source);
+        }
+
+        return lazy(console, Service.CONSOLE, () -> {
+            if (handle == null)
+                return new Console(source);
+
+            return new Console(source, (msg) -> {
+                try {
+                    handle.invokeExact(StringUtils.toColor(msg));
+                } catch (Throwable ex) {
+                    //The message action is bound to the source, so the console would call it back
+                    System.out.println(StringUtils.toAnyOsColor(msg));
+                }
+            });
+        });
+    }
+
+    /**
+     * Get the source logger
+     *
+     * @param source the source
+     * @return the source logger
+     */
+    KarmaLogger logger(final KarmaSource source) {
+        return lazy(logger, Service.LOGGER, () -> new Logger(source));
+    }
+
+    /**
+     * Get the source async scheduler
+     *
+     * @param source the source
+     * @return the source async scheduler
+     */
+    Scheduler async(final KarmaSource source) {
+        return lazy(async, Service.ASYNC, () -> new AsyncScheduler<>(source));
+    }
+
+    /**
+     * Get the source sync scheduler
+     *
+     * @param source the source
+     * @return the source sync scheduler
+     */
+    Scheduler sync(final KarmaSource source) {
+        return lazy(sync, Service.SYNC, () -> new SyncScheduler<>(source));
+    }
+
+    /**
+     * Get if the platform has been checked
+     *
+     * @return if the platform has been checked
+     */
+    private static synchronized boolean isResolved() {
+        return resolved;
+    }
+
+    /**
+     * Get the platform console sender
+     *
+     * @return the console sender sendMessage(String) method,
+     * or null if there is no console sender
+     */
+    private static synchronized MethodHandle sender() {
+        if (!resolved) {
+            Class<?> bukkit;
+            try {
+                bukkit = Class.forName("org.bukkit.Bukkit");
+            } catch (Throwable ex) {
+                resolved = true;
+                return null;
+            }
+
+            try {
+                //Fixes a problem related with papermc and 'nag authors'
+                Object server = bukkit.getMethod("getServer").invoke(null);
+                if (server == null)
+                    return null;
+
+                Object commandSender = server.getClass().getMethod("getConsoleSender").invoke(server);
+                if (commandSender == null)
+                    return null;
+
+                Method sendMessage = commandSender.getClass().getMethod("sendMessage", String.class);
+                sender = MethodHandles.publicLookup().unreflect(sendMessage)
+                        .bindTo(commandSender)
+                        .asType(MethodType.methodType(void.class, String.class));
+            } catch (Throwable ignored) {
+                //Not a bukkit server, use the default console
+            }
+
+            resolved = true;
+        }
+
+        return sender;
+    }
+
+    /**
+     * Source services
+     */
+    public enum Service {
+        /**
+         * The source console
+         */
+        CONSOLE,
+        /**
+         * The source logger
+         */
+        LOGGER,
+        /**
+         * The source async scheduler
+         */
+        ASYNC,
+        /**
+         * The source sync scheduler
+         */
+        SYNC
+    }
+}
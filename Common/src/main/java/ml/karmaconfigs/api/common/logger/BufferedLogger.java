@@ -114,7 +114,7 @@ public final class BufferedLogger extends KarmaLogger implements Serializable {
 
         header.put(this.source, header_text);
 
-        List<String> stored_log = buffer.getOrDefault(source, new ConcurrentList<>());
+        List<String> stored_log = buffer.computeIfAbsent(source, (key) -> new ConcurrentList<>(ConcurrentList.Strategy.APPEND));
         if (!header_added.getOrDefault(source, false)) {
             stored_log.add(StringUtils.listToString(header.get(this.source), ListTransformation.NONE));
             header_added.put(source, true);
@@ -156,6 +156,17 @@ public final class BufferedLogger extends KarmaLogger implements Serializable {
         return StringUtils.listToString(header.get(source), ListTransformation.NONE);
     }
 
+    /**
+     * Get the calendar used to resolve the
+     * logger file day
+     *
+     * @return the logger calendar
+     */
+    @Override
+    protected LogCalendar getCalendar() {
+        return calendar_type.getOrDefault(source, LogCalendar.GREGORIAN);
+    }
+
     /**
      * Set the logger calendar type
      *
@@ -293,7 +304,7 @@ public final class BufferedLogger extends KarmaLogger implements Serializable {
      * @param replaces the info replaces
      */
     private void logInfo(final Level level, final boolean print, final CharSequence info, final Object... replaces) {
-        List<String> stored_log = buffer.getOrDefault(source, new ConcurrentList<>());
+        List<String> stored_log = buffer.computeIfAbsent(source, (key) -> new ConcurrentList<>(ConcurrentList.Strategy.APPEND));
         String time = fetchTime(calendar_type.getOrDefault(source, LogCalendar.GREGORIAN));
 
         try {
@@ -322,7 +333,7 @@ public final class BufferedLogger extends KarmaLogger implements Serializable {
      * @param error the error
      */
     private void logError(final Level level, final boolean print, final Throwable error) {
-        List<String> stored_log = buffer.getOrDefault(source, new ConcurrentList<>());
+        List<String> stored_log = buffer.computeIfAbsent(source, (key) -> new ConcurrentList<>(ConcurrentList.Strategy.APPEND));
         String time = fetchTime(calendar_type.getOrDefault(source, LogCalendar.GREGORIAN));
 
         try {
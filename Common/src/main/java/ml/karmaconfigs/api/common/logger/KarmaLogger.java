@@ -220,7 +220,8 @@ public abstract class KarmaLogger implements AutoCloseable {
      * switch log file. You can change the log file
      * by overriding {@link KarmaLogger#getLoggerFile(LogExtension)}
      * <p>
-     * DOES NOTHING ON {@link Logger}
+     * On {@link Logger} this only forces the written
+     * entries to the disk
      *
      * @return if the log could be flushed
      */
@@ -238,6 +239,16 @@ public abstract class KarmaLogger implements AutoCloseable {
         loggers.remove(source.name().toLowerCase());
     }
 
+    /**
+     * Get the calendar used to resolve the
+     * logger file day
+     *
+     * @return the logger calendar
+     */
+    protected LogCalendar getCalendar() {
+        return LogCalendar.GREGORIAN;
+    }
+
     /**
      * Get the today's logger file
      *
@@ -245,7 +256,18 @@ public abstract class KarmaLogger implements AutoCloseable {
      * @return the today's logger file
      */
     protected Path getLoggerFile(final LogExtension type) {
-        Calendar calendar = Calendar.getInstance();
+        return getLoggerFile(type, getCalendar());
+    }
+
+    /**
+     * Get the today's logger file
+     *
+     * @param type          the log extension file type
+     * @param calendar_type the calendar type used to resolve the day
+     * @return the today's logger file
+     */
+    protected Path getLoggerFile(final LogExtension type, final LogCalendar calendar_type) {
+        Calendar calendar = calendar_type.getType();
 
         String year = String.valueOf(calendar.get(Calendar.YEAR));
         String month = calendar.getDisplayName(Calendar.MONTH, Calendar.LONG, Locale.getDefault());
@@ -0,0 +1,443 @@
+package ml.karmaconfigs.api.common.logger;
+
+/*
+ * This file is part of KarmaAPI, licensed under the MIT License.
+ *
+ *  Copyright (c) karma (KarmaDev) <karmaconfigs@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+import ml.karmaconfigs.api.common.utils.enums.LogCalendar;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Append only log file stream.
+ * <p>
+ * Entries are collected in a bounded ring and written in a single
+ * write by the first thread that gets the commit lock, so concurrent
+ * log calls share the same write. The log header lives in a fixed
+ * size region at the start of the file, which is patched in place
+ * when the header changes. The file is switched when the day changes
+ * on the stream calendar
+ */
+final class LogStream {
+
+    /**
+     * The header region is always a multiple of this size
+     */
+    private final static int REGION_BLOCK = 1024;
+    /**
+     * Extra space left in the header region for header changes
+     */
+    private final static int REGION_SLACK = 256;
+    /**
+     * The amount of bytes read to find the header region
+     */
+    private final static int PROBE_SIZE = 65536;
+    /**
+     * The ring capacity
+     */
+    private final static int RING_SIZE = 1024;
+    /**
+     * The last header line
+     */
+    private final static byte[] MARKER = "# Beginning of log<br><br>".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * The entries waiting to be written
+     */
+    private final BlockingQueue<String> ring = new ArrayBlockingQueue<>(RING_SIZE);
+    /**
+     * The commit lock
+     */
+    private final ReentrantLock commit = new ReentrantLock();
+
+    /**
+     * The log file provider
+     */
+    private final Supplier<Path> file;
+    /**
+     * The log header provider
+     */
+    private final Supplier<String> header;
+    /**
+     * The calendar used to rotate the file
+     */
+    private final LogCalendar calendar;
+
+    /**
+     * The current file channel
+     */
+    private FileChannel channel;
+    /**
+     * The header region size
+     */
+    private long region;
+    /**
+     * The position where the next entries will be written
+     */
+    private long position;
+    /**
+     * The time at which the file must be rotated
+     */
+    private long rotation;
+
+    /**
+     * Initialize the log stream
+     *
+     * @param f the log file provider
+     * @param h the log header provider
+     * @param c the log calendar
+     */
+    LogStream(final Supplier<Path> f, final Supplier<String> h, final LogCalendar c) {
+        file = f;
+        header = h;
+        calendar = c;
+    }
+
+    /**
+     * Append an entry to the log
+     *
+     * @param entry the log entry
+     * @throws IOException if the entry could not be written
+     */
+    void append(final String entry) throws IOException {
+        while (!ring.offer(entry)) {
+            commit.lock();
+            try {
+                drain();
+            } finally {
+                commit.unlock();
+            }
+        }
+
+        while (!ring.isEmpty() && commit.tryLock()) {
+            try {
+                drain();
+            } finally {
+                commit.unlock();
+            }
+        }
+    }
+
+    /**
+     * Write the current header into the header region
+     *
+     * @throws IOException if the header could not be written
+     */
+    void header() throws IOException {
+        commit.lock();
+        try {
+            if (channel != null)
+                patch(header.get().getBytes(StandardCharsets.UTF_8));
+        } finally {
+            commit.unlock();
+        }
+    }
+
+    /**
+     * Remove all the log entries, keeping
+     * the header
+     *
+     * @throws IOException if the log could not be cleared
+     */
+    void clear() throws IOException {
+        commit.lock();
+        try {
+            ring.clear();
+            open();
+
+            channel.truncate(region);
+            position = region;
+        } finally {
+            commit.unlock();
+        }
+    }
+
+    /**
+     * Force the written entries to the disk
+     *
+     * @throws IOException if the channel could not be forced
+     */
+    void force() throws IOException {
+        commit.lock();
+        try {
+            drain();
+            if (channel != null)
+                channel.force(false);
+        } finally {
+            commit.unlock();
+        }
+    }
+
+    /**
+     * Write the pending entries and close the stream
+     */
+    void close() {
+        commit.lock();
+        try {
+            drain();
+        } catch (Throwable ignored) {
+        } finally {
+            try {
+                if (channel != null)
+                    channel.close();
+            } catch (Throwable ignored) {
+            }
+
+            channel = null;
+            commit.unlock();
+        }
+    }
+
+    /**
+     * Write all the pending entries in a single write. Must
+     * be called while holding the commit lock
+     *
+     * @throws IOException if the entries could not be written
+     */
+    private void drain() throws IOException {
+        if (ring.isEmpty())
+            return;
+
+        open();
+
+        StringBuilder builder = new StringBuilder();
+        String entry;
+        while ((entry = ring.poll()) != null)
+            builder.append(entry);
+
+        ByteBuffer buffer = ByteBuffer.wrap(builder.toString().getBytes(StandardCharsets.UTF_8));
+        position += write(buffer, position);
+    }
+
+    /**
+     * Open the log file, or switch it if the day
+     * has changed
+     *
+     * @throws IOException if the file could not be opened
+     */
+    private void open() throws IOException {
+        if (channel != null && System.currentTimeMillis() < rotation)
+            return;
+
+        if (channel != null)
+            channel.close();
+
+        Path log = file.get();
+        channel = FileChannel.open(log, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        Calendar next = calendar.getType();
+        next.add(Calendar.DATE, 1);
+        next.set(Calendar.HOUR_OF_DAY, 0);
+        next.set(Calendar.MINUTE, 0);
+        next.set(Calendar.SECOND, 0);
+        next.set(Calendar.MILLISECOND, 0);
+        rotation = next.getTimeInMillis();
+
+        long size = channel.size();
+        byte[] data = header.get().getBytes(StandardCharsets.UTF_8);
+        if (size == 0) {
+            rewrite(data, ByteBuffer.allocate(0));
+            return;
+        }
+
+        ByteBuffer content = ByteBuffer.allocate((int) Math.min(size, PROBE_SIZE));
+        read(content, 0);
+
+        int end = regionEnd(content.array());
+        if (end != -1) {
+            region = end;
+            position = size;
+
+            patch(data);
+        } else {
+            content = ByteBuffer.allocate((int) size);
+            read(content, 0);
+            byte[] raw = content.array();
+
+            //The file has been written by the legacy logger, so we move its entries after a header region
+            int marker = indexOf(raw, MARKER);
+            int start = 0;
+            if (marker != -1) {
+                start = marker + MARKER.length;
+                while (start < raw.length && (raw[start] == '\n' || raw[start] == '\r'))
+                    start++;
+            }
+
+            int length = raw.length - start;
+            ByteBuffer body = ByteBuffer.allocate(length + 1);
+            body.put(raw, start, length);
+            if (length > 0 && raw[raw.length - 1] != '\n')
+                body.put((byte) '\n');
+            body.flip();
+
+            rewrite(data, body);
+        }
+    }
+
+    /**
+     * Write the header into the header region, the whole
+     * file is rewritten only if the header does not fit
+     *
+     * @param data the header
+     * @throws IOException if the header could not be written
+     */
+    private void patch(final byte[] data) throws IOException {
+        if (data.length < region) {
+            write(ByteBuffer.wrap(pad(data, region)), 0);
+        } else {
+            ByteBuffer body = ByteBuffer.allocate((int) (position - region));
+            read(body, region);
+            body.flip();
+
+            rewrite(data, body);
+        }
+    }
+
+    /**
+     * Rewrite the whole file with a new header region
+     *
+     * @param data the header
+     * @param body the log entries
+     * @throws IOException if the file could not be written
+     */
+    private void rewrite(final byte[] data, final ByteBuffer body) throws IOException {
+        long size = ((data.length + REGION_SLACK) / REGION_BLOCK + 1) * (long) REGION_BLOCK;
+
+        int written = body.remaining();
+        channel.truncate(0);
+        write(ByteBuffer.wrap(pad(data, size)), 0);
+        write(body, size);
+
+        region = size;
+        position = size + written;
+    }
+
+    /**
+     * Write the buffer at the specified position
+     *
+     * @param buffer   the buffer to write
+     * @param position the file position
+     * @return the written bytes
+     * @throws IOException if the buffer could not be written
+     */
+    private int write(final ByteBuffer buffer, final long position) throws IOException {
+        int written = 0;
+        while (buffer.hasRemaining())
+            written += channel.write(buffer, position + written);
+
+        return written;
+    }
+
+    /**
+     * Fill the buffer with the file content at the
+     * specified position
+     *
+     * @param buffer   the buffer to fill
+     * @param position the file position
+     * @throws IOException if the file could not be read
+     */
+    private void read(final ByteBuffer buffer, final long position) throws IOException {
+        int read = 0;
+        while (buffer.hasRemaining()) {
+            int count = channel.read(buffer, position + read);
+            if (count == -1)
+                break;
+
+            read += count;
+        }
+    }
+
+    /**
+     * Pad the header so it fills the whole region. The
+     * padding is a line of spaces
+     *
+     * @param data the header
+     * @param size the region size
+     * @return the header region
+     */
+    private static byte[] pad(final byte[] data, final long size) {
+        byte[] padded = Arrays.copyOf(data, (int) size);
+        Arrays.fill(padded, data.length, padded.length - 1, (byte) ' ');
+        padded[padded.length - 1] = '\n';
+
+        return padded;
+    }
+
+    /**
+     * Get where the header region ends
+     *
+     * @param raw the file content
+     * @return the header region end or -1 if the
+     * file has no header region
+     */
+    private static int regionEnd(final byte[] raw) {
+        int marker = indexOf(raw, MARKER);
+        if (marker == -1)
+            return -1;
+
+        int end = -1;
+        for (int index = marker + MARKER.length; index < raw.length; index++) {
+            byte current = raw[index];
+            if (current != ' ' && current != '\n')
+                break;
+
+            if (current == '\n' && (index + 1) % REGION_BLOCK == 0)
+                end = index + 1;
+        }
+
+        return end;
+    }
+
+    /**
+     * Get the index of the data
+     *
+     * @param raw  the data container
+     * @param data the data to search
+     * @return the data index
+     */
+    private static int indexOf(final byte[] raw, final byte[] data) {
+        outer:
+        for (int i = 0; i <= raw.length - data.length; i++) {
+            for (int j = 0; j < data.length; j++) {
+                if (raw[i + j] != data[j])
+                    continue outer;
+            }
+
+            return i;
+        }
+
+        return -1;
+    }
+}
@@ -35,15 +35,15 @@ import ml.karmaconfigs.api.common.string.ListTransformation;
 import ml.karmaconfigs.api.common.string.StringUtils;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.BufferedWriter;
+import java.io.IOException;
 import java.io.Serializable;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Karma logger
@@ -64,6 +64,16 @@ public final class Logger extends KarmaLogger implements Serializable {
     private static final Map<KarmaSource, List<String>> header = new ConcurrentHashMap<>();
 
     private static final Map<KarmaSource, Integer> header_size = new ConcurrentHashMap<>();
+    /**
+     * A map that contains source => log stream
+     */
+    private static final Map<KarmaSource, LogStream> streams = new ConcurrentHashMap<>();
+    /**
+     * A map that contains source => log stream lock. The stream is
+     * used under the read lock and replaced under the write lock, so
+     * a stream is never used after it has been closed
+     */
+    private static final Map<KarmaSource, ReadWriteLock> stream_locks = new ConcurrentHashMap<>();
     /**
      * A map that contains source => log scheduled for cleanup
      */
@@ -159,6 +169,7 @@ public final class Logger extends KarmaLogger implements Serializable {
         List<String> lines = header.get(source);
         lines.add(lines.size() - 1, headerLine);
         header.put(source, lines);
+        updateHeader();
 
         return this;
     }
@@ -177,6 +188,8 @@ public final class Logger extends KarmaLogger implements Serializable {
         lines.remove(real_line);
 
         header.put(source, lines);
+        updateHeader();
+
         return this;
     }
 
@@ -190,6 +203,17 @@ public final class Logger extends KarmaLogger implements Serializable {
         return StringUtils.listToString(header.get(source), ListTransformation.NONE);
     }
 
+    /**
+     * Get the calendar used to resolve the
+     * logger file day
+     *
+     * @return the logger calendar
+     */
+    @Override
+    protected LogCalendar getCalendar() {
+        return calendar_type.getOrDefault(source, LogCalendar.GREGORIAN);
+    }
+
     /**
      * Set the logger calendar type
      *
@@ -199,6 +223,8 @@ public final class Logger extends KarmaLogger implements Serializable {
     @SuppressWarnings("unused")
     public Logger calendar(LogCalendar calendar) {
         calendar_type.put(source, calendar);
+        closeStream();
+
         return this;
     }
 
@@ -211,6 +237,8 @@ public final class Logger extends KarmaLogger implements Serializable {
     @SuppressWarnings("unused")
     public Logger extension(LogExtension extension) {
         ext_type.put(source, extension);
+        closeStream();
+
         return this;
     }
 
@@ -329,32 +357,10 @@ public final class Logger extends KarmaLogger implements Serializable {
     private void logInfo(final Level level, final boolean print, final CharSequence info, final Object... replaces) {
         if (!locked.getOrDefault(source, false)) {
             LogExtension extension = ext_type.getOrDefault(source, LogExtension.MARKDOWN);
-
-            Path log = getLoggerFile(extension);
             String time = fetchTime(calendar_type.getOrDefault(source, LogCalendar.GREGORIAN));
 
-            if (extension.equals(LogExtension.MARKDOWN)) {
-                String[] timeData = time.split(":");
-
-                StringBuilder formattedTime = new StringBuilder();
-                for (int i = 0; i < timeData.length; i++) {
-                    String unit = timeData[i];
-                    formattedTime.append(unit).append((i != timeData.length - 1 ? ":" : ""));
-                }
-
-                time = formattedTime.toString();
-            }
-
             try {
-                List<String> lines = removeHeader(Files.readAllLines(log));
-                BufferedWriter writer = Files.newBufferedWriter(log, StandardCharsets.UTF_8);
-                writer.write(StringUtils.listToString(header.get(source), ListTransformation.NONE));
-                for (String line : lines)
-                    writer.write(line + "\n");
-
-                writer.write(StringUtils.formatString("[ {0} - {1} ] {2}<br>", (extension.equals(LogExtension.MARKDOWN) ? level.getMarkdown() : level.name()), time, StringUtils.formatString(info, replaces)));
-                writer.flush();
-                writer.close();
+                append(StringUtils.formatString("[ {0} - {1} ] {2}<br>\n", (extension.equals(LogExtension.MARKDOWN) ? level.getMarkdown() : level.name()), time, StringUtils.formatString(info, replaces)));
             } catch (Throwable ex) {
                 ex.printStackTrace();
             } finally {
@@ -375,37 +381,19 @@ public final class Logger extends KarmaLogger implements Serializable {
     private void logError(final Level level, final boolean print, final Throwable error) {
         if (!locked.getOrDefault(source, false)) {
             LogExtension extension = ext_type.getOrDefault(source, LogExtension.MARKDOWN);
-
-            Path log = getLoggerFile(extension);
             String time = fetchTime(calendar_type.getOrDefault(source, LogCalendar.GREGORIAN));
 
-            if (extension.equals(LogExtension.MARKDOWN)) {
-                String[] timeData = time.split(":");
-
-                StringBuilder formattedTime = new StringBuilder();
-                for (int i = 0; i < timeData.length; i++) {
-                    String unit = timeData[i];
-                    formattedTime.append(unit).append((i != timeData.length - 1 ? ":" : ""));
-                }
-
-                time = formattedTime.toString();
-            }
-
             try {
-                List<String> lines = removeHeader(Files.readAllLines(log));
-                BufferedWriter writer = Files.newBufferedWriter(log, StandardCharsets.UTF_8);
-                writer.write(StringUtils.listToString(header.get(source), ListTransformation.NONE));
-                for (String line : lines)
-                    writer.write(line + "\n");
-
                 Throwable prefix = new Throwable(error);
-                writer.write(StringUtils.formatString("[ {0} - {1} ] {2}\n", (extension.equals(LogExtension.MARKDOWN) ? level.getMarkdown() : level.name()), time, prefix.fillInStackTrace()));
-                writer.write("```java\n");
+
+                StringBuilder builder = new StringBuilder();
+                builder.append(StringUtils.formatString("[ {0} - {1} ] {2}\n", (extension.equals(LogExtension.MARKDOWN) ? level.getMarkdown() : level.name()), time, prefix.fillInStackTrace()));
+                builder.append("```java\n");
                 for (StackTraceElement element : error.getStackTrace())
-                    writer.write(element + "\n");
-                writer.write("```");
-                writer.flush();
-                writer.close();
+                    builder.append(element).append("\n");
+                builder.append("```\n");
+
+                append(builder.toString());
             } catch (Throwable ex) {
                 ex.printStackTrace();
             } finally {
@@ -430,18 +418,15 @@ public final class Logger extends KarmaLogger implements Serializable {
     public synchronized void clearLog() throws IllegalStateException {
         locked.put(source, true);
         source.async().queue("clear_log", () -> {
-            Path logFile = getLoggerFile(ext_type.getOrDefault(source, LogExtension.MARKDOWN));
-
+            Lock lock = lock().readLock();
+            lock.lock();
             try {
-                BufferedWriter writer = Files.newBufferedWriter(logFile, StandardCharsets.UTF_8);
-                writer.write("");
-
-                writer.flush();
-                writer.close();
+                stream().clear();
             } catch (Throwable ex) {
                 ex.printStackTrace();
                 throw new IllegalStateException("Failed to clear log file ");
             } finally {
+                lock.unlock();
                 locked.remove(source);
             }
         });
@@ -451,42 +436,98 @@ public final class Logger extends KarmaLogger implements Serializable {
      * Flush the log data if the
      * log auto flush is turned off
      * <p>
-     * WARNING: This will replace all the log file
-     * content, this should be used only for applications
-     * that runs once -> generate a log file and then
-     * switch log file. You can change the log file
-     * by overriding {@link KarmaLogger#getLoggerFile(LogExtension)}
-     * <p>
-     * DOES NOTHING ON {@link Logger}
+     * On {@link Logger} entries are written as soon as they
+     * are logged, so this only forces them to the disk
      *
      * @return if the log could be flushed
      */
     @Override
     public boolean flush() {
+        Lock lock = lock().readLock();
+        lock.lock();
+        try {
+            LogStream stream = streams.get(source);
+            if (stream != null)
+                stream.force();
+        } catch (Throwable ex) {
+            return false;
+        } finally {
+            lock.unlock();
+        }
+
         return true;
     }
 
     /**
-     * Remove the log file header
+     * Get the source log stream
      *
-     * @param lines the file lines
-     * @return the log file lines without header
+     * @return the source log stream
      */
-    private List<String> removeHeader(final List<String> lines) {
-        List<String> copy = new ArrayList<>();
-        boolean begone = false;
-        for (String line : lines) {
-            if (begone) {
-                copy.add(line);
-                continue;
-            }
-            if (line.startsWith("# Beginning of log<br><br>"))
-                begone = true;
+    private LogStream stream() {
+        return streams.computeIfAbsent(source, (key) -> {
+            LogExtension extension = ext_type.getOrDefault(source, LogExtension.MARKDOWN);
+            LogCalendar calendar = getCalendar();
+
+            return new LogStream(() -> getLoggerFile(extension, calendar), this::getHeader, calendar);
+        });
+    }
+
+    /**
+     * Get the source log stream lock
+     *
+     * @return the source log stream lock
+     */
+    private ReadWriteLock lock() {
+        return stream_locks.computeIfAbsent(source, (key) -> new ReentrantReadWriteLock());
+    }
+
+    /**
+     * Append an entry to the source log stream
+     *
+     * @param entry the log entry
+     * @throws IOException if the entry could not be written
+     */
+    private void append(final String entry) throws IOException {
+        Lock lock = lock().readLock();
+        lock.lock();
+        try {
+            stream().append(entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Write the current header into the
+     * log file
+     */
+    private void updateHeader() {
+        Lock lock = lock().readLock();
+        lock.lock();
+        try {
+            LogStream stream = streams.get(source);
+            if (stream != null)
+                stream.header();
+        } catch (Throwable ex) {
+            ex.printStackTrace();
+        } finally {
+            lock.unlock();
         }
-        if (copy.size() > 1 &&
-                StringUtils.isNullOrEmpty(copy.get(0)) && StringUtils.isNullOrEmpty(copy.get(1)))
-            copy.remove(0);
+    }
 
-        return copy;
+    /**
+     * Close the source log stream, so the next
+     * entry opens it with the current options
+     */
+    private void closeStream() {
+        Lock lock = lock().writeLock();
+        lock.lock();
+        try {
+            LogStream stream = streams.remove(source);
+            if (stream != null)
+                stream.close();
+        } finally {
+            lock.unlock();
+        }
     }
 }
@@ -78,10 +78,7 @@ public final class WebLog {
                     if (util != null) {
                         KarmaLogger logger = source.logger();
                         try {
-                            Method getLoggerFile = KarmaLogger.class.getDeclaredMethod("getLoggerFile", LogExtension.class);
-                            getLoggerFile.setAccessible(true);
-                            Path file = (Path) getLoggerFile.invoke(logger, LogExtension.MARKDOWN);
-                            getLoggerFile.setAccessible(false);
+                            Path file = getLoggerFile(logger);
 
                             List<String> lines = PathUtilities.readAllLines(file);
                             String singleton = StringUtils.listToString(lines, ListTransformation.NEW_LINES).replace("<br>", "");
@@ -132,10 +129,7 @@ public final class WebLog {
                     if (util != null) {
                         KarmaLogger logger = source.logger();
                         try {
-                            Method getLoggerFile = KarmaLogger.class.getDeclaredMethod("getLoggerFile", LogExtension.class);
-                            getLoggerFile.setAccessible(true);
-                            Path file = (Path) getLoggerFile.invoke(logger, LogExtension.MARKDOWN);
-                            getLoggerFile.setAccessible(false);
+                            Path file = getLoggerFile(logger);
 
                             List<String> lines = PathUtilities.readAllLines(file);
                             String singleton = StringUtils.listToString(lines, ListTransformation.NEW_LINES).replace("<br>", "").replace("\n", "\r");
@@ -218,4 +212,22 @@ public final class WebLog {
             APISource.getOriginal(false).console().send("Something went wrong while uploading log for source {0}.", Level.GRAVE, source.name());
         }
     }
+
+    /**
+     * Get the today's logger file of a logger, as
+     * the logger itself resolves it
+     *
+     * @param logger the logger
+     * @return the today's logger file
+     * @throws Exception if the logger file could not be resolved
+     */
+    private static Path getLoggerFile(final KarmaLogger logger) throws Exception {
+        Method getLoggerFile = KarmaLogger.class.getDeclaredMethod("getLoggerFile", LogExtension.class);
+        getLoggerFile.setAccessible(true);
+        try {
+            return (Path) getLoggerFile.invoke(logger, LogExtension.MARKDOWN);
+        } finally {
+            getLoggerFile.setAccessible(false);
+        }
+    }
 }
@@ -26,24 +26,28 @@ package ml.karmaconfigs.api.common.placeholder;
  */
 
 import ml.karmaconfigs.api.common.annotations.Unstable;
+import ml.karmaconfigs.api.common.data.cache.LruMap;
 import ml.karmaconfigs.api.common.karma.KarmaAPI;
 import ml.karmaconfigs.api.common.karma.source.KarmaSource;
 import ml.karmaconfigs.api.common.placeholder.util.Placeholder;
 import ml.karmaconfigs.api.common.placeholder.util.PlaceholderEngine;
-import ml.karmaconfigs.api.common.string.StringUtils;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Global KarmaAPI placeholder engine
  */
 public final class GlobalPlaceholderEngine extends PlaceholderEngine {
 
-    private final static Map<KarmaSource, Set<Placeholder<?>>> sourcePlaceholders = new ConcurrentHashMap<>();
+    /**
+     * Maximum amount of compiled messages kept per source
+     */
+    private final static int TEMPLATE_CACHE = 512;
+
+    private final static Map<KarmaSource, Map<String, Placeholder<?>>> sourcePlaceholders = new ConcurrentHashMap<>();
+    private final static Map<KarmaSource, Map<String, PlaceholderTemplate>> templates = new ConcurrentHashMap<>();
     private final static Map<KarmaSource, Character> open = new ConcurrentHashMap<>();
     private final static Map<KarmaSource, Character> close = new ConcurrentHashMap<>();
 
@@ -58,17 +62,40 @@ public final class GlobalPlaceholderEngine extends PlaceholderEngine {
      */
     public GlobalPlaceholderEngine(final KarmaSource owner) {
         source = owner;
+        placeholders();
+    }
 
-        Set<Placeholder<?>> registered = sourcePlaceholders.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-        SimplePlaceholder<String> java = new SimplePlaceholder<>("karma java", KarmaAPI.getCompilerVersion());
-        SimplePlaceholder<String> version = new SimplePlaceholder<>("karma version", KarmaAPI.getVersion());
-        SimplePlaceholder<String> build = new SimplePlaceholder<>("karma build", KarmaAPI.getBuildDate());
+    /**
+     * Get the placeholders of the source, by key. The KarmaAPI
+     * placeholders are registered the first time the source
+     * placeholders are created
+     *
+     * @return the source placeholders
+     */
+    private Map<String, Placeholder<?>> placeholders() {
+        return sourcePlaceholders.computeIfAbsent(source, (key) -> {
+            Map<String, Placeholder<?>> registered = new ConcurrentHashMap<>();
 
-        registered.add(java);
-        registered.add(version);
-        registered.add(build);
+            SimplePlaceholder<String> java = new SimplePlaceholder<>("karma java", KarmaAPI.getCompilerVersion());
+            SimplePlaceholder<String> version = new SimplePlaceholder<>("karma version", KarmaAPI.getVersion());
+            SimplePlaceholder<String> build = new SimplePlaceholder<>("karma build", KarmaAPI.getBuildDate());
 
-        sourcePlaceholders.put(source, registered);
+            registered.put(java.getKey(), java);
+            registered.put(version.getKey(), version);
+            registered.put(build.getKey(), build);
+
+            return registered;
+        });
+    }
+
+    /**
+     * Get the compiled messages of the source. The least
+     * recently used message is dropped once the cache is full
+     *
+     * @return the source compiled messages
+     */
+    private Map<String, PlaceholderTemplate> templates() {
+        return templates.computeIfAbsent(source, (key) -> Collections.synchronizedMap(new LruMap<>(TEMPLATE_CACHE)));
     }
 
     /**
@@ -80,6 +107,7 @@ public final class GlobalPlaceholderEngine extends PlaceholderEngine {
     public void setOpenIdentifier(final char identifier) {
         if (!Character.isLetterOrDigit(identifier) && !Character.isSpaceChar(identifier)) {
             open.put(source, identifier);
+            templates().clear();
         }
     }
 
@@ -92,6 +120,7 @@ public final class GlobalPlaceholderEngine extends PlaceholderEngine {
     public void setCloseIdentifier(final char identifier) {
         if (!Character.isLetterOrDigit(identifier) && !Character.isSpaceChar(identifier)) {
             close.put(source, identifier);
+            templates().clear();
         }
     }
 
@@ -115,19 +144,13 @@ public final class GlobalPlaceholderEngine extends PlaceholderEngine {
      */
     @Override
     public void register(Placeholder<?>... placeholders) {
-        Set<Placeholder<?>> registered = sourcePlaceholders.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-        Set<String> keys = new HashSet<>();
-        registered.forEach(placeholder -> keys.add(placeholder.getKey()));
+        Map<String, Placeholder<?>> registered = placeholders();
 
         for (Placeholder<?> placeholder : placeholders) {
             if (placeholder != null) {
-                if (!keys.contains(placeholder.getKey())) {
-                    registered.add(placeholder);
-                }
+                registered.putIfAbsent(placeholder.getKey(), placeholder);
             }
         }
-
-        sourcePlaceholders.put(source, registered);
     }
 
     /**
@@ -139,11 +162,13 @@ public final class GlobalPlaceholderEngine extends PlaceholderEngine {
     @Unstable(reason = "Using this method may register null placeholders which can cause more issues in the future")
     public void forceRegister(final Placeholder<?>... placeholders) {
         if (!protect.contains(source)) {
-            Set<Placeholder<?>> registered = sourcePlaceholders.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
+            Map<String, Placeholder<?>> registered = placeholders();
 
-            registered.addAll(Arrays.asList(placeholders));
-
-            sourcePlaceholders.put(source, registered);
+            for (Placeholder<?> placeholder : placeholders) {
+                if (placeholder != null) {
+                    registered.put(placeholder.getKey(), placeholder);
+                }
+            }
         }
     }
 
@@ -155,18 +180,13 @@ public final class GlobalPlaceholderEngine extends PlaceholderEngine {
     @Override
     public void unregister(final String... placeholders) {
         if (!protect.contains(source)) {
-            Set<Placeholder<?>> registered = sourcePlaceholders.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-            Set<String> unregister = new HashSet<>(Arrays.asList(placeholders));
+            Map<String, Placeholder<?>> registered = placeholders();
 
-            registered.forEach(placeholder -> {
+            for (String placeholder : placeholders) {
                 if (placeholder != null) {
-                    if (unregister.contains(placeholder.getKey())) {
-                        registered.remove(placeholder);
-                    }
+                    registered.remove(placeholder);
                 }
-            });
-
-            sourcePlaceholders.put(source, registered);
+            }
         }
     }
 
@@ -178,12 +198,13 @@ public final class GlobalPlaceholderEngine extends PlaceholderEngine {
     @Override
     public void unregister(final Placeholder<?>... placeholders) {
         if (!protect.contains(source)) {
-            Set<Placeholder<?>> registered = sourcePlaceholders.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-            Set<Placeholder<?>> unregister = new HashSet<>(Arrays.asList(placeholders));
-
-            registered.removeAll(unregister);
+            Map<String, Placeholder<?>> registered = placeholders();
 
-            sourcePlaceholders.put(source, registered);
+            for (Placeholder<?> placeholder : placeholders) {
+                if (placeholder != null) {
+                    registered.remove(placeholder.getKey(), placeholder);
+                }
+            }
         }
     }
 
@@ -197,19 +218,12 @@ public final class GlobalPlaceholderEngine extends PlaceholderEngine {
     @Unstable(reason = "Return method may differ from stored method")
     public @Nullable
     @SuppressWarnings("unchecked") <T> Placeholder<T> getPlaceholder(final String key) {
-        Set<Placeholder<?>> registered = sourcePlaceholders.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-
-        Placeholder<T> result = null;
-        for (Placeholder<?> placeholder : registered) {
-            if (placeholder.getKey().equals(key)) {
-                try {
-                    result = (Placeholder<T>) placeholder;
-                } catch (Throwable ignored) {
-                }
-            }
+        try {
+            return (Placeholder<T>) placeholders().get(key);
+        } catch (Throwable ignored) {
         }
 
-        return result;
+        return null;
     }
 
     /**
@@ -221,62 +235,16 @@ public final class GlobalPlaceholderEngine extends PlaceholderEngine {
      */
     @Override
     public String parse(final String message, final Object... containers) {
-        //Always escape the open character
-        String startChar = StringUtils.escapeString(String.valueOf(open.getOrDefault(source, '%')));
-        String closeChar = String.valueOf(close.getOrDefault(source, '%'));
-
-        //KarmaAPI will use the custom start and open characters ( {} ) with the custom source characters
-        Pattern pattern = Pattern.compile("(" + startChar + ".[^" + closeChar + "]*" + closeChar + ")|(\\{.[^}]*})");
-        Map<String, String> replaces = new ConcurrentHashMap<>();
-
-        Matcher matcher = pattern.matcher(message);
-        while (matcher.find()) {
-            int start = matcher.start();
-            int end = matcher.end();
-
-            String name = message.substring(start + 1, end - 1);
-            String key = message.substring(start, end);
-
-            replaces.put(name, key);
-        }
-        if (replaces.isEmpty() && matcher.matches()) {
-            int start = matcher.start();
-            int end = matcher.end();
-
-            String name = message.substring(start + 1, end - 1);
-            String key = message.substring(start, end);
+        Map<String, PlaceholderTemplate> compiled = templates();
 
-            replaces.put(name, key);
-        }
-
-        Set<Placeholder<?>> registered = sourcePlaceholders.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-
-        String finalMessage = message;
-        for (Placeholder<?> placeholder : registered) {
-            if (placeholder != null) {
-                String placeholderName = placeholder.getKey();
-                String placeholderKey = replaces.getOrDefault(placeholderName, null);
-
-                if (placeholderKey != null) {
-                    if (containers.length > 0) {
-                        for (Object container : containers) {
-                            if (container != null) {
-                                if (placeholder.getType().isAssignableFrom(container.getClass())) {
-                                    finalMessage = finalMessage.replace(placeholderKey, String.valueOf(placeholder.getValue(container)));
-                                }
-                            }
-                        }
-                    } else {
-                        try {
-                            finalMessage = finalMessage.replace(placeholderKey, String.valueOf(placeholder.getValue(null)));
-                        } catch (Throwable ignored) {
-                        }
-                    }
-                }
-            }
+        PlaceholderTemplate template = compiled.get(message);
+        if (template == null) {
+            //KarmaAPI will use the custom start and open characters ( {} ) with the custom source characters
+            template = PlaceholderTemplate.compile(message, open.getOrDefault(source, '%'), close.getOrDefault(source, '%'));
+            compiled.put(message, template);
         }
 
-        return finalMessage;
+        return template.render(placeholders(), containers);
     }
 
     /**
@@ -315,6 +283,29 @@ public final class GlobalPlaceholderEngine extends PlaceholderEngine {
      */
     @Override
     public Set<Placeholder<?>> getKeys() {
-        return sourcePlaceholders.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
+        return new HashSet<>(placeholders().values());
+    }
+
+    /**
+     * Get if the object is the same engine. Global engines
+     * of the same source share all their data, so they are
+     * the same engine
+     *
+     * @param o the object
+     * @return if the object is the same engine
+     */
+    @Override
+    public boolean equals(final Object o) {
+        return o instanceof GlobalPlaceholderEngine && ((GlobalPlaceholderEngine) o).source.equals(source);
+    }
+
+    /**
+     * Get the engine hash code
+     *
+     * @return the engine hash code
+     */
+    @Override
+    public int hashCode() {
+        return source.hashCode();
     }
 }
@@ -0,0 +1,170 @@
+package ml.karmaconfigs.api.common.placeholder;
+
+/*
+ * This file is part of KarmaAPI, licensed under the MIT License.
+ *
+ *  Copyright (c) karma (KarmaDev) <karmaconfigs@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+import ml.karmaconfigs.api.common.placeholder.util.Placeholder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compiled placeholder message. The message is split once
+ * in literal segments and placeholder slots, so rendering it
+ * is a single pass over the segments
+ */
+final class PlaceholderTemplate {
+
+    private final String message;
+    private final String[] literals;
+    private final String[] names;
+    private final String[] tokens;
+
+    /**
+     * Initialize the template
+     *
+     * @param msg the template message
+     * @param lit the literal segments, one more than the slots
+     * @param nms the slot placeholder names
+     * @param tks the slot raw tokens
+     */
+    private PlaceholderTemplate(final String msg, final String[] lit, final String[] nms, final String[] tks) {
+        message = msg;
+        literals = lit;
+        names = nms;
+        tokens = tks;
+    }
+
+    /**
+     * Compile a message. Placeholders are the text between the
+     * open and close identifiers (at least one character long), or
+     * between curly braces, which KarmaAPI always accepts
+     *
+     * @param message the message
+     * @param open    the open identifier
+     * @param close   the close identifier
+     * @return the compiled message
+     */
+    static PlaceholderTemplate compile(final String message, final char open, final char close) {
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        List<String> tokens = new ArrayList<>();
+
+        int literal = 0;
+        int index = 0;
+        int length = message.length();
+        while (index < length) {
+            char character = message.charAt(index);
+
+            int end = -1;
+            if (index + 2 < length && !lineBreak(message.charAt(index + 1))) {
+                if (character == open)
+                    end = message.indexOf(close, index + 2);
+                if (end == -1 && character == '{')
+                    end = message.indexOf('}', index + 2);
+            }
+
+            if (end == -1) {
+                index++;
+                continue;
+            }
+
+            literals.add(message.substring(literal, index));
+            names.add(message.substring(index + 1, end));
+            tokens.add(message.substring(index, end + 1));
+
+            index = end + 1;
+            literal = index;
+        }
+        literals.add(message.substring(literal));
+
+        return new PlaceholderTemplate(message,
+                literals.toArray(new String[0]),
+                names.toArray(new String[0]),
+                tokens.toArray(new String[0]));
+    }
+
+    /**
+     * Get if the character breaks a line. Placeholder names
+     * can't start with a line break
+     *
+     * @param character the character
+     * @return if the character is a line break
+     */
+    private static boolean lineBreak(final char character) {
+        return character == '\n' || character == '\r' || character == '\u0085' || character == '\u2028' || character == '\u2029';
+    }
+
+    /**
+     * Render the template. Slots without a registered placeholder,
+     * or without a value for the containers, keep their raw token
+     *
+     * @param placeholders the registered placeholders
+     * @param containers   the placeholder containers
+     * @return the rendered message
+     */
+    String render(final Map<String, Placeholder<?>> placeholders, final Object... containers) {
+        if (names.length == 0)
+            return message;
+
+        StringBuilder builder = new StringBuilder(message.length() + 16 * names.length);
+        for (int i = 0; i < names.length; i++) {
+            builder.append(literals[i]);
+
+            Placeholder<?> placeholder = placeholders.get(names[i]);
+            String value = (placeholder != null ? value(placeholder, containers) : null);
+            builder.append(value != null ? value : tokens[i]);
+        }
+        builder.append(literals[names.length]);
+
+        return builder.toString();
+    }
+
+    /**
+     * Get the value of a placeholder
+     *
+     * @param placeholder the placeholder
+     * @param containers  the placeholder containers
+     * @return the placeholder value for the first container
+     * it applies to, or null if none
+     */
+    private static String value(final Placeholder<?> placeholder, final Object... containers) {
+        if (containers.length > 0) {
+            for (Object container : containers) {
+                if (container != null && placeholder.getType().isAssignableFrom(container.getClass()))
+                    return String.valueOf(placeholder.getValue(container));
+            }
+
+            return null;
+        }
+
+        try {
+            return String.valueOf(placeholder.getValue(null));
+        } catch (Throwable ignored) {
+            return null;
+        }
+    }
+}
@@ -30,6 +30,7 @@ import javax.crypto.SecretKey;
 import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.PBEKeySpec;
 import javax.crypto.spec.PBEParameterSpec;
+import java.security.GeneralSecurityException;
 import java.security.SecureRandom;
 
 /**
@@ -37,6 +38,17 @@ import java.security.SecureRandom;
  */
 public class PBECryptoAPI {
 
+    private final static String ALGORITHM = "PBEWithMD5AndDES";
+
+    /**
+     * Key factories and ciphers are not thread safe, but
+     * looking them up is expensive, so each thread keeps its own
+     */
+    private final static ThreadLocal<SecretKeyFactory> factories = new ThreadLocal<>();
+    private final static ThreadLocal<Cipher> ciphers = new ThreadLocal<>();
+
+    private final static SecureRandom random = new SecureRandom();
+
     /**
      * The crypt password
      */
@@ -64,11 +76,8 @@ public class PBECryptoAPI {
      * @return a sal token
      */
     public final byte[] generateSALT() {
-        SecureRandom r = new SecureRandom();
-        byte[] newSeed = r.generateSeed(8);
-        r.setSeed(newSeed);
         byte[] saltValue = new byte[8];
-        r.nextBytes(saltValue);
+        random.nextBytes(saltValue);
         return saltValue;
     }
 
@@ -80,13 +89,7 @@ public class PBECryptoAPI {
      * @throws Exception if something goes wrong
      */
     public final byte[] encrypt(final byte[] salt) throws Exception {
-        SecretKeyFactory keyFactory = SecretKeyFactory.getInstance("PBEWithMD5AndDES");
-        PBEParameterSpec pbeParamSpec = new PBEParameterSpec(salt, 20);
-        PBEKeySpec pbeKeySpec = new PBEKeySpec(this.password.toCharArray());
-        SecretKey key = keyFactory.generateSecret(pbeKeySpec);
-        Cipher pbeCipher = Cipher.getInstance("PBEWithMD5AndDES");
-        pbeCipher.init(1, key, pbeParamSpec);
-        return pbeCipher.doFinal(this.content);
+        return run(Cipher.ENCRYPT_MODE, salt);
     }
 
     /**
@@ -97,12 +100,59 @@ public class PBECryptoAPI {
      * @throws Exception if something goes wrong
      */
     public final byte[] decrypt(final byte[] salt) throws Exception {
-        SecretKeyFactory keyFactory = SecretKeyFactory.getInstance("PBEWithMD5AndDES");
+        return run(Cipher.DECRYPT_MODE, salt);
+    }
+
+    /**
+     * Run the cipher over the content
+     *
+     * @param mode the cipher mode
+     * @param salt the salt token
+     * @return the cipher result
+     * @throws Exception if something goes wrong
+     */
+    private byte[] run(final int mode, final byte[] salt) throws Exception {
         PBEParameterSpec pbeParamSpec = new PBEParameterSpec(salt, 20);
         PBEKeySpec pbeKeySpec = new PBEKeySpec(this.password.toCharArray());
-        SecretKey key = keyFactory.generateSecret(pbeKeySpec);
-        Cipher pbeCipher = Cipher.getInstance("PBEWithMD5AndDES");
-        pbeCipher.init(2, key, pbeParamSpec);
-        return pbeCipher.doFinal(this.content);
+        try {
+            SecretKey key = factory().generateSecret(pbeKeySpec);
+            Cipher pbeCipher = cipher();
+            pbeCipher.init(mode, key, pbeParamSpec);
+            return pbeCipher.doFinal(this.content);
+        } finally {
+            pbeKeySpec.clearPassword();
+        }
+    }
+
+    /**
+     * Get the key factory of the current thread
+     *
+     * @return the thread key factory
+     * @throws GeneralSecurityException if the algorithm is not available
+     */
+    private static SecretKeyFactory factory() throws GeneralSecurityException {
+        SecretKeyFactory factory = factories.get();
+        if (factory == null) {
+            factory = SecretKeyFactory.getInstance(ALGORITHM);
+            factories.set(factory);
+        }
+
+        return factory;
+    }
+
+    /**
+     * Get the cipher of the current thread
+     *
+     * @return the thread cipher
+     * @throws GeneralSecurityException if the algorithm is not available
+     */
+    private static Cipher cipher() throws GeneralSecurityException {
+        Cipher cipher = ciphers.get();
+        if (cipher == null) {
+            cipher = Cipher.getInstance(ALGORITHM);
+            ciphers.set(cipher);
+        }
+
+        return cipher;
     }
 }
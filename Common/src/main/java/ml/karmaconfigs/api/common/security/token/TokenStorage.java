@@ -25,25 +25,23 @@ package ml.karmaconfigs.api.common.security.token;
  *  SOFTWARE.
  */
 
-import ml.karmaconfigs.api.common.karma.file.element.KarmaPrimitive;
-import ml.karmaconfigs.api.common.karma.file.element.types.Element;
 import ml.karmaconfigs.api.common.karma.source.KarmaSource;
-import ml.karmaconfigs.api.common.karma.file.KarmaMain;
 import ml.karmaconfigs.api.common.utils.enums.Level;
-import ml.karmaconfigs.api.common.data.path.PathUtilities;
 import ml.karmaconfigs.api.common.security.data.PBECryptoAPI;
 import ml.karmaconfigs.api.common.security.token.exception.TokenExpiredException;
 import ml.karmaconfigs.api.common.security.token.exception.TokenIncorrectPasswordException;
 import ml.karmaconfigs.api.common.security.token.exception.TokenInvalidConfigurationException;
 import ml.karmaconfigs.api.common.security.token.exception.TokenNotFoundException;
-import ml.karmaconfigs.api.common.string.StringUtils;
 
+import java.io.IOException;
 import java.time.Instant;
 import java.util.Base64;
 import java.util.UUID;
 
 /**
- * Karma token storage
+ * Karma token storage. Tokens are kept in a single
+ * indexed file per source, and expired tokens are
+ * removed periodically
  */
 @SuppressWarnings("unused")
 public final class TokenStorage {
@@ -69,22 +67,16 @@ public final class TokenStorage {
      * @param password the token password
      */
     public void destroy(final UUID tokenID, final String password) {
-        KarmaMain tokenFile = new KarmaMain(this.source, tokenID.toString().replace("-", ""), "cache", "tokens");
-        if (tokenFile.exists() && tokenFile.isSet("token") && tokenFile.isSet("salt")) {
-            Element<?> storedToken = tokenFile.get("token");
-            Element<?> storedSalt = tokenFile.get("salt");
-
-            if (storedToken.isPrimitive() && storedSalt.isPrimitive()) {
-                byte[] salt = Base64.getUrlDecoder().decode(tokenFile.get("salt").toString());
-                if (!StringUtils.isNullOrEmpty(storedToken.toString())) {
-                    PBECryptoAPI api = new PBECryptoAPI(password, Base64.getUrlDecoder().decode(storedToken.toString()));
-                    try {
-                        api.decrypt(salt);
-                        tokenFile.delete();
-                    } catch (Throwable ignored) {
-                    }
-                }
+        TokenStore store = TokenStore.of(source);
+        try {
+            TokenStore.Token stored = store.read(tokenID);
+            if (stored != null && stored.token().length > 0) {
+                PBECryptoAPI api = new PBECryptoAPI(password, stored.token());
+                api.decrypt(stored.salt());
+
+                store.remove(tokenID);
             }
+        } catch (Throwable ignored) {
         }
     }
 
@@ -97,24 +89,16 @@ public final class TokenStorage {
      * @return the token ID
      */
     public UUID store(final String token, final String password, final Instant expiration) {
-        UUID tokenID = UUID.nameUUIDFromBytes(Base64.getUrlDecoder().decode(token));
-        KarmaMain tokenFile = new KarmaMain(this.source, tokenID.toString().replace("-", ""), "cache", "tokens");
+        byte[] decoded = Base64.getUrlDecoder().decode(token);
+        UUID tokenID = UUID.nameUUIDFromBytes(decoded);
 
-        PBECryptoAPI api = new PBECryptoAPI(password, Base64.getUrlDecoder().decode(token));
+        PBECryptoAPI api = new PBECryptoAPI(password, decoded);
         byte[] salt = api.generateSALT();
-        tokenFile.set("salt", new KarmaPrimitive(new String(Base64.getUrlEncoder().encode(salt))));
         try {
-            tokenFile.set("token", new KarmaPrimitive(new String(Base64.getUrlEncoder().encode(api.encrypt(salt)))));
+            TokenStore.of(source).write(tokenID, salt, api.encrypt(salt), expiration);
         } catch (Throwable ex) {
             ex.printStackTrace();
         }
-        if (expiration != null) {
-            tokenFile.set("expiration", new KarmaPrimitive(expiration.toString()));
-        } else {
-            tokenFile.set("expiration", new KarmaPrimitive("N/A"));
-        }
-
-        tokenFile.save();
 
         return tokenID;
     }
@@ -131,50 +115,37 @@ public final class TokenStorage {
      * @throws TokenInvalidConfigurationException if token configuration is bad
      */
     public String load(final UUID tokenID, final String password) throws TokenNotFoundException, TokenExpiredException, TokenIncorrectPasswordException, TokenInvalidConfigurationException {
-        KarmaMain tokenFile = new KarmaMain(this.source, tokenID.toString().replace("-", ""), "cache", "tokens");
-
-        String token = null;
-        Instant expiration = null;
-        source.console().debug("Token {0} ({1}) exists? {2}", Level.INFO, tokenID, PathUtilities.getPrettyPath(tokenFile.getDocument()), tokenFile.exists());
-        source.console().debug("Token {0} contains \"{1}\"? {2}", Level.INFO, tokenID, "token", tokenFile.isSet("token"));
-        source.console().debug("Token {0} contains \"{1}\"? {2}", Level.INFO, tokenID, "salt", tokenFile.isSet("salt"));
-        source.console().debug("Token {0} contains \"{1}\"? {2}", Level.INFO, tokenID, "expiration", tokenFile.isSet("expiration"));
-        if (tokenFile.exists() && tokenFile.isSet("token") && tokenFile.isSet("salt")) {
-            Element<?> storedToken = tokenFile.get("token");
-            Element<?> storedSalt = tokenFile.get("salt");
-
-            if (storedToken.isPrimitive() && storedSalt.isPrimitive()) {
-                byte[] salt = Base64.getUrlDecoder().decode(storedSalt.toString());
-
-                source.console().debug("Token {0} ({1}) is empty? {1}", Level.INFO, tokenID, StringUtils.isNullOrEmpty(storedToken));
-                if (!StringUtils.isNullOrEmpty(storedToken)) {
-                    PBECryptoAPI api = new PBECryptoAPI(password, Base64.getUrlDecoder().decode(storedToken.toString()));
-                    try {
-                        String tmp_token = new String(api.decrypt(salt));
-
-                        if (tokenFile.isSet("expiration")) {
-                            Element<?> instant = tokenFile.get("expiration");
-                            if (!instant.toString().equalsIgnoreCase("N/A")) {
-                                expiration = Instant.parse(instant.toString());
-                            }
-
-                            token = tmp_token;
-                        } else {
-                            throw new TokenInvalidConfigurationException(tokenID);
-                        }
-                    } catch (Throwable ex) {
-                        throw new TokenIncorrectPasswordException(tokenID);
-                    }
-                } else {
-                    throw new TokenInvalidConfigurationException(tokenID);
-                }
-            } else {
-                throw new TokenInvalidConfigurationException(tokenID);
-            }
-        } else {
+        TokenStore store = TokenStore.of(source);
+        TokenStore.Token stored;
+        boolean expired;
+        try {
+            stored = store.read(tokenID);
+            expired = (stored == null && store.expired(tokenID));
+        } catch (IOException ex) {
+            source.console().debug("Token {0} could not be read: {1}", Level.GRAVE, tokenID, ex.fillInStackTrace());
+            throw new TokenInvalidConfigurationException(tokenID);
+        }
+
+        if (expired)
+            throw new TokenExpiredException(tokenID);
+
+        source.console().debug("Token {0} exists? {1}", Level.INFO, tokenID, stored != null);
+        if (stored == null)
+            throw new TokenInvalidConfigurationException(tokenID);
+
+        source.console().debug("Token {0} is empty? {1}", Level.INFO, tokenID, stored.token().length == 0);
+        if (stored.token().length == 0)
             throw new TokenInvalidConfigurationException(tokenID);
+
+        String token;
+        try {
+            PBECryptoAPI api = new PBECryptoAPI(password, stored.token());
+            token = new String(api.decrypt(stored.salt()));
+        } catch (Throwable ex) {
+            throw new TokenIncorrectPasswordException(tokenID);
         }
 
+        Instant expiration = stored.expiration();
         if (expiration == null || Instant.now().isBefore(expiration))
             return token;
 
@@ -188,15 +159,10 @@ public final class TokenStorage {
      * @return the token expiration date
      */
     public Instant expiration(final UUID tokenID) {
-        KarmaMain tokenFile = new KarmaMain(this.source, tokenID.toString().replace("-", ""), "cache", "tokens");
-        if (tokenFile.exists() && tokenFile.isSet("expiration")) {
-            Element<?> instant = tokenFile.get("expiration");
-            if (instant.isPrimitive()) {
-                if (!instant.toString().equals("N/A"))
-                    return Instant.parse(instant.toString());
-            }
+        try {
+            return TokenStore.of(source).expiration(tokenID);
+        } catch (IOException ex) {
+            return null;
         }
-
-        return null;
     }
 }
@@ -0,0 +1,541 @@
+package ml.karmaconfigs.api.common.security.token;
+
+/*
+ * This file is part of KarmaAPI, licensed under the MIT License.
+ *
+ *  Copyright (c) karma (KarmaDev) <karmaconfigs@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+import ml.karmaconfigs.api.common.data.store.SegmentStore;
+import ml.karmaconfigs.api.common.karma.file.KarmaMain;
+import ml.karmaconfigs.api.common.karma.file.element.types.Element;
+import ml.karmaconfigs.api.common.karma.source.KarmaSource;
+import ml.karmaconfigs.api.common.utils.uuid.UUIDUtil;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Single file token store. Tokens are kept in a {@link SegmentStore},
+ * so a lookup reads only its own record. Destroyed and expired
+ * tokens leave dead records behind, which are dropped once they
+ * take more space than the live ones. Expired tokens are remembered
+ * until then, so they still report as expired instead of missing
+ */
+final class TokenStore {
+
+    private final static byte LIVE = 0;
+    private final static byte REMOVED = 1;
+
+    /**
+     * Record header size: id, state, expiration flag, expiration
+     * seconds and nanos, salt length and token length
+     */
+    private final static int HEADER = 16 + 1 + 1 + 8 + 4 + 2 + 4;
+
+    /**
+     * Time between expired token sweeps, in seconds
+     */
+    private final static long SWEEP_PERIOD = 30;
+
+    private final static Map<Path, TokenStore> stores = new ConcurrentHashMap<>();
+    private static ScheduledExecutorService sweeper;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, Deadline> deadlines = new HashMap<>();
+    private final PriorityQueue<Deadline> expirations = new PriorityQueue<>(Comparator.comparing((Deadline deadline) -> deadline.expiration));
+
+    /**
+     * Expiration of the tokens dropped from the index
+     * because they expired, until the next compaction
+     */
+    private final Map<UUID, Instant> expired = new HashMap<>();
+
+    private final KarmaSource source;
+    private final SegmentStore<UUID> segments;
+
+    /**
+     * Initialize the token store
+     *
+     * @param owner the store source
+     * @param path  the store file
+     */
+    private TokenStore(final KarmaSource owner, final Path path) {
+        source = owner;
+        segments = new SegmentStore<>(path, new byte[0]);
+    }
+
+    /**
+     * Get the token store of a source
+     *
+     * @param source the source
+     * @return the source token store
+     */
+    static TokenStore of(final KarmaSource source) {
+        Path file = source.getDataPath().resolve("cache").resolve("tokens.dat");
+        return stores.computeIfAbsent(file, (key) -> new TokenStore(source, key));
+    }
+
+    /**
+     * Read a token
+     *
+     * @param id the token ID
+     * @return the token, or null if it's not stored
+     * @throws IOException if the store can't be read
+     */
+    Token read(final UUID id) throws IOException {
+        ready();
+
+        lock.readLock().lock();
+        try {
+            byte[] record = segments.read(id);
+            return (record != null ? Token.parse(ByteBuffer.wrap(record)) : null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the expiration of a token
+     *
+     * @param id the token ID
+     * @return the token expiration, or null if the token does
+     * not expire or is not stored
+     * @throws IOException if the store can't be read
+     */
+    Instant expiration(final UUID id) throws IOException {
+        ready();
+
+        lock.readLock().lock();
+        try {
+            Deadline deadline = deadlines.get(id);
+            return (deadline != null ? deadline.expiration : expired.get(id));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get if a token has been dropped because it expired
+     *
+     * @param id the token ID
+     * @return if the token expired
+     * @throws IOException if the store can't be read
+     */
+    boolean expired(final UUID id) throws IOException {
+        ready();
+
+        lock.readLock().lock();
+        try {
+            return expired.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Store a token, replacing the previous one with the same ID
+     *
+     * @param id         the token ID
+     * @param salt       the token salt
+     * @param token      the encrypted token
+     * @param expiration the token expiration (null for no expiration)
+     * @throws IOException if the token can't be written
+     */
+    void write(final UUID id, final byte[] salt, final byte[] token, final Instant expiration) throws IOException {
+        ByteBuffer record = new Token(id, LIVE, salt, token, expiration).serialize();
+
+        lock.writeLock().lock();
+        try {
+            open();
+
+            segments.write(id, record);
+            deadline(id, expiration);
+            expired.remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        if (expiration != null)
+            sweeper();
+    }
+
+    /**
+     * Remove a token
+     *
+     * @param id the token ID
+     * @throws IOException if the token can't be removed
+     */
+    void remove(final UUID id) throws IOException {
+        ByteBuffer record = new Token(id, REMOVED, new byte[0], new byte[0], null).serialize();
+
+        lock.writeLock().lock();
+        try {
+            open();
+
+            if (segments.remove(id, record)) {
+                deadlines.remove(id);
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Make sure the store is open
+     *
+     * @throws IOException if the store can't be opened
+     */
+    private void ready() throws IOException {
+        if (segments.isOpen())
+            return;
+
+        lock.writeLock().lock();
+        try {
+            open();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Open the store file and build the index. Expired
+     * tokens are remembered until the next compaction
+     *
+     * @throws IOException if the file can't be read
+     */
+    private void open() throws IOException {
+        if (segments.isOpen())
+            return;
+
+        Instant now = Instant.now();
+        segments.open(new SegmentStore.Scanner<UUID>() {
+            @Override
+            public UUID key(final ByteBuffer record) {
+                if (record.remaining() < 4 + HEADER || record.getInt(0) != HEADER + record.getShort(4 + HEADER - 6) + record.getInt(4 + HEADER - 4))
+                    return null;
+
+                return new UUID(record.getLong(4), record.getLong(12));
+            }
+
+            @Override
+            public boolean live(final UUID id, final ByteBuffer record) {
+                Token token = Token.parse(record);
+                deadlines.remove(id);
+                expired.remove(id);
+
+                if (token.state == LIVE && (token.expiration == null || now.isBefore(token.expiration))) {
+                    deadline(id, token.expiration);
+                    return true;
+                }
+
+                if (token.state == LIVE)
+                    expired.put(id, token.expiration);
+                return false;
+            }
+        });
+
+        Path legacy = segments.getFile().resolveSibling("tokens");
+        if (Files.isDirectory(legacy))
+            migrate(legacy, now);
+
+        if (!expirations.isEmpty())
+            sweeper();
+        compact();
+    }
+
+    /**
+     * Move the tokens from the old one file per token storage
+     * into the store, and remove the old storage directory
+     *
+     * @param directory the old storage directory
+     * @param now       the current time
+     * @throws IOException if the old storage can't be read
+     */
+    private void migrate(final Path directory, final Instant now) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, Files::isRegularFile)) {
+            stream.forEach(files::add);
+        }
+
+        for (Path old : files) {
+            String name = old.getFileName().toString();
+
+            UUID id;
+            try {
+                id = UUIDUtil.fromTrimmed(name);
+            } catch (IllegalArgumentException | IndexOutOfBoundsException ex) {
+                continue;
+            }
+            if (id == null)
+                continue;
+
+            KarmaMain tokenFile = new KarmaMain(source, name, "cache", "tokens");
+            if (!segments.contains(id) && !expired.containsKey(id) && tokenFile.isSet("token") && tokenFile.isSet("salt")) {
+                Element<?> storedToken = tokenFile.get("token");
+                Element<?> storedSalt = tokenFile.get("salt");
+
+                if (storedToken.isPrimitive() && storedSalt.isPrimitive()) {
+                    Instant expiration = null;
+                    if (tokenFile.isSet("expiration")) {
+                        Element<?> storedExpiration = tokenFile.get("expiration");
+                        if (storedExpiration.isPrimitive() && !storedExpiration.toString().equalsIgnoreCase("N/A"))
+                            expiration = Instant.parse(storedExpiration.toString());
+                    }
+
+                    if (expiration != null && !now.isBefore(expiration)) {
+                        expired.put(id, expiration);
+                    } else {
+                        byte[] salt = Base64.getUrlDecoder().decode(storedSalt.toString());
+                        byte[] token = Base64.getUrlDecoder().decode(storedToken.toString());
+                        segments.write(id, new Token(id, LIVE, salt, token, expiration).serialize());
+                        deadline(id, expiration);
+                    }
+                }
+            }
+
+            Files.deleteIfExists(old);
+        }
+
+        try {
+            Files.deleteIfExists(directory);
+        } catch (DirectoryNotEmptyException ignored) {
+            //Something else than tokens was left there
+        }
+    }
+
+    /**
+     * Track the expiration of a token
+     *
+     * @param id         the token ID
+     * @param expiration the token expiration (null for no expiration)
+     */
+    private void deadline(final UUID id, final Instant expiration) {
+        if (expiration == null) {
+            deadlines.remove(id);
+            return;
+        }
+
+        Deadline deadline = new Deadline(id, expiration);
+        deadlines.put(id, deadline);
+        expirations.offer(deadline);
+    }
+
+    /**
+     * Drop the expired tokens from the index, leaving
+     * their expiration behind until the next compaction
+     */
+    private void sweep() {
+        lock.writeLock().lock();
+        try {
+            Instant now = Instant.now();
+
+            Deadline deadline;
+            while ((deadline = expirations.peek()) != null && !now.isBefore(deadline.expiration)) {
+                expirations.poll();
+
+                //The token may have been replaced or removed since
+                if (deadlines.get(deadline.id) == deadline) {
+                    deadlines.remove(deadline.id);
+                    segments.remove(deadline.id);
+                    expired.put(deadline.id, deadline.expiration);
+                }
+            }
+
+            compact();
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Compact the store file, forgetting the expired
+     * tokens once their records are gone
+     *
+     * @throws IOException if the file can't be rewritten
+     */
+    private void compact() throws IOException {
+        if (segments.compact())
+            expired.clear();
+    }
+
+    /**
+     * Make sure the expired tokens sweeper is running
+     */
+    private static synchronized void sweeper() {
+        if (sweeper == null) {
+            sweeper = Executors.newSingleThreadScheduledExecutor((runnable) -> {
+                Thread thread = new Thread(runnable, "KarmaAPI-tokens");
+                thread.setDaemon(true);
+
+                return thread;
+            });
+            sweeper.scheduleWithFixedDelay(() -> stores.values().forEach(TokenStore::sweep), SWEEP_PERIOD, SWEEP_PERIOD, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Expiration of a stored token
+     */
+    private static final class Deadline {
+
+        private final UUID id;
+        private final Instant expiration;
+
+        /**
+         * Initialize the deadline
+         *
+         * @param tokenID the token ID
+         * @param expire  the token expiration
+         */
+        private Deadline(final UUID tokenID, final Instant expire) {
+            this.id = tokenID;
+            this.expiration = expire;
+        }
+    }
+
+    /**
+     * A stored token
+     */
+    static final class Token {
+
+        private final UUID id;
+        private final byte state;
+        private final byte[] salt;
+        private final byte[] token;
+        private final Instant expiration;
+
+        /**
+         * Initialize the token
+         *
+         * @param tokenID    the token ID
+         * @param tokenState the token record state
+         * @param tokenSalt  the token salt
+         * @param encrypted  the encrypted token
+         * @param expire     the token expiration
+         */
+        private Token(final UUID tokenID, final byte tokenState, final byte[] tokenSalt, final byte[] encrypted, final Instant expire) {
+            this.id = tokenID;
+            this.state = tokenState;
+            this.salt = tokenSalt;
+            this.token = encrypted;
+            this.expiration = expire;
+        }
+
+        /**
+         * Get the token salt
+         *
+         * @return the token salt
+         */
+        byte[] salt() {
+            return salt;
+        }
+
+        /**
+         * Get the encrypted token
+         *
+         * @return the encrypted token
+         */
+        byte[] token() {
+            return token;
+        }
+
+        /**
+         * Get the token expiration
+         *
+         * @return the token expiration (null for no expiration)
+         */
+        Instant expiration() {
+            return expiration;
+        }
+
+        /**
+         * Serialize the token into a store record
+         *
+         * @return the token record
+         */
+        private ByteBuffer serialize() {
+            ByteBuffer buffer = ByteBuffer.allocate(4 + HEADER + salt.length + token.length);
+            buffer.putInt(HEADER + salt.length + token.length);
+            buffer.putLong(id.getMostSignificantBits());
+            buffer.putLong(id.getLeastSignificantBits());
+            buffer.put(state);
+            buffer.put((byte) (expiration != null ? 1 : 0));
+            buffer.putLong(expiration != null ? expiration.getEpochSecond() : 0);
+            buffer.putInt(expiration != null ? expiration.getNano() : 0);
+            buffer.putShort((short) salt.length);
+            buffer.putInt(token.length);
+            buffer.put(salt);
+            buffer.put(token);
+            buffer.flip();
+
+            return buffer;
+        }
+
+        /**
+         * Parse a token record header
+         *
+         * @param buffer the record header, without the record length
+         * @return the token, without salt nor token
+         */
+        private static Token header(final ByteBuffer buffer) {
+            UUID id = new UUID(buffer.getLong(), buffer.getLong());
+            byte state = buffer.get();
+            boolean expires = buffer.get() == 1;
+            long seconds = buffer.getLong();
+            int nanos = buffer.getInt();
+
+            return new Token(id, state, new byte[buffer.getShort()], new byte[buffer.getInt()], (expires ? Instant.ofEpochSecond(seconds, nanos) : null));
+        }
+
+        /**
+         * Parse a token record
+         *
+         * @param buffer the token record
+         * @return the token
+         */
+        private static Token parse(final ByteBuffer buffer) {
+            buffer.getInt();
+
+            Token token = header(buffer);
+            buffer.get(token.salt);
+            buffer.get(token.token);
+
+            return token;
+        }
+    }
+}
@@ -38,8 +38,6 @@ import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -340,7 +338,10 @@ public final class SourceScheduler extends SimpleScheduler {
     public void start() throws TimerAlreadyStarted {
         Set<Integer> running = runningTimers.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
         if (!running.contains(id)) {
-            ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+            running.add(id);
+            runningTimers.put(source, running);
+
+            TimerWheel.Timeout timer = TimerWheel.timeout();
 
             AtomicInteger minutes = new AtomicInteger();
             AtomicInteger hours = new AtomicInteger();
@@ -350,7 +351,7 @@ public final class SourceScheduler extends SimpleScheduler {
             AtomicLong last_hour = new AtomicLong(0);
             AtomicLong last_day = new AtomicLong(0);
 
-            timer.scheduleAtFixedRate(() -> {
+            Runnable tick = () -> {
                 boolean run = (!cancelUnloaded || KarmaAPI.isLoaded(source));
 
                 long one_minute = (!working_unit.equals(SchedulerUnit.MILLISECOND) ? (working_unit.equals(SchedulerUnit.SECOND) ? working_unit : SchedulerUnit.SECOND) : SchedulerUnit.MILLISECOND).toJavaUnit().convert(1, TimeUnit.MINUTES);
@@ -401,7 +402,7 @@ public final class SourceScheduler extends SimpleScheduler {
                                 pause = false;
                                 temp_restart = false;
 
-                                timer.shutdown();
+                                timer.cancel();
                             } else {
                                 back = original;
                                 onRestartTasks.forEach(this::runTaskWithThread);
@@ -428,7 +429,7 @@ public final class SourceScheduler extends SimpleScheduler {
                                     pause = false;
                                     temp_restart = false;
 
-                                    timer.shutdown();
+                                    timer.cancel();
                                 }
                             }
 
@@ -456,7 +457,28 @@ public final class SourceScheduler extends SimpleScheduler {
                     pause = false;
                     temp_restart = false;
 
-                    timer.shutdown();
+                    timer.cancel();
+                }
+            };
+
+            timer.schedule(() -> {
+                boolean failed = true;
+                try {
+                    tick.run();
+                    failed = false;
+                } finally {
+                    //The timer wheel stops running a task that throws, so the timer must be released to start again
+                    if (failed) {
+                        timersData.remove(id);
+
+                        Set<Integer> ids = runningTimers.get(source);
+                        if (ids != null)
+                            ids.remove(id);
+
+                        cancel = false;
+                        pause = false;
+                        temp_restart = false;
+                    }
                 }
             }, 1, period, (!working_unit.equals(SchedulerUnit.MILLISECOND) ? (working_unit.equals(SchedulerUnit.SECOND) ? working_unit : SchedulerUnit.SECOND) : SchedulerUnit.MILLISECOND).toJavaUnit());
         } else {
@@ -942,7 +964,7 @@ public final class SourceScheduler extends SimpleScheduler {
      */
     private void runWithThread(final Consumer<Integer> task, final int value) {
         if (thread) {
-            (new Thread(() -> task.accept(value))).start();
+            TimerWheel.dispatch(() -> task.accept(value));
         } else {
             task.accept(value);
         }
@@ -956,7 +978,8 @@ public final class SourceScheduler extends SimpleScheduler {
      */
     private void runSecondsWithThread(final Consumer<Integer> task) {
         if (thread) {
-            (new Thread(() -> task.accept((int) (working_unit.toJavaUnit() == TimeUnit.MILLISECONDS ? TimeUnit.MILLISECONDS.toSeconds(back) : back)))).start();
+            long current = back;
+            TimerWheel.dispatch(() -> task.accept((int) (working_unit.toJavaUnit() == TimeUnit.MILLISECONDS ? TimeUnit.MILLISECONDS.toSeconds(current) : current)));
         } else {
             task.accept((int) TimeUnit.MILLISECONDS.toSeconds(back));
         }
@@ -970,7 +993,8 @@ public final class SourceScheduler extends SimpleScheduler {
      */
     private void runPeriodWithThread(final Consumer<Long> task) {
         if (thread) {
-            (new Thread(() -> task.accept(back))).start();
+            long current = back;
+            TimerWheel.dispatch(() -> task.accept(current));
         } else {
             task.accept(back);
         }
@@ -984,7 +1008,7 @@ public final class SourceScheduler extends SimpleScheduler {
      */
     private void runTaskWithThread(final Runnable task) {
         if (thread) {
-            (new Thread(task)).start();
+            TimerWheel.dispatch(task);
         } else {
             task.run();
         }
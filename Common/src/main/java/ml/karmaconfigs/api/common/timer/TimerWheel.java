@@ -0,0 +1,245 @@
+package ml.karmaconfigs.api.common.timer;
+
+/*
+ * This file is part of KarmaAPI, licensed under the MIT License.
+ *
+ *  Copyright (c) karma (KarmaDev) <karmaconfigs@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+import ml.karmaconfigs.api.common.karma.KarmaConfig;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed timing wheel shared by all the source schedulers. A
+ * single thread advances the wheel once per millisecond and hands
+ * the expired timers to a bounded pool of workers, so the amount of
+ * threads does not grow with the amount of timers
+ */
+final class TimerWheel {
+
+    /**
+     * Amount of wheel slots, must be a power of two
+     */
+    private final static int WHEEL_SIZE = 512;
+    private final static int WHEEL_MASK = WHEEL_SIZE - 1;
+    private final static long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final static Queue<Timeout> incoming = new ConcurrentLinkedQueue<>();
+    private final static AtomicInteger active = new AtomicInteger(0);
+    private final static AtomicInteger workerId = new AtomicInteger(0);
+
+    private static Thread wheel;
+    private static ThreadPoolExecutor workers;
+
+    /**
+     * Create a new timeout
+     *
+     * @return a new timeout
+     */
+    static Timeout timeout() {
+        return new Timeout();
+    }
+
+    /**
+     * Run a task on the shared timer workers
+     *
+     * @param task the task to run
+     */
+    static void dispatch(final Runnable task) {
+        workers().execute(task);
+    }
+
+    /**
+     * Get the shared timer workers
+     *
+     * @return the timer workers
+     */
+    private static synchronized ThreadPoolExecutor workers() {
+        if (workers == null) {
+            int size = new KarmaConfig().timerWorkers();
+
+            workers = new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), (runnable) -> {
+                Thread thread = new Thread(runnable, "KarmaAPI-timer-" + workerId.incrementAndGet());
+                thread.setDaemon(true);
+
+                return thread;
+            });
+            workers.allowCoreThreadTimeOut(true);
+        }
+
+        return workers;
+    }
+
+    /**
+     * Make sure the wheel thread is running
+     */
+    private static synchronized void wake() {
+        if (wheel == null) {
+            wheel = new Thread(TimerWheel::turn, "KarmaAPI-timer");
+            wheel.setDaemon(true);
+            wheel.start();
+        } else {
+            LockSupport.unpark(wheel);
+        }
+    }
+
+    /**
+     * Wheel thread loop
+     */
+    private static void turn() {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Queue<Timeout>[] slots = new Queue[WHEEL_SIZE];
+        for (int i = 0; i < WHEEL_SIZE; i++)
+            slots[i] = new ArrayDeque<>();
+
+        long start = System.nanoTime();
+        long last = 0;
+
+        while (!Thread.currentThread().isInterrupted()) {
+            if (active.get() == 0 && incoming.isEmpty()) {
+                //Nothing to wait for, sleep until a timer gets scheduled
+                LockSupport.park();
+            } else {
+                long wait = start + (last + 1) * TICK_NANOS - System.nanoTime();
+                if (wait > 0)
+                    LockSupport.parkNanos(wait);
+            }
+
+            long current = (System.nanoTime() - start) / TICK_NANOS;
+
+            Timeout timeout;
+            while ((timeout = incoming.poll()) != null) {
+                if (timeout.cancelled) {
+                    active.decrementAndGet();
+                    continue;
+                }
+
+                timeout.deadline += current;
+                slots[(int) (Math.max(timeout.deadline, last + 1) & WHEEL_MASK)].offer(timeout);
+            }
+
+            //If the wheel fell behind a full turn, every slot must be checked once
+            long until = Math.min(current, last + WHEEL_SIZE);
+            for (long tick = last + 1; tick <= until; tick++) {
+                Queue<Timeout> slot = slots[(int) (tick & WHEEL_MASK)];
+
+                Iterator<Timeout> iterator = slot.iterator();
+                while (iterator.hasNext()) {
+                    timeout = iterator.next();
+                    if (timeout.cancelled) {
+                        iterator.remove();
+                        active.decrementAndGet();
+                        continue;
+                    }
+                    if (timeout.deadline > current)
+                        continue;
+
+                    iterator.remove();
+
+                    //Fixed rate, missed executions run back to back
+                    do {
+                        timeout.fire();
+                        timeout.deadline += timeout.period;
+                    } while (timeout.deadline <= current);
+
+                    slots[(int) (timeout.deadline & WHEEL_MASK)].offer(timeout);
+                }
+            }
+
+            last = current;
+        }
+    }
+
+    /**
+     * A periodic timer in the wheel
+     */
+    static final class Timeout {
+
+        private final AtomicInteger pending = new AtomicInteger(0);
+
+        private Runnable task;
+        private long deadline;
+        private long period;
+
+        private volatile boolean cancelled = false;
+
+        /**
+         * Initialize the timeout
+         */
+        private Timeout() {
+        }
+
+        /**
+         * Start running a task periodically. As with
+         * {@link ScheduledExecutorService#scheduleAtFixedRate(Runnable, long, long, TimeUnit)},
+         * runs never overlap and if a run throws an error, the
+         * task won't run anymore
+         *
+         * @param runnable the task to run
+         * @param delay    the time before the first run
+         * @param every    the time between runs
+         * @param unit     the time unit
+         */
+        void schedule(final Runnable runnable, final long delay, final long every, final TimeUnit unit) {
+            task = runnable;
+            deadline = Math.max(0, unit.toMillis(delay));
+            period = Math.max(1, unit.toMillis(every));
+
+            active.incrementAndGet();
+            incoming.offer(this);
+            wake();
+        }
+
+        /**
+         * Stop running the task
+         */
+        void cancel() {
+            cancelled = true;
+        }
+
+        /**
+         * Run the task on a worker. If the task is still
+         * running, the run is queued after the current one
+         */
+        private void fire() {
+            if (pending.getAndIncrement() == 0) {
+                dispatch(() -> {
+                    do {
+                        if (!cancelled) {
+                            try {
+                                task.run();
+                            } catch (Throwable ex) {
+                                cancelled = true;
+                            }
+                        }
+                    } while (pending.decrementAndGet() > 0);
+                });
+            }
+        }
+    }
+}
@@ -1,15 +1,19 @@
 package ml.karmaconfigs.api.common.timer.worker;
 
+import ml.karmaconfigs.api.common.karma.KarmaConfig;
 import ml.karmaconfigs.api.common.karma.source.KarmaSource;
 import ml.karmaconfigs.api.common.timer.scheduler.Scheduler;
 import ml.karmaconfigs.api.common.timer.worker.event.TaskListener;
+import ml.karmaconfigs.api.common.utils.enums.Level;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Asynchronous scheduler
@@ -20,60 +24,102 @@ public class AsyncScheduler<T extends KarmaSource> extends Scheduler {
 
     private final static Map<KarmaSource, Set<TaskListener>> listeners = new ConcurrentHashMap<>();
     private final static Map<Integer, ScheduledTask> tasks = new ConcurrentHashMap<>();
+    private final static Map<KarmaSource, Queue<ScheduledTask>> queues = new ConcurrentHashMap<>();
+
+    private final static AtomicInteger taskId = new AtomicInteger(0);
 
     private final KarmaSource source;
 
-    private static ScheduledExecutorService runner;
-    private static int taskId = 0;
-    private static int current_task = 0;
+    private static ForkJoinPool runner;
+    private static Semaphore capacity;
+    private static volatile int current_task = 0;
 
+    /**
+     * Initialize the asynchronous scheduler
+     *
+     * @param src the scheduler source
+     */
     public AsyncScheduler(final T src) {
         source = src;
-        boolean initialize = false;
-
-        if (runner == null) {
-            //We will use the half of processors to have the best performance without using all CPU
-            int threadCount = Math.abs(Runtime.getRuntime().availableProcessors() / 2);
-            if (threadCount <= 0)
-                threadCount = 1;
+    }
 
-            runner = Executors.newScheduledThreadPool(threadCount);
-            initialize = true;
+    /**
+     * Get the task runner, creating it if it does
+     * not exist or has been shut down
+     *
+     * @return the task runner
+     */
+    private static synchronized ForkJoinPool runner() {
+        if (runner == null || runner.isShutdown()) {
+            KarmaConfig config = new KarmaConfig();
+
+            AtomicInteger workerId = new AtomicInteger(0);
+            runner = new ForkJoinPool(config.asyncParallelism(), (pool) -> {
+                ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                worker.setName("KarmaAPI-async-" + workerId.incrementAndGet());
+
+                return worker;
+            }, null, true);
+            capacity = new Semaphore(config.asyncQueueLimit());
         }
 
-        if (!runner.isShutdown() || runner.isTerminated()) {
-            //We will use the half of processors to have the best performance without using all CPU
-            int threadCount = Math.abs(Runtime.getRuntime().availableProcessors() / 2);
-            if (threadCount <= 0)
-                threadCount = 1;
+        return runner;
+    }
 
-            runner = Executors.newScheduledThreadPool(threadCount);
-            initialize = true;
-        }
+    /**
+     * Get the registered listeners of a source
+     *
+     * @param source the source
+     * @return the source listeners
+     */
+    private static Set<TaskListener> listeners(final KarmaSource source) {
+        return listeners.computeIfAbsent(source, (key) -> Collections.newSetFromMap(new ConcurrentHashMap<>()));
+    }
 
-        if (initialize) {
-            runner.scheduleAtFixedRate(() -> {
-                Integer[] ids = tasks.keySet().toArray(new Integer[0]);
-                Arrays.sort(ids);
-
-                current_task = ids[0];
-                if (tasks.containsKey(current_task)) {
-                    ScheduledTask task = tasks.remove(current_task);
-                    if (task != null) {
-                        runner.execute(() -> {
-                            Set<TaskListener> registered = listeners.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-                            registered.forEach((listener) -> listener.onAsyncTaskStart(task));
-
-                            task.getTask().run();
-
-                            registered.forEach((listener) -> listener.onAsyncTaskComplete(task));
-                        });
-                    }
-                }
-            }, 1, 1, TimeUnit.SECONDS);
+    /**
+     * Run the next task of the source queue
+     *
+     * @param source the task source
+     */
+    private static void next(final KarmaSource source) {
+        Queue<ScheduledTask> queue = queues.get(source);
+        if (queue != null) {
+            ScheduledTask task = queue.poll();
+            if (task != null) {
+                tasks.remove(task.getId());
+                capacity.release();
+
+                run(source, task);
+            }
         }
     }
 
+    /**
+     * Run a task
+     *
+     * @param source the task source
+     * @param task   the task to run
+     */
+    private static void run(final KarmaSource source, final ScheduledTask task) {
+        current_task = task.getId();
+
+        Set<TaskListener> registered = listeners(source);
+        registered.forEach((listener) -> listener.onAsyncTaskStart(task));
+
+        try {
+            task.getTask().run();
+        } catch (Throwable ex) {
+            KarmaConfig config = new KarmaConfig();
+            if (config.log(Level.GRAVE)) {
+                source.logger().scheduleLog(Level.GRAVE, ex);
+            }
+            if (config.debug(Level.GRAVE)) {
+                source.console().send("Failed to run async task {0} with id {1}", Level.GRAVE, task.getName(), task.getId());
+            }
+        } finally {
+            registered.forEach((listener) -> listener.onAsyncTaskComplete(task));
+        }
+    }
 
     /**
      * Add a task listener
@@ -82,10 +128,7 @@ public class AsyncScheduler<T extends KarmaSource> extends Scheduler {
      */
     @Override
     public void addTaskListener(final TaskListener listener) {
-        Set<TaskListener> registered = listeners.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-        registered.add(listener);
-
-        listeners.put(source, registered);
+        listeners(source).add(listener);
     }
 
     /**
@@ -95,27 +138,34 @@ public class AsyncScheduler<T extends KarmaSource> extends Scheduler {
      */
     @Override
     public void removeTaskListener(final TaskListener listener) {
-        Set<TaskListener> registered = listeners.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-        registered.remove(listener);
-
-        listeners.put(source, registered);
+        listeners(source).remove(listener);
     }
 
     /**
-     * Queue another task to the scheduler
+     * Queue another task to the scheduler. The task will
+     * run as soon as a worker is free, if there are too many
+     * tasks waiting for a worker, the task will run on the
+     * current thread
      *
      * @param name          the task name
      * @param paramRunnable the task to perform
      */
     @Override
     public void queue(final String name, final Runnable paramRunnable) {
-        int task = taskId++;
+        ForkJoinPool pool = runner();
+        int task = taskId.getAndIncrement();
 
         ScheduledTask tsk = new ScheduledTask(name, paramRunnable, task);
-        tasks.put(task, tsk);
+        listeners(source).forEach((listener) -> listener.onAsyncTaskSchedule(tsk));
+
+        if (capacity.tryAcquire()) {
+            tasks.put(task, tsk);
+            queues.computeIfAbsent(source, (key) -> new ConcurrentLinkedQueue<>()).offer(tsk);
 
-        Set<TaskListener> registered = listeners.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-        registered.forEach((listener) -> listener.onAsyncTaskSchedule(tsk));
+            pool.execute(() -> next(source));
+        } else {
+            run(source, tsk);
+        }
     }
 
     /**
@@ -5,19 +5,23 @@ import ml.karmaconfigs.api.common.karma.source.KarmaSource;
 import ml.karmaconfigs.api.common.timer.scheduler.Scheduler;
 import ml.karmaconfigs.api.common.timer.worker.event.TaskListener;
 import ml.karmaconfigs.api.common.utils.enums.Level;
+import org.jetbrains.annotations.Nullable;
 
-import javax.swing.*;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
- * Synchronous scheduler
+ * Synchronous scheduler. Tasks are collected in a single
+ * queue and run in batches once per tick, on the thread of the
+ * platform hook that drives the scheduler, or in a dedicated
+ * thread when no hook has been attached
  *
  * @param <T> the karma source
  */
@@ -25,76 +29,191 @@ public class SyncScheduler<T extends KarmaSource> extends Scheduler {
 
     private final static Map<KarmaSource, Set<TaskListener>> listeners = new ConcurrentHashMap<>();
     private final static Map<Integer, ScheduledTask> tasks = new ConcurrentHashMap<>();
+    private final static Queue<QueuedTask> queue = new ConcurrentLinkedQueue<>();
+    private final static Map<KarmaSource, Consumer<Runnable>> hooks = new LinkedHashMap<>();
+
+    private final static AtomicInteger taskId = new AtomicInteger(0);
+    private final static AtomicInteger pending = new AtomicInteger(0);
+    private final static AtomicBoolean ticking = new AtomicBoolean(false);
 
     private final KarmaSource source;
 
-    private static ScheduledExecutorService runner;
-    private static int taskId = 0;
-    private static int current_task = 0;
+    private static KarmaSource driver;
+    private static ScheduledExecutorService fallback;
+    private static volatile boolean driven = false;
+    private static volatile int current_task = 0;
+
+    private static volatile long tick_budget;
+    private static volatile int batch_size;
 
+    /**
+     * Initialize the synchronous scheduler
+     *
+     * @param src the scheduler source
+     */
     public SyncScheduler(final T src) {
         source = src;
-        boolean initialize = false;
+    }
+
+    /**
+     * Attach a platform hook to the scheduler. The hook will
+     * receive the tick task and must run it once per server tick
+     * on the platform main thread. Only one hook drives the scheduler,
+     * the rest are kept in case the current one gets detached
+     *
+     * @param owner the hook owner
+     * @param hook  the hook
+     */
+    public static synchronized void attach(final KarmaSource owner, final Consumer<Runnable> hook) {
+        hooks.put(owner, hook);
 
-        Thread known_main_thread = Thread.currentThread();
+        if (fallback != null)
+            hook();
+    }
 
-        if (runner == null) {
-            runner = Executors.newSingleThreadScheduledExecutor();
-            initialize = true;
-        }
+    /**
+     * Detach a platform hook from the scheduler. If the
+     * hook was driving the scheduler, the next available hook
+     * will take its place
+     *
+     * @param owner the hook owner
+     */
+    public static synchronized void detach(final KarmaSource owner) {
+        hooks.remove(owner);
+
+        if (owner.equals(driver)) {
+            driver = null;
+            driven = false;
 
-        if (!runner.isShutdown() || runner.isTerminated()) {
-            runner = Executors.newSingleThreadScheduledExecutor();
-            initialize = true;
+            if (pending.get() > 0)
+                drive();
         }
+    }
 
-        if (initialize) {
-            runner.scheduleAtFixedRate(() -> {
-                Integer[] ids = tasks.keySet().toArray(new Integer[0]);
-                Arrays.sort(ids);
-
-                current_task = ids[0];
-                if (tasks.containsKey(current_task)) {
-                    ScheduledTask task = tasks.remove(current_task);
-                    if (task != null) {
-                        try {
-                            SwingUtilities.invokeAndWait(() -> {
-                                Set<TaskListener> registered = listeners.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-                                registered.forEach((listener) -> listener.onSyncTaskStart(task));
-
-                                task.getTask().run();
-
-                                registered.forEach((listener) -> listener.onSyncTaskComplete(task));
-                            });
-                        } catch (Throwable ex) {
-                            try {
-                                synchronized (known_main_thread) { //Synchronize at main thread
-                                    Set<TaskListener> registered = listeners.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-                                    registered.forEach((listener) -> listener.onSyncTaskStart(task));
-
-                                    task.getTask().run();
-
-                                    registered.forEach((listener) -> listener.onSyncTaskComplete(task));
-                                }
-                            } catch (Throwable exc) {
-                                KarmaConfig config = new KarmaConfig();
-                                if (config.log(Level.GRAVE)) {
-                                    source.logger().scheduleLog(Level.GRAVE, ex);
-                                }
-                                if (config.log(Level.INFO)) {
-                                    source.logger().scheduleLog(Level.INFO, "Failed to schedule synchronous task {0} ({0}). Will run asynchronous", task.getName(), task.getId());
-                                }
-
-                                if (config.debug(Level.GRAVE)) {
-                                    source.console().send("Failed to schedule sync task {0} with id {1}. Will run asynchronous", Level.GRAVE, task.getName(), task.getId());
-                                }
-
-                                task.getTask().run();
-                            }
-                        }
+    /**
+     * Make sure something is ticking the scheduler
+     */
+    private static synchronized void drive() {
+        if (driven)
+            return;
+
+        KarmaConfig config = new KarmaConfig();
+        tick_budget = config.syncTickBudget();
+        batch_size = config.syncBatchSize();
+
+        if (!hook()) {
+            AtomicInteger ticks = new AtomicInteger(0);
+
+            fallback = Executors.newSingleThreadScheduledExecutor((runnable) -> {
+                Thread thread = new Thread(runnable, "KarmaAPI-sync");
+                thread.setDaemon(true);
+
+                return thread;
+            });
+            fallback.scheduleAtFixedRate(() -> {
+                tick();
+
+                //Hooks may not be able to schedule tasks when attached, so we retry once per second
+                if (ticks.incrementAndGet() % 20 == 0 && !hooks.isEmpty()) {
+                    synchronized (SyncScheduler.class) {
+                        hook();
                     }
                 }
-            }, 1, 1, TimeUnit.SECONDS);
+            }, 50, 50, TimeUnit.MILLISECONDS);
+            driven = true;
+        }
+    }
+
+    /**
+     * Try to let an attached hook drive the scheduler
+     *
+     * @return if a hook is now driving the scheduler
+     */
+    private static boolean hook() {
+        for (Map.Entry<KarmaSource, Consumer<Runnable>> entry : hooks.entrySet()) {
+            try {
+                entry.getValue().accept(SyncScheduler::tick);
+                driver = entry.getKey();
+                driven = true;
+
+                if (fallback != null) {
+                    fallback.shutdown();
+                    fallback = null;
+                }
+
+                return true;
+            } catch (Throwable ignored) {
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Run the queued tasks. At least one task runs per tick, then
+     * tasks keep running until the batch size or the tick budget is
+     * reached. Tasks queued while ticking and the ones that did not
+     * fit in the budget are carried over to the next tick
+     */
+    public static void tick() {
+        if (!ticking.compareAndSet(false, true))
+            return;
+
+        try {
+            int limit = Math.min(batch_size, pending.get());
+            long start = System.nanoTime();
+
+            for (int i = 0; i < limit; i++) {
+                QueuedTask next = queue.poll();
+                if (next == null)
+                    break;
+
+                pending.decrementAndGet();
+                tasks.remove(next.task.getId());
+                run(next.source, next.task);
+
+                if (System.nanoTime() - start >= tick_budget)
+                    break;
+            }
+        } finally {
+            ticking.set(false);
+        }
+    }
+
+    /**
+     * Get the registered listeners of a source
+     *
+     * @param source the source
+     * @return the source listeners
+     */
+    private static Set<TaskListener> listeners(final KarmaSource source) {
+        return listeners.computeIfAbsent(source, (key) -> Collections.newSetFromMap(new ConcurrentHashMap<>()));
+    }
+
+    /**
+     * Run a task
+     *
+     * @param source the task source
+     * @param task   the task to run
+     */
+    private static void run(final KarmaSource source, final ScheduledTask task) {
+        current_task = task.getId();
+
+        Set<TaskListener> registered = listeners(source);
+        registered.forEach((listener) -> listener.onSyncTaskStart(task));
+
+        try {
+            task.getTask().run();
+        } catch (Throwable ex) {
+            KarmaConfig config = new KarmaConfig();
+            if (config.log(Level.GRAVE)) {
+                source.logger().scheduleLog(Level.GRAVE, ex);
+            }
+            if (config.debug(Level.GRAVE)) {
+                source.console().send("Failed to run sync task {0} with id {1}", Level.GRAVE, task.getName(), task.getId());
+            }
+        } finally {
+            registered.forEach((listener) -> listener.onSyncTaskComplete(task));
         }
     }
 
@@ -104,11 +223,8 @@ public class SyncScheduler<T extends KarmaSource> extends Scheduler {
      * @param listener the task listener
      */
     @Override
-    public void addTaskListener(TaskListener listener) {
-        Set<TaskListener> registered = listeners.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-        registered.add(listener);
-
-        listeners.put(source, registered);
+    public void addTaskListener(final TaskListener listener) {
+        listeners(source).add(listener);
     }
 
     /**
@@ -117,11 +233,8 @@ public class SyncScheduler<T extends KarmaSource> extends Scheduler {
      * @param listener the listener to remove
      */
     @Override
-    public void removeTaskListener(TaskListener listener) {
-        Set<TaskListener> registered = listeners.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-        registered.remove(listener);
-
-        listeners.put(source, registered);
+    public void removeTaskListener(final TaskListener listener) {
+        listeners(source).remove(listener);
     }
 
     /**
@@ -131,14 +244,18 @@ public class SyncScheduler<T extends KarmaSource> extends Scheduler {
      * @param paramRunnable the task to perform
      */
     @Override
-    public void queue(String name, Runnable paramRunnable) {
-        int task = taskId++;
+    public void queue(final String name, final Runnable paramRunnable) {
+        if (!driven)
+            drive();
+
+        int task = taskId.getAndIncrement();
 
         ScheduledTask tsk = new ScheduledTask(name, paramRunnable, task);
         tasks.put(task, tsk);
+        listeners(source).forEach((listener) -> listener.onSyncTaskSchedule(tsk));
 
-        Set<TaskListener> registered = listeners.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-        registered.forEach((listener) -> listener.onSyncTaskSchedule(tsk));
+        queue.offer(new QueuedTask(source, tsk));
+        pending.incrementAndGet();
     }
 
     /**
@@ -148,8 +265,19 @@ public class SyncScheduler<T extends KarmaSource> extends Scheduler {
      * @return the task
      */
     @Override
-    public ScheduledTask[] getByName(String name) {
-        return new ScheduledTask[0];
+    public ScheduledTask[] getByName(final String name) {
+        List<ScheduledTask> fetched = new ArrayList<>();
+
+        Integer[] ids = tasks.keySet().toArray(new Integer[0]);
+        Arrays.sort(ids);
+
+        for (int id : ids) {
+            ScheduledTask tmp = tasks.getOrDefault(id, null);
+            if (tmp != null && tmp.getName().equals(name))
+                fetched.add(tmp);
+        }
+
+        return fetched.toArray(new ScheduledTask[0]);
     }
 
     /**
@@ -159,8 +287,8 @@ public class SyncScheduler<T extends KarmaSource> extends Scheduler {
      * @return the task
      */
     @Override
-    public ScheduledTask getById(int id) {
-        return null;
+    public @Nullable ScheduledTask getById(final int id) {
+        return tasks.getOrDefault(id, null);
     }
 
     /**
@@ -172,4 +300,24 @@ public class SyncScheduler<T extends KarmaSource> extends Scheduler {
     public int currentTask() {
         return current_task;
     }
+
+    /**
+     * A queued task and its source
+     */
+    private static final class QueuedTask {
+
+        private final KarmaSource source;
+        private final ScheduledTask task;
+
+        /**
+         * Initialize the queued task
+         *
+         * @param src the task source
+         * @param tsk the task
+         */
+        QueuedTask(final KarmaSource src, final ScheduledTask tsk) {
+            source = src;
+            task = tsk;
+        }
+    }
 }
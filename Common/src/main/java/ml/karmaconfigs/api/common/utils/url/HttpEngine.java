@@ -0,0 +1,93 @@
+package ml.karmaconfigs.api.common.utils.url;
+
+/*
+ * This file is part of KarmaAPI, licensed under the MIT License.
+ *
+ *  Copyright (c) karma (KarmaDev) <karmaconfigs@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+
+import ml.karmaconfigs.api.common.karma.KarmaAPI;
+import ml.karmaconfigs.api.common.karma.KarmaConfig;
+import ml.karmaconfigs.api.common.utils.JavaVM;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared HTTP client. Connections are pooled and kept
+ * alive, so requests to the same host skip the connection
+ * and TLS setup
+ */
+final class HttpEngine {
+
+    /**
+     * Time after which an idle pooled connection is closed
+     */
+    private final static long IDLE_TIMEOUT = TimeUnit.SECONDS.toMillis(30);
+
+    /**
+     * Time after which a pooled connection is checked
+     * before being reused
+     */
+    private final static int VALIDATE_AFTER = 2000;
+
+    private static CloseableHttpClient client;
+
+    /**
+     * Get the shared HTTP client
+     *
+     * @return the HTTP client
+     */
+    static synchronized CloseableHttpClient client() {
+        if (client == null) {
+            KarmaConfig config = new KarmaConfig();
+
+            PoolingHttpClientConnectionManager manager = new PoolingHttpClientConnectionManager();
+            manager.setMaxTotal(config.requestMaxConnections());
+            manager.setDefaultMaxPerRoute(Math.min(config.requestMaxPerHost(), config.requestMaxConnections()));
+            manager.setValidateAfterInactivity(VALIDATE_AFTER);
+
+            RequestConfig request = RequestConfig.custom()
+                    .setConnectTimeout(config.requestConnectTimeout())
+                    .setConnectionRequestTimeout(config.requestConnectTimeout())
+                    .setSocketTimeout(config.requestReadTimeout())
+                    .build();
+
+            client = HttpClientBuilder.create()
+                    .setConnectionManager(manager)
+                    .setDefaultRequestConfig(request)
+                    .evictExpiredConnections()
+                    .evictIdleConnections(IDLE_TIMEOUT, TimeUnit.MILLISECONDS)
+                    .disableDefaultUserAgent()
+                    .disableAuthCaching()
+                    .disableCookieManagement()
+                    .setUserAgent("KarmaAPI/" + KarmaAPI.getVersion() + " (" + JavaVM.getSystem().getName() + " " + JavaVM.osVersion() + "; " + JavaVM.osModel() + "; " + JavaVM.osArchitecture() + ") JavaWebKit/537.36 (KHTML, like Gecko) Chrome/98.0.4758.102 Safari/537.36")
+                    .build();
+        }
+
+        return client;
+    }
+}
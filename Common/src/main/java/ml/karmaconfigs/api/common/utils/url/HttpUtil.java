@@ -25,28 +25,33 @@ package ml.karmaconfigs.api.common.utils.url;
  *  SOFTWARE.
  */
 
+
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import ml.karmaconfigs.api.common.utils.JavaVM;
-import ml.karmaconfigs.api.common.karma.KarmaAPI;
+import ml.karmaconfigs.api.common.karma.source.APISource;
 import ml.karmaconfigs.api.common.string.StringUtils;
+import ml.karmaconfigs.api.common.timer.scheduler.LateScheduler;
+import ml.karmaconfigs.api.common.timer.scheduler.worker.AsyncLateScheduler;
 import org.apache.http.Header;
-import org.apache.http.HttpResponse;
+import org.apache.http.HttpEntity;
 import org.apache.http.NameValuePair;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpHead;
 import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.conn.HttpHostConnectException;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.util.EntityUtils;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
+import java.io.UnsupportedEncodingException;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -54,9 +59,12 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
+import java.util.function.Supplier;
 
 /**
- * Karma HTTP Utilities using org.apache.http implementation
+ * Karma HTTP Utilities using org.apache.http implementation.
+ * Every instance shares the same pooled client, so there's no
+ * need to close them
  */
 public final class HttpUtil {
 
@@ -72,13 +80,7 @@ public final class HttpUtil {
      */
     HttpUtil(final URL target) throws URISyntaxException {
         url = target.toURI();
-
-        httpClient = HttpClientBuilder.create()
-                .disableDefaultUserAgent()
-                .disableAuthCaching()
-                .disableCookieManagement()
-                .setUserAgent("KarmaAPI/" + KarmaAPI.getVersion() + " (" + JavaVM.getSystem().getName() + " " + JavaVM.osVersion() + "; " + JavaVM.osModel() + "; " + JavaVM.osArchitecture() + ") JavaWebKit/537.36 (KHTML, like Gecko) Chrome/98.0.4758.102 Safari/537.36")
-                .build();
+        httpClient = HttpEngine.client();
     }
 
     /**
@@ -87,16 +89,9 @@ public final class HttpUtil {
      * @return the URL response code
      */
     public int getCode() {
-        try {
-            HttpHead httpHead = new HttpHead(url);
-            HttpResponse httpResponse = httpClient.execute(httpHead);
-
+        try (CloseableHttpResponse httpResponse = httpClient.execute(new HttpHead(url))) {
             return httpResponse.getStatusLine().getStatusCode();
         } catch (Throwable ignored) {
-        } finally {
-            try {
-                httpClient.close();
-            } catch (Throwable ignored) {}
         }
 
         return HttpURLConnection.HTTP_MULT_CHOICE;
@@ -108,16 +103,7 @@ public final class HttpUtil {
      * needed
      */
     public void push() {
-        try {
-            HttpGet httpget = new HttpGet(url);
-            httpClient.execute(httpget);
-        } catch (Throwable ignored) {
-        } finally {
-            try {
-                httpClient.close();
-            } catch (Throwable ignored) {
-            }
-        }
+        execute(new HttpGet(url));
     }
 
     /**
@@ -129,36 +115,8 @@ public final class HttpUtil {
      */
     public void push(final Post data, final Header... headers) {
         try {
-            HttpPost postRequest = new HttpPost(url);
-            for (Header h : headers)
-                postRequest.addHeader(h);
-
-            if (StringUtils.isNullOrEmpty(data.getJson())) {
-                List<NameValuePair> params = new ArrayList<>();
-                data.getData().forEach((key) -> params.add(new BasicNameValuePair(key, data.get(key))));
-
-                postRequest.setEntity(new UrlEncodedFormEntity(params));
-            } else {
-                Gson gson = new GsonBuilder().setPrettyPrinting().create();
-
-                JsonObject json = gson.fromJson(data.getJson(), JsonObject.class);
-
-                data.getData().forEach((k) -> {
-                    json.addProperty(k, data.get(k));
-                });
-
-                String string = gson.toJson(json);
-
-                postRequest.setEntity(new StringEntity(string));
-            }
-
-            httpClient.execute(postRequest);
+            execute(post(data, headers));
         } catch (Throwable ignored) {
-        } finally {
-            try {
-                httpClient.close();
-            } catch (Throwable ignored) {
-            }
         }
     }
 
@@ -169,19 +127,11 @@ public final class HttpUtil {
      * @param headers the request headers
      */
     public void push(final Header... headers) {
-        try {
-            HttpPost postRequest = new HttpPost(url);
-            for (Header h : headers)
-                postRequest.addHeader(h);
+        HttpPost postRequest = new HttpPost(url);
+        for (Header h : headers)
+            postRequest.addHeader(h);
 
-            httpClient.execute(postRequest);
-        } catch (Throwable ignored) {
-        } finally {
-            try {
-                httpClient.close();
-            } catch (Throwable ignored) {
-            }
-        }
+        execute(postRequest);
     }
 
     /**
@@ -193,92 +143,142 @@ public final class HttpUtil {
      */
     @NotNull
     public String getResponse(final Post data, final Header... headers) {
-        String response = "";
-
         try {
-            HttpPost postRequest = new HttpPost(url);
-            for (Header h : headers)
-                postRequest.addHeader(h);
+            return read(post(data, headers), true);
+        } catch (UnsupportedEncodingException ex) {
+            ex.printStackTrace();
+        }
+
+        return "";
+    }
 
-            if (StringUtils.isNullOrEmpty(data.getJson())) {
-                List<NameValuePair> params = new ArrayList<>();
-                data.getData().forEach((key) -> params.add(new BasicNameValuePair(key, data.get(key))));
+    /**
+     * Get the response
+     *
+     * @param headers the request headers
+     * @return the url response
+     */
+    @NotNull
+    public String getResponse(final Header... headers) {
+        HttpGet httpget = new HttpGet(url);
+        for (Header h : headers)
+            httpget.addHeader(h);
 
-                postRequest.setEntity(new UrlEncodedFormEntity(params));
-            } else {
-                Gson gson = new GsonBuilder().setPrettyPrinting().create();
+        return read(httpget, false);
+    }
 
-                JsonObject json = gson.fromJson(data.getJson(), JsonObject.class);
+    /**
+     * Get the response code from the URL
+     * asynchronously
+     *
+     * @return the URL response code
+     */
+    public LateScheduler<Integer> getCodeAsync() {
+        return async(this::getCode);
+    }
 
-                data.getData().forEach((k) -> {
-                    json.addProperty(k, data.get(k));
-                });
+    /**
+     * Get the response asynchronously
+     *
+     * @param data    the post data
+     * @param headers the request headers
+     * @return the url response
+     */
+    public LateScheduler<String> getResponseAsync(final Post data, final Header... headers) {
+        return async(() -> getResponse(data, headers));
+    }
 
-                String string = gson.toJson(json);
+    /**
+     * Get the response asynchronously
+     *
+     * @param headers the request headers
+     * @return the url response
+     */
+    public LateScheduler<String> getResponseAsync(final Header... headers) {
+        return async(() -> getResponse(headers));
+    }
 
-                postRequest.setEntity(new StringEntity(string));
+    /**
+     * Run a request on the API async scheduler
+     *
+     * @param request the request
+     * @param <T>     the request result type
+     * @return the request result
+     */
+    private static <T> LateScheduler<T> async(final Supplier<T> request) {
+        LateScheduler<T> result = new AsyncLateScheduler<>();
+        APISource.getOriginal(false).async().queue("http_request", () -> {
+            try {
+                result.complete(request.get());
+            } catch (Throwable ex) {
+                result.complete(null, ex);
             }
+        });
 
-            HttpResponse httpResponse = httpClient.execute(postRequest);
-            Header[] contentType = httpResponse.getHeaders("Content-type");
+        return result;
+    }
 
-            boolean json = false;
-            for (Header header : contentType) {
-                if (header.getValue().equalsIgnoreCase("application/json")) {
-                    json = true;
-                    break;
-                }
-            }
-            Scanner sc = new Scanner(httpResponse.getEntity().getContent());
+    /**
+     * Create a post request
+     *
+     * @param data    the post data
+     * @param headers the request headers
+     * @return the post request
+     * @throws UnsupportedEncodingException if the post data can't be encoded
+     */
+    private HttpPost post(final Post data, final Header... headers) throws UnsupportedEncodingException {
+        HttpPost postRequest = new HttpPost(url);
+        for (Header h : headers)
+            postRequest.addHeader(h);
 
-            StringBuilder sb = new StringBuilder();
-            while (sc.hasNext()) {
-                sb.append(sc.next()).append(" ");
-            }
+        if (StringUtils.isNullOrEmpty(data.getJson())) {
+            List<NameValuePair> params = new ArrayList<>();
+            data.getData().forEach((key) -> params.add(new BasicNameValuePair(key, data.get(key))));
 
-            response = sb.toString();
-            if (json) {
-                try {
-                    Gson gson = new GsonBuilder().setPrettyPrinting().create();
-                    JsonElement object = gson.fromJson(response, JsonElement.class);
+            postRequest.setEntity(new UrlEncodedFormEntity(params));
+        } else {
+            Gson gson = new GsonBuilder().setPrettyPrinting().create();
 
-                    //Set json to pretty print
-                    response = gson.toJson(object);
-                } catch (Throwable ignored) {
-                }
-            }
-        } catch (HttpHostConnectException ex) {
-            response = "403 - Connection refused";
-        } catch (IOException ex) {
-            ex.printStackTrace();
-        } finally {
-            try {
-                httpClient.close();
-            } catch (Throwable ignored) {
-            }
+            JsonObject json = gson.fromJson(data.getJson(), JsonObject.class);
+
+            data.getData().forEach((k) -> {
+                json.addProperty(k, data.get(k));
+            });
+
+            String string = gson.toJson(json);
+
+            postRequest.setEntity(new StringEntity(string));
         }
 
-        return response;
+        return postRequest;
     }
 
     /**
-     * Get the response
+     * Execute a request ignoring its response. The response
+     * is consumed, so the connection returns to the pool
      *
-     * @param headers the request headers
+     * @param request the request
+     */
+    private void execute(final HttpUriRequest request) {
+        try (CloseableHttpResponse httpResponse = httpClient.execute(request)) {
+            EntityUtils.consume(httpResponse.getEntity());
+        } catch (Throwable ignored) {
+        }
+    }
+
+    /**
+     * Execute a request and read its response
+     *
+     * @param request the request
+     * @param lenient if the response should be returned as is
+     *                when it claims to be json but is not
      * @return the url response
      */
-    @NotNull
-    public String getResponse(final Header... headers) {
+    private String read(final HttpUriRequest request, final boolean lenient) {
         String response = "";
 
-        try {
-            HttpGet httpget = new HttpGet(url);
-
-            for (Header h : headers)
-                httpget.addHeader(h);
-
-            HttpResponse httpresponse = httpClient.execute(httpget);
-            Header[] contentType = httpresponse.getHeaders("Content-type");
+        try (CloseableHttpResponse httpResponse = httpClient.execute(request)) {
+            Header[] contentType = httpResponse.getHeaders("Content-type");
 
             boolean json = false;
             for (Header header : contentType) {
@@ -287,31 +287,36 @@ public final class HttpUtil {
                     break;
                 }
             }
-            Scanner sc = new Scanner(httpresponse.getEntity().getContent());
 
-            StringBuilder sb = new StringBuilder();
-            while (sc.hasNext()) {
-                sb.append(sc.next()).append(" ");
-            }
+            HttpEntity entity = httpResponse.getEntity();
+            if (entity != null) {
+                Scanner sc = new Scanner(entity.getContent());
 
-            response = sb.toString();
+                StringBuilder sb = new StringBuilder();
+                while (sc.hasNext()) {
+                    sb.append(sc.next()).append(" ");
+                }
+
+                response = sb.toString();
+                EntityUtils.consume(entity);
+            }
 
             if (json) {
-                Gson gson = new GsonBuilder().setPrettyPrinting().create();
-                JsonElement object = gson.fromJson(response, JsonElement.class);
+                try {
+                    Gson gson = new GsonBuilder().setPrettyPrinting().create();
+                    JsonElement object = gson.fromJson(response, JsonElement.class);
 
-                //Set json to pretty print
-                response = gson.toJson(object);
+                    //Set json to pretty print
+                    response = gson.toJson(object);
+                } catch (RuntimeException ex) {
+                    if (!lenient)
+                        throw ex;
+                }
             }
         } catch (HttpHostConnectException ex) {
             response = "403 - Connection refused";
         } catch (IOException ex) {
             ex.printStackTrace();
-        } finally {
-            try {
-                httpClient.close();
-            } catch (Throwable ignored) {
-            }
         }
 
         return response;
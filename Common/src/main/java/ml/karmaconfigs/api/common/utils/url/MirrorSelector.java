@@ -0,0 +1,312 @@
+package ml.karmaconfigs.api.common.utils.url;
+
+/*
+ * This file is part of KarmaAPI, licensed under the MIT License.
+ *
+ *  Copyright (c) karma (KarmaDev) <karmaconfigs@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+
+import ml.karmaconfigs.api.common.karma.KarmaConfig;
+
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Mirror selection for URL utilities. Hosts are probed at the
+ * same time and the first one that answers wins. The health and
+ * latency of each host is remembered for a while, so the next
+ * selections go straight to a known good host
+ */
+final class MirrorSelector {
+
+    /**
+     * Time a host health is trusted
+     */
+    private final static long HEALTH_TTL = TimeUnit.MINUTES.toNanos(1);
+
+    /**
+     * Time a successful probe response is reused
+     */
+    private final static long RESULT_TTL = TimeUnit.SECONDS.toNanos(5);
+
+    /**
+     * Amount of probe results kept before expired results are removed
+     */
+    private final static int RESULT_LIMIT = 256;
+
+    /**
+     * Maximum amount of probes running at the same time
+     */
+    private final static int PROBE_WORKERS = 8;
+
+    private final static Map<String, Health> hosts = new ConcurrentHashMap<>();
+    private final static Map<String, Result> results = new ConcurrentHashMap<>();
+    private final static AtomicInteger workerId = new AtomicInteger(0);
+
+    private static ThreadPoolExecutor probes;
+
+    /**
+     * Get the probe workers
+     *
+     * @return the probe workers
+     */
+    private static synchronized ThreadPoolExecutor probes() {
+        if (probes == null) {
+            probes = new ThreadPoolExecutor(PROBE_WORKERS, PROBE_WORKERS, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), (runnable) -> {
+                Thread thread = new Thread(runnable, "KarmaAPI-mirror-" + workerId.incrementAndGet());
+                thread.setDaemon(true);
+
+                return thread;
+            });
+            probes.allowCoreThreadTimeOut(true);
+        }
+
+        return probes;
+    }
+
+    /**
+     * Get the response code of an URL, reusing the
+     * code of a recent successful probe
+     *
+     * @param url the url
+     * @return the url response code
+     * @throws Exception if the url can't be reached
+     */
+    static int code(final URL url) throws Exception {
+        String key = url.toString();
+
+        Result result = results.get(key);
+        if (result != null && System.nanoTime() - result.time < RESULT_TTL)
+            return result.code;
+
+        return probe(url);
+    }
+
+    /**
+     * Probe an URL and remember the host health
+     *
+     * @param url the url
+     * @return the url response code
+     * @throws Exception if the url can't be reached
+     */
+    private static int probe(final URL url) throws Exception {
+        String host = host(url);
+
+        long start = System.nanoTime();
+        try {
+            int code = URLUtils.responseCode(url);
+            long end = System.nanoTime();
+
+            boolean healthy = code < HttpURLConnection.HTTP_INTERNAL_ERROR;
+            hosts.compute(host, (key, health) -> (health == null ? new Health(healthy, end - start, end) : health.update(healthy, end - start, end)));
+
+            if (code < HttpURLConnection.HTTP_MULT_CHOICE) {
+                if (results.size() >= RESULT_LIMIT)
+                    results.values().removeIf((stored) -> end - stored.time >= RESULT_TTL);
+                results.put(url.toString(), new Result(code, end));
+            }
+
+            return code;
+        } catch (Exception ex) {
+            long end = System.nanoTime();
+            hosts.compute(host, (key, health) -> (health == null ? new Health(false, end - start, end) : health.update(false, end - start, end)));
+
+            throw ex;
+        }
+    }
+
+    /**
+     * Select the first valid URL
+     *
+     * @param targets the urls to select from
+     * @return the first valid url, or null if none
+     */
+    static URL select(final String... targets) {
+        KarmaConfig config = new KarmaConfig();
+        boolean strict = config.requestCodeStrict();
+
+        List<URL> preferred = new ArrayList<>();
+        List<URL> unknown = new ArrayList<>();
+        List<URL> dead = new ArrayList<>();
+
+        long now = System.nanoTime();
+        for (String target : targets) {
+            URL url;
+            try {
+                url = new URL(target);
+            } catch (Throwable ex) {
+                continue;
+            }
+
+            Health health = hosts.get(host(url));
+            if (health == null || now - health.checked >= HEALTH_TTL) {
+                unknown.add(url);
+            } else {
+                (health.healthy ? preferred : dead).add(url);
+            }
+        }
+        preferred.sort(Comparator.comparingLong((url) -> hosts.get(host(url)).latency));
+
+        //A known good host is tried alone, this is the usual path
+        if (!preferred.isEmpty()) {
+            URL best = preferred.remove(0);
+            if (valid(best, strict))
+                return best;
+        }
+
+        List<URL> race = new ArrayList<>(preferred);
+        race.addAll(unknown);
+
+        URL winner = race(race, strict, config);
+        if (winner == null)
+            winner = race(dead, strict, config);
+
+        return winner;
+    }
+
+    /**
+     * Probe the urls at the same time
+     *
+     * @param urls   the urls to probe
+     * @param strict if only 200 response codes are valid
+     * @param config the API configuration
+     * @return the first url to answer with a valid code, or null if none
+     */
+    private static URL race(final List<URL> urls, final boolean strict, final KarmaConfig config) {
+        if (urls.isEmpty())
+            return null;
+        if (urls.size() == 1)
+            return (valid(urls.get(0), strict) ? urls.get(0) : null);
+
+        CompletionService<URL> service = new ExecutorCompletionService<>(probes());
+        for (URL url : urls)
+            service.submit(() -> (valid(url, strict) ? url : null));
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos((long) config.requestCodeTimeout() + config.requestReadTimeout());
+        try {
+            for (int i = 0; i < urls.size(); i++) {
+                //Probes have their own timeouts, this only guards against a stuck probe
+                Future<URL> done = service.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (done == null)
+                    break;
+
+                URL url = done.get();
+                if (url != null)
+                    return url;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ignored) {
+        }
+
+        //Slower probes keep running, so their hosts health gets updated
+        return null;
+    }
+
+    /**
+     * Get if the url answers with a valid code
+     *
+     * @param url    the url
+     * @param strict if only 200 response codes are valid
+     * @return if the url is valid
+     */
+    private static boolean valid(final URL url, final boolean strict) {
+        try {
+            int code = code(url);
+            return (strict ? code == HttpURLConnection.HTTP_OK : code < HttpURLConnection.HTTP_MULT_CHOICE);
+        } catch (Throwable ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Get the host key of an url
+     *
+     * @param url the url
+     * @return the url host key
+     */
+    private static String host(final URL url) {
+        return url.getProtocol() + "://" + url.getAuthority();
+    }
+
+    /**
+     * Host health
+     */
+    private static final class Health {
+
+        private final boolean healthy;
+        private final long latency;
+        private final long checked;
+
+        /**
+         * Initialize the host health
+         *
+         * @param status  if the host answered
+         * @param elapsed the time the host took to answer
+         * @param time    the time the host was checked
+         */
+        Health(final boolean status, final long elapsed, final long time) {
+            healthy = status;
+            latency = elapsed;
+            checked = time;
+        }
+
+        /**
+         * Update the host health. The latency is averaged
+         * with the previous one, so a single slow answer
+         * does not move a good host to the back
+         *
+         * @param status  if the host answered
+         * @param elapsed the time the host took to answer
+         * @param time    the time the host was checked
+         * @return the updated health
+         */
+        Health update(final boolean status, final long elapsed, final long time) {
+            long average = (time - checked < HEALTH_TTL ? (latency * 3 + elapsed) / 4 : elapsed);
+            return new Health(status, average, time);
+        }
+    }
+
+    /**
+     * Successful probe result
+     */
+    private static final class Result {
+
+        private final int code;
+        private final long time;
+
+        /**
+         * Initialize the probe result
+         *
+         * @param status the response code
+         * @param when   the time the response was received
+         */
+        Result(final int status, final long when) {
+            code = status;
+            time = when;
+        }
+    }
+}
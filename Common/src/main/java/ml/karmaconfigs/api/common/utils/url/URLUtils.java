@@ -29,6 +29,8 @@ import ml.karmaconfigs.api.common.karma.KarmaAPI;
 import ml.karmaconfigs.api.common.karma.KarmaConfig;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.URL;
@@ -76,20 +78,7 @@ public final class URLUtils {
      */
     public static int getResponseCode(final String url) {
         try {
-            URL u = new URL(url);
-
-            HttpURLConnection.setFollowRedirects(false);
-            HttpURLConnection con = (HttpURLConnection) u.openConnection();
-            KarmaConfig config = new KarmaConfig();
-
-            con.setConnectTimeout(config.requestCodeTimeout());
-            con.setInstanceFollowRedirects(false);
-            con.setRequestMethod("HEAD");
-            con.connect();
-
-            int code = con.getResponseCode();
-            con.disconnect();
-            return code;
+            return MirrorSelector.code(new URL(url));
         } catch (Throwable e) {
             return 503;
         }
@@ -103,21 +92,44 @@ public final class URLUtils {
      */
     public static int getResponseCode(final URL url) {
         try {
-            HttpURLConnection.setFollowRedirects(false);
-            HttpURLConnection con = (HttpURLConnection) url.openConnection();
-            KarmaConfig config = new KarmaConfig();
+            return MirrorSelector.code(url);
+        } catch (Throwable e) {
+            return HttpURLConnection.HTTP_INTERNAL_ERROR;
+        }
+    }
+
+    /**
+     * Get the URL response code. This uses the java
+     * connection instead of the shared HTTP client, as it's
+     * used to download the HTTP client itself. The connection
+     * is not disconnected, so java can reuse it for the next
+     * request to the same host
+     *
+     * @param url the url
+     * @return the URL response code
+     * @throws IOException if the URL can't be reached
+     */
+    static int responseCode(final URL url) throws IOException {
+        HttpURLConnection.setFollowRedirects(false);
+        HttpURLConnection con = (HttpURLConnection) url.openConnection();
+        KarmaConfig config = new KarmaConfig();
 
-            con.setConnectTimeout(config.requestCodeTimeout());
-            con.setInstanceFollowRedirects(false);
-            con.setRequestMethod("HEAD");
-            con.connect();
+        con.setConnectTimeout(config.requestCodeTimeout());
+        con.setReadTimeout(config.requestReadTimeout());
+        con.setInstanceFollowRedirects(false);
+        con.setRequestMethod("HEAD");
+        con.connect();
 
-            int code = con.getResponseCode();
+        int code = con.getResponseCode();
+        try {
+            InputStream stream = (code < HttpURLConnection.HTTP_BAD_REQUEST ? con.getInputStream() : con.getErrorStream());
+            if (stream != null)
+                stream.close();
+        } catch (IOException ex) {
             con.disconnect();
-            return code;
-        } catch (Throwable e) {
-            return HttpURLConnection.HTTP_INTERNAL_ERROR;
         }
+
+        return code;
     }
 
     /**
@@ -144,30 +156,16 @@ public final class URLUtils {
     }
 
     /**
-     * Get the url or default
+     * Get the url or default. The hosts are checked at the
+     * same time and the first valid one is returned. Hosts that
+     * were valid recently are checked first
      *
      * @param hosts the host to get from
      * @return the url or defaults
      */
     @Nullable
     public static URL getOrBackup(final String... hosts) {
-        URL url = null;
-        for (String host : hosts) {
-            int response = getResponseCode(host);
-            KarmaConfig config = new KarmaConfig();
-
-            if (config.requestCodeStrict() ? response == HttpURLConnection.HTTP_OK : response < HttpURLConnection.HTTP_MULT_CHOICE) {
-                try {
-                    url = new URL(host);
-                    break;
-                } catch (Throwable ex) {
-                    //Shouldn't print any error, as we checked if the response is a 200 OK response
-                    ex.printStackTrace();
-                }
-            }
-        }
-
-        return url;
+        return MirrorSelector.select(hosts);
     }
 
     public static URL append(final URL url, final String target) {
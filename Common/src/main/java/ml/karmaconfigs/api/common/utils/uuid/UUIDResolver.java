@@ -0,0 +1,526 @@
+package ml.karmaconfigs.api.common.utils.uuid;
+
+/*
+ * This file is part of KarmaAPI, licensed under the MIT License.
+ *
+ *  Copyright (c) karma (KarmaDev) <karmaconfigs@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+
+import com.google.gson.*;
+import ml.karmaconfigs.api.common.data.cache.LineCache;
+import ml.karmaconfigs.api.common.data.cache.LruMap;
+import ml.karmaconfigs.api.common.karma.KarmaAPI;
+import ml.karmaconfigs.api.common.string.StringUtils;
+import ml.karmaconfigs.api.common.utils.url.HttpUtil;
+import ml.karmaconfigs.api.common.utils.url.URLUtils;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Online UUID resolver. Resolved names are kept in memory and in
+ * a cache file, so they survive restarts. Concurrent lookups of
+ * the same name share a single request, and lookups requested at
+ * nearly the same time are sent together to the same mirror
+ */
+final class UUIDResolver {
+
+    /**
+     * The UUID API mirrors
+     */
+    private final static String[] HOSTS = {
+            "https://karmadev.es/api/",
+            "https://karmaconfigs.ml/api/",
+            "https://karmarepo.ml/api/",
+            "https://backup.karmadev.es/api/",
+            "https://backup.karmaconfigs.ml/api/",
+            "https://backup.karmarepo.ml/api/"
+    };
+
+    /**
+     * Amount of names kept in memory and in the cache file
+     */
+    private final static int CACHE_LIMIT = 4096;
+    /**
+     * Time a resolved name is trusted. Names can be released
+     * and taken by someone else, so they are looked up again
+     * after this time, keeping the cached UUID if the lookup fails
+     */
+    private final static long FRESH_TIME = TimeUnit.DAYS.toMillis(1);
+    /**
+     * Time a not found name is remembered
+     */
+    private final static long MISSING_TIME = TimeUnit.MINUTES.toMillis(5);
+    /**
+     * Time lookups are gathered before being sent
+     */
+    private final static long BATCH_WINDOW = 50;
+    /**
+     * Maximum amount of lookups sent together
+     */
+    private final static int BATCH_LIMIT = 32;
+
+    private final static Gson gson = new GsonBuilder().create();
+
+    private final static Map<UUID, String> nicks = Collections.synchronizedMap(new LruMap<>(CACHE_LIMIT));
+    private final static NameCache names = new NameCache();
+
+    private final static Map<String, CompletableFuture<UUID>> flights = new ConcurrentHashMap<>();
+    private final static Queue<String> pending = new ConcurrentLinkedQueue<>();
+    private final static AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    private static ScheduledExecutorService batcher;
+
+    /**
+     * Get the online UUID of a name
+     *
+     * @param name the name
+     * @return the name online UUID, or null if the name
+     * has no online UUID
+     * @throws Exception if the UUID API can't be reached
+     */
+    static UUID resolve(final String name) throws Exception {
+        try {
+            return request(name, true).get();
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            throw (cause instanceof Exception ? (Exception) cause : ex);
+        }
+    }
+
+    /**
+     * Request the online UUID of a name
+     *
+     * @param name      the name
+     * @param immediate if the lookup should be sent now instead
+     *                  of being gathered with other lookups
+     * @return the name online UUID
+     */
+    static CompletableFuture<UUID> request(final String name, final boolean immediate) {
+        String key = name.toLowerCase(Locale.ROOT);
+        Entry entry = names.get(key);
+        if (entry != null && entry.fresh())
+            return CompletableFuture.completedFuture(entry.id);
+
+        CompletableFuture<UUID> created = new CompletableFuture<>();
+        CompletableFuture<UUID> flight = flights.putIfAbsent(key, created);
+        if (flight != null)
+            return flight;
+
+        if (immediate) {
+            lookup(Collections.singletonList(name));
+        } else {
+            pending.offer(name);
+            schedule();
+        }
+
+        return created;
+    }
+
+    /**
+     * Get the cached name of an online UUID
+     *
+     * @param id the online UUID
+     * @return the cached name, or null if not cached
+     */
+    static String nick(final UUID id) {
+        names.load();
+        return nicks.get(id);
+    }
+
+    /**
+     * Remember a resolved name
+     *
+     * @param name the name
+     * @param id   the name online UUID
+     */
+    static void remember(final String name, final UUID id) {
+        if (id == null)
+            return;
+
+        names.put(new Entry(name, id, System.currentTimeMillis()));
+        nicks.put(id, name);
+    }
+
+    /**
+     * Remember the name of an UUID. The UUID may not be
+     * an online UUID, so the name lookups do not use it
+     *
+     * @param id   the UUID
+     * @param name the UUID name
+     */
+    static void remember(final UUID id, final String name) {
+        names.load();
+        nicks.put(id, name);
+    }
+
+    /**
+     * Send the gathered lookups after the batch window
+     */
+    private static void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            batcher().schedule(() -> {
+                scheduled.set(false);
+
+                List<String> batch = new ArrayList<>();
+                String name;
+                while ((name = pending.poll()) != null) {
+                    batch.add(name);
+                    if (batch.size() == BATCH_LIMIT) {
+                        send(batch);
+                        batch = new ArrayList<>();
+                    }
+                }
+                if (!batch.isEmpty())
+                    send(batch);
+            }, BATCH_WINDOW, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Send a batch of lookups on the API async scheduler
+     *
+     * @param batch the names to look up
+     */
+    private static void send(final List<String> batch) {
+        KarmaAPI.source(false).async().queue("uuid_lookup", () -> lookup(batch));
+    }
+
+    /**
+     * Get the batch timer
+     *
+     * @return the batch timer
+     */
+    private static synchronized ScheduledExecutorService batcher() {
+        if (batcher == null) {
+            batcher = Executors.newSingleThreadScheduledExecutor((runnable) -> {
+                Thread thread = new Thread(runnable, "KarmaAPI-uuid");
+                thread.setDaemon(true);
+
+                return thread;
+            });
+        }
+
+        return batcher;
+    }
+
+    /**
+     * Look up names and complete their requests. The mirror
+     * is selected once and every name is requested to it, so
+     * the lookups reuse the same connection
+     *
+     * @param batch the names to look up
+     */
+    private static void lookup(final List<String> batch) {
+        String mirror = null;
+        for (String name : batch) {
+            String key = name.toLowerCase(Locale.ROOT);
+            CompletableFuture<UUID> flight = flights.get(key);
+
+            try {
+                UUID id = null;
+                Throwable error = null;
+
+                if (mirror != null) {
+                    try {
+                        id = fetch(new URL(mirror + "?nick=" + name), name);
+                    } catch (Throwable ex) {
+                        error = ex;
+                    }
+                }
+
+                if (mirror == null || error != null) {
+                    String[] targets = new String[HOSTS.length];
+                    for (int i = 0; i < HOSTS.length; i++)
+                        targets[i] = HOSTS[i] + "?nick=" + name;
+
+                    URL url = URLUtils.getOrBackup(targets);
+                    if (url == null)
+                        throw new IOException("No UUID API mirror is available");
+
+                    for (String host : HOSTS) {
+                        if (url.toString().startsWith(host)) {
+                            mirror = host;
+                            break;
+                        }
+                    }
+
+                    id = fetch(url, name);
+                }
+
+                if (id != null) {
+                    remember(name, id);
+                } else {
+                    names.put(new Entry(name, null, System.currentTimeMillis()));
+                }
+
+                complete(key, flight, id, null);
+            } catch (Throwable ex) {
+                //Keep using the last known UUID while the API is not available
+                Entry stale = names.get(key);
+                if (stale != null && stale.id != null) {
+                    complete(key, flight, stale.id, null);
+                } else {
+                    complete(key, flight, null, ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Complete a lookup
+     *
+     * @param key    the lookup key
+     * @param flight the lookup request
+     * @param id     the resolved UUID
+     * @param error  the lookup error
+     */
+    private static void complete(final String key, final CompletableFuture<UUID> flight, final UUID id, final Throwable error) {
+        flights.remove(key, flight);
+        if (flight == null)
+            return;
+
+        if (error != null) {
+            flight.completeExceptionally(error);
+        } else {
+            flight.complete(id);
+        }
+    }
+
+    /**
+     * Fetch the online UUID of a name
+     *
+     * @param url  the lookup url
+     * @param name the name
+     * @return the name online UUID
+     * @throws IOException if the API answer is not valid
+     */
+    private static UUID fetch(final URL url, final String name) throws IOException {
+        HttpUtil utils = URLUtils.extraUtils(url);
+        if (utils == null)
+            throw new IOException("Invalid UUID API url for " + name);
+
+        String response = utils.getResponse();
+        if (StringUtils.isNullOrEmpty(response))
+            throw new IOException("Empty UUID API response for " + name);
+
+        JsonObject json;
+        try {
+            json = gson.fromJson(response, JsonObject.class);
+        } catch (JsonParseException ex) {
+            throw new IOException("Invalid UUID API response for " + name, ex);
+        }
+
+        String result = null;
+        if (json != null && json.has("online")) {
+            result = shortId(json.getAsJsonArray("online"));
+            if (StringUtils.isNullOrEmpty(result) && json.has("offline"))
+                result = shortId(json.getAsJsonArray("offline"));
+        }
+
+        if (result != null && result.equalsIgnoreCase("Playernotfound!"))
+            result = null;
+
+        return UUIDUtil.fromTrimmed(result);
+    }
+
+    /**
+     * Get the first short UUID of an API result
+     *
+     * @param results the API results
+     * @return the first short UUID
+     */
+    private static String shortId(final JsonArray results) {
+        for (JsonElement sub : results) {
+            if (sub.isJsonObject()) {
+                JsonObject data = sub.getAsJsonObject();
+                if (data.has("data")) {
+                    JsonElement info = data.get("data");
+                    if (info.isJsonObject()) {
+                        data = info.getAsJsonObject();
+
+                        if (data.has("short"))
+                            return data.get("short").getAsString();
+                    }
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Get the cache file
+     *
+     * @return the cache file
+     */
+    private static Path file() {
+        return KarmaAPI.source(false).getDataPath().resolve("cache").resolve("uuids.dat");
+    }
+
+    /**
+     * Resolved names, kept in the cache file. Names which
+     * were not found are only kept in memory
+     */
+    private static final class NameCache extends LineCache<String, Entry> {
+
+        /**
+         * Initialize the name cache
+         */
+        private NameCache() {
+            super(UUIDResolver::file, CACHE_LIMIT);
+        }
+
+        /**
+         * Parse a cache file line
+         *
+         * @param line the line
+         * @return the entry, or null if the line is not valid
+         */
+        @Override
+        protected Entry parse(final String line) {
+            return Entry.parse(line);
+        }
+
+        /**
+         * Get the cache file line of an entry
+         *
+         * @param entry the entry
+         * @return the entry line
+         */
+        @Override
+        protected String format(final Entry entry) {
+            return entry.toString();
+        }
+
+        /**
+         * Get the key of an entry
+         *
+         * @param entry the entry
+         * @return the entry key
+         */
+        @Override
+        protected String key(final Entry entry) {
+            return entry.name.toLowerCase(Locale.ROOT);
+        }
+
+        /**
+         * Get if an entry is written to the cache file
+         *
+         * @param entry the entry
+         * @return if the name was found
+         */
+        @Override
+        protected boolean persistent(final Entry entry) {
+            return entry.id != null;
+        }
+
+        /**
+         * Get if a new entry must be appended to the cache file. An
+         * unchanged name is only appended again once it's half stale
+         *
+         * @param previous the previous entry, or null
+         * @param entry    the new entry
+         * @return if the new entry must be appended
+         */
+        @Override
+        protected boolean changed(final Entry previous, final Entry entry) {
+            return previous == null || !entry.id.equals(previous.id) || previous.time + FRESH_TIME / 2 < entry.time;
+        }
+
+        /**
+         * Remember the name of a cached entry
+         *
+         * @param entry the entry
+         */
+        @Override
+        protected void loaded(final Entry entry) {
+            nicks.put(entry.id, entry.name);
+        }
+    }
+
+    /**
+     * A resolved name
+     */
+    private static final class Entry {
+
+        private final String name;
+        private final UUID id;
+        private final long time;
+
+        /**
+         * Initialize the entry
+         *
+         * @param nick the name
+         * @param uuid the name online UUID, null if not found
+         * @param when the time the name was resolved
+         */
+        Entry(final String nick, final UUID uuid, final long when) {
+            name = nick;
+            id = uuid;
+            time = when;
+        }
+
+        /**
+         * Get if the entry can be used without
+         * looking up the name again
+         *
+         * @return if the entry is fresh
+         */
+        boolean fresh() {
+            return System.currentTimeMillis() - time < (id != null ? FRESH_TIME : MISSING_TIME);
+        }
+
+        /**
+         * Parse a cache file line
+         *
+         * @param line the line
+         * @return the entry, or null if the line is not valid
+         */
+        static Entry parse(final String line) {
+            String[] data = line.split("\t");
+            if (data.length != 3)
+                return null;
+
+            try {
+                return new Entry(data[0], UUID.fromString(data[1]), Long.parseLong(data[2]));
+            } catch (IllegalArgumentException ex) {
+                return null;
+            }
+        }
+
+        /**
+         * Get the cache file line of the entry
+         *
+         * @return the entry line
+         */
+        @Override
+        public String toString() {
+            return name + "\t" + id + "\t" + time;
+        }
+    }
+}
@@ -40,11 +40,7 @@ import ml.karmaconfigs.api.common.utils.url.URLUtils;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
-import java.io.BufferedReader;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.net.URL;
-import java.nio.charset.StandardCharsets;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -61,6 +57,8 @@ public final class UUIDUtil {
         KarmaAPI.install();
     }
 
+    private final static Gson gson = new GsonBuilder().create();
+
     /**
      * Register a minecraft client into the karma UUID
      * engine database API
@@ -100,75 +98,8 @@ public final class UUIDUtil {
         switch (type) {
             case ONLINE:
                 try {
-                    URL url = URLUtils.getOrBackup(
-                            "https://karmadev.es/api/?nick=" + name,
-                            "https://karmaconfigs.ml/api/?nick=" + name,
-                            "https://karmarepo.ml/api/?nick=" + name,
-                            "https://backup.karmadev.es/api/?nick=" + name,
-                            "https://backup.karmaconfigs.ml/api/?nick=" + name,
-                            "https://backup.karmarepo.ml/api/?nick=" + name);
-
-                    if (url != null) {
-                        String result = null;
-
-                        InputStream response = url.openStream();
-                        InputStreamReader responseReader = new InputStreamReader(response, StandardCharsets.UTF_8);
-                        BufferedReader reader = new BufferedReader(responseReader);
-
-                        Gson gson = new GsonBuilder().setPrettyPrinting().create();
-                        JsonObject json = gson.fromJson(reader, JsonObject.class);
-
-                        if (json.has("online")) {
-                            JsonArray online = json.getAsJsonArray("online");
-                            for (JsonElement sub : online) {
-                                if (sub.isJsonObject()) {
-                                    JsonObject data = sub.getAsJsonObject();
-                                    if (data.has("data")) {
-                                        JsonElement onlineData = data.get("data");
-                                        if (onlineData.isJsonObject()) {
-                                            data = onlineData.getAsJsonObject();
-
-                                            if (data.has("short")) {
-                                                result = data.get("short").getAsString();
-                                                break;
-                                            }
-                                        }
-                                    }
-                                }
-                            }
-
-                            if (StringUtils.isNullOrEmpty(result)) {
-                                JsonArray offline = json.getAsJsonArray("offline");
-                                for (JsonElement sub : offline) {
-                                    if (sub.isJsonObject()) {
-                                        JsonObject data = sub.getAsJsonObject();
-                                        if (data.has("data")) {
-                                            JsonElement offlineData = data.get("data");
-                                            if (offlineData.isJsonObject()) {
-                                                data = offlineData.getAsJsonObject();
-
-                                                if (data.has("short")) {
-                                                    result = data.get("short").getAsString();
-                                                    break;
-                                                }
-                                            }
-                                        }
-                                    }
-                                }
-                            }
-                        }
-
-                        reader.close();
-                        responseReader.close();
-                        response.close();
-
-                        if (result != null && result.equalsIgnoreCase("Playernotfound!"))
-                            result = null;
-
-                        return fromTrimmed(result);
-                    }
-                } catch (Throwable ex) {
-                    ex.printStackTrace();
+                    return UUIDResolver.resolve(name);
+                } catch (Throwable ignored) {
                 }
 
                 return UUID.nameUUIDFromBytes(("OfflinePlayer:" + name).getBytes());
@@ -178,6 +109,33 @@ public final class UUIDUtil {
         }
     }
 
+    /**
+     * Fetch minecraft UUID asynchronously. Online lookups
+     * requested at nearly the same time are sent together
+     *
+     * @param name the minecraft name
+     * @param type the uuid type
+     * @return the minecraft uuid
+     */
+    public static LateScheduler<UUID> fetchAsync(final String name, final UUIDType type) {
+        LateScheduler<UUID> result = new AsyncLateScheduler<>();
+        UUID offline = UUID.nameUUIDFromBytes(("OfflinePlayer:" + name).getBytes());
+
+        if (type == UUIDType.ONLINE) {
+            UUIDResolver.request(name, false).whenComplete((id, error) -> {
+                if (error == null) {
+                    result.complete(id);
+                } else {
+                    result.complete(offline, error);
+                }
+            });
+        } else {
+            result.complete(offline);
+        }
+
+        return result;
+    }
+
     /**
      * Fetch the client nick
      *
@@ -186,7 +144,10 @@ public final class UUIDUtil {
      * in karma UUID engine database API
      */
     public static String fetchNick(final UUID uuid) {
-        String result = null;
+        String result = UUIDResolver.nick(uuid);
+        if (result != null)
+            return result;
+
         try {
             URL url = URLUtils.getOrBackup(
                     "https://karmadev.es/api/?fetch=" + uuid,
@@ -202,7 +163,6 @@ public final class UUIDUtil {
                     String response = utils.getResponse();
 
                     if (!StringUtils.isNullOrEmpty(response)) {
-                        Gson gson = new GsonBuilder().setPrettyPrinting().create();
                         JsonObject json = gson.fromJson(response, JsonObject.class);
 
                         //For UUID cases, it's impossible to give more than 2 results
@@ -214,8 +174,11 @@ public final class UUIDUtil {
                                     result = primitive.getAsString();
 
                                     //There's a player named "Unknown", the error query is unknown, not Unknown, so we must make sure the result is unknown and not Unknown
-                                    if (result.equals("unknown"))
+                                    if (result.equals("unknown")) {
                                         result = null;
+                                    } else {
+                                        UUIDResolver.remember(uuid, result);
+                                    }
                                 }
                             }
                         }
@@ -255,7 +218,6 @@ public final class UUIDUtil {
                         String response = utils.getResponse();
 
                         if (!StringUtils.isNullOrEmpty(response)) {
-                            Gson gson = new GsonBuilder().setPrettyPrinting().create();
                             JsonObject json = gson.fromJson(response, JsonObject.class);
 
                             //More than 1 result
@@ -289,6 +251,7 @@ public final class UUIDUtil {
 
                                             if (nick.equals(name)) {
                                                 result = new OKAResponse(name, off, on);
+                                                UUIDResolver.remember(name, on);
                                                 break;
                                             }
                                         }
@@ -315,6 +278,7 @@ public final class UUIDUtil {
                                     }
 
                                     result = new OKAResponse(nick, off, on);
+                                    UUIDResolver.remember(nick, on);
                                 }
                             }
                         }
@@ -375,7 +339,6 @@ public final class UUIDUtil {
                         if (!StringUtils.isNullOrEmpty(response)) {
                             api.console().debug("Response is valid at {0}", Level.INFO, url);
 
-                            Gson gson = new GsonBuilder().setPrettyPrinting().create();
                             JsonObject json = gson.fromJson(response, JsonObject.class);
 
                             if (json.has("stored")) {
@@ -453,7 +416,6 @@ public final class UUIDUtil {
                         String response = utils.getResponse();
 
                         if (!StringUtils.isNullOrEmpty(response)) {
-                            Gson gson = new GsonBuilder().setPrettyPrinting().create();
                             JsonObject json = gson.fromJson(response, JsonObject.class);
 
                             if (json.has("fetched")) {
@@ -43,10 +43,12 @@ import ml.karmaconfigs.api.common.placeholder.util.Placeholder;
 import ml.karmaconfigs.api.common.placeholder.util.PlaceholderEngine;
 import ml.karmaconfigs.api.common.security.token.TokenGenerator;
 import ml.karmaconfigs.api.common.string.StringUtils;
+import ml.karmaconfigs.api.common.timer.worker.SyncScheduler;
 import ml.karmaconfigs.api.velocity.loader.VelocityBridge;
 import net.kyori.adventure.text.Component;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 
@@ -88,6 +90,8 @@ public abstract class KarmaPlugin implements KarmaSource, Identifiable {
         console = new Console(this, (msg) -> VelocityBridge.getServer().getConsoleCommandSource().sendMessage(Component.text().content(StringUtils.toColor(StringUtils.fromAnyOsColor(msg))).build()));
         logger = new Logger(this);
         loadIdentifier("DEFAULT");
+
+        hookScheduler();
     }
 
     /**
@@ -112,6 +116,18 @@ public abstract class KarmaPlugin implements KarmaSource, Identifiable {
         console = new Console(this, (msg) -> VelocityBridge.getServer().getConsoleCommandSource().sendMessage(Component.text().content(StringUtils.toColor(StringUtils.fromAnyOsColor(msg))).build()));
         logger = new Logger(this);
         loadIdentifier("DEFAULT");
+
+        hookScheduler();
+    }
+
+    /**
+     * Let the velocity scheduler drive the synchronous
+     * scheduler ticks
+     */
+    private void hookScheduler() {
+        SyncScheduler.attach(this, (tick) -> VelocityBridge.getServer().getScheduler()
+                .buildTask(container.getInstance().orElseThrow(IllegalStateException::new), tick)
+                .repeat(50, TimeUnit.MILLISECONDS).schedule());
     }
 
     /**